@@ -0,0 +1,88 @@
+package com.google.ar.sceneform;
+
+import com.google.ar.sceneform.math.Matrix;
+import com.google.ar.sceneform.math.Quaternion;
+import com.google.ar.sceneform.math.Vector3;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures propagating a change of the root transform through synthetic node trees.
+ *
+ * <p>{@link Node} needs an Android runtime, so each tree node composes its world matrix the way
+ * Node does: the local matrix is made from its position, rotation and scale, and multiplied by the
+ * world matrix of its parent.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransformPropagationBenchmark {
+  /** A chain where each node is the child of the previous one, or a root with only children. */
+  @Param({"deep", "wide"})
+  public String shape;
+
+  @Param({"100", "1000", "10000"})
+  public int nodeCount;
+
+  private final ArrayList<TreeNode> nodes = new ArrayList<>();
+  private float rootAngle;
+
+  private static final class TreeNode {
+    final TreeNode parent;
+    final Vector3 localPosition = new Vector3();
+    final Quaternion localRotation = new Quaternion();
+    final Vector3 localScale = new Vector3(1.0f, 1.0f, 1.0f);
+    final Matrix localMatrix = new Matrix();
+    final Matrix worldMatrix = new Matrix();
+
+    TreeNode(TreeNode parent) {
+      this.parent = parent;
+    }
+
+    void updateWorldMatrix() {
+      localMatrix.makeTrs(localPosition, localRotation, localScale);
+      if (parent == null) {
+        worldMatrix.set(localMatrix.data);
+      } else {
+        Matrix.multiply(parent.worldMatrix, localMatrix, worldMatrix);
+      }
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    nodes.clear();
+    TreeNode root = new TreeNode(null);
+    nodes.add(root);
+
+    Vector3 axis = new Vector3(0.0f, 1.0f, 0.0f);
+    for (int i = 1; i < nodeCount; i++) {
+      TreeNode parent = shape.equals("deep") ? nodes.get(i - 1) : root;
+      TreeNode node = new TreeNode(parent);
+      node.localPosition.set(0.1f, 0.0f, 0.05f * (i % 7));
+      Quaternion.axisAngle(axis, i % 360, node.localRotation);
+      nodes.add(node);
+    }
+  }
+
+  /** Rotates the root and recomputes every world matrix, parents before children. */
+  @Benchmark
+  public Matrix propagateRootChange() {
+    rootAngle = (rootAngle + 1.0f) % 360.0f;
+    TreeNode root = nodes.get(0);
+    Quaternion.axisAngle(Vector3.up(), rootAngle, root.localRotation);
+
+    for (int i = 0; i < nodes.size(); i++) {
+      nodes.get(i).updateWorldMatrix();
+    }
+    return nodes.get(nodes.size() - 1).worldMatrix;
+  }
+}
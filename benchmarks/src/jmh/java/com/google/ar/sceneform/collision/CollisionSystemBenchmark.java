@@ -0,0 +1,87 @@
+package com.google.ar.sceneform.collision;
+
+import com.google.ar.sceneform.common.TransformProvider;
+import com.google.ar.sceneform.math.Matrix;
+import com.google.ar.sceneform.math.Vector3;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Measures casting rays against a scene of colliders, as done by every hit test. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollisionSystemBenchmark {
+  private static final float SCENE_SIZE = 100.0f;
+  private static final int RAY_COUNT = 64;
+
+  @Param({"10", "100", "1000", "10000"})
+  public int colliderCount;
+
+  private final CollisionSystem collisionSystem = new CollisionSystem();
+  private final ArrayList<RayHit> resultBuffer = new ArrayList<>();
+  private final Ray[] rays = new Ray[RAY_COUNT];
+  private int rayIndex;
+
+  /** A collider transform that never moves. */
+  private static final class FixedTransform implements TransformProvider {
+    private final Matrix worldModelMatrix = new Matrix();
+
+    FixedTransform(Vector3 position) {
+      worldModelMatrix.makeTranslation(position);
+    }
+
+    @Override
+    public Matrix getWorldModelMatrix() {
+      return worldModelMatrix;
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    // A fixed seed keeps the scene identical between runs.
+    Random random = new Random(42);
+    Vector3[] positions = new Vector3[colliderCount];
+    for (int i = 0; i < colliderCount; i++) {
+      Vector3 position = randomPoint(random);
+      positions[i] = position;
+      CollisionShape shape =
+          i % 2 == 0 ? new Box(new Vector3(1.0f, 1.0f, 1.0f)) : new Sphere(0.5f);
+      collisionSystem.addCollider(new Collider(new FixedTransform(position), shape));
+    }
+
+    for (int i = 0; i < RAY_COUNT; i++) {
+      Vector3 origin = new Vector3(randomCoordinate(random), randomCoordinate(random), -SCENE_SIZE);
+      // Aim at a collider so that every ray hits at least one.
+      Vector3 target = positions[random.nextInt(colliderCount)];
+      rays[i] = new Ray(origin, Vector3.subtract(target, origin));
+    }
+
+    // Build the broadphase before measuring.
+    raycastAll();
+  }
+
+  @Benchmark
+  public int raycastAll() {
+    Ray ray = rays[rayIndex];
+    rayIndex = (rayIndex + 1) % RAY_COUNT;
+    return collisionSystem.raycastAll(ray, resultBuffer, null, RayHit::new);
+  }
+
+  private static Vector3 randomPoint(Random random) {
+    return new Vector3(
+        randomCoordinate(random), randomCoordinate(random), randomCoordinate(random));
+  }
+
+  private static float randomCoordinate(Random random) {
+    return (random.nextFloat() - 0.5f) * SCENE_SIZE;
+  }
+}
@@ -0,0 +1,60 @@
+package com.google.ar.sceneform.collision;
+
+import com.google.ar.sceneform.math.Quaternion;
+import com.google.ar.sceneform.math.Vector3;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Measures the shape intersection tests used by {@link CollisionSystem#intersects}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IntersectionsBenchmark {
+  private Box box1;
+  private Box box2;
+  private Box separatedBox;
+  private Sphere sphere1;
+  private Sphere sphere2;
+
+  @Setup
+  public void setUp() {
+    box1 = new Box(new Vector3(1.0f, 2.0f, 1.0f), new Vector3(0.0f, 0.0f, 0.0f));
+    box1.setRotation(Quaternion.axisAngle(new Vector3(0.0f, 1.0f, 0.0f), 30.0f));
+
+    box2 = new Box(new Vector3(1.0f, 1.0f, 3.0f), new Vector3(0.8f, 0.5f, 0.2f));
+    box2.setRotation(Quaternion.axisAngle(new Vector3(1.0f, 0.0f, 1.0f), 45.0f));
+
+    // Close to box1 without touching it, so that several axes are tested before one separates.
+    separatedBox = new Box(new Vector3(1.0f, 1.0f, 1.0f), new Vector3(1.6f, 0.0f, 1.6f));
+    separatedBox.setRotation(Quaternion.axisAngle(new Vector3(1.0f, 1.0f, 0.0f), 45.0f));
+
+    sphere1 = new Sphere(1.0f, new Vector3(0.5f, 0.5f, 0.0f));
+    sphere2 = new Sphere(0.75f, new Vector3(1.0f, 0.0f, 0.5f));
+  }
+
+  @Benchmark
+  public boolean boxBoxIntersecting() {
+    return Intersections.boxBoxIntersection(box1, box2);
+  }
+
+  @Benchmark
+  public boolean boxBoxSeparated() {
+    return Intersections.boxBoxIntersection(box1, separatedBox);
+  }
+
+  @Benchmark
+  public boolean sphereBoxIntersection() {
+    return Intersections.sphereBoxIntersection(sphere1, box2);
+  }
+
+  @Benchmark
+  public boolean sphereSphereIntersection() {
+    return Intersections.sphereSphereIntersection(sphere1, sphere2);
+  }
+}
@@ -0,0 +1,59 @@
+package com.google.ar.sceneform.math;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Measures the matrix operations used every frame to compute node transforms. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MatrixBenchmark {
+  private final Matrix lhs = new Matrix();
+  private final Matrix rhs = new Matrix();
+  private final Matrix dest = new Matrix();
+  private final Vector3 scale = new Vector3();
+  private final Quaternion rotation = new Quaternion();
+  private final Matrix rotationMatrix = new Matrix();
+
+  @Setup
+  public void setUp() {
+    lhs.makeTrs(
+        new Vector3(1.0f, 2.0f, 3.0f),
+        Quaternion.axisAngle(new Vector3(0.3f, 1.0f, 0.2f), 35.0f),
+        new Vector3(1.5f, 0.5f, 2.0f));
+    rhs.makeTrs(
+        new Vector3(-4.0f, 0.5f, 1.0f),
+        Quaternion.axisAngle(new Vector3(1.0f, 0.0f, 0.4f), -70.0f),
+        new Vector3(0.8f, 0.8f, 0.8f));
+    lhs.decomposeScale(scale);
+  }
+
+  @Benchmark
+  public Matrix multiply() {
+    Matrix.multiply(lhs, rhs, dest);
+    return dest;
+  }
+
+  @Benchmark
+  public boolean invert() {
+    return Matrix.invert(lhs, dest);
+  }
+
+  @Benchmark
+  public Quaternion decomposeRotationToQuaternion() {
+    lhs.decomposeRotation(scale, rotation);
+    return rotation;
+  }
+
+  @Benchmark
+  public Matrix decomposeRotationToMatrix() {
+    lhs.decomposeRotation(scale, rotationMatrix);
+    return rotationMatrix;
+  }
+}
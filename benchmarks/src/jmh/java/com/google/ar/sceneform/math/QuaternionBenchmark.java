@@ -0,0 +1,44 @@
+package com.google.ar.sceneform.math;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Measures the quaternion operations used by animations and node rotations. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QuaternionBenchmark {
+  private Quaternion start;
+  private Quaternion end;
+  private final Quaternion slerpResult = new Quaternion();
+  private final Vector3 vector = new Vector3(0.3f, -1.2f, 2.5f);
+  private final Vector3 rotatedVector = new Vector3();
+  private float t;
+
+  @Setup
+  public void setUp() {
+    start = Quaternion.axisAngle(new Vector3(0.0f, 1.0f, 0.0f), 10.0f);
+    end = Quaternion.axisAngle(new Vector3(1.0f, 1.0f, 0.0f), 160.0f);
+  }
+
+  @Benchmark
+  public Quaternion slerp() {
+    // Vary t so that the result can't be hoisted out of the measurement loop.
+    t += 0.001f;
+    if (t > 1.0f) {
+      t = 0.0f;
+    }
+    return Quaternion.slerp(start, end, t, slerpResult);
+  }
+
+  @Benchmark
+  public Vector3 rotateVector() {
+    return Quaternion.rotateVector(start, vector, rotatedVector);
+  }
+}
@@ -0,0 +1,322 @@
+package com.google.ar.sceneform.collision;
+
+import static com.google.ar.sceneform.math.Vector3.add;
+import static com.google.ar.sceneform.math.Vector3.subtract;
+import static org.junit.Assert.assertEquals;
+
+import com.google.ar.sceneform.math.MathHelper;
+import com.google.ar.sceneform.math.Matrix;
+import com.google.ar.sceneform.math.Quaternion;
+import com.google.ar.sceneform.math.Vector3;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Checks that the allocation free intersection tests of {@link Intersections} and {@link
+ * Box#rayIntersection(Ray, RayHit)} give bit-for-bit the same results as the list based
+ * implementation that they replaced, which is kept here as {@link ReferenceIntersections}.
+ */
+public class IntersectionsEquivalenceTest {
+  private static final int CASE_COUNT = 100000;
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void boxBoxIntersection_matchesReference() {
+    for (int i = 0; i < CASE_COUNT; i++) {
+      Box box1 = randomBox();
+      Box box2 = randomBox();
+      assertEquals(
+          "Case " + i,
+          ReferenceIntersections.boxBoxIntersection(box1, box2),
+          box1.boxIntersection(box2));
+    }
+  }
+
+  @Test
+  public void sphereBoxIntersection_matchesReference() {
+    for (int i = 0; i < CASE_COUNT; i++) {
+      Box box = randomBox();
+      Sphere sphere = new Sphere(Math.abs(randomFloat(1.5f)), randomVector(2.0f));
+      assertEquals(
+          "Case " + i,
+          ReferenceIntersections.sphereBoxIntersection(sphere, box),
+          box.sphereIntersection(sphere));
+    }
+  }
+
+  @Test
+  public void sphereSphereIntersection_matchesReference() {
+    for (int i = 0; i < CASE_COUNT; i++) {
+      float radius = Math.abs(randomFloat(1.5f));
+      Sphere sphere1 = new Sphere(radius, randomVector(2.0f));
+      Sphere sphere2 = new Sphere(radius, randomVector(2.0f));
+      assertEquals(
+          "Case " + i,
+          ReferenceIntersections.sphereSphereIntersection(sphere1, sphere2),
+          sphere1.sphereIntersection(sphere2));
+    }
+  }
+
+  @Test
+  public void boxRayIntersection_matchesReference() {
+    for (int i = 0; i < CASE_COUNT; i++) {
+      Box box = randomBox();
+      Vector3 direction = randomVector(1.0f);
+      if (direction.length() == 0.0f) {
+        direction = Vector3.forward();
+      }
+      Ray ray = new Ray(randomVector(5.0f), direction);
+
+      RayHit expected = new RayHit();
+      RayHit actual = new RayHit();
+      boolean expectedHit = ReferenceIntersections.boxRayIntersection(box, ray, expected);
+      assertEquals("Case " + i, expectedHit, box.rayIntersection(ray, actual));
+      if (expectedHit) {
+        assertBitsEqual(i, expected.getDistance(), actual.getDistance());
+        assertBitsEqual(i, expected.getPoint().x, actual.getPoint().x);
+        assertBitsEqual(i, expected.getPoint().y, actual.getPoint().y);
+        assertBitsEqual(i, expected.getPoint().z, actual.getPoint().z);
+      }
+    }
+  }
+
+  private static void assertBitsEqual(int caseIndex, float expected, float actual) {
+    assertEquals(
+        "Case " + caseIndex, Float.floatToIntBits(expected), Float.floatToIntBits(actual));
+  }
+
+  private Box randomBox() {
+    Vector3 size =
+        new Vector3(
+            Math.abs(randomFloat(2.0f)), Math.abs(randomFloat(2.0f)), Math.abs(randomFloat(2.0f)));
+    Box box = new Box(size, randomVector(2.0f));
+    box.setRotation(randomRotation());
+    return box;
+  }
+
+  private Quaternion randomRotation() {
+    if (random.nextInt(4) == 0) {
+      return Quaternion.identity();
+    }
+    return new Quaternion(randomFloat(1.0f), randomFloat(1.0f), randomFloat(1.0f),
+            randomFloat(1.0f) + 0.01f)
+        .normalized();
+  }
+
+  private Vector3 randomVector(float scale) {
+    return new Vector3(randomFloat(scale), randomFloat(scale), randomFloat(scale));
+  }
+
+  /** Returns a value in [-scale, scale], and exactly zero one time in twenty to hit edge cases. */
+  private float randomFloat(float scale) {
+    float value = (random.nextFloat() * 2.0f - 1.0f) * scale;
+    return random.nextInt(20) == 0 ? 0.0f : value;
+  }
+
+  /** The intersection tests as they were before they were made allocation free. */
+  private static class ReferenceIntersections {
+    private static final int NUM_VERTICES_PER_BOX = 8;
+    private static final int NUM_TEST_AXES = 15;
+
+    static boolean sphereSphereIntersection(Sphere sphere1, Sphere sphere2) {
+      float combinedRadius = sphere1.getRadius() + sphere2.getRadius();
+      float combinedRadiusSquared = combinedRadius * combinedRadius;
+      Vector3 center1 = sphere1.getCenter();
+      Vector3 center2 = sphere2.getCenter();
+      float differenceX = center2.x - center1.x;
+      float differenceY = center2.y - center1.y;
+      float differenceZ = center2.z - center1.z;
+      float differenceLengthSquared =
+          differenceX * differenceX + differenceY * differenceY + differenceZ * differenceZ;
+
+      return differenceLengthSquared - combinedRadiusSquared <= 0.0f
+          && differenceLengthSquared != 0.0f;
+    }
+
+    static boolean boxBoxIntersection(Box box1, Box box2) {
+      List<Vector3> box1Vertices = getVerticesFromBox(box1);
+      List<Vector3> box2Vertices = getVerticesFromBox(box2);
+
+      Matrix box1Rotation = box1.getRawRotationMatrix();
+      Matrix box2Rotation = box2.getRawRotationMatrix();
+      ArrayList<Vector3> testAxes = new ArrayList<>(NUM_TEST_AXES);
+      testAxes.add(extractXAxisFromRotationMatrix(box1Rotation));
+      testAxes.add(extractYAxisFromRotationMatrix(box1Rotation));
+      testAxes.add(extractZAxisFromRotationMatrix(box1Rotation));
+      testAxes.add(extractXAxisFromRotationMatrix(box2Rotation));
+      testAxes.add(extractYAxisFromRotationMatrix(box2Rotation));
+      testAxes.add(extractZAxisFromRotationMatrix(box2Rotation));
+
+      for (int i = 0; i < 3; i++) {
+        testAxes.add(Vector3.cross(testAxes.get(i), testAxes.get(0)));
+        testAxes.add(Vector3.cross(testAxes.get(i), testAxes.get(1)));
+        testAxes.add(Vector3.cross(testAxes.get(i), testAxes.get(2)));
+      }
+
+      for (int i = 0; i < testAxes.size(); i++) {
+        if (!testSeparatingAxis(box1Vertices, box2Vertices, testAxes.get(i))) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    static boolean sphereBoxIntersection(Sphere sphere, Box box) {
+      Vector3 sphereCenter = sphere.getCenter();
+      Vector3 boxCenter = box.getCenter();
+      Matrix boxRotation = box.getRawRotationMatrix();
+      Vector3 boxExtents = box.getExtents();
+      float diffX = sphereCenter.x - boxCenter.x;
+      float diffY = sphereCenter.y - boxCenter.y;
+      float diffZ = sphereCenter.z - boxCenter.z;
+
+      float pointX = boxCenter.x;
+      float pointY = boxCenter.y;
+      float pointZ = boxCenter.z;
+      for (int axis = 0; axis < 3; axis++) {
+        float axisX = boxRotation.data[axis];
+        float axisY = boxRotation.data[axis + 4];
+        float axisZ = boxRotation.data[axis + 8];
+        float extent = axis == 0 ? boxExtents.x : axis == 1 ? boxExtents.y : boxExtents.z;
+        float distance = diffX * axisX + diffY * axisY + diffZ * axisZ;
+
+        if (distance > extent) {
+          distance = extent;
+        } else if (distance < -extent) {
+          distance = -extent;
+        }
+
+        pointX = pointX + axisX * distance;
+        pointY = pointY + axisY * distance;
+        pointZ = pointZ + axisZ * distance;
+      }
+
+      float sphereDiffX = pointX - sphereCenter.x;
+      float sphereDiffY = pointY - sphereCenter.y;
+      float sphereDiffZ = pointZ - sphereCenter.z;
+      float sphereDiffLengthSquared =
+          sphereDiffX * sphereDiffX + sphereDiffY * sphereDiffY + sphereDiffZ * sphereDiffZ;
+
+      if (sphereDiffLengthSquared > sphere.getRadius() * sphere.getRadius()) {
+        return false;
+      }
+
+      if (MathHelper.almostEqualRelativeAndAbs(sphereDiffLengthSquared, 0.0f)) {
+        float boxDiffX = pointX - boxCenter.x;
+        float boxDiffY = pointY - boxCenter.y;
+        float boxDiffZ = pointZ - boxCenter.z;
+        float boxDiffLengthSquared =
+            boxDiffX * boxDiffX + boxDiffY * boxDiffY + boxDiffZ * boxDiffZ;
+        if (MathHelper.almostEqualRelativeAndAbs(boxDiffLengthSquared, 0.0f)) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    static boolean boxRayIntersection(Box box, Ray ray, RayHit result) {
+      Vector3 rayDirection = ray.getDirection();
+      Vector3 rayOrigin = ray.getOrigin();
+      Vector3 max = box.getExtents();
+      Vector3 min = max.negated();
+
+      float tMin = Float.MIN_VALUE;
+      float tMax = Float.MAX_VALUE;
+
+      Vector3 delta = Vector3.subtract(box.getCenter(), rayOrigin);
+      float[] axes = box.getRawRotationMatrix().data;
+      float[] mins = {min.x, min.y, min.z};
+      float[] maxs = {max.x, max.y, max.z};
+
+      for (int i = 0; i < 3; i++) {
+        Vector3 axis = new Vector3(axes[i * 4], axes[i * 4 + 1], axes[i * 4 + 2]);
+        float e = Vector3.dot(axis, delta);
+        float f = Vector3.dot(rayDirection, axis);
+
+        if (!MathHelper.almostEqualRelativeAndAbs(f, 0.0f)) {
+          float t1 = (e + mins[i]) / f;
+          float t2 = (e + maxs[i]) / f;
+
+          if (t1 > t2) {
+            float temp = t1;
+            t1 = t2;
+            t2 = temp;
+          }
+
+          tMax = Math.min(t2, tMax);
+          tMin = Math.max(t1, tMin);
+
+          if (tMax < tMin) {
+            return false;
+          }
+        } else if (-e + mins[i] > 0.0f || -e + maxs[i] < 0.0f) {
+          return false;
+        }
+      }
+
+      result.setDistance(tMin);
+      result.setPoint(ray.getPoint(result.getDistance()));
+      return true;
+    }
+
+    private static boolean testSeparatingAxis(
+        List<Vector3> vertices1, List<Vector3> vertices2, Vector3 axis) {
+      float min1 = Float.MAX_VALUE;
+      float max1 = Float.MIN_VALUE;
+      for (int i = 0; i < vertices1.size(); ++i) {
+        float projection = Vector3.dot(axis, vertices1.get(i));
+        min1 = Math.min(projection, min1);
+        max1 = Math.max(projection, max1);
+      }
+
+      float min2 = Float.MAX_VALUE;
+      float max2 = Float.MIN_VALUE;
+      for (int i = 0; i < vertices2.size(); i++) {
+        float projection = Vector3.dot(axis, vertices2.get(i));
+        min2 = Math.min(projection, min2);
+        max2 = Math.max(projection, max2);
+      }
+
+      return min2 <= max1 && min1 <= max2;
+    }
+
+    private static List<Vector3> getVerticesFromBox(Box box) {
+      Vector3 center = box.getCenter();
+      Vector3 extents = box.getExtents();
+      Matrix rotation = box.getRawRotationMatrix();
+
+      Vector3 xScaled = extractXAxisFromRotationMatrix(rotation).scaled(extents.x);
+      Vector3 yScaled = extractYAxisFromRotationMatrix(rotation).scaled(extents.y);
+      Vector3 zScaled = extractZAxisFromRotationMatrix(rotation).scaled(extents.z);
+
+      ArrayList<Vector3> vertices = new ArrayList<>(NUM_VERTICES_PER_BOX);
+      vertices.add(add(add(add(center, xScaled), yScaled), zScaled));
+      vertices.add(add(add(subtract(center, xScaled), yScaled), zScaled));
+      vertices.add(add(subtract(add(center, xScaled), yScaled), zScaled));
+      vertices.add(subtract(add(add(center, xScaled), yScaled), zScaled));
+      vertices.add(subtract(subtract(subtract(center, xScaled), yScaled), zScaled));
+      vertices.add(subtract(subtract(add(center, xScaled), yScaled), zScaled));
+      vertices.add(subtract(add(subtract(center, xScaled), yScaled), zScaled));
+      vertices.add(add(subtract(subtract(center, xScaled), yScaled), zScaled));
+
+      return vertices;
+    }
+
+    private static Vector3 extractXAxisFromRotationMatrix(Matrix matrix) {
+      return new Vector3(matrix.data[0], matrix.data[4], matrix.data[8]);
+    }
+
+    private static Vector3 extractYAxisFromRotationMatrix(Matrix matrix) {
+      return new Vector3(matrix.data[1], matrix.data[5], matrix.data[9]);
+    }
+
+    private static Vector3 extractZAxisFromRotationMatrix(Matrix matrix) {
+      return new Vector3(matrix.data[2], matrix.data[6], matrix.data[10]);
+    }
+  }
+}
@@ -29,6 +29,11 @@ public class AnchorNode extends Node {
 
   private static final float SMOOTH_FACTOR = 12.0f;
 
+  private final Vector3 desiredPosition = new Vector3();
+  private final Quaternion desiredRotation = new Quaternion();
+  private final Vector3 smoothedPosition = new Vector3();
+  private final Quaternion smoothedRotation = new Quaternion();
+
   /** Create an AnchorNode with no anchor. */
   public AnchorNode() {}
 
@@ -184,16 +189,17 @@ public class AnchorNode extends Node {
     }
 
     Pose pose = anchor.getPose();
-    Vector3 desiredPosition = ArHelpers.extractPositionFromPose(pose);
-    Quaternion desiredRotation = ArHelpers.extractRotationFromPose(pose);
+    Vector3 desiredPosition = ArHelpers.extractPositionFromPose(pose, this.desiredPosition);
+    Quaternion desiredRotation = ArHelpers.extractRotationFromPose(pose, this.desiredRotation);
 
     if (isSmoothed && !forceImmediate) {
-      Vector3 position = getWorldPosition();
+      Vector3 position = getWorldPosition(smoothedPosition);
       float lerpFactor = MathHelper.clamp(deltaSeconds * SMOOTH_FACTOR, 0, 1);
-      position.set(Vector3.lerp(position, desiredPosition, lerpFactor));
+      Vector3.lerp(position, desiredPosition, lerpFactor, position);
       super.setWorldPosition(position);
 
-      Quaternion rotation = Quaternion.slerp(getWorldRotation(), desiredRotation, lerpFactor);
+      Quaternion rotation = getWorldRotation(smoothedRotation);
+      Quaternion.slerp(rotation, desiredRotation, lerpFactor, rotation);
       super.setWorldRotation(rotation);
     } else {
       super.setWorldPosition(desiredPosition);
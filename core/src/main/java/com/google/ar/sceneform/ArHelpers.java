@@ -8,13 +8,25 @@ import com.google.ar.sceneform.math.Vector3;
 class ArHelpers {
   /** Returns a Sceneform {@link Vector3} representing the position from an ARCore {@link Pose}. */
   static Vector3 extractPositionFromPose(Pose pose) {
-    return new Vector3(pose.tx(), pose.ty(), pose.tz());
+    return extractPositionFromPose(pose, new Vector3());
+  }
+
+  /** Copies the position from an ARCore {@link Pose} into dest and returns dest. */
+  static Vector3 extractPositionFromPose(Pose pose, Vector3 dest) {
+    dest.set(pose.tx(), pose.ty(), pose.tz());
+    return dest;
   }
 
   /**
    * Returns a Sceneform {@link Quaternion} representing the rotation from an ARCore {@link Pose}.
    */
   static Quaternion extractRotationFromPose(Pose pose) {
-    return new Quaternion(pose.qx(), pose.qy(), pose.qz(), pose.qw());
+    return extractRotationFromPose(pose, new Quaternion());
+  }
+
+  /** Copies the rotation from an ARCore {@link Pose} into dest and returns dest. */
+  static Quaternion extractRotationFromPose(Pose pose, Quaternion dest) {
+    dest.set(pose.qx(), pose.qy(), pose.qz(), pose.qw());
+    return dest;
   }
 }
@@ -406,7 +406,14 @@ public class ArSceneView extends SceneView {
         // Before doing anything update the Frame from ARCore.
         boolean updated = true;
         try {
-            Frame frame = session.update();
+            FrameStatistics frameStatistics = getFrameStatistics();
+            frameStatistics.beginPhase(FrameStatistics.Phase.AR_SESSION_UPDATE);
+            Frame frame;
+            try {
+                frame = session.update();
+            } finally {
+                frameStatistics.endPhase(FrameStatistics.Phase.AR_SESSION_UPDATE);
+            }
             // No frame, no drawing.
             if (frame == null) {
                 return false;
@@ -445,6 +452,13 @@ public class ArSceneView extends SceneView {
             // to use in any calculations during the frame.
             getScene().getCamera().updateTrackedPose(currentArCamera);
 
+            // The camera stream has a new image, which the renderer can't see in render on demand
+            // mode because it is an external texture.
+            Renderer renderer = getRenderer();
+            if (renderer != null) {
+                renderer.requestRender();
+            }
+
             Frame frame = currentFrame;
             if (frame != null) {
                 if(cameraStream.getDepthOcclusionMode() == CameraStream.DepthOcclusionMode.DEPTH_OCCLUSION_ENABLED) {
@@ -461,11 +475,18 @@ public class ArSceneView extends SceneView {
                     }
                 }
 
+                FrameStatistics frameStatistics = getFrameStatistics();
+
                 // Update the light estimate.
+                frameStatistics.beginPhase(FrameStatistics.Phase.LIGHT_ESTIMATION);
                 updateLightEstimate(frame);
+                frameStatistics.endPhase(FrameStatistics.Phase.LIGHT_ESTIMATION);
+
                 // Update the plane renderer.
                 if (planeRenderer.isEnabled()) {
+                    frameStatistics.beginPhase(FrameStatistics.Phase.PLANE_RENDERING);
                     planeRenderer.update(frame, getWidth(), getHeight());
+                    frameStatistics.endPhase(FrameStatistics.Phase.PLANE_RENDERING);
                 }
             }
         }
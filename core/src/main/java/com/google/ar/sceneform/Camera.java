@@ -41,6 +41,10 @@ public class Camera extends Node implements CameraProvider {
   private final Matrix viewMatrix = new Matrix();
   private final Matrix projectionMatrix = new Matrix();
 
+  private final Matrix scratchMatrix = new Matrix();
+  private final Vector3 scratchPosition = new Vector3();
+  private final Quaternion scratchRotation = new Quaternion();
+
   private static final float DEFAULT_NEAR_PLANE = 0.01f;
   private static final float DEFAULT_FAR_PLANE = 30.0f;
   private static final int FALLBACK_VIEW_WIDTH = 1920;
@@ -192,8 +196,8 @@ public class Camera extends Node implements CameraProvider {
 
     // Update the node's transformation properties to match the tracked pose.
     Pose pose = camera.getDisplayOrientedPose();
-    Vector3 position = ArHelpers.extractPositionFromPose(pose);
-    Quaternion rotation = ArHelpers.extractRotationFromPose(pose);
+    Vector3 position = ArHelpers.extractPositionFromPose(pose, scratchPosition);
+    Quaternion rotation = ArHelpers.extractRotationFromPose(pose, scratchRotation);
     super.setWorldPosition(position);
     super.setWorldRotation(rotation);
 
@@ -244,7 +248,23 @@ public class Camera extends Node implements CameraProvider {
    * @return a new vector that represents the point in screen-space.
    */
   public Vector3 worldToScreenPoint(Vector3 point) {
-    Matrix m = new Matrix();
+    return worldToScreenPoint(point, new Vector3());
+  }
+
+  /**
+   * Convert a point from world space into screen space and stores the result in dest. dest may be
+   * the same as point.
+   *
+   * @see #worldToScreenPoint(Vector3)
+   * @param point the point in world space to convert
+   * @param dest the vector that receives the point in screen-space
+   * @return dest
+   */
+  public Vector3 worldToScreenPoint(Vector3 point, Vector3 dest) {
+    Preconditions.checkNotNull(point, "Parameter \"point\" was null.");
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+
+    Matrix m = scratchMatrix;
     Matrix.multiply(projectionMatrix, viewMatrix, m);
 
     int viewWidth = getViewWidth();
@@ -255,7 +275,7 @@ public class Camera extends Node implements CameraProvider {
     float w = 1.0f;
 
     // Multiply the world point.
-    Vector3 screenPoint = new Vector3();
+    Vector3 screenPoint = dest;
     screenPoint.x = x * m.data[0] + y * m.data[4] + z * m.data[8] + w * m.data[12];
     screenPoint.y = x * m.data[1] + y * m.data[5] + z * m.data[9] + w * m.data[13];
     w = x * m.data[3] + y * m.data[7] + z * m.data[11] + w * m.data[15];
@@ -270,6 +290,7 @@ public class Camera extends Node implements CameraProvider {
 
     // Invert Y because screen Y points down and Sceneform Y points up.
     screenPoint.y = viewHeight - screenPoint.y;
+    screenPoint.z = 0.0f;
 
     return screenPoint;
   }
@@ -362,7 +383,7 @@ public class Camera extends Node implements CameraProvider {
   private boolean unproject(float x, float y, float z, final Vector3 dest) {
     Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
 
-    Matrix m = new Matrix();
+    Matrix m = scratchMatrix;
     Matrix.multiply(projectionMatrix, viewMatrix, m);
     Matrix.invert(m, m);
 
@@ -389,7 +410,7 @@ public class Camera extends Node implements CameraProvider {
     }
 
     w = 1.0f / w;
-    dest.set(dest.scaled(w));
+    dest.scaled(w, dest);
     return true;
   }
 
@@ -0,0 +1,135 @@
+package com.google.ar.sceneform;
+
+import androidx.annotation.Nullable;
+import com.google.ar.sceneform.utilities.TimingHistogram;
+
+/**
+ * Times the phases of every frame drawn by a {@link SceneView} and counts the durations in
+ * histograms, so that frame spikes show up in the p95, p99 and max of each phase.
+ *
+ * <p>Statistics are always collected, timing a phase costs two reads of {@link System#nanoTime()}.
+ * They can be read at any time on the UI thread with {@link #getHistogram(Phase)}, or delivered
+ * periodically to a listener, for example to send them to telemetry:
+ *
+ * <pre>{@code
+ * sceneView.getFrameStatistics().setOnReportListener(
+ *     statistics -> telemetry.log(
+ *         "frame_p99_ms", statistics.getHistogram(Phase.FRAME).getP99Milliseconds()),
+ *     600);
+ * }</pre>
+ */
+public class FrameStatistics {
+  /** The timed phases of a frame. */
+  public enum Phase {
+    /** The whole frame, from the start of the ARCore update to the end of rendering. */
+    FRAME,
+    /** Updating the nodes of the scene. */
+    UPDATE,
+    /** Rendering the scene, including resource reclamation. */
+    RENDER,
+    /** Updating the ARCore session, only measured by {@link ArSceneView}. */
+    AR_SESSION_UPDATE,
+    /** Updating the light estimate from ARCore, only measured by {@link ArSceneView}. */
+    LIGHT_ESTIMATION,
+    /** Updating the rendered planes, only measured by {@link ArSceneView}. */
+    PLANE_RENDERING,
+    /** Releasing the rendering resources that are no longer used. */
+    RESOURCE_RECLAMATION,
+    /** Completing loads on the main thread, within the budget set on the {@link SceneView}. */
+    LOAD_COMPLETION
+  }
+
+  /** Interface definition for a callback invoked periodically with the frame statistics. */
+  public interface OnReportListener {
+    /**
+     * Called on the UI thread with the statistics of the frames since the previous report. The
+     * statistics are reset once the listener returns.
+     */
+    void onReport(FrameStatistics frameStatistics);
+  }
+
+  private static final Phase[] PHASES = Phase.values();
+
+  private final TimingHistogram[] histograms = new TimingHistogram[PHASES.length];
+  private final long[] phaseStartNanos = new long[PHASES.length];
+  private int frameCount;
+
+  @Nullable private OnReportListener onReportListener;
+  private int reportIntervalFrames;
+
+  FrameStatistics() {
+    for (int i = 0; i < histograms.length; i++) {
+      histograms[i] = new TimingHistogram();
+    }
+  }
+
+  /** Returns the durations of a phase since the statistics were last reset. */
+  public TimingHistogram getHistogram(Phase phase) {
+    return histograms[phase.ordinal()];
+  }
+
+  /** Returns the number of frames since the statistics were last reset. */
+  public int getFrameCount() {
+    return frameCount;
+  }
+
+  /** Removes the durations of every phase. */
+  public void reset() {
+    for (TimingHistogram histogram : histograms) {
+      histogram.reset();
+    }
+    frameCount = 0;
+  }
+
+  /**
+   * Registers a callback invoked every reportIntervalFrames frames. The statistics are reset after
+   * each report, so every report covers its own interval.
+   *
+   * @param onReportListener the listener to invoke, or null to stop reporting
+   * @param reportIntervalFrames the number of frames between reports
+   */
+  public void setOnReportListener(
+      @Nullable OnReportListener onReportListener, int reportIntervalFrames) {
+    if (onReportListener != null && reportIntervalFrames <= 0) {
+      throw new IllegalArgumentException("Report interval must be at least one frame.");
+    }
+
+    this.onReportListener = onReportListener;
+    this.reportIntervalFrames = reportIntervalFrames;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("frames=").append(frameCount);
+    for (Phase phase : PHASES) {
+      TimingHistogram histogram = getHistogram(phase);
+      if (histogram.getCount() > 0) {
+        builder.append('\n').append(phase).append(": ").append(histogram);
+      }
+    }
+    return builder.toString();
+  }
+
+  void beginPhase(Phase phase) {
+    phaseStartNanos[phase.ordinal()] = System.nanoTime();
+  }
+
+  void endPhase(Phase phase) {
+    addPhaseSample(phase, System.nanoTime() - phaseStartNanos[phase.ordinal()]);
+  }
+
+  void addPhaseSample(Phase phase, long durationNanos) {
+    histograms[phase.ordinal()].addSample(durationNanos);
+  }
+
+  /** Called once the frame has ended, reports the statistics when the interval is reached. */
+  void onFrameEnd() {
+    frameCount++;
+
+    OnReportListener onReportListener = this.onReportListener;
+    if (onReportListener != null && frameCount >= reportIntervalFrames) {
+      onReportListener.onReport(this);
+      reset();
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package com.google.ar.sceneform;
+
+import androidx.annotation.Nullable;
+import com.google.ar.sceneform.math.Quaternion;
+import com.google.ar.sceneform.math.Vector3;
+import com.google.ar.sceneform.rendering.Material;
+import com.google.ar.sceneform.rendering.Renderable;
+import com.google.ar.sceneform.rendering.RenderableInstanceBatch;
+import com.google.ar.sceneform.utilities.AndroidPreconditions;
+import com.google.ar.sceneform.utilities.Preconditions;
+
+/**
+ * Draws many copies of the same {@link Renderable}, for example the trees of a forest or the
+ * markers of a map.
+ *
+ * <p>Each copy is a child node with its own transform, which can be moved, tapped and hit tested
+ * like any other node, but doesn't carry a {@link
+ * com.google.ar.sceneform.rendering.RenderableInstance}. Copies of a renderable built from a {@link
+ * com.google.ar.sceneform.rendering.RenderableDefinition} share its vertex buffer, index buffer and
+ * materials, which keeps the cost of each copy to one transform and one draw call.
+ *
+ * <pre>{@code
+ * InstancedNode forest = new InstancedNode(treeRenderable);
+ * forest.setParent(scene);
+ * for (Vector3 position : treePositions) {
+ *   forest.addInstance(position, Quaternion.identity(), Vector3.one());
+ * }
+ * }</pre>
+ */
+public class InstancedNode extends Node {
+  private final RenderableInstanceBatch instanceBatch;
+  private final InstanceLifecycleListener instanceLifecycleListener =
+      new InstanceLifecycleListener();
+
+  /** Creates a node that draws copies of a renderable. */
+  public InstancedNode(Renderable renderable) {
+    instanceBatch = new RenderableInstanceBatch(renderable);
+  }
+
+  /** Returns the renderable drawn by every copy. */
+  public Renderable getInstancedRenderable() {
+    return instanceBatch.getRenderable();
+  }
+
+  /** Returns the number of copies. */
+  public int getInstanceCount() {
+    return instanceBatch.getInstanceCount();
+  }
+
+  /**
+   * Adds a copy of the renderable at the origin of this node.
+   *
+   * @return the child node that positions the copy
+   */
+  public Node addInstance() {
+    AndroidPreconditions.checkUiThread();
+
+    Node instanceNode = new Node();
+    instanceNode.setCollisionShape(instanceBatch.getRenderable().getCollisionShape());
+
+    // The copy is shown by its lifecycle listener once the node is activated.
+    instanceBatch.addInstance(instanceNode);
+    instanceBatch.setInstanceVisible(instanceNode, false);
+    instanceNode.addLifecycleListener(instanceLifecycleListener);
+    instanceNode.setParent(this);
+    return instanceNode;
+  }
+
+  /**
+   * Adds a copy of the renderable with a transform relative to this node.
+   *
+   * @return the child node that positions the copy
+   */
+  public Node addInstance(Vector3 position, Quaternion rotation, Vector3 scale) {
+    Preconditions.checkNotNull(position, "Parameter \"position\" was null.");
+    Preconditions.checkNotNull(rotation, "Parameter \"rotation\" was null.");
+    Preconditions.checkNotNull(scale, "Parameter \"scale\" was null.");
+
+    Node instanceNode = addInstance();
+    instanceNode.setLocalPosition(position);
+    instanceNode.setLocalRotation(rotation);
+    instanceNode.setLocalScale(scale);
+    return instanceNode;
+  }
+
+  /**
+   * Removes a copy that was added by {@link #addInstance()}. A copy is also removed when its node
+   * is removed from this node while this node is active.
+   */
+  public void removeInstance(Node instanceNode) {
+    AndroidPreconditions.checkUiThread();
+    Preconditions.checkNotNull(instanceNode, "Parameter \"instanceNode\" was null.");
+
+    instanceNode.removeLifecycleListener(instanceLifecycleListener);
+    if (instanceNode.getParent() == this) {
+      removeChild(instanceNode);
+    }
+    instanceBatch.removeInstance(instanceNode);
+  }
+
+  /**
+   * Draws one copy with a different material, for example to give it its own color.
+   *
+   * @param material the material of the copy, or null to use the materials of the renderable
+   */
+  public void setInstanceMaterial(Node instanceNode, @Nullable Material material) {
+    Preconditions.checkNotNull(instanceNode, "Parameter \"instanceNode\" was null.");
+    instanceBatch.setInstanceMaterial(instanceNode, material);
+  }
+
+  @Override
+  public void onActivate() {
+    Scene scene = getScene();
+    if (scene != null && !scene.isUnderTesting()) {
+      instanceBatch.attachToRenderer(getRendererOrDie());
+    }
+  }
+
+  @Override
+  public void onDeactivate() {
+    instanceBatch.detachFromRenderer();
+  }
+
+  /**
+   * Hides a copy while its node is inactive, for example when it is disabled, and removes it once
+   * its node is no longer a child of this node.
+   */
+  private class InstanceLifecycleListener implements LifecycleListener {
+    @Override
+    public void onActivated(Node node) {
+      if (removeIfReparented(node)) {
+        return;
+      }
+      instanceBatch.setInstanceVisible(node, true);
+    }
+
+    @Override
+    public void onUpdated(Node node, FrameTime frameTime) {}
+
+    @Override
+    public void onDeactivated(Node node) {
+      if (removeIfReparented(node)) {
+        return;
+      }
+      instanceBatch.setInstanceVisible(node, false);
+    }
+
+    // The listener stays on the node, since listeners can't be removed while they are called.
+    // Removing a copy that was already removed does nothing.
+    private boolean removeIfReparented(Node node) {
+      if (node.getParent() == InstancedNode.this) {
+        return false;
+      }
+      instanceBatch.removeInstance(node);
+      return true;
+    }
+  }
+}
@@ -0,0 +1,218 @@
+package com.google.ar.sceneform;
+
+import androidx.annotation.Nullable;
+import com.google.ar.sceneform.math.Vector3;
+import com.google.ar.sceneform.rendering.Renderable;
+import com.google.ar.sceneform.rendering.RenderableInstance;
+import com.google.ar.sceneform.utilities.Preconditions;
+import java.util.ArrayList;
+
+/**
+ * Switches the renderable displayed by a {@link Node} based on how much of the screen it covers.
+ *
+ * <p>Levels are added from the most detailed to the least detailed, each with the minimum screen
+ * coverage at which it is displayed. Screen coverage is the radius of the renderable's bounding
+ * sphere projected by the scene's {@link Camera}, as a fraction of the viewport height. When the
+ * coverage is below the threshold of every level, nothing is displayed.
+ *
+ * <p>A level only changes once the coverage crosses its threshold by the hysteresis fraction, so
+ * that a node sitting near a threshold doesn't flicker between levels. The renderable instance of
+ * every level that has been displayed is kept, so switching back to it doesn't re-create it.
+ *
+ * <pre>{@code
+ * LevelOfDetail levelOfDetail = new LevelOfDetail()
+ *     .addLevel(highDetailRenderable, 0.25f)
+ *     .addLevel(mediumDetailRenderable, 0.05f)
+ *     .addLevel(lowDetailRenderable, 0.0f);
+ * node.setLevelOfDetail(levelOfDetail);
+ * }</pre>
+ */
+public class LevelOfDetail {
+  /** Returned by {@link #getCurrentLevel()} when no level is displayed. */
+  public static final int NO_LEVEL = -1;
+
+  private static final float DEFAULT_HYSTERESIS = 0.1f;
+
+  private final ArrayList<Renderable> renderables = new ArrayList<>();
+  private final ArrayList<Float> minScreenCoverages = new ArrayList<>();
+  // Instances of the levels that have been displayed, indexed by level.
+  private final ArrayList<RenderableInstance> instances = new ArrayList<>();
+  private float hysteresis = DEFAULT_HYSTERESIS;
+  private int currentLevel = NO_LEVEL;
+  @Nullable private Node node;
+
+  private final Vector3 boundsCenter = new Vector3();
+  private final Vector3 cameraPosition = new Vector3();
+
+  /**
+   * Adds a level that is less detailed than the levels already added.
+   *
+   * @param renderable the renderable to display for this level
+   * @param minScreenCoverage the smallest screen coverage at which this level is displayed, must
+   *     not be greater than the threshold of the previous level
+   */
+  public LevelOfDetail addLevel(Renderable renderable, float minScreenCoverage) {
+    Preconditions.checkNotNull(renderable, "Parameter \"renderable\" was null.");
+    int count = minScreenCoverages.size();
+    if (count > 0 && minScreenCoverage > minScreenCoverages.get(count - 1)) {
+      throw new IllegalArgumentException(
+          "Levels must be added in order of decreasing screen coverage.");
+    }
+
+    renderables.add(renderable);
+    minScreenCoverages.add(minScreenCoverage);
+    instances.add(null);
+    return this;
+  }
+
+  /** Returns the number of levels. */
+  public int getLevelCount() {
+    return renderables.size();
+  }
+
+  /** Returns the renderable of a level. */
+  public Renderable getRenderable(int level) {
+    return renderables.get(level);
+  }
+
+  /**
+   * Sets the fraction by which the screen coverage must cross a threshold before the level changes.
+   * The default is 0.1.
+   */
+  public void setHysteresis(float hysteresis) {
+    if (hysteresis < 0.0f || hysteresis >= 1.0f) {
+      throw new IllegalArgumentException("Hysteresis must be in the range [0, 1).");
+    }
+    this.hysteresis = hysteresis;
+  }
+
+  public float getHysteresis() {
+    return hysteresis;
+  }
+
+  /** Returns the level currently displayed, or {@link #NO_LEVEL} if nothing is displayed. */
+  public int getCurrentLevel() {
+    return currentLevel;
+  }
+
+  void attach(Node node) {
+    if (this.node != null && this.node != node) {
+      throw new IllegalStateException("LevelOfDetail is already used by another node.");
+    }
+
+    this.node = node;
+    if (currentLevel == NO_LEVEL && !renderables.isEmpty()) {
+      setCurrentLevel(0);
+    }
+  }
+
+  /**
+   * Releases the pooled instances so they can be reclaimed. The instance of the current level stays
+   * on the node.
+   */
+  void detach() {
+    for (int i = 0; i < instances.size(); i++) {
+      instances.set(i, null);
+    }
+
+    currentLevel = NO_LEVEL;
+    node = null;
+  }
+
+  /** Picks the level for the current frame. Called by the node before it is updated. */
+  void update() {
+    Node node = this.node;
+    if (node == null || renderables.isEmpty()) {
+      return;
+    }
+
+    Scene scene = node.getScene();
+    if (scene == null) {
+      return;
+    }
+
+    float screenCoverage = calculateScreenCoverage(scene.getCamera());
+    if (screenCoverage < 0.0f) {
+      return;
+    }
+
+    int level = currentLevel == NO_LEVEL ? renderables.size() : currentLevel;
+
+    // Move to a more detailed level once the coverage is clearly above its threshold.
+    while (level > 0 && screenCoverage >= minScreenCoverages.get(level - 1) * (1.0f + hysteresis)) {
+      level--;
+    }
+
+    // Move to a less detailed level once the coverage is clearly below the current threshold.
+    while (level < renderables.size()
+        && screenCoverage < minScreenCoverages.get(level) * (1.0f - hysteresis)) {
+      level++;
+    }
+
+    setCurrentLevel(level == renderables.size() ? NO_LEVEL : level);
+  }
+
+  /**
+   * Returns the projected radius of the bounds of the current level as a fraction of the viewport
+   * height, or -1 if it can't be computed.
+   */
+  private float calculateScreenCoverage(Camera camera) {
+    RenderableInstance instance = getBoundsInstance();
+    if (instance == null) {
+      return -1.0f;
+    }
+
+    float radius = instance.getWorldBoundingSphere(boundsCenter);
+    if (radius < 0.0f) {
+      return -1.0f;
+    }
+
+    camera.getWorldPosition(cameraPosition);
+    float dx = boundsCenter.x - cameraPosition.x;
+    float dy = boundsCenter.y - cameraPosition.y;
+    float dz = boundsCenter.z - cameraPosition.z;
+    float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+    // The camera is inside the bounds.
+    if (distance <= radius) {
+      return Float.MAX_VALUE;
+    }
+
+    // The vertical scale of a perspective projection is 1 / tan(fovY / 2), which maps the radius at
+    // the given distance to normalized device coordinates. The viewport height is 2 in NDC.
+    float projectionScale = camera.getProjectionMatrix().data[5];
+    return radius * projectionScale / distance;
+  }
+
+  /** Returns the instance used to measure the bounds, even when no level is displayed. */
+  @Nullable
+  private RenderableInstance getBoundsInstance() {
+    int level = currentLevel == NO_LEVEL ? renderables.size() - 1 : currentLevel;
+    return getOrCreateInstance(level);
+  }
+
+  private void setCurrentLevel(int level) {
+    if (level == currentLevel) {
+      return;
+    }
+
+    currentLevel = level;
+    Preconditions.checkNotNull(node)
+        .setLevelOfDetailInstance(level == NO_LEVEL ? null : getOrCreateInstance(level));
+  }
+
+  @Nullable
+  private RenderableInstance getOrCreateInstance(int level) {
+    Node node = this.node;
+    if (node == null) {
+      return null;
+    }
+
+    RenderableInstance instance = instances.get(level);
+    if (instance == null) {
+      instance = renderables.get(level).createInstance(node);
+      instances.set(level, instance);
+    }
+    return instance;
+  }
+}
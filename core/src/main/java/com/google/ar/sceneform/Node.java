@@ -128,6 +128,20 @@ public class Node extends NodeParent implements TransformProvider {
     }
   }
 
+  /**
+   * The collision category of nodes that haven't been given one.
+   *
+   * @see #setCollisionCategory(int)
+   */
+  public static final int DEFAULT_COLLISION_CATEGORY = Collider.DEFAULT_CATEGORY;
+
+  /**
+   * A collision mask that accepts nodes of every category.
+   *
+   * @see #setCollisionMask(int)
+   */
+  public static final int ALL_COLLISION_CATEGORIES = Collider.ALL_CATEGORIES;
+
   private static final float DIRECTION_UP_EPSILON = 0.99f;
 
   // This is the default from the ViewConfiguration class.
@@ -163,6 +177,13 @@ public class Node extends NodeParent implements TransformProvider {
   // name hash for comparison
   private int nameHash = DEFAULT_NAME.hashCode();
 
+  // Position of this node in the scene's name index, if the node is part of a scene.
+  int nameIndexPosition = NodeNameIndex.INVALID_POSITION;
+  // Position of this node in a depth first traversal of the scene, and the exclusive end of the
+  // positions of its subtree. Only valid in the name index of the scene.
+  int traversalOrder;
+  int subtreeEndOrder;
+
   /**
    * WARNING: Do not assign this property directly unless you know what you are doing. Instead, call
    * setParent. This field is only exposed in the package to be accessible to the class NodeParent.
@@ -195,13 +216,23 @@ public class Node extends NodeParent implements TransformProvider {
   /** Determines when various aspects of the node's transform are dirty and must be recalculated. */
   private int dirtyTransformFlags = LOCAL_DIRTY_FLAGS;
 
+  // Updated whenever the world transform is marked dirty, used to detect when it must be uploaded.
+  private final ChangeId worldModelMatrixId = new ChangeId();
+
+  // Index of this node in the scene's transform arena, if the arena is enabled.
+  int transformArenaIndex = TransformArena.INVALID_INDEX;
+
   // Status fields.
   private boolean enabled = true;
   private boolean active = false;
+  private boolean isStatic = false;
+  // True while the renderable is drawn by a StaticBatchNode instead of by this node.
+  private boolean isRenderableBatched = false;
 
   // Rendering fields.
   private int renderableId = ChangeId.EMPTY_ID;
   @Nullable private RenderableInstance renderableInstance;
+  @Nullable private LevelOfDetail levelOfDetail;
   // TODO: Right now, lightInstance can cause leaks because it subscribes to event
   // listeners on Light that will not be disposed unless setLight(null) is called.
   @Nullable private LightInstance lightInstance;
@@ -209,6 +240,8 @@ public class Node extends NodeParent implements TransformProvider {
   // Collision fields.
   @Nullable private CollisionShape collisionShape;
   @Nullable private Collider collider;
+  private int collisionCategory = DEFAULT_COLLISION_CATEGORY;
+  private int collisionMask = ALL_COLLISION_CATEGORIES;
 
   // Listeners.
   @Nullable private OnTouchListener onTouchListener;
@@ -227,6 +260,7 @@ public class Node extends NodeParent implements TransformProvider {
 
     localScale.set(1, 1, 1);
     cachedWorldScale.set(localScale);
+    worldModelMatrixId.update();
   }
 
   /**
@@ -239,8 +273,17 @@ public class Node extends NodeParent implements TransformProvider {
   public final void setName(String name) {
     Preconditions.checkNotNull(name, "Parameter \"name\" was null.");
 
+    Scene scene = this.scene;
+    if (scene != null) {
+      scene.nameIndex.remove(this, nameHash);
+    }
+
     this.name = name;
     nameHash = name.hashCode();
+
+    if (scene != null) {
+      scene.nameIndex.add(this);
+    }
   }
 
   /** Returns the name of the node. The default value is "Node". */
@@ -377,6 +420,26 @@ public class Node extends NodeParent implements TransformProvider {
     return enabled;
   }
 
+  /**
+   * Marks this node as static, meaning that it is not expected to move. The renderables of static
+   * nodes under a {@link StaticBatchNode} are merged into batches that are drawn together.
+   *
+   * @see StaticBatchNode
+   * @param isStatic true if the node is not expected to move
+   */
+  public final void setStatic(boolean isStatic) {
+    this.isStatic = isStatic;
+  }
+
+  /**
+   * Returns true if the node is marked as static.
+   *
+   * @see #setStatic(boolean)
+   */
+  public final boolean isStatic() {
+    return isStatic;
+  }
+
   /**
    * Returns true if the node is active. A node is considered active if it meets ALL of the
    * following conditions:
@@ -493,6 +556,7 @@ public class Node extends NodeParent implements TransformProvider {
   @Override
   protected final void onAddChild(Node child) {
     super.onAddChild(child);
+    markTransformArenaStructureDirty();
     child.parentAsNode = this;
     child.markTransformChangedRecursively(WORLD_DIRTY_FLAGS, child);
     child.setSceneRecursively(scene);
@@ -501,6 +565,7 @@ public class Node extends NodeParent implements TransformProvider {
   @Override
   protected final void onRemoveChild(Node child) {
     super.onRemoveChild(child);
+    markTransformArenaStructureDirty();
     child.parentAsNode = null;
     child.markTransformChangedRecursively(WORLD_DIRTY_FLAGS, child);
     child.setSceneRecursively(null);
@@ -512,9 +577,12 @@ public class Node extends NodeParent implements TransformProvider {
     if ((dirtyTransformFlags & flagsToMark) != flagsToMark) {
       dirtyTransformFlags |= flagsToMark;
 
-      if ((dirtyTransformFlags & WORLD_TRANSFORM_DIRTY) == WORLD_TRANSFORM_DIRTY
-          && collider != null) {
-        collider.markWorldShapeDirty();
+      if ((dirtyTransformFlags & WORLD_TRANSFORM_DIRTY) == WORLD_TRANSFORM_DIRTY) {
+        worldModelMatrixId.update();
+
+        if (collider != null) {
+          collider.markWorldShapeDirty();
+        }
       }
 
       needsRecursion = true;
@@ -546,6 +614,19 @@ public class Node extends NodeParent implements TransformProvider {
     return new Vector3(localPosition);
   }
 
+  /**
+   * Copies the nodes position relative to its parent (local-space) into dest.
+   *
+   * @see #getLocalPosition()
+   * @return dest
+   */
+  public final Vector3 getLocalPosition(Vector3 dest) {
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+
+    dest.set(localPosition);
+    return dest;
+  }
+
   /**
    * Gets a copy of the nodes rotation relative to its parent (local-space). If {@link
    * #isTopLevel()} is true, then this is the same as {@link #getWorldRotation()}.
@@ -557,6 +638,19 @@ public class Node extends NodeParent implements TransformProvider {
     return new Quaternion(localRotation);
   }
 
+  /**
+   * Copies the nodes rotation relative to its parent (local-space) into dest.
+   *
+   * @see #getLocalRotation()
+   * @return dest
+   */
+  public final Quaternion getLocalRotation(Quaternion dest) {
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+
+    dest.set(localRotation);
+    return dest;
+  }
+
   /**
    * Gets a copy of the nodes scale relative to its parent (local-space). If {@link #isTopLevel()}
    * is true, then this is the same as {@link #getWorldScale()}.
@@ -568,6 +662,19 @@ public class Node extends NodeParent implements TransformProvider {
     return new Vector3(localScale);
   }
 
+  /**
+   * Copies the nodes scale relative to its parent (local-space) into dest.
+   *
+   * @see #getLocalScale()
+   * @return dest
+   */
+  public final Vector3 getLocalScale(Vector3 dest) {
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+
+    dest.set(localScale);
+    return dest;
+  }
+
   /**
    * Get a copy of the nodes world-space position.
    *
@@ -578,6 +685,19 @@ public class Node extends NodeParent implements TransformProvider {
     return new Vector3(getWorldPositionInternal());
   }
 
+  /**
+   * Copies the nodes world-space position into dest.
+   *
+   * @see #getWorldPosition()
+   * @return dest
+   */
+  public final Vector3 getWorldPosition(Vector3 dest) {
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+
+    dest.set(getWorldPositionInternal());
+    return dest;
+  }
+
   /**
    * Gets a copy of the nodes world-space rotation.
    *
@@ -588,6 +708,19 @@ public class Node extends NodeParent implements TransformProvider {
     return new Quaternion(getWorldRotationInternal());
   }
 
+  /**
+   * Copies the nodes world-space rotation into dest.
+   *
+   * @see #getWorldRotation()
+   * @return dest
+   */
+  public final Quaternion getWorldRotation(Quaternion dest) {
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+
+    dest.set(getWorldRotationInternal());
+    return dest;
+  }
+
   /**
    * Gets a copy of the nodes world-space scale. Some precision will be lost if the node is skewed.
    *
@@ -598,6 +731,19 @@ public class Node extends NodeParent implements TransformProvider {
     return new Vector3(getWorldScaleInternal());
   }
 
+  /**
+   * Copies the nodes world-space scale into dest.
+   *
+   * @see #getWorldScale()
+   * @return dest
+   */
+  public final Vector3 getWorldScale(Vector3 dest) {
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+
+    dest.set(getWorldScaleInternal());
+    return dest;
+  }
+
   /**
    * Sets the position of this node relative to its parent (local-space). If {@link #isTopLevel()}
    * is true, then this is the same as {@link #setWorldPosition(Vector3)}.
@@ -609,7 +755,7 @@ public class Node extends NodeParent implements TransformProvider {
     Preconditions.checkNotNull(position, "Parameter \"position\" was null.");
 
     localPosition.set(position);
-    markTransformChangedRecursively(LOCAL_DIRTY_FLAGS, this);
+    onLocalTransformChanged();
   }
 
   /**
@@ -623,7 +769,7 @@ public class Node extends NodeParent implements TransformProvider {
     Preconditions.checkNotNull(rotation, "Parameter \"rotation\" was null.");
 
     localRotation.set(rotation);
-    markTransformChangedRecursively(LOCAL_DIRTY_FLAGS, this);
+    onLocalTransformChanged();
   }
 
   /**
@@ -637,7 +783,7 @@ public class Node extends NodeParent implements TransformProvider {
     Preconditions.checkNotNull(scale, "Parameter \"scale\" was null.");
 
     localScale.set(scale);
-    markTransformChangedRecursively(LOCAL_DIRTY_FLAGS, this);
+    onLocalTransformChanged();
   }
 
   /**
@@ -652,10 +798,10 @@ public class Node extends NodeParent implements TransformProvider {
     if (parentAsNode == null) {
       localPosition.set(position);
     } else {
-      localPosition.set(parentAsNode.worldToLocalPoint(position));
+      parentAsNode.worldToLocalPoint(position, localPosition);
     }
 
-    markTransformChangedRecursively(LOCAL_DIRTY_FLAGS, this);
+    onLocalTransformChanged();
 
     // We already know the world position, cache it immediately so we don't
     // need to decompose it.
@@ -675,11 +821,11 @@ public class Node extends NodeParent implements TransformProvider {
     if (parentAsNode == null) {
       localRotation.set(rotation);
     } else {
-      localRotation.set(
-          Quaternion.multiply(parentAsNode.getWorldRotationInternal().inverted(), rotation));
+      parentAsNode.getWorldRotationInternal().inverted(localRotation);
+      Quaternion.multiply(localRotation, rotation, localRotation);
     }
 
-    markTransformChangedRecursively(LOCAL_DIRTY_FLAGS, this);
+    onLocalTransformChanged();
 
     // We already know the world rotation, cache it immediately so we don't
     // need to decompose it.
@@ -703,7 +849,8 @@ public class Node extends NodeParent implements TransformProvider {
       // Disallow dispatch transform changed here so we don't send the event multiple times
       // during setWorldScale.
       allowDispatchTransformChangedListeners = false;
-      setLocalScale(Vector3.one());
+      localScale.set(1, 1, 1);
+      setLocalScale(localScale);
       allowDispatchTransformChangedListeners = true;
       Matrix localModelMatrix = getLocalModelMatrixInternal();
 
@@ -742,6 +889,20 @@ public class Node extends NodeParent implements TransformProvider {
     return getWorldModelMatrixInternal().transformPoint(point);
   }
 
+  /**
+   * Converts a point in the local-space of this node to world-space and stores it in dest. dest may
+   * be the same as point.
+   *
+   * @param point the point in local-space to convert
+   * @param dest the vector that receives the point in world-space
+   * @return dest
+   */
+  public final Vector3 localToWorldPoint(Vector3 point, Vector3 dest) {
+    Preconditions.checkNotNull(point, "Parameter \"point\" was null.");
+
+    return getWorldModelMatrixInternal().transformPoint(point, dest);
+  }
+
   /**
    * Converts a point in world-space to the local-space of this node.
    *
@@ -754,6 +915,20 @@ public class Node extends NodeParent implements TransformProvider {
     return getWorldModelMatrixInverseInternal().transformPoint(point);
   }
 
+  /**
+   * Converts a point in world-space to the local-space of this node and stores it in dest. dest may
+   * be the same as point.
+   *
+   * @param point the point in world-space to convert
+   * @param dest the vector that receives the point in local-space
+   * @return dest
+   */
+  public final Vector3 worldToLocalPoint(Vector3 point, Vector3 dest) {
+    Preconditions.checkNotNull(point, "Parameter \"point\" was null.");
+
+    return getWorldModelMatrixInverseInternal().transformPoint(point, dest);
+  }
+
   /**
    * Converts a direction from the local-space of this node to world-space. Not impacted by the
    * position or scale of the node.
@@ -767,6 +942,20 @@ public class Node extends NodeParent implements TransformProvider {
     return Quaternion.rotateVector(getWorldRotationInternal(), direction);
   }
 
+  /**
+   * Converts a direction from the local-space of this node to world-space and stores it in dest.
+   * dest may be the same as direction.
+   *
+   * @param direction the direction in local-space to convert
+   * @param dest the vector that receives the direction in world-space
+   * @return dest
+   */
+  public final Vector3 localToWorldDirection(Vector3 direction, Vector3 dest) {
+    Preconditions.checkNotNull(direction, "Parameter \"direction\" was null.");
+
+    return Quaternion.rotateVector(getWorldRotationInternal(), direction, dest);
+  }
+
   /**
    * Converts a direction from world-space to the local-space of this node. Not impacted by the
    * position or scale of the node.
@@ -780,6 +969,20 @@ public class Node extends NodeParent implements TransformProvider {
     return Quaternion.inverseRotateVector(getWorldRotationInternal(), direction);
   }
 
+  /**
+   * Converts a direction from world-space to the local-space of this node and stores it in dest.
+   * dest may be the same as direction.
+   *
+   * @param direction the direction in world-space to convert
+   * @param dest the vector that receives the direction in local-space
+   * @return dest
+   */
+  public final Vector3 worldToLocalDirection(Vector3 direction, Vector3 dest) {
+    Preconditions.checkNotNull(direction, "Parameter \"direction\" was null.");
+
+    return Quaternion.inverseRotateVector(getWorldRotationInternal(), direction, dest);
+  }
+
   /**
    * Gets the world-space forward vector (-z) of this node.
    *
@@ -847,11 +1050,61 @@ public class Node extends NodeParent implements TransformProvider {
   public RenderableInstance setRenderable(@Nullable Renderable renderable) {
     AndroidPreconditions.checkUiThread();
 
+    // Setting a renderable directly replaces the level of detail.
+    if (levelOfDetail != null) {
+      levelOfDetail.detach();
+      levelOfDetail = null;
+    }
+
     // Renderable hasn't changed, return early.
     if (renderableInstance != null && renderableInstance.getRenderable() == renderable) {
       return renderableInstance;
     }
 
+    setRenderableInstanceInternal(renderable != null ? renderable.createInstance(this) : null);
+
+    return renderableInstance;
+  }
+
+  /**
+   * Sets the levels of detail to display for this node. The renderable of the level that matches
+   * the node's screen coverage is displayed, and updated every frame.
+   *
+   * @see LevelOfDetail
+   * @param levelOfDetail the levels to display. If null, the renderable of the current level stays
+   *     on the node.
+   */
+  public void setLevelOfDetail(@Nullable LevelOfDetail levelOfDetail) {
+    AndroidPreconditions.checkUiThread();
+
+    if (this.levelOfDetail == levelOfDetail) {
+      return;
+    }
+
+    if (this.levelOfDetail != null) {
+      this.levelOfDetail.detach();
+    }
+
+    this.levelOfDetail = levelOfDetail;
+    if (levelOfDetail != null) {
+      levelOfDetail.attach(this);
+    }
+  }
+
+  /** Gets the levels of detail displayed by this node, or null if there are none. */
+  @Nullable
+  public LevelOfDetail getLevelOfDetail() {
+    return levelOfDetail;
+  }
+
+  /** Called by {@link LevelOfDetail} to display a pooled instance when the level changes. */
+  final void setLevelOfDetailInstance(@Nullable RenderableInstance instance) {
+    if (renderableInstance != instance) {
+      setRenderableInstanceInternal(instance);
+    }
+  }
+
+  private void setRenderableInstanceInternal(@Nullable RenderableInstance instance) {
     if (renderableInstance != null) {
       if (active) {
         renderableInstance.detachFromRenderer();
@@ -859,20 +1112,38 @@ public class Node extends NodeParent implements TransformProvider {
       renderableInstance = null;
     }
 
-    if (renderable != null) {
-      RenderableInstance instance = renderable.createInstance(this);
-      if (active && (scene != null && !scene.isUnderTesting())) {
+    if (instance != null) {
+      if (active && !isRenderableBatched && (scene != null && !scene.isUnderTesting())) {
         instance.attachToRenderer(getRendererOrDie());
       }
       renderableInstance = instance;
-      renderableId = renderable.getId().get();
+      renderableId = instance.getRenderable().getId().get();
     } else {
       renderableId = ChangeId.EMPTY_ID;
     }
 
     refreshCollider();
+  }
 
-    return renderableInstance;
+  /**
+   * Called by {@link StaticBatchNode} to stop drawing the renderable of this node while a batch
+   * draws it. The node keeps its renderable and collision shape.
+   */
+  final void setRenderableBatched(boolean isRenderableBatched) {
+    if (this.isRenderableBatched == isRenderableBatched) {
+      return;
+    }
+
+    this.isRenderableBatched = isRenderableBatched;
+    if (!active || renderableInstance == null) {
+      return;
+    }
+
+    if (isRenderableBatched) {
+      renderableInstance.detachFromRenderer();
+    } else if (scene != null && !scene.isUnderTesting()) {
+      renderableInstance.attachToRenderer(getRendererOrDie());
+    }
   }
 
   /**
@@ -928,6 +1199,64 @@ public class Node extends NodeParent implements TransformProvider {
     return null;
   }
 
+  /**
+   * Sets the collision categories of this node, as a bitmask of up to 32 categories chosen by the
+   * app. Hit tests and overlap tests only consider this node if their collision mask shares a bit
+   * with its categories, and skip it before testing its collision shape. A node with no categories
+   * (0) is never hit, which suits helpers and visualizations that shouldn't block touches.
+   *
+   * <p>Defaults to {@link #DEFAULT_COLLISION_CATEGORY}.
+   *
+   * @see Scene#hitTest(Ray, int)
+   * @see Scene#overlapTestAll(Node, int)
+   * @param collisionCategory the bitmask of categories of this node
+   */
+  public void setCollisionCategory(int collisionCategory) {
+    AndroidPreconditions.checkUiThread();
+
+    this.collisionCategory = collisionCategory;
+    if (collider != null) {
+      collider.setCollisionCategory(collisionCategory);
+    }
+  }
+
+  /**
+   * Gets the collision categories of this node.
+   *
+   * @see #setCollisionCategory(int)
+   */
+  public int getCollisionCategory() {
+    return collisionCategory;
+  }
+
+  /**
+   * Sets the collision categories that this node overlaps with when it is used for an overlap
+   * test, as a bitmask. Both nodes must accept the category of the other to overlap.
+   *
+   * <p>Defaults to {@link #ALL_COLLISION_CATEGORIES}.
+   *
+   * @see Scene#overlapTest(Node)
+   * @see Scene#overlapTestAll(Node)
+   * @param collisionMask the bitmask of categories this node overlaps with
+   */
+  public void setCollisionMask(int collisionMask) {
+    AndroidPreconditions.checkUiThread();
+
+    this.collisionMask = collisionMask;
+    if (collider != null) {
+      collider.setCollisionMask(collisionMask);
+    }
+  }
+
+  /**
+   * Gets the collision categories that this node overlaps with.
+   *
+   * @see #setCollisionMask(int)
+   */
+  public int getCollisionMask() {
+    return collisionMask;
+  }
+
   /**
    * Sets the {@link Light} to display. To use, first create a {@link Light} using {@link
    * Light.Builder}. Set the parameters you care about and then attach it to the node using this
@@ -1001,6 +1330,12 @@ public class Node extends NodeParent implements TransformProvider {
     return getWorldModelMatrixInternal();
   }
 
+  /** @hide */
+  @Override
+  public final ChangeId getWorldModelMatrixId() {
+    return worldModelMatrixId;
+  }
+
   /**
    * Handles when this node becomes active. A Node is active if it's enabled, part of a scene, and
    * its parent is active.
@@ -1203,6 +1538,12 @@ public class Node extends NodeParent implements TransformProvider {
     return nameHash;
   }
 
+  @Override
+  @Nullable
+  final NodeNameIndex getNameIndex() {
+    return scene != null ? scene.nameIndex : null;
+  }
+
   /**
    * Calls onUpdate if the node is active. Used by SceneView to dispatch updates.
    *
@@ -1222,6 +1563,10 @@ public class Node extends NodeParent implements TransformProvider {
       renderableId = renderable.getId().get();
     }
 
+    if (levelOfDetail != null) {
+      levelOfDetail.update();
+    }
+
     onUpdate(frameTime);
 
     for (LifecycleListener lifecycleListener : lifecycleListeners) {
@@ -1307,6 +1652,24 @@ public class Node extends NodeParent implements TransformProvider {
     return renderableInstance;
   }
 
+  Vector3 getLocalPositionInternal() {
+    return localPosition;
+  }
+
+  Quaternion getLocalRotationInternal() {
+    return localRotation;
+  }
+
+  Vector3 getLocalScaleInternal() {
+    return localScale;
+  }
+
+  /** Called by the {@link TransformArena} when it has computed the world matrix of this node. */
+  final void setWorldModelMatrixFromArena(float[] worldMatrices, int offset) {
+    System.arraycopy(worldMatrices, offset, cachedWorldModelMatrix.data, 0, 16);
+    dirtyTransformFlags &= ~WORLD_TRANSFORM_DIRTY;
+  }
+
   Matrix getLocalModelMatrixInternal() {
     if ((dirtyTransformFlags & LOCAL_TRANSFORM_DIRTY) == LOCAL_TRANSFORM_DIRTY) {
       cachedLocalModelMatrix.makeTrs(localPosition, localRotation, localScale);
@@ -1328,6 +1691,15 @@ public class Node extends NodeParent implements TransformProvider {
   }
 
   private void setSceneRecursivelyInternal(@Nullable Scene scene) {
+    if (this.scene != scene) {
+      if (this.scene != null) {
+        this.scene.nameIndex.remove(this, nameHash);
+      }
+      if (scene != null) {
+        scene.nameIndex.add(this);
+      }
+    }
+
     this.scene = scene;
     for (Node node : getChildren()) {
       node.setSceneRecursively(scene);
@@ -1377,7 +1749,9 @@ public class Node extends NodeParent implements TransformProvider {
 
     active = true;
 
-    if ((scene != null && !scene.isUnderTesting()) && renderableInstance != null) {
+    if ((scene != null && !scene.isUnderTesting())
+        && renderableInstance != null
+        && !isRenderableBatched) {
       renderableInstance.attachToRenderer(getRendererOrDie());
     }
 
@@ -1449,6 +1823,8 @@ public class Node extends NodeParent implements TransformProvider {
       // Create the collider if it doesn't already exist.
       if (collider == null) {
         collider = new Collider(this, finalCollisionShape);
+        collider.setCollisionCategory(collisionCategory);
+        collider.setCollisionMask(collisionMask);
 
         // Attach the collider to the collision system if the node is already active.
         if (active && scene != null) {
@@ -1480,6 +1856,14 @@ public class Node extends NodeParent implements TransformProvider {
 
   private Matrix getWorldModelMatrixInternal() {
     if ((dirtyTransformFlags & WORLD_TRANSFORM_DIRTY) == WORLD_TRANSFORM_DIRTY) {
+      // Updating the arena computes the world matrices of all the dirty nodes in a single pass.
+      TransformArena transformArena = getTransformArena();
+      if (transformArena != null
+          && transformArena.update(this)
+          && (dirtyTransformFlags & WORLD_TRANSFORM_DIRTY) != WORLD_TRANSFORM_DIRTY) {
+        return cachedWorldModelMatrix;
+      }
+
       if (parentAsNode == null) {
         cachedWorldModelMatrix.set(getLocalModelMatrixInternal().data);
       } else {
@@ -1558,6 +1942,27 @@ public class Node extends NodeParent implements TransformProvider {
     return cachedWorldScale;
   }
 
+  private void onLocalTransformChanged() {
+    markTransformChangedRecursively(LOCAL_DIRTY_FLAGS, this);
+
+    TransformArena transformArena = getTransformArena();
+    if (transformArena != null) {
+      transformArena.onLocalTransformChanged(this);
+    }
+  }
+
+  private void markTransformArenaStructureDirty() {
+    TransformArena transformArena = getTransformArena();
+    if (transformArena != null) {
+      transformArena.markStructureDirty();
+    }
+  }
+
+  @Nullable
+  private TransformArena getTransformArena() {
+    return scene != null ? scene.transformArena : null;
+  }
+
   private void createLightInstance(Light light) {
     lightInstance = light.createInstance(this);
     if (lightInstance == null) {
@@ -1581,7 +1986,7 @@ public class Node extends NodeParent implements TransformProvider {
     lightInstance = null;
   }
 
-  private Renderer getRendererOrDie() {
+  Renderer getRendererOrDie() {
     if (scene == null) {
       throw new IllegalStateException("Unable to get Renderer.");
     }
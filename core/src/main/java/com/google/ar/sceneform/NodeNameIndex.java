@@ -0,0 +1,176 @@
+package com.google.ar.sceneform;
+
+import android.util.SparseArray;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps the name hash of every {@link Node} in a {@link Scene} to the nodes with that hash, so that
+ * {@link NodeParent#findByName(String)} doesn't need to traverse the hierarchy.
+ *
+ * <p>Nodes are added when they become part of the scene and removed when they leave it or are
+ * renamed. When several nodes match, the one that comes first in a depth first traversal is
+ * returned, the same as {@link NodeParent#findInHierarchy}.
+ *
+ * <p>Every node also stores its position in a depth first traversal of the scene and the end of
+ * the range of its subtree, so a lookup is a binary search in the nodes with the name. The
+ * positions are renumbered by the first lookup after the hierarchy or a name has changed, which
+ * costs one traversal of the scene.
+ */
+class NodeNameIndex {
+  static final int INVALID_POSITION = -1;
+
+  private final Scene scene;
+  // The nodes with each name hash. Sorted in traversal order while the order isn't dirty.
+  private final SparseArray<ArrayList<Node>> nodesByNameHash = new SparseArray<>();
+  private boolean isOrderDirty = true;
+  private int nodeCount;
+
+  NodeNameIndex(Scene scene) {
+    this.scene = scene;
+  }
+
+  void add(Node node) {
+    int nameHash = node.getNameHash();
+    ArrayList<Node> nodes = nodesByNameHash.get(nameHash);
+    if (nodes == null) {
+      nodes = new ArrayList<>();
+      nodesByNameHash.put(nameHash, nodes);
+    }
+
+    node.nameIndexPosition = nodes.size();
+    nodes.add(node);
+    isOrderDirty = true;
+  }
+
+  /** Removes a node that was added with the given name hash. */
+  void remove(Node node, int nameHash) {
+    ArrayList<Node> nodes = nodesByNameHash.get(nameHash);
+    int position = node.nameIndexPosition;
+    if (nodes == null || position < 0 || position >= nodes.size() || nodes.get(position) != node) {
+      return;
+    }
+
+    // Swap remove, the traversal order is restored by the next lookup.
+    int lastPosition = nodes.size() - 1;
+    Node last = nodes.get(lastPosition);
+    nodes.set(position, last);
+    last.nameIndexPosition = position;
+    nodes.remove(lastPosition);
+    node.nameIndexPosition = INVALID_POSITION;
+    isOrderDirty = true;
+
+    if (nodes.isEmpty()) {
+      nodesByNameHash.remove(nameHash);
+    }
+  }
+
+  /**
+   * Returns the first node in a depth first traversal of root that has the given name, using the
+   * same matching rules as {@link NodeParent#findByName(String)}.
+   */
+  @Nullable
+  Node find(NodeParent root, String name) {
+    if (isOrderDirty) {
+      renumber();
+    }
+
+    int nameHash = name.hashCode();
+    ArrayList<Node> nodes = nodesByNameHash.get(nameHash);
+    if (nodes == null) {
+      return null;
+    }
+
+    // The subtree of root is the range of traversal orders [start, end).
+    int start;
+    int end;
+    if (root instanceof Node) {
+      Node rootNode = (Node) root;
+      if (rootNode.getScene() != scene) {
+        return null;
+      }
+      start = rootNode.traversalOrder;
+      end = rootNode.subtreeEndOrder;
+    } else {
+      start = 0;
+      end = nodeCount;
+    }
+
+    for (int i = findFirstAtOrAfter(nodes, start); i < nodes.size(); i++) {
+      Node node = nodes.get(i);
+      if (node.traversalOrder >= end) {
+        break;
+      }
+
+      // A hash of zero isn't trusted on its own, the names must match.
+      if (nameHash != 0 || name.equals(node.getName())) {
+        return node;
+      }
+    }
+
+    return null;
+  }
+
+  /** Returns the position of the first node whose traversal order is at least order. */
+  private static int findFirstAtOrAfter(ArrayList<Node> nodes, int order) {
+    int low = 0;
+    int high = nodes.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (nodes.get(middle).traversalOrder < order) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Numbers the nodes of the scene in depth first order, and refills the lists of nodes in that
+   * order so that they are sorted.
+   */
+  private void renumber() {
+    for (int i = 0; i < nodesByNameHash.size(); i++) {
+      nodesByNameHash.valueAt(i).clear();
+    }
+
+    nodeCount = 0;
+    List<Node> children = scene.getChildren();
+    for (int i = 0; i < children.size(); i++) {
+      append(children.get(i));
+    }
+
+    for (int i = nodesByNameHash.size() - 1; i >= 0; i--) {
+      if (nodesByNameHash.valueAt(i).isEmpty()) {
+        nodesByNameHash.removeAt(i);
+      }
+    }
+
+    isOrderDirty = false;
+  }
+
+  private void append(Node node) {
+    node.traversalOrder = nodeCount++;
+
+    // Nodes that are being added to the scene are indexed once their scene is set.
+    if (node.getScene() == scene) {
+      int nameHash = node.getNameHash();
+      ArrayList<Node> nodes = nodesByNameHash.get(nameHash);
+      if (nodes == null) {
+        nodes = new ArrayList<>();
+        nodesByNameHash.put(nameHash, nodes);
+      }
+      node.nameIndexPosition = nodes.size();
+      nodes.add(node);
+    }
+
+    List<Node> children = node.getChildren();
+    for (int i = 0; i < children.size(); i++) {
+      append(children.get(i));
+    }
+
+    node.subtreeEndOrder = nodeCount;
+  }
+}
@@ -140,6 +140,11 @@ public abstract class NodeParent {
       return null;
     }
 
+    NodeNameIndex nameIndex = getNameIndex();
+    if (nameIndex != null) {
+      return nameIndex.find(this, name);
+    }
+
     int hashToFind = name.hashCode();
     Node found =
         findInHierarchy(
@@ -152,6 +157,15 @@ public abstract class NodeParent {
     return found;
   }
 
+  /**
+   * Returns the name index of the scene that this NodeParent is part of, or null if it isn't part
+   * of a scene. Used by {@link #findByName(String)} to avoid traversing the hierarchy.
+   */
+  @Nullable
+  NodeNameIndex getNameIndex() {
+    return null;
+  }
+
   protected boolean canAddChild(Node child, StringBuilder failureReason) {
     Preconditions.checkNotNull(child, "Parameter \"child\" was null.");
     Preconditions.checkNotNull(failureReason, "Parameter \"failureReason\" was null.");
@@ -96,6 +96,8 @@ public class Scene extends NodeParent {
   // Systems.
   final CollisionSystem collisionSystem = new CollisionSystem();
   private final TouchEventSystem touchEventSystem = new TouchEventSystem();
+  @Nullable TransformArena transformArena;
+  final NodeNameIndex nameIndex = new NodeNameIndex(this);
 
   private final ArrayList<OnUpdateListener> onUpdateListeners = new ArrayList<>();
 
@@ -256,15 +258,62 @@ public class Scene extends NodeParent {
     onUpdateListeners.remove(onUpdateListener);
   }
 
+  /**
+   * Enables or disables the transform arena of the scene. When enabled, the local and world
+   * transforms of every node in the scene are stored in contiguous arrays ordered from parent to
+   * child, and the world transforms of all nodes that have changed are recomputed in a single linear
+   * pass once per frame instead of lazily one node at a time.
+   *
+   * <p>This is most useful for scenes containing thousands of nodes. Changing the hierarchy of the
+   * scene causes the arena to be rebuilt, so it is less suited to scenes where nodes are frequently
+   * added or removed. Disabled by default.
+   *
+   * @param enabled true to enable the transform arena
+   */
+  public void setTransformArenaEnabled(boolean enabled) {
+    AndroidPreconditions.checkUiThread();
+
+    if (enabled == isTransformArenaEnabled()) {
+      return;
+    }
+
+    if (enabled) {
+      transformArena = new TransformArena(this);
+    } else {
+      Preconditions.checkNotNull(transformArena).clear();
+      transformArena = null;
+    }
+  }
+
+  /**
+   * Returns true if the transform arena of the scene is enabled.
+   *
+   * @see #setTransformArenaEnabled(boolean)
+   */
+  public boolean isTransformArenaEnabled() {
+    return transformArena != null;
+  }
+
+  @Override
+  NodeNameIndex getNameIndex() {
+    return nameIndex;
+  }
+
   @Override
   public void onAddChild(Node child) {
     super.onAddChild(child);
+    if (transformArena != null) {
+      transformArena.markStructureDirty();
+    }
     child.setSceneRecursively(this);
   }
 
   @Override
   public void onRemoveChild(Node child) {
     super.onRemoveChild(child);
+    if (transformArena != null) {
+      transformArena.markStructureDirty();
+    }
     child.setSceneRecursively(null);
   }
 
@@ -288,6 +337,27 @@ public class Scene extends NodeParent {
     return hitTest(ray);
   }
 
+  /**
+   * Tests to see if a motion event is touching any nodes with a collision category in {@code
+   * collisionMask}, and outputs a HitTestResult containing the node closest to the screen.
+   *
+   * @see Node#setCollisionCategory(int)
+   * @param motionEvent the motion event to use for the test
+   * @param collisionMask the bitmask of collision categories of the nodes to test
+   * @return the result includes the first node that was hit by the motion event (may be null), and
+   *     information about where the motion event hit the node in world-space
+   */
+  public HitTestResult hitTest(MotionEvent motionEvent, int collisionMask) {
+    Preconditions.checkNotNull(motionEvent, "Parameter \"motionEvent\" was null.");
+
+    if (camera == null) {
+      return new HitTestResult();
+    }
+
+    Ray ray = camera.motionEventToRay(motionEvent);
+    return hitTest(ray, collisionMask);
+  }
+
   /**
    * Tests to see if a ray is hitting any nodes within the scene and outputs a HitTestResult
    * containing the node closest to the ray origin that intersects with the ray.
@@ -298,10 +368,25 @@ public class Scene extends NodeParent {
    *     information about where the ray hit the node in world-space
    */
   public HitTestResult hitTest(Ray ray) {
+    return hitTest(ray, Node.ALL_COLLISION_CATEGORIES);
+  }
+
+  /**
+   * Tests to see if a ray is hitting any nodes with a collision category in {@code collisionMask}
+   * and outputs a HitTestResult containing the node closest to the ray origin that intersects with
+   * the ray.
+   *
+   * @see Node#setCollisionCategory(int)
+   * @param ray the ray to use for the test
+   * @param collisionMask the bitmask of collision categories of the nodes to test
+   * @return the result includes the first node that was hit by the ray (may be null), and
+   *     information about where the ray hit the node in world-space
+   */
+  public HitTestResult hitTest(Ray ray, int collisionMask) {
     Preconditions.checkNotNull(ray, "Parameter \"ray\" was null.");
 
     HitTestResult result = new HitTestResult();
-    Collider collider = collisionSystem.raycast(ray, result);
+    Collider collider = collisionSystem.raycast(ray, result, collisionMask);
     if (collider != null) {
       result.setNode((Node) collider.getTransformProvider());
     }
@@ -327,6 +412,27 @@ public class Scene extends NodeParent {
     return hitTestAll(ray);
   }
 
+  /**
+   * Tests to see if a motion event is touching any nodes with a collision category in {@code
+   * collisionMask} and returns a list of HitTestResults containing all of the nodes that were hit,
+   * sorted by distance.
+   *
+   * @see Node#setCollisionCategory(int)
+   * @param motionEvent The motion event to use for the test.
+   * @param collisionMask The bitmask of collision categories of the nodes to test.
+   * @return Populated with a HitTestResult for each node that was hit sorted by distance. Empty if
+   *     no nodes were hit.
+   */
+  public ArrayList<HitTestResult> hitTestAll(MotionEvent motionEvent, int collisionMask) {
+    Preconditions.checkNotNull(motionEvent, "Parameter \"motionEvent\" was null.");
+
+    if (camera == null) {
+      return new ArrayList<>();
+    }
+    Ray ray = camera.motionEventToRay(motionEvent);
+    return hitTestAll(ray, collisionMask);
+  }
+
   /**
    * Tests to see if a ray is hitting any nodes within the scene and returns a list of
    * HitTestResults containing all of the nodes that were hit, sorted by distance.
@@ -337,6 +443,21 @@ public class Scene extends NodeParent {
    *     no nodes were hit.
    */
   public ArrayList<HitTestResult> hitTestAll(Ray ray) {
+    return hitTestAll(ray, Node.ALL_COLLISION_CATEGORIES);
+  }
+
+  /**
+   * Tests to see if a ray is hitting any nodes with a collision category in {@code collisionMask}
+   * and returns a list of HitTestResults containing all of the nodes that were hit, sorted by
+   * distance.
+   *
+   * @see Node#setCollisionCategory(int)
+   * @param ray The ray to use for the test.
+   * @param collisionMask The bitmask of collision categories of the nodes to test.
+   * @return Populated with a HitTestResult for each node that was hit sorted by distance. Empty if
+   *     no nodes were hit.
+   */
+  public ArrayList<HitTestResult> hitTestAll(Ray ray, int collisionMask) {
     Preconditions.checkNotNull(ray, "Parameter \"ray\" was null.");
 
     ArrayList<HitTestResult> results = new ArrayList<>();
@@ -345,7 +466,8 @@ public class Scene extends NodeParent {
         ray,
         results,
         (result, collider) -> result.setNode((Node) collider.getTransformProvider()),
-        () -> new HitTestResult());
+        () -> new HitTestResult(),
+        collisionMask);
 
     return results;
   }
@@ -363,6 +485,23 @@ public class Scene extends NodeParent {
    */
   @Nullable
   public Node overlapTest(Node node) {
+    return overlapTest(node, Node.ALL_COLLISION_CATEGORIES);
+  }
+
+  /**
+   * Tests to see if the given node's collision shape overlaps the collision shape of any other
+   * nodes with a collision category in {@code collisionMask}. Nodes are also filtered by {@link
+   * Node#getCollisionMask()} of the test node, and must accept its category.
+   *
+   * @see Node#setCollisionCategory(int)
+   * @param node The node to use for the test.
+   * @param collisionMask The bitmask of collision categories of the nodes to test.
+   * @return A node that is overlapping the test node. If no node is overlapping the test node, then
+   *     this is null. If multiple nodes are overlapping the test node, then this could be any of
+   *     them.
+   */
+  @Nullable
+  public Node overlapTest(Node node, int collisionMask) {
     Preconditions.checkNotNull(node, "Parameter \"node\" was null.");
 
     Collider collider = node.getCollider();
@@ -370,7 +509,7 @@ public class Scene extends NodeParent {
       return null;
     }
 
-    Collider intersectedCollider = collisionSystem.intersects(collider);
+    Collider intersectedCollider = collisionSystem.intersects(collider, collisionMask);
     if (intersectedCollider == null) {
       return null;
     }
@@ -388,6 +527,21 @@ public class Scene extends NodeParent {
    *     test node, then the list is empty.
    */
   public ArrayList<Node> overlapTestAll(Node node) {
+    return overlapTestAll(node, Node.ALL_COLLISION_CATEGORIES);
+  }
+
+  /**
+   * Tests to see if a node is overlapping any other nodes with a collision category in {@code
+   * collisionMask}. Nodes are also filtered by {@link Node#getCollisionMask()} of the test node,
+   * and must accept its category.
+   *
+   * @see Node#setCollisionCategory(int)
+   * @param node The node to use for the test.
+   * @param collisionMask The bitmask of collision categories of the nodes to test.
+   * @return A list of all nodes that are overlapping the test node. If no node is overlapping the
+   *     test node, then the list is empty.
+   */
+  public ArrayList<Node> overlapTestAll(Node node, int collisionMask) {
     Preconditions.checkNotNull(node, "Parameter \"node\" was null.");
 
     ArrayList<Node> results = new ArrayList<>();
@@ -400,7 +554,8 @@ public class Scene extends NodeParent {
     collisionSystem.intersectsAll(
         collider,
         (Collider intersectedCollider) ->
-            results.add((Node) intersectedCollider.getTransformProvider()));
+            results.add((Node) intersectedCollider.getTransformProvider()),
+        collisionMask);
 
     return results;
   }
@@ -505,6 +660,11 @@ public class Scene extends NodeParent {
     }
 
     callOnHierarchy(node -> node.dispatchUpdate(frameTime));
+
+    // Propagate all of the transforms changed during the update before the scene is rendered.
+    if (transformArena != null) {
+      transformArena.update();
+    }
   }
 
   @SuppressWarnings({"AndroidApiChecker", "FutureReturnValueIgnored"})
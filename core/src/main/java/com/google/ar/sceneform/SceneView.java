@@ -17,9 +17,10 @@ import androidx.annotation.Nullable;
 import com.google.android.filament.View;
 import com.google.ar.core.exceptions.CameraNotAvailableException;
 import com.google.ar.sceneform.rendering.Color;
+import com.google.ar.sceneform.rendering.MainThreadWorkQueue;
 import com.google.ar.sceneform.rendering.Renderer;
+import com.google.ar.sceneform.rendering.ThreadPools;
 import com.google.ar.sceneform.utilities.AndroidPreconditions;
-import com.google.ar.sceneform.utilities.MovingAverageMillisecondsTracker;
 import com.google.ar.sceneform.utilities.Preconditions;
 
 import java.util.concurrent.TimeUnit;
@@ -44,12 +45,7 @@ public class SceneView extends SurfaceView implements Choreographer.FrameCallbac
     private Color backgroundColor;
 
     // Used to track high-level performance metrics for Sceneform
-    private final MovingAverageMillisecondsTracker frameTotalTracker =
-            new MovingAverageMillisecondsTracker();
-    private final MovingAverageMillisecondsTracker frameUpdateTracker =
-            new MovingAverageMillisecondsTracker();
-    private final MovingAverageMillisecondsTracker frameRenderTracker =
-            new MovingAverageMillisecondsTracker();
+    private final FrameStatistics frameStatistics = new FrameStatistics();
 
 
     /**
@@ -188,8 +184,8 @@ public class SceneView extends SurfaceView implements Choreographer.FrameCallbac
     /**
      * Releases rendering resources ready for garbage collection
      *
-     * <p>Called every frame to collect unused resources. May be called manually to release resources
-     * after rendering has stopped.
+     * <p>Unused resources are released a few at a time every frame. May be called manually to
+     * release all of them at once, for example after rendering has stopped.
      *
      * @return Count of resources currently in use
      */
@@ -213,6 +209,68 @@ public class SceneView extends SurfaceView implements Choreographer.FrameCallbac
         return debugEnabled;
     }
 
+    /**
+     * Returns the timing statistics of the frames drawn by this view.
+     */
+    public FrameStatistics getFrameStatistics() {
+        return frameStatistics;
+    }
+
+    /**
+     * Only renders a frame when the scene has changed since the last rendered frame, which saves
+     * power in scenes that are mostly static. The scene is still updated every frame, so node
+     * updates and animations keep running, and any change to a transform, renderable, material,
+     * light, animation or the camera renders a new frame. Disabled by default.
+     *
+     * <p>Content that changes outside of the scene, such as an external or video texture or a
+     * {@link com.google.ar.sceneform.rendering.ViewRenderable} whose view was redrawn, must be
+     * signaled with {@link #requestRender()}.
+     *
+     * @param renderOnDemand True to only render frames when the scene has changed.
+     */
+    public void setRenderOnDemand(boolean renderOnDemand) {
+        if (renderer != null) {
+            renderer.setRenderOnDemand(renderOnDemand);
+        }
+    }
+
+    /**
+     * Indicates whether frames are only rendered when the scene has changed.
+     */
+    public boolean isRenderOnDemand() {
+        return renderer != null && renderer.isRenderOnDemand();
+    }
+
+    /**
+     * Renders the next frame even if the scene hasn't changed, when render on demand is enabled.
+     */
+    public void requestRender() {
+        if (renderer != null) {
+            renderer.requestRender();
+        }
+    }
+
+    /**
+     * Sets the time that can be spent on the main thread during each frame to complete loads of
+     * renderables, textures and materials, which create their Filament resources on the main
+     * thread. Loads that complete together are spread over several frames to stay within the
+     * budget, and at least one load is completed each frame. The budget is shared by every view
+     * and defaults to 4 milliseconds.
+     *
+     * @param budgetNanos the time in nanoseconds that loads may use during each frame
+     */
+    public void setLoadCompletionBudgetNanos(long budgetNanos) {
+        ThreadPools.getMainThreadWorkQueue().setFrameBudgetNanos(budgetNanos);
+    }
+
+    /**
+     * Returns the time in nanoseconds that can be spent on the main thread during each frame to
+     * complete loads.
+     */
+    public long getLoadCompletionBudgetNanos() {
+        return ThreadPools.getMainThreadWorkQueue().getFrameBudgetNanos();
+    }
+
     /**
      * Returns the renderer used for this view, or null if the renderer is not setup.
      *
@@ -323,38 +381,47 @@ public class SceneView extends SurfaceView implements Choreographer.FrameCallbac
      * @hide
      */
     public void doFrameNoRepost(long frameTimeNanos) {
-        // TODO: Display the tracked performance metrics in debug mode.
-        if (debugEnabled) {
-            frameTotalTracker.beginSample();
-        }
+        frameStatistics.beginPhase(FrameStatistics.Phase.FRAME);
+
+        doLoadCompletion(frameTimeNanos);
 
         if (onBeginFrame(frameTimeNanos)) {
             doUpdate(frameTimeNanos);
             doRender(frameTimeNanos);
         }
 
-        if (debugEnabled) {
-            frameTotalTracker.endSample();
-            if ((System.currentTimeMillis() / 1000) % 60 == 0) {
-                Log.d(TAG, " PERF COUNTER: frameRender: " + frameRenderTracker.getAverage());
-                Log.d(TAG, " PERF COUNTER: frameTotal: " + frameTotalTracker.getAverage());
-                Log.d(TAG, " PERF COUNTER: frameUpdate: " + frameUpdateTracker.getAverage());
-            }
+        frameStatistics.endPhase(FrameStatistics.Phase.FRAME);
+
+        if (debugEnabled && (System.currentTimeMillis() / 1000) % 60 == 0) {
+            Log.d(TAG, " PERF COUNTER: " + frameStatistics);
         }
+
+        frameStatistics.onFrameEnd();
     }
 
-    private void doUpdate(long frameTimeNanos) {
-        if (debugEnabled) {
-            frameUpdateTracker.beginSample();
+    private void doLoadCompletion(long frameTimeNanos) {
+        MainThreadWorkQueue workQueue = ThreadPools.getMainThreadWorkQueue();
+        if (workQueue.getQueuedTaskCount() == 0) {
+            return;
         }
 
+        frameStatistics.beginPhase(FrameStatistics.Phase.LOAD_COMPLETION);
+
+        // Loads that completed in the background create their Filament resources here, within the
+        // budget of the frame, before the scene is updated so that they are drawn this frame.
+        workQueue.drain(frameTimeNanos);
+
+        frameStatistics.endPhase(FrameStatistics.Phase.LOAD_COMPLETION);
+    }
+
+    private void doUpdate(long frameTimeNanos) {
+        frameStatistics.beginPhase(FrameStatistics.Phase.UPDATE);
+
         frameTime.update(frameTimeNanos);
 
         scene.dispatchUpdate(frameTime);
 
-        if (debugEnabled) {
-            frameUpdateTracker.endSample();
-        }
+        frameStatistics.endPhase(FrameStatistics.Phase.UPDATE);
     }
 
     private void doRender(long frameTimeNanos) {
@@ -363,14 +430,16 @@ public class SceneView extends SurfaceView implements Choreographer.FrameCallbac
             return;
         }
 
-        if (debugEnabled) {
-            frameRenderTracker.beginSample();
-        }
+        frameStatistics.beginPhase(FrameStatistics.Phase.RENDER);
 
         renderer.render(frameTimeNanos, debugEnabled);
 
-        if (debugEnabled) {
-            frameRenderTracker.endSample();
+        frameStatistics.endPhase(FrameStatistics.Phase.RENDER);
+
+        long reclaimDurationNanos = renderer.getReclaimDurationNanos();
+        if (reclaimDurationNanos >= 0) {
+            frameStatistics.addPhaseSample(
+                    FrameStatistics.Phase.RESOURCE_RECLAMATION, reclaimDurationNanos);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,276 @@
+package com.google.ar.sceneform;
+
+import com.google.ar.sceneform.math.Matrix;
+import com.google.ar.sceneform.rendering.Material;
+import com.google.ar.sceneform.rendering.Renderable;
+import com.google.ar.sceneform.rendering.StaticBatch;
+import com.google.ar.sceneform.utilities.AndroidPreconditions;
+import com.google.ar.sceneform.utilities.ChangeId;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * Draws the renderables of the static nodes in its subtree as a few merged batches, one for each
+ * {@link Material}, instead of one Filament renderable for each node.
+ *
+ * <p>Nodes are marked with {@link Node#setStatic(boolean)}. Only renderables built from a {@link
+ * com.google.ar.sceneform.rendering.RenderableDefinition} are batched, and only submeshes that use
+ * the same {@link Material} object are merged, so renderables that should share a batch must share
+ * their materials rather than use copies of them.
+ *
+ * <p>Batched nodes keep their renderable and collision shape, so they can still be tapped and hit
+ * tested. When a batched node is moved, enabled or disabled, only the batches that contain its
+ * submeshes are rebuilt at the next frame. Moving the batch node itself doesn't rebuild anything.
+ * Call {@link #rebuild()} after adding or removing static nodes.
+ *
+ * <pre>{@code
+ * StaticBatchNode decor = new StaticBatchNode();
+ * decor.setParent(scene);
+ * for (Vector3 position : rockPositions) {
+ *   Node rock = new Node();
+ *   rock.setRenderable(rockRenderable);
+ *   rock.setLocalPosition(position);
+ *   rock.setStatic(true);
+ *   rock.setParent(decor);
+ * }
+ * decor.rebuild();
+ * }</pre>
+ */
+public class StaticBatchNode extends Node {
+  private final ArrayList<Batch> batches = new ArrayList<>();
+  private final ArrayList<Source> sources = new ArrayList<>();
+
+  // Transform of a source relative to this node, compared with the one its batch was built with.
+  private final Matrix relativeTransform = new Matrix();
+
+  /** A node whose renderable is drawn by the batches. */
+  private static final class Source {
+    final Node node;
+    final Renderable renderable;
+    final int renderableId;
+    final ArrayList<Batch> batches = new ArrayList<>();
+    // The transform of the renderable relative to the batch node when it was last batched.
+    final Matrix transform = new Matrix();
+    int worldModelMatrixId = ChangeId.EMPTY_ID;
+    int finalModelMatrixId = ChangeId.EMPTY_ID;
+    int geometryId;
+    boolean isActive;
+
+    Source(Node node, Renderable renderable) {
+      this.node = node;
+      this.renderable = renderable;
+      renderableId = renderable.getId().get();
+      geometryId = renderable.getGeometryId().get();
+    }
+  }
+
+  /** The merged submeshes of one material. */
+  private static final class Batch {
+    final StaticBatch staticBatch;
+    final ArrayList<Source> sources = new ArrayList<>();
+    boolean isDirty = true;
+
+    Batch(StaticBatch staticBatch) {
+      this.staticBatch = staticBatch;
+    }
+  }
+
+  /** Returns the number of batches, which is the number of distinct materials batched. */
+  public int getBatchCount() {
+    return batches.size();
+  }
+
+  /** Returns the number of nodes whose renderables are drawn by the batches. */
+  public int getBatchedNodeCount() {
+    return sources.size();
+  }
+
+  /**
+   * Collects the static nodes in the subtree of this node and rebuilds every batch. Nodes that are
+   * no longer static or no longer in the subtree draw their own renderable again.
+   */
+  public void rebuild() {
+    AndroidPreconditions.checkUiThread();
+
+    for (int i = 0; i < sources.size(); i++) {
+      sources.get(i).node.setRenderableBatched(false);
+    }
+    sources.clear();
+
+    // Batches of materials that are still used are kept, so their renderables are reused.
+    IdentityHashMap<Material, Batch> batchesByMaterial = new IdentityHashMap<>();
+    for (int i = 0; i < batches.size(); i++) {
+      Batch batch = batches.get(i);
+      batch.sources.clear();
+      batchesByMaterial.put(batch.staticBatch.getMaterial(), batch);
+    }
+    ArrayList<Batch> oldBatches = new ArrayList<>(batches);
+    batches.clear();
+
+    callOnHierarchy(
+        node -> {
+          Renderable renderable = node.getRenderable();
+          if (node == this
+              || !node.isStatic()
+              || node.getLevelOfDetail() != null
+              || renderable == null
+              || !StaticBatch.canBatch(renderable)) {
+            return;
+          }
+
+          Source source = new Source(node, renderable);
+          for (int i = 0; i < renderable.getSubmeshCount(); i++) {
+            Material material = renderable.getMaterial(i);
+            Batch batch = batchesByMaterial.get(material);
+            if (batch == null) {
+              batch = new Batch(new StaticBatch(material, this));
+              batchesByMaterial.put(material, batch);
+            }
+            if (!batch.sources.contains(source)) {
+              batch.sources.add(source);
+              source.batches.add(batch);
+            }
+            if (!batches.contains(batch)) {
+              batches.add(batch);
+            }
+          }
+
+          sources.add(source);
+          node.setRenderableBatched(true);
+        });
+
+    for (int i = 0; i < oldBatches.size(); i++) {
+      Batch batch = oldBatches.get(i);
+      if (!batches.contains(batch)) {
+        batch.staticBatch.detachFromRenderer();
+      }
+    }
+
+    for (int i = 0; i < sources.size(); i++) {
+      updateSource(sources.get(i));
+    }
+
+    Scene scene = getScene();
+    boolean isAttached = isActive() && scene != null && !scene.isUnderTesting();
+    for (int i = 0; i < batches.size(); i++) {
+      Batch batch = batches.get(i);
+      buildBatch(batch);
+      if (isAttached) {
+        batch.staticBatch.attachToRenderer(getRendererOrDie());
+      }
+    }
+  }
+
+  /** Collects the static nodes again, since the subtree may have changed while inactive. */
+  @Override
+  public void onActivate() {
+    rebuild();
+  }
+
+  /**
+   * Hands the renderables back to their nodes, since a node removed from the subtree while this
+   * node is inactive isn't seen by {@link #onUpdate(FrameTime)}.
+   */
+  @Override
+  public void onDeactivate() {
+    for (int i = 0; i < sources.size(); i++) {
+      sources.get(i).node.setRenderableBatched(false);
+    }
+    for (int i = 0; i < batches.size(); i++) {
+      batches.get(i).staticBatch.detachFromRenderer();
+    }
+  }
+
+  /** Rebuilds the batches of the nodes that have moved, been enabled or been disabled. */
+  @Override
+  public void onUpdate(FrameTime frameTime) {
+    for (int i = 0; i < sources.size(); i++) {
+      Source source = sources.get(i);
+      Node node = source.node;
+
+      // The node was changed in a way that moves its submeshes to other batches.
+      if (!node.isStatic()
+          || node.getRenderable() != source.renderable
+          || source.renderable.getId().get() != source.renderableId
+          || !node.isDescendantOf(this)) {
+        rebuild();
+        return;
+      }
+
+      if (updateSource(source)) {
+        for (int j = 0; j < source.batches.size(); j++) {
+          source.batches.get(j).isDirty = true;
+        }
+      }
+    }
+
+    for (int i = 0; i < batches.size(); i++) {
+      Batch batch = batches.get(i);
+      if (batch.isDirty) {
+        buildBatch(batch);
+      }
+    }
+  }
+
+  /**
+   * Updates the active state, geometry and transform of a source, and returns true if any of them
+   * changed in a way that changes its batches.
+   */
+  private boolean updateSource(Source source) {
+    Node node = source.node;
+    boolean isChanged = false;
+    if (source.isActive != node.isActive()) {
+      source.isActive = node.isActive();
+      isChanged = true;
+    }
+
+    // A range of vertices or indices was updated, the batches copy the geometry again.
+    ChangeId geometryId = source.renderable.getGeometryId();
+    if (geometryId.checkChanged(source.geometryId)) {
+      source.geometryId = geometryId.get();
+      isChanged = true;
+    }
+
+    ChangeId changeId = node.getWorldModelMatrixId();
+    ChangeId finalModelMatrixId = source.renderable.getFinalModelMatrixId();
+    if (source.worldModelMatrixId != ChangeId.EMPTY_ID
+        && !changeId.checkChanged(source.worldModelMatrixId)
+        && !finalModelMatrixId.checkChanged(source.finalModelMatrixId)) {
+      return isChanged;
+    }
+    source.worldModelMatrixId = changeId.get();
+    source.finalModelMatrixId = finalModelMatrixId.get();
+
+    // Moving the batch node moves its subtree with it, which doesn't change the relative transform.
+    Matrix.multiply(
+        getWorldModelMatrixInverseInternal(),
+        source.renderable.getFinalModelMatrix(node.getWorldModelMatrix()),
+        relativeTransform);
+    if (!Matrix.equals(relativeTransform, source.transform)) {
+      source.transform.set(relativeTransform.data);
+      isChanged = true;
+    }
+    return isChanged;
+  }
+
+  private static void buildBatch(Batch batch) {
+    StaticBatch staticBatch = batch.staticBatch;
+    staticBatch.clear();
+    for (int i = 0; i < batch.sources.size(); i++) {
+      Source source = batch.sources.get(i);
+      if (!source.isActive) {
+        continue;
+      }
+
+      Renderable renderable = source.renderable;
+      for (int j = 0; j < renderable.getSubmeshCount(); j++) {
+        if (renderable.getMaterial(j) == staticBatch.getMaterial()) {
+          staticBatch.addSubmesh(renderable, j, source.transform);
+        }
+      }
+    }
+
+    staticBatch.build();
+    batch.isDirty = false;
+  }
+}
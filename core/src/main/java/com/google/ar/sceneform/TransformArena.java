@@ -0,0 +1,313 @@
+package com.google.ar.sceneform;
+
+import com.google.ar.sceneform.math.Quaternion;
+import com.google.ar.sceneform.math.Vector3;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the local and world transforms of every {@link Node} in a {@link Scene} in contiguous
+ * float arrays, ordered so that a parent always comes before its children.
+ *
+ * <p>World matrices are computed in a single linear pass over the dirty ranges of the arrays
+ * instead of lazily recursing through each node's parents. The results are written back to the
+ * nodes so that their getters don't need to recompute them. Each node's subtree occupies a
+ * contiguous range of the arrays, so a change to a node only recomputes the range of its subtree.
+ *
+ * <p>The arena is rebuilt whenever the hierarchy of the scene changes.
+ *
+ * @see Scene#setTransformArenaEnabled(boolean)
+ */
+class TransformArena {
+  static final int INVALID_INDEX = -1;
+
+  private static final int INITIAL_CAPACITY = 64;
+  private static final int MATRIX_SIZE = 16;
+
+  private final Scene scene;
+
+  private int capacity;
+  private int count;
+
+  // Local TRS, stored as [x, y, z] positions, [x, y, z, w] rotations and [x, y, z] scales.
+  private float[] localPositions;
+  private float[] localRotations;
+  private float[] localScales;
+  private float[] localMatrices;
+  private float[] worldMatrices;
+
+  private int[] parentIndices;
+  // Exclusive end of the range occupied by the subtree of each node.
+  private int[] subtreeEnds;
+  private boolean[] localDirty;
+  private Node[] nodes;
+
+  private boolean isStructureDirty = true;
+  private int dirtyStart = Integer.MAX_VALUE;
+  private int dirtyEnd = 0;
+
+  TransformArena(Scene scene) {
+    this.scene = scene;
+    allocate(INITIAL_CAPACITY);
+  }
+
+  /** Returns the number of nodes stored in the arena. */
+  int getNodeCount() {
+    return count;
+  }
+
+  /** Called when nodes are added to or removed from the scene's hierarchy. */
+  void markStructureDirty() {
+    isStructureDirty = true;
+  }
+
+  /** Called when the local position, rotation or scale of a node has changed. */
+  void onLocalTransformChanged(Node node) {
+    if (isStructureDirty) {
+      // Every node will be refreshed when the arena is rebuilt.
+      return;
+    }
+
+    int index = node.transformArenaIndex;
+    if (!contains(node)) {
+      return;
+    }
+
+    copyLocalTransform(node, index);
+    localDirty[index] = true;
+    dirtyStart = Math.min(dirtyStart, index);
+    dirtyEnd = Math.max(dirtyEnd, subtreeEnds[index]);
+  }
+
+  /**
+   * Recomputes the world matrix of every node whose transform has changed since the last update,
+   * and writes them back to the nodes.
+   *
+   * @return true if the given node is stored in the arena, in which case its world matrix is up to
+   *     date.
+   */
+  boolean update(Node node) {
+    update();
+    return contains(node);
+  }
+
+  /**
+   * Recomputes the world matrix of every node whose transform has changed since the last update,
+   * and writes them back to the nodes.
+   */
+  void update() {
+    if (isStructureDirty) {
+      rebuild();
+    }
+
+    int index = dirtyStart;
+    int end = Math.min(dirtyEnd, count);
+    while (index < end) {
+      if (!localDirty[index]) {
+        index++;
+        continue;
+      }
+
+      // The whole subtree of a dirty node is contiguous and must be recomputed.
+      int subtreeEnd = subtreeEnds[index];
+      for (int i = index; i < subtreeEnd; i++) {
+        if (localDirty[i]) {
+          computeLocalMatrix(i);
+          localDirty[i] = false;
+        }
+
+        int parentIndex = parentIndices[i];
+        if (parentIndex == INVALID_INDEX) {
+          System.arraycopy(
+              localMatrices, i * MATRIX_SIZE, worldMatrices, i * MATRIX_SIZE, MATRIX_SIZE);
+        } else {
+          multiply(worldMatrices, parentIndex * MATRIX_SIZE, localMatrices, i * MATRIX_SIZE, i);
+        }
+
+        nodes[i].setWorldModelMatrixFromArena(worldMatrices, i * MATRIX_SIZE);
+      }
+
+      index = subtreeEnd;
+    }
+
+    dirtyStart = Integer.MAX_VALUE;
+    dirtyEnd = 0;
+  }
+
+  /** Releases the references to the nodes held by the arena. */
+  void clear() {
+    for (int i = 0; i < count; i++) {
+      nodes[i].transformArenaIndex = INVALID_INDEX;
+      nodes[i] = null;
+    }
+
+    count = 0;
+    isStructureDirty = true;
+    dirtyStart = Integer.MAX_VALUE;
+    dirtyEnd = 0;
+  }
+
+  private boolean contains(Node node) {
+    int index = node.transformArenaIndex;
+    return index >= 0 && index < count && nodes[index] == node;
+  }
+
+  private void rebuild() {
+    int previousCount = count;
+    count = 0;
+
+    List<Node> children = scene.getChildren();
+    for (int i = 0; i < children.size(); i++) {
+      append(children.get(i), INVALID_INDEX);
+    }
+
+    // Release nodes that are no longer part of the scene.
+    for (int i = count; i < previousCount; i++) {
+      Node node = nodes[i];
+      if (node != null && node.transformArenaIndex == i) {
+        node.transformArenaIndex = INVALID_INDEX;
+      }
+      nodes[i] = null;
+    }
+
+    isStructureDirty = false;
+    dirtyStart = 0;
+    dirtyEnd = count;
+  }
+
+  private void append(Node node, int parentIndex) {
+    if (count == capacity) {
+      allocate(capacity * 2);
+    }
+
+    int index = count++;
+    Node previousNode = nodes[index];
+    if (previousNode != null && previousNode != node && previousNode.transformArenaIndex == index) {
+      previousNode.transformArenaIndex = INVALID_INDEX;
+    }
+
+    nodes[index] = node;
+    node.transformArenaIndex = index;
+    parentIndices[index] = parentIndex;
+    copyLocalTransform(node, index);
+    localDirty[index] = true;
+
+    List<Node> children = node.getChildren();
+    for (int i = 0; i < children.size(); i++) {
+      append(children.get(i), index);
+    }
+
+    subtreeEnds[index] = count;
+  }
+
+  private void copyLocalTransform(Node node, int index) {
+    Vector3 position = node.getLocalPositionInternal();
+    int offset = index * 3;
+    localPositions[offset] = position.x;
+    localPositions[offset + 1] = position.y;
+    localPositions[offset + 2] = position.z;
+
+    Quaternion rotation = node.getLocalRotationInternal();
+    offset = index * 4;
+    localRotations[offset] = rotation.x;
+    localRotations[offset + 1] = rotation.y;
+    localRotations[offset + 2] = rotation.z;
+    localRotations[offset + 3] = rotation.w;
+
+    Vector3 scale = node.getLocalScaleInternal();
+    offset = index * 3;
+    localScales[offset] = scale.x;
+    localScales[offset + 1] = scale.y;
+    localScales[offset + 2] = scale.z;
+  }
+
+  /** Same as {@link com.google.ar.sceneform.math.Matrix#makeTrs}, on the arena's arrays. */
+  private void computeLocalMatrix(int index) {
+    int positionOffset = index * 3;
+    int rotationOffset = index * 4;
+    float qx = localRotations[rotationOffset];
+    float qy = localRotations[rotationOffset + 1];
+    float qz = localRotations[rotationOffset + 2];
+    float qw = localRotations[rotationOffset + 3];
+    float sx = localScales[positionOffset];
+    float sy = localScales[positionOffset + 1];
+    float sz = localScales[positionOffset + 2];
+
+    float mdsqx = 1 - 2 * qx * qx;
+    float sqy = qy * qy;
+    float dsqz = 2 * qz * qz;
+    float dqxz = 2 * qx * qz;
+    float dqyw = 2 * qy * qw;
+    float dqxy = 2 * qx * qy;
+    float dqzw = 2 * qz * qw;
+    float dqxw = 2 * qx * qw;
+    float dqyz = 2 * qy * qz;
+
+    float[] m = localMatrices;
+    int o = index * MATRIX_SIZE;
+    m[o] = (1 - 2 * sqy - dsqz) * sx;
+    m[o + 1] = (dqxy + dqzw) * sx;
+    m[o + 2] = (dqxz - dqyw) * sx;
+    m[o + 3] = 0.0f;
+
+    m[o + 4] = (dqxy - dqzw) * sy;
+    m[o + 5] = (mdsqx - dsqz) * sy;
+    m[o + 6] = (dqyz + dqxw) * sy;
+    m[o + 7] = 0.0f;
+
+    m[o + 8] = (dqxz + dqyw) * sz;
+    m[o + 9] = (dqyz - dqxw) * sz;
+    m[o + 10] = (mdsqx - 2 * sqy) * sz;
+    m[o + 11] = 0.0f;
+
+    m[o + 12] = localPositions[positionOffset];
+    m[o + 13] = localPositions[positionOffset + 1];
+    m[o + 14] = localPositions[positionOffset + 2];
+    m[o + 15] = 1.0f;
+  }
+
+  /** Same as {@link com.google.ar.sceneform.math.Matrix#multiply}, on the arena's arrays. */
+  private void multiply(float[] lhs, int lhsOffset, float[] rhs, int rhsOffset, int destIndex) {
+    float[] dest = worldMatrices;
+    int destOffset = destIndex * MATRIX_SIZE;
+    for (int column = 0; column < 4; column++) {
+      float rhs0 = rhs[rhsOffset + column * 4];
+      float rhs1 = rhs[rhsOffset + column * 4 + 1];
+      float rhs2 = rhs[rhsOffset + column * 4 + 2];
+      float rhs3 = rhs[rhsOffset + column * 4 + 3];
+      for (int row = 0; row < 4; row++) {
+        dest[destOffset + column * 4 + row] =
+            lhs[lhsOffset + row] * rhs0
+                + lhs[lhsOffset + 4 + row] * rhs1
+                + lhs[lhsOffset + 8 + row] * rhs2
+                + lhs[lhsOffset + 12 + row] * rhs3;
+      }
+    }
+  }
+
+  private void allocate(int newCapacity) {
+    capacity = newCapacity;
+    if (nodes == null) {
+      localPositions = new float[capacity * 3];
+      localRotations = new float[capacity * 4];
+      localScales = new float[capacity * 3];
+      localMatrices = new float[capacity * MATRIX_SIZE];
+      worldMatrices = new float[capacity * MATRIX_SIZE];
+      parentIndices = new int[capacity];
+      subtreeEnds = new int[capacity];
+      localDirty = new boolean[capacity];
+      nodes = new Node[capacity];
+      return;
+    }
+
+    localPositions = Arrays.copyOf(localPositions, capacity * 3);
+    localRotations = Arrays.copyOf(localRotations, capacity * 4);
+    localScales = Arrays.copyOf(localScales, capacity * 3);
+    localMatrices = Arrays.copyOf(localMatrices, capacity * MATRIX_SIZE);
+    worldMatrices = Arrays.copyOf(worldMatrices, capacity * MATRIX_SIZE);
+    parentIndices = Arrays.copyOf(parentIndices, capacity);
+    subtreeEnds = Arrays.copyOf(subtreeEnds, capacity);
+    localDirty = Arrays.copyOf(localDirty, capacity);
+    nodes = Arrays.copyOf(nodes, capacity);
+  }
+}
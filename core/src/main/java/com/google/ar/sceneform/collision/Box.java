@@ -1,6 +1,7 @@
 package com.google.ar.sceneform.collision;
 
 import android.util.Log;
+import androidx.annotation.Nullable;
 import com.google.ar.sceneform.common.TransformProvider;
 import com.google.ar.sceneform.math.MathHelper;
 import com.google.ar.sceneform.math.Matrix;
@@ -17,6 +18,7 @@ public class Box extends CollisionShape {
   private final Vector3 center = Vector3.zero();
   private final Vector3 size = Vector3.one();
   private final Matrix rotationMatrix = new Matrix();
+  @Nullable private float[] vertexBuffer;
 
   /** Create a box with a center of (0,0,0) and a size of (1,1,1). */
   public Box() {}
@@ -138,16 +140,40 @@ public class Box extends CollisionShape {
     return rotationMatrix;
   }
 
+  /**
+   * Get the raw center of the box. Do not modify directly. Instead, use setCenter.
+   *
+   * @return a reference to the box's center
+   */
+  Vector3 getRawCenter() {
+    return center;
+  }
+
+  /**
+   * Get the raw size of the box. Do not modify directly. Instead, use setSize.
+   *
+   * @return a reference to the box's size
+   */
+  Vector3 getRawSize() {
+    return size;
+  }
+
+  /** Returns the buffer that box intersection tests calculate the corners of this box into. */
+  float[] getVertexBuffer() {
+    if (vertexBuffer == null) {
+      vertexBuffer = new float[Intersections.NUM_VERTICES_PER_BOX * 3];
+    }
+    return vertexBuffer;
+  }
+
   /** @hide protected method */
   @Override
   protected boolean rayIntersection(Ray ray, RayHit result) {
     Preconditions.checkNotNull(ray, "Parameter \"ray\" was null.");
     Preconditions.checkNotNull(result, "Parameter \"result\" was null.");
 
-    Vector3 rayDirection = ray.getDirection();
-    Vector3 rayOrigin = ray.getOrigin();
-    Vector3 max = getExtents();
-    Vector3 min = max.negated();
+    Vector3 rayDirection = ray.getRawDirection();
+    Vector3 rayOrigin = ray.getRawOrigin();
 
     // tMin is the farthest "near" intersection (amongst the X,Y and Z planes pairs)
     float tMin = Float.MIN_VALUE;
@@ -155,89 +181,48 @@ public class Box extends CollisionShape {
     // tMax is the nearest "far" intersection (amongst the X,Y and Z planes pairs)
     float tMax = Float.MAX_VALUE;
 
-    Vector3 delta = Vector3.subtract(center, rayOrigin);
+    float deltaX = center.x - rayOrigin.x;
+    float deltaY = center.y - rayOrigin.y;
+    float deltaZ = center.z - rayOrigin.z;
 
-    // Test intersection with the 2 planes perpendicular to the OBB's x axis.
+    // Test intersection with the 2 planes perpendicular to each of the OBB's axes.
     float[] axes = rotationMatrix.data;
-    Vector3 axis = new Vector3(axes[0], axes[1], axes[2]);
-    float e = Vector3.dot(axis, delta);
-    float f = Vector3.dot(rayDirection, axis);
-
-    if (!MathHelper.almostEqualRelativeAndAbs(f, 0.0f)) {
-      float t1 = (e + min.x) / f;
-      float t2 = (e + max.x) / f;
-
-      if (t1 > t2) {
-        float temp = t1;
-        t1 = t2;
-        t2 = temp;
-      }
-
-      tMax = Math.min(t2, tMax);
-      tMin = Math.max(t1, tMin);
-
-      if (tMax < tMin) {
+    for (int axis = 0; axis < 3; axis++) {
+      float axisX = axes[axis * 4];
+      float axisY = axes[axis * 4 + 1];
+      float axisZ = axes[axis * 4 + 2];
+      float max = (axis == 0 ? size.x : axis == 1 ? size.y : size.z) * 0.5f;
+      float min = -max;
+      float e = axisX * deltaX + axisY * deltaY + axisZ * deltaZ;
+      float f = rayDirection.x * axisX + rayDirection.y * axisY + rayDirection.z * axisZ;
+
+      if (!MathHelper.almostEqualRelativeAndAbs(f, 0.0f)) {
+        float t1 = (e + min) / f;
+        float t2 = (e + max) / f;
+
+        if (t1 > t2) {
+          float temp = t1;
+          t1 = t2;
+          t2 = temp;
+        }
+
+        tMax = Math.min(t2, tMax);
+        tMin = Math.max(t1, tMin);
+
+        if (tMax < tMin) {
+          return false;
+        }
+      } else if (-e + min > 0.0f || -e + max < 0.0f) {
+        // Ray is almost parallel to one of the planes.
         return false;
       }
-    } else if (-e + min.x > 0.0f || -e + max.x < 0.0f) {
-      // Ray is almost parallel to one of the planes.
-      return false;
-    }
-
-    // Test intersection with the 2 planes perpendicular to the OBB's y axis.
-    axis = new Vector3(axes[4], axes[5], axes[6]);
-    e = Vector3.dot(axis, delta);
-    f = Vector3.dot(rayDirection, axis);
-
-    if (!MathHelper.almostEqualRelativeAndAbs(f, 0.0f)) {
-      float t1 = (e + min.y) / f;
-      float t2 = (e + max.y) / f;
-
-      if (t1 > t2) {
-        float temp = t1;
-        t1 = t2;
-        t2 = temp;
-      }
-
-      tMax = Math.min(t2, tMax);
-      tMin = Math.max(t1, tMin);
-
-      if (tMax < tMin) {
-        return false;
-      }
-    } else if (-e + min.y > 0.0f || -e + max.y < 0.0f) {
-      // Ray is almost parallel to one of the planes.
-      return false;
-    }
-
-    // Test intersection with the 2 planes perpendicular to the OBB's z axis.
-    axis = new Vector3(axes[8], axes[9], axes[10]);
-    e = Vector3.dot(axis, delta);
-    f = Vector3.dot(rayDirection, axis);
-
-    if (!MathHelper.almostEqualRelativeAndAbs(f, 0.0f)) {
-      float t1 = (e + min.z) / f;
-      float t2 = (e + max.z) / f;
-
-      if (t1 > t2) {
-        float temp = t1;
-        t1 = t2;
-        t2 = temp;
-      }
-
-      tMax = Math.min(t2, tMax);
-      tMin = Math.max(t1, tMin);
-
-      if (tMax < tMin) {
-        return false;
-      }
-    } else if (-e + min.z > 0.0f || -e + max.z < 0.0f) {
-      // Ray is almost parallel to one of the planes.
-      return false;
     }
 
     result.setDistance(tMin);
-    result.setPoint(ray.getPoint(result.getDistance()));
+    result.setPoint(
+        rayOrigin.x + rayDirection.x * tMin,
+        rayOrigin.y + rayDirection.y * tMin,
+        rayOrigin.z + rayDirection.z * tMin);
     return true;
   }
 
@@ -260,6 +245,19 @@ public class Box extends CollisionShape {
     return Intersections.boxBoxIntersection(this, box);
   }
 
+  @Override
+  void calculateBounds(float[] destBounds) {
+    // Bound the box by its bounding sphere so that the bounds don't depend on how the rotation
+    // matrix is interpreted.
+    float radius = size.length() * 0.5f;
+    destBounds[0] = center.x - radius;
+    destBounds[1] = center.y - radius;
+    destBounds[2] = center.z - radius;
+    destBounds[3] = center.x + radius;
+    destBounds[4] = center.y + radius;
+    destBounds[5] = center.z + radius;
+  }
+
   @Override
   CollisionShape transform(TransformProvider transformProvider) {
     Preconditions.checkNotNull(transformProvider, "Parameter \"transformProvider\" was null.");
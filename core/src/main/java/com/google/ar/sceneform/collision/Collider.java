@@ -12,6 +12,11 @@ import com.google.ar.sceneform.utilities.Preconditions;
  * @hide
  */
 public class Collider {
+  /** The category of colliders that haven't been given one. */
+  public static final int DEFAULT_CATEGORY = 1;
+  /** A mask that accepts colliders of every category. */
+  public static final int ALL_CATEGORIES = 0xFFFFFFFF;
+
   private TransformProvider transformProvider;
   @Nullable private CollisionSystem attachedCollisionSystem;
 
@@ -21,6 +26,18 @@ public class Collider {
   private boolean isWorldShapeDirty;
   private int shapeId = ChangeId.EMPTY_ID;
 
+  private int collisionCategory = DEFAULT_CATEGORY;
+  private int collisionMask = ALL_CATEGORIES;
+
+  // Broadphase state, owned by the attached collision system.
+  @Nullable DynamicAabbTree<Collider> proxyTree;
+  int proxyId = DynamicAabbTree.NULL_NODE;
+  int systemIndex = -1;
+  // The index in the attached colliders of the local shape, -1 while not in a collision system.
+  int shapeIndex = -1;
+  long insertionOrder;
+  boolean isProxyDirty;
+
   /** @hide */
   @SuppressWarnings("initialization") // Suppress @UnderInitialization warning.
   public Collider(TransformProvider transformProvider, CollisionShape localCollisionShape) {
@@ -35,8 +52,15 @@ public class Collider {
   public void setShape(CollisionShape localCollisionShape) {
     Preconditions.checkNotNull(localCollisionShape, "Parameter \"localCollisionShape\" was null.");
 
+    // Only colliders in a collision system are notified of changes to their shape.
+    if (shapeIndex >= 0) {
+      localShape.removeAttachedCollider(this);
+      localCollisionShape.addAttachedCollider(this);
+    }
+
     localShape = localCollisionShape;
     cachedWorldShape = null;
+    markProxyDirty();
   }
 
   /** @hide */
@@ -55,6 +79,46 @@ public class Collider {
     return cachedWorldShape;
   }
 
+  /**
+   * Sets the categories of the collider as a bitmask. Queries only test the collider if their mask
+   * shares a bit with its categories, so a collider with no categories is never hit.
+   *
+   * @hide
+   */
+  public void setCollisionCategory(int collisionCategory) {
+    if (this.collisionCategory == collisionCategory) {
+      return;
+    }
+
+    this.collisionCategory = collisionCategory;
+    markProxyDirty();
+  }
+
+  /** @hide */
+  public int getCollisionCategory() {
+    return collisionCategory;
+  }
+
+  /**
+   * Sets the categories of the colliders that this collider overlaps with, as a bitmask.
+   *
+   * @hide
+   */
+  public void setCollisionMask(int collisionMask) {
+    this.collisionMask = collisionMask;
+  }
+
+  /** @hide */
+  public int getCollisionMask() {
+    return collisionMask;
+  }
+
+  /** Returns true if both colliders accept the category of the other. */
+  boolean canCollideWith(Collider other) {
+    return (collisionCategory & other.collisionMask) != 0
+        && (other.collisionCategory & collisionMask) != 0;
+  }
+
   /** @hide */
   public void setAttachedCollisionSystem(@Nullable CollisionSystem collisionSystem) {
     if (attachedCollisionSystem != null) {
@@ -71,6 +135,13 @@ public class Collider {
   /** @hide */
   public void markWorldShapeDirty() {
     isWorldShapeDirty = true;
+    markProxyDirty();
+  }
+
+  void markProxyDirty() {
+    if (attachedCollisionSystem != null) {
+      attachedCollisionSystem.markColliderDirty(this);
+    }
   }
 
   private boolean doesCachedWorldShapeNeedUpdate() {
@@ -95,5 +166,6 @@ public class Collider {
 
     ChangeId changeId = localShape.getId();
     shapeId = changeId.get();
+    isWorldShapeDirty = false;
   }
 }
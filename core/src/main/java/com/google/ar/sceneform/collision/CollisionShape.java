@@ -1,11 +1,16 @@
 package com.google.ar.sceneform.collision;
 
+import androidx.annotation.Nullable;
 import com.google.ar.sceneform.common.TransformProvider;
 import com.google.ar.sceneform.utilities.ChangeId;
+import java.util.ArrayList;
 
 /** Base class for all types of shapes that collision checks can be performed against. */
 public abstract class CollisionShape {
   private final ChangeId changeId = new ChangeId();
+  // The colliders in a collision system that use this shape, so that their broadphase proxies are
+  // updated when the shape is modified in place. Each collider stores its index in the list.
+  @Nullable private ArrayList<Collider> attachedColliders;
 
   public abstract CollisionShape makeCopy();
 
@@ -16,6 +21,12 @@ public abstract class CollisionShape {
    */
   protected void onChanged() {
     changeId.update();
+
+    if (attachedColliders != null) {
+      for (int i = 0; i < attachedColliders.size(); i++) {
+        attachedColliders.get(i).markProxyDirty();
+      }
+    }
   }
 
   /** @hide */
@@ -39,6 +50,38 @@ public abstract class CollisionShape {
     return changeId;
   }
 
+  void addAttachedCollider(Collider collider) {
+    if (attachedColliders == null) {
+      attachedColliders = new ArrayList<>();
+    }
+    collider.shapeIndex = attachedColliders.size();
+    attachedColliders.add(collider);
+  }
+
+  void removeAttachedCollider(Collider collider) {
+    int index = collider.shapeIndex;
+    if (attachedColliders == null
+        || index < 0
+        || index >= attachedColliders.size()
+        || attachedColliders.get(index) != collider) {
+      return;
+    }
+
+    // Swap remove, the order of the colliders doesn't matter.
+    int lastIndex = attachedColliders.size() - 1;
+    Collider last = attachedColliders.get(lastIndex);
+    attachedColliders.set(index, last);
+    last.shapeIndex = index;
+    attachedColliders.remove(lastIndex);
+    collider.shapeIndex = -1;
+  }
+
+  /**
+   * Calculates an axis aligned box that fully contains this shape, in the form [minX, minY, minZ,
+   * maxX, maxY, maxZ].
+   */
+  abstract void calculateBounds(float[] destBounds);
+
   abstract CollisionShape transform(TransformProvider transformProvider);
 
   abstract void transform(TransformProvider transformProvider, CollisionShape result);
@@ -1,9 +1,11 @@
 package com.google.ar.sceneform.collision;
 
 import androidx.annotation.Nullable;
+import com.google.ar.sceneform.math.Vector3;
 import com.google.ar.sceneform.utilities.Preconditions;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -11,44 +13,108 @@ import java.util.function.Supplier;
 /**
  * Manages all of the colliders within a scene.
  *
+ * <p>Colliders are stored in a {@link DynamicAabbTree} that is used as a broadphase, so that
+ * queries only perform narrow phase tests against colliders whose bounds are touched by the query.
+ * Candidates are tested in the order that the colliders were added, so the results are the same as
+ * testing every collider.
+ *
+ * <p>Colliders are filtered by their category, see {@link Collider#setCollisionCategory(int)}.
+ * Each category has its own tree, so queries skip the colliders of the categories they don't
+ * accept before doing any intersection test.
+ *
  * @hide
  */
 public class CollisionSystem {
   private static final String TAG = CollisionSystem.class.getSimpleName();
 
-  // TODO: Store things in some spatial partition or another.
+  private static final Comparator<Collider> INSERTION_ORDER_COMPARATOR =
+      (a, b) -> Long.compare(a.insertionOrder, b.insertionOrder);
+
   private final ArrayList<Collider> colliders = new ArrayList<>();
+  // One tree per category that has colliders in it, looked up by a linear search because there
+  // are only a few.
+  private final ArrayList<BroadphaseLayer> broadphaseLayers = new ArrayList<>();
+
+  // Colliders whose broadphase proxy must be updated before the next query.
+  private final ArrayList<Collider> dirtyColliders = new ArrayList<>();
+  // Lists of candidates that are reused by queries. A query takes a list from the pool, since the
+  // callbacks of raycastAll and intersectsAll can start another query.
+  private final ArrayList<ArrayList<Collider>> candidateListPool = new ArrayList<>();
+  private long nextInsertionOrder;
+
+  private final float[] scratchBounds = new float[DynamicAabbTree.BOUNDS_SIZE];
 
   public void addCollider(Collider collider) {
     Preconditions.checkNotNull(collider, "Parameter \"collider\" was null.");
+
+    collider.systemIndex = colliders.size();
+    collider.insertionOrder = nextInsertionOrder++;
+    collider.proxyTree = null;
+    collider.proxyId = DynamicAabbTree.NULL_NODE;
     colliders.add(collider);
+    if (collider.shapeIndex < 0) {
+      collider.getShape().addAttachedCollider(collider);
+    }
+
+    // The proxy is created lazily the next time the broadphase is updated.
+    collider.isProxyDirty = false;
+    markColliderDirty(collider);
   }
 
   public void removeCollider(Collider collider) {
     Preconditions.checkNotNull(collider, "Parameter \"collider\" was null.");
-    colliders.remove(collider);
+
+    if (!isAttached(collider)) {
+      return;
+    }
+
+    destroyProxy(collider);
+    collider.getShape().removeAttachedCollider(collider);
+
+    // Swap remove, the order of the list doesn't matter because queries sort by insertion order.
+    int index = collider.systemIndex;
+    int lastIndex = colliders.size() - 1;
+    Collider last = colliders.get(lastIndex);
+    colliders.set(index, last);
+    last.systemIndex = index;
+    colliders.remove(lastIndex);
+
+    collider.systemIndex = -1;
+    collider.isProxyDirty = false;
   }
 
   @Nullable
   public Collider raycast(Ray ray, RayHit resultHit) {
+    return raycast(ray, resultHit, Collider.ALL_CATEGORIES);
+  }
+
+  /** Only tests the colliders with a category in {@code collisionMask}. */
+  @Nullable
+  public Collider raycast(Ray ray, RayHit resultHit, int collisionMask) {
     Preconditions.checkNotNull(ray, "Parameter \"ray\" was null.");
     Preconditions.checkNotNull(resultHit, "Parameter \"resultHit\" was null.");
 
     resultHit.reset();
     Collider result = null;
     RayHit tempResult = new RayHit();
-    for (Collider collider : colliders) {
-      CollisionShape collisionShape = collider.getTransformedShape();
-      if (collisionShape == null) {
-        continue;
-      }
+    ArrayList<Collider> candidates = gatherRayCandidates(ray, collisionMask);
+    try {
+      for (int i = 0; i < candidates.size(); i++) {
+        Collider collider = candidates.get(i);
+        CollisionShape collisionShape = collider.getTransformedShape();
+        if (collisionShape == null) {
+          continue;
+        }
 
-      if (collisionShape.rayIntersection(ray, tempResult)) {
-        if (tempResult.getDistance() < resultHit.getDistance()) {
-          resultHit.set(tempResult);
-          result = collider;
+        if (collisionShape.rayIntersection(ray, tempResult)) {
+          if (tempResult.getDistance() < resultHit.getDistance()) {
+            resultHit.set(tempResult);
+            result = collider;
+          }
         }
       }
+    } finally {
+      recycleCandidateList(candidates);
     }
 
     return result;
@@ -60,6 +126,17 @@ public class CollisionSystem {
       ArrayList<T> resultBuffer,
       @Nullable BiConsumer<T, Collider> processResult,
       Supplier<T> allocateResult) {
+    return raycastAll(ray, resultBuffer, processResult, allocateResult, Collider.ALL_CATEGORIES);
+  }
+
+  /** Only tests the colliders with a category in {@code collisionMask}. */
+  @SuppressWarnings("AndroidApiChecker")
+  public <T extends RayHit> int raycastAll(
+      Ray ray,
+      ArrayList<T> resultBuffer,
+      @Nullable BiConsumer<T, Collider> processResult,
+      Supplier<T> allocateResult,
+      int collisionMask) {
     Preconditions.checkNotNull(ray, "Parameter \"ray\" was null.");
     Preconditions.checkNotNull(resultBuffer, "Parameter \"resultBuffer\" was null.");
     Preconditions.checkNotNull(allocateResult, "Parameter \"allocateResult\" was null.");
@@ -67,30 +144,36 @@ public class CollisionSystem {
     RayHit tempResult = new RayHit();
     int hitCount = 0;
 
-    // Check the ray against all the colliders.
-    for (Collider collider : colliders) {
-      CollisionShape collisionShape = collider.getTransformedShape();
-      if (collisionShape == null) {
-        continue;
-      }
-
-      if (collisionShape.rayIntersection(ray, tempResult)) {
-        hitCount++;
-        T result = null;
-        if (resultBuffer.size() >= hitCount) {
-          result = resultBuffer.get(hitCount - 1);
-        } else {
-          result = allocateResult.get();
-          resultBuffer.add(result);
+    // Check the ray against all the colliders touched by the ray.
+    ArrayList<Collider> candidates = gatherRayCandidates(ray, collisionMask);
+    try {
+      for (int i = 0; i < candidates.size(); i++) {
+        Collider collider = candidates.get(i);
+        CollisionShape collisionShape = collider.getTransformedShape();
+        if (collisionShape == null) {
+          continue;
         }
 
-        result.reset();
-        result.set(tempResult);
+        if (collisionShape.rayIntersection(ray, tempResult)) {
+          hitCount++;
+          T result = null;
+          if (resultBuffer.size() >= hitCount) {
+            result = resultBuffer.get(hitCount - 1);
+          } else {
+            result = allocateResult.get();
+            resultBuffer.add(result);
+          }
 
-        if (processResult != null) {
-          processResult.accept(result, collider);
+          result.reset();
+          result.set(tempResult);
+
+          if (processResult != null) {
+            processResult.accept(result, collider);
+          }
         }
       }
+    } finally {
+      recycleCandidateList(candidates);
     }
 
     // Reset extra hits in the buffer.
@@ -106,6 +189,15 @@ public class CollisionSystem {
 
   @Nullable
   public Collider intersects(Collider collider) {
+    return intersects(collider, Collider.ALL_CATEGORIES);
+  }
+
+  /**
+   * Only tests the colliders with a category in {@code collisionMask} that can collide with {@code
+   * collider}, see {@link Collider#setCollisionMask(int)}.
+   */
+  @Nullable
+  public Collider intersects(Collider collider, int collisionMask) {
     Preconditions.checkNotNull(collider, "Parameter \"collider\" was null.");
 
     CollisionShape collisionShape = collider.getTransformedShape();
@@ -113,19 +205,26 @@ public class CollisionSystem {
       return null;
     }
 
-    for (Collider otherCollider : colliders) {
-      if (otherCollider == collider) {
-        continue;
-      }
+    ArrayList<Collider> candidates =
+        gatherOverlapCandidates(collider, collisionShape, collisionMask);
+    try {
+      for (int i = 0; i < candidates.size(); i++) {
+        Collider otherCollider = candidates.get(i);
+        if (otherCollider == collider || !collider.canCollideWith(otherCollider)) {
+          continue;
+        }
 
-      CollisionShape otherCollisionShape = otherCollider.getTransformedShape();
-      if (otherCollisionShape == null) {
-        continue;
-      }
+        CollisionShape otherCollisionShape = otherCollider.getTransformedShape();
+        if (otherCollisionShape == null) {
+          continue;
+        }
 
-      if (collisionShape.shapeIntersection(otherCollisionShape)) {
-        return otherCollider;
+        if (collisionShape.shapeIntersection(otherCollisionShape)) {
+          return otherCollider;
+        }
       }
+    } finally {
+      recycleCandidateList(candidates);
     }
 
     return null;
@@ -133,6 +232,16 @@ public class CollisionSystem {
 
   @SuppressWarnings("AndroidApiChecker")
   public void intersectsAll(Collider collider, Consumer<Collider> processResult) {
+    intersectsAll(collider, processResult, Collider.ALL_CATEGORIES);
+  }
+
+  /**
+   * Only tests the colliders with a category in {@code collisionMask} that can collide with {@code
+   * collider}, see {@link Collider#setCollisionMask(int)}.
+   */
+  @SuppressWarnings("AndroidApiChecker")
+  public void intersectsAll(
+      Collider collider, Consumer<Collider> processResult, int collisionMask) {
     Preconditions.checkNotNull(collider, "Parameter \"collider\" was null.");
     Preconditions.checkNotNull(processResult, "Parameter \"processResult\" was null.");
 
@@ -141,19 +250,177 @@ public class CollisionSystem {
       return;
     }
 
-    for (Collider otherCollider : colliders) {
-      if (otherCollider == collider) {
-        continue;
+    ArrayList<Collider> candidates =
+        gatherOverlapCandidates(collider, collisionShape, collisionMask);
+    try {
+      for (int i = 0; i < candidates.size(); i++) {
+        Collider otherCollider = candidates.get(i);
+        if (otherCollider == collider || !collider.canCollideWith(otherCollider)) {
+          continue;
+        }
+
+        CollisionShape otherCollisionShape = otherCollider.getTransformedShape();
+        if (otherCollisionShape == null) {
+          continue;
+        }
+
+        if (collisionShape.shapeIntersection(otherCollisionShape)) {
+          processResult.accept(otherCollider);
+        }
       }
+    } finally {
+      recycleCandidateList(candidates);
+    }
+  }
 
-      CollisionShape otherCollisionShape = otherCollider.getTransformedShape();
-      if (otherCollisionShape == null) {
+  /** Returns the number of colliders in the collision system. */
+  public int getColliderCount() {
+    return colliders.size();
+  }
+
+  void markColliderDirty(Collider collider) {
+    if (collider.isProxyDirty || !isAttached(collider)) {
+      return;
+    }
+
+    collider.isProxyDirty = true;
+    dirtyColliders.add(collider);
+  }
+
+  private boolean isAttached(Collider collider) {
+    int index = collider.systemIndex;
+    return index >= 0 && index < colliders.size() && colliders.get(index) == collider;
+  }
+
+  private ArrayList<Collider> gatherRayCandidates(Ray ray, int collisionMask) {
+    updateBroadphase();
+
+    Vector3 origin = ray.getOrigin();
+    Vector3 direction = ray.getDirection();
+    ArrayList<Collider> candidates = obtainCandidateList();
+    for (int i = 0; i < broadphaseLayers.size(); i++) {
+      BroadphaseLayer layer = broadphaseLayers.get(i);
+      if ((layer.category & collisionMask) != 0) {
+        layer.tree.raycast(
+            origin.x, origin.y, origin.z, direction.x, direction.y, direction.z, candidates);
+      }
+    }
+    Collections.sort(candidates, INSERTION_ORDER_COMPARATOR);
+    return candidates;
+  }
+
+  private ArrayList<Collider> gatherOverlapCandidates(
+      Collider collider, CollisionShape worldShape, int collisionMask) {
+    updateBroadphase();
+
+    int layerMask = collider.getCollisionMask() & collisionMask;
+    worldShape.calculateBounds(scratchBounds);
+    ArrayList<Collider> candidates = obtainCandidateList();
+    for (int i = 0; i < broadphaseLayers.size(); i++) {
+      BroadphaseLayer layer = broadphaseLayers.get(i);
+      if ((layer.category & layerMask) != 0) {
+        layer.tree.query(scratchBounds, candidates);
+      }
+    }
+    Collections.sort(candidates, INSERTION_ORDER_COMPARATOR);
+    return candidates;
+  }
+
+  private ArrayList<Collider> obtainCandidateList() {
+    int size = candidateListPool.size();
+    return size == 0 ? new ArrayList<>() : candidateListPool.remove(size - 1);
+  }
+
+  private void recycleCandidateList(ArrayList<Collider> candidates) {
+    candidates.clear();
+    candidateListPool.add(candidates);
+  }
+
+  /**
+   * Refits the broadphase proxies of every collider that has changed since the last query. Shapes
+   * modified in place mark the colliders that use them as changed.
+   */
+  private void updateBroadphase() {
+    for (int i = 0; i < dirtyColliders.size(); i++) {
+      Collider collider = dirtyColliders.get(i);
+      if (!collider.isProxyDirty || !isAttached(collider)) {
         continue;
       }
 
-      if (collisionShape.shapeIntersection(otherCollisionShape)) {
-        processResult.accept(otherCollider);
+      collider.isProxyDirty = false;
+      updateProxy(collider);
+    }
+
+    dirtyColliders.clear();
+  }
+
+  private void updateProxy(Collider collider) {
+    // Colliders without a category can't be hit, so they aren't stored.
+    CollisionShape worldShape = collider.getTransformedShape();
+    int category = collider.getCollisionCategory();
+    if (worldShape == null || category == 0) {
+      destroyProxy(collider);
+      return;
+    }
+
+    BroadphaseLayer layer = getLayer(category);
+    if (collider.proxyTree != null && (layer == null || collider.proxyTree != layer.tree)) {
+      // The category changed, move the proxy to the tree of the new category.
+      destroyProxy(collider);
+    }
+
+    worldShape.calculateBounds(scratchBounds);
+    if (collider.proxyTree == null) {
+      if (layer == null) {
+        layer = new BroadphaseLayer(category);
+        broadphaseLayers.add(layer);
       }
+      collider.proxyTree = layer.tree;
+      collider.proxyId = layer.tree.createProxy(scratchBounds, collider);
+    } else {
+      collider.proxyTree.moveProxy(collider.proxyId, scratchBounds);
+    }
+  }
+
+  private void destroyProxy(Collider collider) {
+    DynamicAabbTree<Collider> tree = collider.proxyTree;
+    if (tree == null) {
+      return;
+    }
+
+    tree.destroyProxy(collider.proxyId);
+    collider.proxyTree = null;
+    collider.proxyId = DynamicAabbTree.NULL_NODE;
+
+    // Drop the trees of categories that are no longer used.
+    if (tree.getProxyCount() == 0) {
+      for (int i = 0; i < broadphaseLayers.size(); i++) {
+        if (broadphaseLayers.get(i).tree == tree) {
+          broadphaseLayers.remove(i);
+          break;
+        }
+      }
+    }
+  }
+
+  @Nullable
+  private BroadphaseLayer getLayer(int category) {
+    for (int i = 0; i < broadphaseLayers.size(); i++) {
+      BroadphaseLayer layer = broadphaseLayers.get(i);
+      if (layer.category == category) {
+        return layer;
+      }
+    }
+    return null;
+  }
+
+  /** The tree holding the proxies of the colliders of one category. */
+  private static final class BroadphaseLayer {
+    final int category;
+    final DynamicAabbTree<Collider> tree = new DynamicAabbTree<>();
+
+    BroadphaseLayer(int category) {
+      this.category = category;
     }
   }
 }
@@ -0,0 +1,568 @@
+package com.google.ar.sceneform.collision;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A dynamic bounding volume hierarchy of axis aligned bounding boxes. Used by {@link
+ * CollisionSystem} as a broadphase so that ray casts and overlap tests only need to perform narrow
+ * phase tests against colliders whose bounds are touched by the query.
+ *
+ * <p>Leaves store "fat" bounds that are enlarged by a margin, which allows proxies to move by a
+ * small amount without the tree being restructured. The tree is kept balanced using AVL style
+ * rotations.
+ *
+ * <p>Nodes are stored in parallel arrays indexed by node id to avoid allocating an object per node.
+ * Bounds are passed around as float arrays in the form [minX, minY, minZ, maxX, maxY, maxZ].
+ *
+ * @hide
+ */
+class DynamicAabbTree<T> {
+  static final int NULL_NODE = -1;
+  static final int BOUNDS_SIZE = 6;
+
+  /** Amount that the bounds of a leaf are enlarged by when it is inserted into the tree. */
+  static final float AABB_MARGIN = 0.1f;
+
+  /** Leaves whose fat bounds exceed the tight bounds by more than this are re-inserted. */
+  private static final float AABB_MAX_SLACK = AABB_MARGIN * 4.0f;
+
+  private static final int INITIAL_CAPACITY = 16;
+  private static final int INITIAL_STACK_SIZE = 64;
+
+  private float[] bounds;
+  private int[] parents;
+  private int[] children1;
+  private int[] children2;
+  private int[] heights;
+  private Object[] userData;
+
+  private int root = NULL_NODE;
+  private int capacity;
+  private int freeList;
+  private int proxyCount;
+
+  private int[] stack = new int[INITIAL_STACK_SIZE];
+
+  // Scratch state for the ray currently being cast to avoid allocating per node.
+  private final float[] rayOrigin = new float[3];
+  private final float[] rayDirection = new float[3];
+
+  DynamicAabbTree() {
+    capacity = INITIAL_CAPACITY;
+    bounds = new float[capacity * BOUNDS_SIZE];
+    parents = new int[capacity];
+    children1 = new int[capacity];
+    children2 = new int[capacity];
+    heights = new int[capacity];
+    userData = new Object[capacity];
+    buildFreeList(0);
+  }
+
+  /**
+   * Creates a proxy in the tree for a leaf with the given tight bounds.
+   *
+   * @return the id of the proxy, used to move or destroy it later
+   */
+  int createProxy(float[] aabb, T data) {
+    int proxyId = allocateNode();
+    setFatBounds(proxyId, aabb);
+    userData[proxyId] = data;
+    heights[proxyId] = 0;
+    insertLeaf(proxyId);
+    proxyCount++;
+    return proxyId;
+  }
+
+  /** Removes a proxy from the tree. */
+  void destroyProxy(int proxyId) {
+    checkIsLeaf(proxyId);
+    removeLeaf(proxyId);
+    freeNode(proxyId);
+    proxyCount--;
+  }
+
+  /**
+   * Updates the bounds of a proxy. The tree is only restructured if the new tight bounds are no
+   * longer contained by the fat bounds of the proxy, or if the fat bounds have become too loose.
+   *
+   * @return true if the proxy was re-inserted into the tree
+   */
+  boolean moveProxy(int proxyId, float[] aabb) {
+    checkIsLeaf(proxyId);
+
+    if (fitsFatBounds(proxyId, aabb)) {
+      return false;
+    }
+
+    removeLeaf(proxyId);
+    setFatBounds(proxyId, aabb);
+    insertLeaf(proxyId);
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  T getUserData(int proxyId) {
+    return (T) userData[proxyId];
+  }
+
+  /** Returns the number of proxies stored in the tree. */
+  int getProxyCount() {
+    return proxyCount;
+  }
+
+  /** Returns the height of the tree, or zero if the tree is empty. */
+  int getHeight() {
+    return root == NULL_NODE ? 0 : heights[root];
+  }
+
+  /**
+   * Appends the user data of every proxy whose fat bounds are hit by the ray to the results list.
+   * Only intersections in front of the ray origin are considered.
+   */
+  @SuppressWarnings("unchecked")
+  void raycast(
+      float originX,
+      float originY,
+      float originZ,
+      float directionX,
+      float directionY,
+      float directionZ,
+      List<T> results) {
+    if (root == NULL_NODE) {
+      return;
+    }
+
+    rayOrigin[0] = originX;
+    rayOrigin[1] = originY;
+    rayOrigin[2] = originZ;
+    rayDirection[0] = directionX;
+    rayDirection[1] = directionY;
+    rayDirection[2] = directionZ;
+
+    int stackSize = 0;
+    stack[stackSize++] = root;
+
+    while (stackSize > 0) {
+      int node = stack[--stackSize];
+      if (!rayOverlaps(node)) {
+        continue;
+      }
+
+      if (isLeaf(node)) {
+        results.add((T) userData[node]);
+      } else {
+        stackSize = push(stackSize, children1[node]);
+        stackSize = push(stackSize, children2[node]);
+      }
+    }
+  }
+
+  /** Appends the user data of every proxy whose fat bounds overlap the given bounds. */
+  @SuppressWarnings("unchecked")
+  void query(float[] aabb, List<T> results) {
+    if (root == NULL_NODE) {
+      return;
+    }
+
+    int stackSize = 0;
+    stack[stackSize++] = root;
+
+    while (stackSize > 0) {
+      int node = stack[--stackSize];
+      if (!boundsOverlap(node, aabb)) {
+        continue;
+      }
+
+      if (isLeaf(node)) {
+        results.add((T) userData[node]);
+      } else {
+        stackSize = push(stackSize, children1[node]);
+        stackSize = push(stackSize, children2[node]);
+      }
+    }
+  }
+
+  private int push(int stackSize, int node) {
+    if (stackSize == stack.length) {
+      stack = Arrays.copyOf(stack, stack.length * 2);
+    }
+
+    stack[stackSize] = node;
+    return stackSize + 1;
+  }
+
+  private boolean isLeaf(int node) {
+    return children1[node] == NULL_NODE;
+  }
+
+  private void checkIsLeaf(int proxyId) {
+    if (proxyId < 0 || proxyId >= capacity || !isLeaf(proxyId) || heights[proxyId] != 0) {
+      throw new IllegalArgumentException("Invalid proxy id: " + proxyId);
+    }
+  }
+
+  private int allocateNode() {
+    if (freeList == NULL_NODE) {
+      int oldCapacity = capacity;
+      capacity *= 2;
+      bounds = Arrays.copyOf(bounds, capacity * BOUNDS_SIZE);
+      parents = Arrays.copyOf(parents, capacity);
+      children1 = Arrays.copyOf(children1, capacity);
+      children2 = Arrays.copyOf(children2, capacity);
+      heights = Arrays.copyOf(heights, capacity);
+      userData = Arrays.copyOf(userData, capacity);
+      buildFreeList(oldCapacity);
+    }
+
+    int node = freeList;
+    // The parents array doubles as the "next" pointer of the free list.
+    freeList = parents[node];
+    parents[node] = NULL_NODE;
+    children1[node] = NULL_NODE;
+    children2[node] = NULL_NODE;
+    heights[node] = 0;
+    userData[node] = null;
+    return node;
+  }
+
+  private void freeNode(int node) {
+    parents[node] = freeList;
+    children1[node] = NULL_NODE;
+    children2[node] = NULL_NODE;
+    heights[node] = -1;
+    userData[node] = null;
+    freeList = node;
+  }
+
+  private void buildFreeList(int start) {
+    for (int i = start; i < capacity - 1; i++) {
+      parents[i] = i + 1;
+      children1[i] = NULL_NODE;
+      children2[i] = NULL_NODE;
+      heights[i] = -1;
+    }
+
+    parents[capacity - 1] = NULL_NODE;
+    children1[capacity - 1] = NULL_NODE;
+    children2[capacity - 1] = NULL_NODE;
+    heights[capacity - 1] = -1;
+    freeList = start;
+  }
+
+  private void insertLeaf(int leaf) {
+    if (root == NULL_NODE) {
+      root = leaf;
+      parents[root] = NULL_NODE;
+      return;
+    }
+
+    // Find the best sibling for the new leaf using the surface area heuristic.
+    int leafOffset = leaf * BOUNDS_SIZE;
+    int index = root;
+    while (!isLeaf(index)) {
+      int child1 = children1[index];
+      int child2 = children2[index];
+
+      float area = surfaceArea(index);
+      float combinedArea = combinedSurfaceArea(index, leafOffset);
+
+      // Cost of creating a new parent for this node and the new leaf.
+      float cost = 2.0f * combinedArea;
+
+      // Minimum cost of pushing the leaf further down the tree.
+      float inheritanceCost = 2.0f * (combinedArea - area);
+
+      float cost1 = descendCost(child1, leafOffset) + inheritanceCost;
+      float cost2 = descendCost(child2, leafOffset) + inheritanceCost;
+
+      if (cost < cost1 && cost < cost2) {
+        break;
+      }
+
+      index = cost1 < cost2 ? child1 : child2;
+    }
+
+    int sibling = index;
+
+    // Create a new parent for the sibling and the leaf.
+    int oldParent = parents[sibling];
+    int newParent = allocateNode();
+    parents[newParent] = oldParent;
+    heights[newParent] = heights[sibling] + 1;
+    combineBounds(newParent, sibling, leaf);
+
+    if (oldParent != NULL_NODE) {
+      if (children1[oldParent] == sibling) {
+        children1[oldParent] = newParent;
+      } else {
+        children2[oldParent] = newParent;
+      }
+    } else {
+      root = newParent;
+    }
+
+    children1[newParent] = sibling;
+    children2[newParent] = leaf;
+    parents[sibling] = newParent;
+    parents[leaf] = newParent;
+
+    refitAncestors(parents[leaf]);
+  }
+
+  private void removeLeaf(int leaf) {
+    if (leaf == root) {
+      root = NULL_NODE;
+      return;
+    }
+
+    int parent = parents[leaf];
+    int grandParent = parents[parent];
+    int sibling = children1[parent] == leaf ? children2[parent] : children1[parent];
+
+    if (grandParent != NULL_NODE) {
+      // Destroy the parent and connect the sibling to the grand parent.
+      if (children1[grandParent] == parent) {
+        children1[grandParent] = sibling;
+      } else {
+        children2[grandParent] = sibling;
+      }
+      parents[sibling] = grandParent;
+      freeNode(parent);
+
+      refitAncestors(grandParent);
+    } else {
+      root = sibling;
+      parents[sibling] = NULL_NODE;
+      freeNode(parent);
+    }
+
+    parents[leaf] = NULL_NODE;
+  }
+
+  /** Walks up the tree from the given node, re-balancing and recomputing bounds and heights. */
+  private void refitAncestors(int index) {
+    while (index != NULL_NODE) {
+      index = balance(index);
+
+      int child1 = children1[index];
+      int child2 = children2[index];
+      heights[index] = 1 + Math.max(heights[child1], heights[child2]);
+      combineBounds(index, child1, child2);
+
+      index = parents[index];
+    }
+  }
+
+  /**
+   * Performs a left or right rotation if node A is imbalanced.
+   *
+   * @return the new root of the rotated sub-tree
+   */
+  private int balance(int iA) {
+    if (isLeaf(iA) || heights[iA] < 2) {
+      return iA;
+    }
+
+    int iB = children1[iA];
+    int iC = children2[iA];
+    int balance = heights[iC] - heights[iB];
+
+    // Rotate C up.
+    if (balance > 1) {
+      int iF = children1[iC];
+      int iG = children2[iC];
+
+      // Swap A and C.
+      children1[iC] = iA;
+      parents[iC] = parents[iA];
+      parents[iA] = iC;
+      replaceChild(parents[iC], iA, iC);
+
+      // Rotate.
+      if (heights[iF] > heights[iG]) {
+        children2[iC] = iF;
+        children2[iA] = iG;
+        parents[iG] = iA;
+        combineBounds(iA, iB, iG);
+        combineBounds(iC, iA, iF);
+        heights[iA] = 1 + Math.max(heights[iB], heights[iG]);
+        heights[iC] = 1 + Math.max(heights[iA], heights[iF]);
+      } else {
+        children2[iC] = iG;
+        children2[iA] = iF;
+        parents[iF] = iA;
+        combineBounds(iA, iB, iF);
+        combineBounds(iC, iA, iG);
+        heights[iA] = 1 + Math.max(heights[iB], heights[iF]);
+        heights[iC] = 1 + Math.max(heights[iA], heights[iG]);
+      }
+
+      return iC;
+    }
+
+    // Rotate B up.
+    if (balance < -1) {
+      int iD = children1[iB];
+      int iE = children2[iB];
+
+      // Swap A and B.
+      children1[iB] = iA;
+      parents[iB] = parents[iA];
+      parents[iA] = iB;
+      replaceChild(parents[iB], iA, iB);
+
+      // Rotate.
+      if (heights[iD] > heights[iE]) {
+        children2[iB] = iD;
+        children1[iA] = iE;
+        parents[iE] = iA;
+        combineBounds(iA, iC, iE);
+        combineBounds(iB, iA, iD);
+        heights[iA] = 1 + Math.max(heights[iC], heights[iE]);
+        heights[iB] = 1 + Math.max(heights[iA], heights[iD]);
+      } else {
+        children2[iB] = iE;
+        children1[iA] = iD;
+        parents[iD] = iA;
+        combineBounds(iA, iC, iD);
+        combineBounds(iB, iA, iE);
+        heights[iA] = 1 + Math.max(heights[iC], heights[iD]);
+        heights[iB] = 1 + Math.max(heights[iA], heights[iE]);
+      }
+
+      return iB;
+    }
+
+    return iA;
+  }
+
+  private void replaceChild(int parent, int oldChild, int newChild) {
+    if (parent == NULL_NODE) {
+      root = newChild;
+    } else if (children1[parent] == oldChild) {
+      children1[parent] = newChild;
+    } else {
+      children2[parent] = newChild;
+    }
+  }
+
+  private float descendCost(int child, int leafOffset) {
+    float combinedArea = combinedSurfaceArea(child, leafOffset);
+    if (isLeaf(child)) {
+      return combinedArea;
+    }
+
+    return combinedArea - surfaceArea(child);
+  }
+
+  private void setFatBounds(int node, float[] aabb) {
+    int offset = node * BOUNDS_SIZE;
+    bounds[offset] = aabb[0] - AABB_MARGIN;
+    bounds[offset + 1] = aabb[1] - AABB_MARGIN;
+    bounds[offset + 2] = aabb[2] - AABB_MARGIN;
+    bounds[offset + 3] = aabb[3] + AABB_MARGIN;
+    bounds[offset + 4] = aabb[4] + AABB_MARGIN;
+    bounds[offset + 5] = aabb[5] + AABB_MARGIN;
+  }
+
+  private boolean fitsFatBounds(int node, float[] aabb) {
+    int offset = node * BOUNDS_SIZE;
+    for (int i = 0; i < 3; i++) {
+      float fatMin = bounds[offset + i];
+      float fatMax = bounds[offset + i + 3];
+      float min = aabb[i];
+      float max = aabb[i + 3];
+
+      if (min < fatMin || max > fatMax) {
+        return false;
+      }
+
+      if (min - fatMin > AABB_MAX_SLACK || fatMax - max > AABB_MAX_SLACK) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private void combineBounds(int dest, int nodeA, int nodeB) {
+    int destOffset = dest * BOUNDS_SIZE;
+    int offsetA = nodeA * BOUNDS_SIZE;
+    int offsetB = nodeB * BOUNDS_SIZE;
+    for (int i = 0; i < 3; i++) {
+      bounds[destOffset + i] = Math.min(bounds[offsetA + i], bounds[offsetB + i]);
+      bounds[destOffset + i + 3] = Math.max(bounds[offsetA + i + 3], bounds[offsetB + i + 3]);
+    }
+  }
+
+  private float surfaceArea(int node) {
+    int offset = node * BOUNDS_SIZE;
+    float sizeX = bounds[offset + 3] - bounds[offset];
+    float sizeY = bounds[offset + 4] - bounds[offset + 1];
+    float sizeZ = bounds[offset + 5] - bounds[offset + 2];
+    return 2.0f * (sizeX * sizeY + sizeY * sizeZ + sizeZ * sizeX);
+  }
+
+  private float combinedSurfaceArea(int node, int otherOffset) {
+    int offset = node * BOUNDS_SIZE;
+    float sizeX =
+        Math.max(bounds[offset + 3], bounds[otherOffset + 3])
+            - Math.min(bounds[offset], bounds[otherOffset]);
+    float sizeY =
+        Math.max(bounds[offset + 4], bounds[otherOffset + 4])
+            - Math.min(bounds[offset + 1], bounds[otherOffset + 1]);
+    float sizeZ =
+        Math.max(bounds[offset + 5], bounds[otherOffset + 5])
+            - Math.min(bounds[offset + 2], bounds[otherOffset + 2]);
+    return 2.0f * (sizeX * sizeY + sizeY * sizeZ + sizeZ * sizeX);
+  }
+
+  private boolean boundsOverlap(int node, float[] aabb) {
+    int offset = node * BOUNDS_SIZE;
+    return bounds[offset] <= aabb[3]
+        && bounds[offset + 3] >= aabb[0]
+        && bounds[offset + 1] <= aabb[4]
+        && bounds[offset + 4] >= aabb[1]
+        && bounds[offset + 2] <= aabb[5]
+        && bounds[offset + 5] >= aabb[2];
+  }
+
+  /** Slab test between a ray and the bounds of a node, for distances along the ray >= 0. */
+  private boolean rayOverlaps(int node) {
+    int offset = node * BOUNDS_SIZE;
+    float tMin = 0.0f;
+    float tMax = Float.POSITIVE_INFINITY;
+
+    float[] origin = rayOrigin;
+    float[] direction = rayDirection;
+    for (int i = 0; i < 3; i++) {
+      float min = bounds[offset + i];
+      float max = bounds[offset + i + 3];
+
+      if (direction[i] == 0.0f) {
+        // The ray is parallel to this slab.
+        if (origin[i] < min || origin[i] > max) {
+          return false;
+        }
+        continue;
+      }
+
+      float t1 = (min - origin[i]) / direction[i];
+      float t2 = (max - origin[i]) / direction[i];
+      if (t1 > t2) {
+        float temp = t1;
+        t1 = t2;
+        t2 = temp;
+      }
+
+      tMin = Math.max(tMin, t1);
+      tMax = Math.min(tMax, t2);
+      if (tMin > tMax) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+}
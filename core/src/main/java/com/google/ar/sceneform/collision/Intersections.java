@@ -1,19 +1,25 @@
 package com.google.ar.sceneform.collision;
 
-import static com.google.ar.sceneform.math.Vector3.add;
-import static com.google.ar.sceneform.math.Vector3.subtract;
-
 import com.google.ar.sceneform.math.MathHelper;
 import com.google.ar.sceneform.math.Matrix;
 import com.google.ar.sceneform.math.Vector3;
 import com.google.ar.sceneform.utilities.Preconditions;
-import java.util.ArrayList;
-import java.util.List;
 
 /** Implementation of common intersection tests used for collision detection. */
 class Intersections {
-  private static final int NUM_VERTICES_PER_BOX = 8;
-  private static final int NUM_TEST_AXES = 15;
+  static final int NUM_VERTICES_PER_BOX = 8;
+
+  // The signs of the scaled x, y and z axes added to the center of the box for each vertex.
+  private static final float[] VERTEX_SIGNS = {
+    1, 1, 1,
+    -1, 1, 1,
+    1, -1, 1,
+    1, 1, -1,
+    -1, -1, -1,
+    1, -1, -1,
+    -1, 1, -1,
+    -1, -1, 1
+  };
 
   /** Determine if two spheres intersect with each other. */
   static boolean sphereSphereIntersection(Sphere sphere1, Sphere sphere2) {
@@ -22,46 +28,77 @@ class Intersections {
 
     float combinedRadius = sphere1.getRadius() + sphere2.getRadius();
     float combinedRadiusSquared = combinedRadius * combinedRadius;
-    Vector3 difference = Vector3.subtract(sphere2.getCenter(), sphere1.getCenter());
-    float differenceLengthSquared = Vector3.dot(difference, difference);
+    Vector3 center1 = sphere1.getRawCenter();
+    Vector3 center2 = sphere2.getRawCenter();
+    float differenceX = center2.x - center1.x;
+    float differenceY = center2.y - center1.y;
+    float differenceZ = center2.z - center1.z;
+    float differenceLengthSquared =
+        differenceX * differenceX + differenceY * differenceY + differenceZ * differenceZ;
 
     return differenceLengthSquared - combinedRadiusSquared <= 0.0f
         && differenceLengthSquared != 0.0f;
   }
 
-  /** Determine if two boxes intersect with each other. */
+  /**
+   * Determine if two boxes intersect with each other.
+   *
+   * <p>Runs a separating axis test over the corners of the boxes, without allocating. The test
+   * axes are the axes of both boxes followed by the cross products of the axes of the first box
+   * with each other, which is what this test has always used.
+   */
   static boolean boxBoxIntersection(Box box1, Box box2) {
     Preconditions.checkNotNull(box1, "Parameter \"box1\" was null.");
     Preconditions.checkNotNull(box2, "Parameter \"box2\" was null.");
 
     // Get the vertices of the boxes.
-    List<Vector3> box1Vertices = getVerticesFromBox(box1);
-    List<Vector3> box2Vertices = getVerticesFromBox(box2);
-
-    // Determine the test axes
-    Matrix box1Rotation = box1.getRawRotationMatrix();
-    Matrix box2Rotation = box2.getRawRotationMatrix();
-    ArrayList<Vector3> testAxes = new ArrayList<>(NUM_TEST_AXES);
-    testAxes.add(extractXAxisFromRotationMatrix(box1Rotation));
-    testAxes.add(extractYAxisFromRotationMatrix(box1Rotation));
-    testAxes.add(extractZAxisFromRotationMatrix(box1Rotation));
-    testAxes.add(extractXAxisFromRotationMatrix(box2Rotation));
-    testAxes.add(extractYAxisFromRotationMatrix(box2Rotation));
-    testAxes.add(extractZAxisFromRotationMatrix(box2Rotation));
-
-    for (int i = 0; i < 3; i++) {
-      testAxes.add(Vector3.cross(testAxes.get(i), testAxes.get(0)));
-      testAxes.add(Vector3.cross(testAxes.get(i), testAxes.get(1)));
-      testAxes.add(Vector3.cross(testAxes.get(i), testAxes.get(2)));
+    float[] box1Vertices = calculateBoxVertices(box1);
+    float[] box2Vertices = calculateBoxVertices(box2);
+
+    // The axes are the rows of the rotation matrices.
+    float[] box1Rotation = box1.getRawRotationMatrix().data;
+    float[] box2Rotation = box2.getRawRotationMatrix().data;
+    for (int axis = 0; axis < 3; axis++) {
+      if (!testSeparatingAxis(
+          box1Vertices,
+          box2Vertices,
+          box1Rotation[axis],
+          box1Rotation[axis + 4],
+          box1Rotation[axis + 8])) {
+        return false;
+      }
     }
 
-    // Attempt to find a separating axis.
-    for (int i = 0; i < testAxes.size(); i++) {
-      if (!testSeparatingAxis(box1Vertices, box2Vertices, testAxes.get(i))) {
+    for (int axis = 0; axis < 3; axis++) {
+      if (!testSeparatingAxis(
+          box1Vertices,
+          box2Vertices,
+          box2Rotation[axis],
+          box2Rotation[axis + 4],
+          box2Rotation[axis + 8])) {
         return false;
       }
     }
 
+    for (int i = 0; i < 3; i++) {
+      float lhsX = box1Rotation[i];
+      float lhsY = box1Rotation[i + 4];
+      float lhsZ = box1Rotation[i + 8];
+      for (int j = 0; j < 3; j++) {
+        float rhsX = box1Rotation[j];
+        float rhsY = box1Rotation[j + 4];
+        float rhsZ = box1Rotation[j + 8];
+        if (!testSeparatingAxis(
+            box1Vertices,
+            box2Vertices,
+            lhsY * rhsZ - lhsZ * rhsY,
+            lhsZ * rhsX - lhsX * rhsZ,
+            lhsX * rhsY - lhsY * rhsX)) {
+          return false;
+        }
+      }
+    }
+
     return true;
   }
 
@@ -70,17 +107,54 @@ class Intersections {
     Preconditions.checkNotNull(sphere, "Parameter \"sphere\" was null.");
     Preconditions.checkNotNull(box, "Parameter \"box\" was null.");
 
-    Vector3 point = closestPointOnBox(sphere.getCenter(), box);
-    Vector3 sphereDiff = Vector3.subtract(point, sphere.getCenter());
-    float sphereDiffLengthSquared = Vector3.dot(sphereDiff, sphereDiff);
+    Vector3 sphereCenter = sphere.getRawCenter();
+    Vector3 boxCenter = box.getRawCenter();
+    Matrix boxRotation = box.getRawRotationMatrix();
+    Vector3 boxSize = box.getRawSize();
+    float diffX = sphereCenter.x - boxCenter.x;
+    float diffY = sphereCenter.y - boxCenter.y;
+    float diffZ = sphereCenter.z - boxCenter.z;
+
+    // Find the closest point on the box to the center of the sphere by clamping the offset along
+    // each axis of the box to its extents.
+    float pointX = boxCenter.x;
+    float pointY = boxCenter.y;
+    float pointZ = boxCenter.z;
+    for (int axis = 0; axis < 3; axis++) {
+      // The axes are the rows of the rotation matrix.
+      float axisX = boxRotation.data[axis];
+      float axisY = boxRotation.data[axis + 4];
+      float axisZ = boxRotation.data[axis + 8];
+      float extent = (axis == 0 ? boxSize.x : axis == 1 ? boxSize.y : boxSize.z) * 0.5f;
+      float distance = diffX * axisX + diffY * axisY + diffZ * axisZ;
+
+      if (distance > extent) {
+        distance = extent;
+      } else if (distance < -extent) {
+        distance = -extent;
+      }
+
+      pointX = pointX + axisX * distance;
+      pointY = pointY + axisY * distance;
+      pointZ = pointZ + axisZ * distance;
+    }
+
+    float sphereDiffX = pointX - sphereCenter.x;
+    float sphereDiffY = pointY - sphereCenter.y;
+    float sphereDiffZ = pointZ - sphereCenter.z;
+    float sphereDiffLengthSquared =
+        sphereDiffX * sphereDiffX + sphereDiffY * sphereDiffY + sphereDiffZ * sphereDiffZ;
 
     if (sphereDiffLengthSquared > sphere.getRadius() * sphere.getRadius()) {
       return false;
     }
 
     if (MathHelper.almostEqualRelativeAndAbs(sphereDiffLengthSquared, 0.0f)) {
-      Vector3 boxDiff = Vector3.subtract(point, box.getCenter());
-      float boxDiffLengthSquared = Vector3.dot(boxDiff, boxDiff);
+      float boxDiffX = pointX - boxCenter.x;
+      float boxDiffY = pointY - boxCenter.y;
+      float boxDiffZ = pointZ - boxCenter.z;
+      float boxDiffLengthSquared =
+          boxDiffX * boxDiffX + boxDiffY * boxDiffY + boxDiffZ * boxDiffZ;
       if (MathHelper.almostEqualRelativeAndAbs(boxDiffLengthSquared, 0.0f)) {
         return false;
       }
@@ -89,71 +163,26 @@ class Intersections {
     return true;
   }
 
-  private static Vector3 closestPointOnBox(Vector3 point, Box box) {
-    Vector3 result = new Vector3(box.getCenter());
-    Vector3 diff = Vector3.subtract(point, box.getCenter());
-    Matrix boxRotation = box.getRawRotationMatrix();
-    Vector3 boxExtents = box.getExtents();
-
-    // x-axis
-    {
-      Vector3 axis = extractXAxisFromRotationMatrix(boxRotation);
-      float distance = Vector3.dot(diff, axis);
-
-      if (distance > boxExtents.x) {
-        distance = boxExtents.x;
-      } else if (distance < -boxExtents.x) {
-        distance = -boxExtents.x;
-      }
-
-      result = Vector3.add(result, axis.scaled(distance));
-    }
-
-    // y-axis
-    {
-      Vector3 axis = extractYAxisFromRotationMatrix(boxRotation);
-      float distance = Vector3.dot(diff, axis);
-
-      if (distance > boxExtents.y) {
-        distance = boxExtents.y;
-      } else if (distance < -boxExtents.y) {
-        distance = -boxExtents.y;
-      }
-
-      result = Vector3.add(result, axis.scaled(distance));
-    }
-
-    // z-axis
-    {
-      Vector3 axis = extractZAxisFromRotationMatrix(boxRotation);
-      float distance = Vector3.dot(diff, axis);
-
-      if (distance > boxExtents.z) {
-        distance = boxExtents.z;
-      } else if (distance < -boxExtents.z) {
-        distance = -boxExtents.z;
-      }
-
-      result = Vector3.add(result, axis.scaled(distance));
-    }
-
-    return result;
-  }
-
+  /**
+   * Returns true if the projections of the vertices of both boxes onto the axis overlap. The
+   * bounds start at the same values as they always have, so the results don't change.
+   */
   private static boolean testSeparatingAxis(
-      List<Vector3> vertices1, List<Vector3> vertices2, Vector3 axis) {
+      float[] vertices1, float[] vertices2, float axisX, float axisY, float axisZ) {
     float min1 = Float.MAX_VALUE;
     float max1 = Float.MIN_VALUE;
-    for (int i = 0; i < vertices1.size(); ++i) {
-      float projection = Vector3.dot(axis, vertices1.get(i));
+    for (int i = 0; i < vertices1.length; i += 3) {
+      float projection =
+          axisX * vertices1[i] + axisY * vertices1[i + 1] + axisZ * vertices1[i + 2];
       min1 = Math.min(projection, min1);
       max1 = Math.max(projection, max1);
     }
 
     float min2 = Float.MAX_VALUE;
     float max2 = Float.MIN_VALUE;
-    for (int i = 0; i < vertices2.size(); i++) {
-      float projection = Vector3.dot(axis, vertices2.get(i));
+    for (int i = 0; i < vertices2.length; i += 3) {
+      float projection =
+          axisX * vertices2[i] + axisY * vertices2[i + 1] + axisZ * vertices2[i + 2];
       min2 = Math.min(projection, min2);
       max2 = Math.max(projection, max2);
     }
@@ -161,48 +190,43 @@ class Intersections {
     return min2 <= max1 && min1 <= max2;
   }
 
-  /** Converts a box into an array of 8 vertices that represent the corners of the box. */
-  private static List<Vector3> getVerticesFromBox(Box box) {
-    Preconditions.checkNotNull(box, "Parameter \"box\" was null.");
-
+  /**
+   * Calculates the 8 vertices that represent the corners of the box into the vertex buffer of the
+   * box, and returns it.
+   */
+  private static float[] calculateBoxVertices(Box box) {
     // Get the properties of the box.
-    Vector3 center = box.getCenter();
-    Vector3 extents = box.getExtents();
-    Matrix rotation = box.getRawRotationMatrix();
-
-    // Get the rotation axes of the box.
-    Vector3 xAxis = extractXAxisFromRotationMatrix(rotation);
-    Vector3 yAxis = extractYAxisFromRotationMatrix(rotation);
-    Vector3 zAxis = extractZAxisFromRotationMatrix(rotation);
+    Vector3 center = box.getRawCenter();
+    Vector3 size = box.getRawSize();
+    float[] rotation = box.getRawRotationMatrix().data;
 
     // Scale the rotation axes by the extents.
-    Vector3 xScaled = xAxis.scaled(extents.x);
-    Vector3 yScaled = yAxis.scaled(extents.y);
-    Vector3 zScaled = zAxis.scaled(extents.z);
-
-    // Calculate the 8 vertices of the box.
-    ArrayList<Vector3> vertices = new ArrayList<>(NUM_VERTICES_PER_BOX);
-    vertices.add(add(add(add(center, xScaled), yScaled), zScaled));
-    vertices.add(add(add(subtract(center, xScaled), yScaled), zScaled));
-    vertices.add(add(subtract(add(center, xScaled), yScaled), zScaled));
-    vertices.add(subtract(add(add(center, xScaled), yScaled), zScaled));
-    vertices.add(subtract(subtract(subtract(center, xScaled), yScaled), zScaled));
-    vertices.add(subtract(subtract(add(center, xScaled), yScaled), zScaled));
-    vertices.add(subtract(add(subtract(center, xScaled), yScaled), zScaled));
-    vertices.add(add(subtract(subtract(center, xScaled), yScaled), zScaled));
+    float extentX = size.x * 0.5f;
+    float extentY = size.y * 0.5f;
+    float extentZ = size.z * 0.5f;
+    float xScaledX = rotation[0] * extentX;
+    float xScaledY = rotation[4] * extentX;
+    float xScaledZ = rotation[8] * extentX;
+    float yScaledX = rotation[1] * extentY;
+    float yScaledY = rotation[5] * extentY;
+    float yScaledZ = rotation[9] * extentY;
+    float zScaledX = rotation[2] * extentZ;
+    float zScaledY = rotation[6] * extentZ;
+    float zScaledZ = rotation[10] * extentZ;
+
+    // Calculate the 8 vertices of the box, adding the scaled axes to the center in the same order
+    // as before so that rounding is the same.
+    float[] vertices = box.getVertexBuffer();
+    for (int vertex = 0; vertex < NUM_VERTICES_PER_BOX; vertex++) {
+      float signX = VERTEX_SIGNS[vertex * 3];
+      float signY = VERTEX_SIGNS[vertex * 3 + 1];
+      float signZ = VERTEX_SIGNS[vertex * 3 + 2];
+      int index = vertex * 3;
+      vertices[index] = center.x + signX * xScaledX + signY * yScaledX + signZ * zScaledX;
+      vertices[index + 1] = center.y + signX * xScaledY + signY * yScaledY + signZ * zScaledY;
+      vertices[index + 2] = center.z + signX * xScaledZ + signY * yScaledZ + signZ * zScaledZ;
+    }
 
     return vertices;
   }
-
-  private static Vector3 extractXAxisFromRotationMatrix(Matrix matrix) {
-    return new Vector3(matrix.data[0], matrix.data[4], matrix.data[8]);
-  }
-
-  private static Vector3 extractYAxisFromRotationMatrix(Matrix matrix) {
-    return new Vector3(matrix.data[1], matrix.data[5], matrix.data[9]);
-  }
-
-  private static Vector3 extractZAxisFromRotationMatrix(Matrix matrix) {
-    return new Vector3(matrix.data[2], matrix.data[6], matrix.data[10]);
-  }
 }
@@ -46,6 +46,15 @@ public class Ray {
     return new Vector3(origin);
   }
 
+  /**
+   * Get the raw origin of the ray. Do not modify directly. Instead, use setOrigin.
+   *
+   * @return a reference to the ray's origin
+   */
+  Vector3 getRawOrigin() {
+    return origin;
+  }
+
   /**
    * Set the direction of the ray. The direction will automatically be normalized.
    *
@@ -66,6 +75,15 @@ public class Ray {
     return new Vector3(direction);
   }
 
+  /**
+   * Get the raw direction of the ray. Do not modify directly. Instead, use setDirection.
+   *
+   * @return a reference to the ray's normalized direction
+   */
+  Vector3 getRawDirection() {
+    return direction;
+  }
+
   /**
    * Get a point at a distance along the ray.
    *
@@ -32,6 +32,10 @@ public class RayHit {
     this.point.set(point);
   }
 
+  void setPoint(float x, float y, float z) {
+    point.set(x, y, z);
+  }
+
   /**
    * Get the position in world-space where the ray hit the collision shape.
    *
@@ -65,6 +65,15 @@ public class Sphere extends CollisionShape {
     return new Vector3(center);
   }
 
+  /**
+   * Get the raw center of the sphere. Do not modify directly. Instead, use setCenter.
+   *
+   * @return a reference to the sphere's center
+   */
+  Vector3 getRawCenter() {
+    return center;
+  }
+
   /**
    * Set the radius of the sphere.
    *
@@ -146,6 +155,17 @@ public class Sphere extends CollisionShape {
     return Intersections.sphereBoxIntersection(this, box);
   }
 
+  @Override
+  void calculateBounds(float[] destBounds) {
+    float absRadius = Math.abs(radius);
+    destBounds[0] = center.x - absRadius;
+    destBounds[1] = center.y - absRadius;
+    destBounds[2] = center.z - absRadius;
+    destBounds[3] = center.x + absRadius;
+    destBounds[4] = center.y + absRadius;
+    destBounds[5] = center.z + absRadius;
+  }
+
   @Override
   CollisionShape transform(TransformProvider transformProvider) {
     Preconditions.checkNotNull(transformProvider, "Parameter \"transformProvider\" was null.");
@@ -169,8 +189,9 @@ public class Sphere extends CollisionShape {
 
     Matrix modelMatrix = transformProvider.getWorldModelMatrix();
 
-    // Transform the center of the sphere.
-    resultSphere.setCenter(modelMatrix.transformPoint(center));
+    // Transform the center of the sphere. The center is set directly instead of through setCenter
+    // so that refitting a cached world shape doesn't register as a shape change.
+    resultSphere.center.set(modelMatrix.transformPoint(center));
 
     // Transform the radius of the sphere.
     Vector3 worldScale = new Vector3();
@@ -1,6 +1,8 @@
 package com.google.ar.sceneform.common;
 
+import androidx.annotation.Nullable;
 import com.google.ar.sceneform.math.Matrix;
+import com.google.ar.sceneform.utilities.ChangeId;
 
 /**
  * Interface for providing information about a 3D transformation. See {@link
@@ -10,4 +12,13 @@ import com.google.ar.sceneform.math.Matrix;
  */
 public interface TransformProvider {
   Matrix getWorldModelMatrix();
+
+  /**
+   * Returns an id that is updated whenever the world model matrix may have changed, or null if
+   * changes aren't tracked. When null, the matrix must be assumed to change every frame.
+   */
+  @Nullable
+  default ChangeId getWorldModelMatrixId() {
+    return null;
+  }
 }
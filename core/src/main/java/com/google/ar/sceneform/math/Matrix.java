@@ -57,12 +57,9 @@ public class Matrix {
   }
 
   public void decomposeScale(Vector3 destScale) {
-    Vector3 temp = new Vector3(data[0], data[1], data[2]);
-    destScale.x = temp.length();
-    temp.set(data[4], data[5], data[6]);
-    destScale.y = temp.length();
-    temp.set(data[8], data[9], data[10]);
-    destScale.z = temp.length();
+    destScale.x = (float) Math.sqrt(data[0] * data[0] + data[1] * data[1] + data[2] * data[2]);
+    destScale.y = (float) Math.sqrt(data[4] * data[4] + data[5] * data[5] + data[6] * data[6]);
+    destScale.z = (float) Math.sqrt(data[8] * data[8] + data[9] * data[9] + data[10] * data[10]);
   }
 
   public void decomposeRotation(Vector3 decomposedScale, Quaternion destRotation) {
@@ -338,9 +335,19 @@ public class Matrix {
   }
 
   public Vector3 transformPoint(Vector3 vector) {
+    return transformPoint(vector, new Vector3());
+  }
+
+  /**
+   * Transforms a point and stores the result in dest. dest may be the same as vector.
+   *
+   * @return dest
+   */
+  public Vector3 transformPoint(Vector3 vector, Vector3 dest) {
     Preconditions.checkNotNull(vector, "Parameter \"vector\" was null.");
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
 
-    Vector3 result = new Vector3();
+    Vector3 result = dest;
     float vx = vector.x;
     float vy = vector.y;
     float vz = vector.z;
@@ -372,9 +379,21 @@ public class Matrix {
    * case the matrix used should be the inverse transpose of the incoming matrix.
    */
   public Vector3 transformDirection(Vector3 vector) {
+    return transformDirection(vector, new Vector3());
+  }
+
+  /**
+   * Transforms a direction by ignoring any translation and stores the result in dest. dest may be
+   * the same as vector.
+   *
+   * @see #transformDirection(Vector3)
+   * @return dest
+   */
+  public Vector3 transformDirection(Vector3 vector, Vector3 dest) {
     Preconditions.checkNotNull(vector, "Parameter \"vector\" was null.");
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
 
-    Vector3 result = new Vector3();
+    Vector3 result = dest;
     float vx = vector.x;
     float vy = vector.y;
     float vz = vector.z;
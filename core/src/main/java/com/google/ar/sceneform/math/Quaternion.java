@@ -76,7 +76,7 @@ public class Quaternion {
   /** Update this Quaternion using an axis/angle to define the rotation */
   public void set(Vector3 axis, float angle) {
     Preconditions.checkNotNull(axis, "Parameter \"axis\" was null.");
-    set(Quaternion.axisAngle(axis, angle));
+    Quaternion.axisAngle(axis, angle, this);
   }
 
   /** Set each value and normalize the Quaternion */
@@ -126,9 +126,20 @@ public class Quaternion {
    * @return the quaternion scaled to the unit length, or zero if that can not be done.
    */
   public Quaternion normalized() {
-    Quaternion result = new Quaternion(this);
-    result.normalize();
-    return result;
+    return normalized(new Quaternion());
+  }
+
+  /**
+   * Scales the Quaternion to unit length and stores the result in dest. dest may be this
+   * Quaternion.
+   *
+   * @return dest
+   */
+  public Quaternion normalized(Quaternion dest) {
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+    dest.set(this);
+    dest.normalize();
+    return dest;
   }
 
   /**
@@ -137,7 +148,18 @@ public class Quaternion {
    * @return the opposite rotation
    */
   public Quaternion inverted() {
-    return new Quaternion(-this.x, -this.y, -this.z, this.w);
+    return inverted(new Quaternion());
+  }
+
+  /**
+   * Stores the opposite rotation in dest. dest may be this Quaternion.
+   *
+   * @return dest
+   */
+  public Quaternion inverted(Quaternion dest) {
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+    dest.set(-this.x, -this.y, -this.z, this.w);
+    return dest;
   }
 
   /**
@@ -160,9 +182,18 @@ public class Quaternion {
    * @return The rotated vector
    */
   public static Vector3 rotateVector(Quaternion q, Vector3 src) {
+    return rotateVector(q, src, new Vector3());
+  }
+
+  /**
+   * Rotates a Vector3 by a Quaternion and stores the result in dest. dest may be the same as src.
+   *
+   * @return dest
+   */
+  public static Vector3 rotateVector(Quaternion q, Vector3 src, Vector3 dest) {
     Preconditions.checkNotNull(q, "Parameter \"q\" was null.");
     Preconditions.checkNotNull(src, "Parameter \"src\" was null.");
-    Vector3 result = new Vector3();
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
     float w2 = q.w * q.w;
     float x2 = q.x * q.x;
     float y2 = q.y * q.y;
@@ -185,16 +216,26 @@ public class Quaternion {
     float sx = src.x;
     float sy = src.y;
     float sz = src.z;
-    result.x = m00 * sx + m10 * sy + m20 * sz;
-    result.y = m01 * sx + m11 * sy + m21 * sz;
-    result.z = m02 * sx + m12 * sy + m22 * sz;
-    return result;
+    dest.x = m00 * sx + m10 * sy + m20 * sz;
+    dest.y = m01 * sx + m11 * sy + m21 * sz;
+    dest.z = m02 * sx + m12 * sy + m22 * sz;
+    return dest;
   }
 
   public static Vector3 inverseRotateVector(Quaternion q, Vector3 src) {
+    return inverseRotateVector(q, src, new Vector3());
+  }
+
+  /**
+   * Rotates a Vector3 by the inverse of a Quaternion and stores the result in dest. dest may be the
+   * same as src.
+   *
+   * @return dest
+   */
+  public static Vector3 inverseRotateVector(Quaternion q, Vector3 src, Vector3 dest) {
     Preconditions.checkNotNull(q, "Parameter \"q\" was null.");
     Preconditions.checkNotNull(src, "Parameter \"src\" was null.");
-    Vector3 result = new Vector3();
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
     float w2 = q.w * q.w;
     float x2 = -q.x * -q.x;
     float y2 = -q.y * -q.y;
@@ -218,10 +259,10 @@ public class Quaternion {
     float sx = src.x;
     float sy = src.y;
     float sz = src.z;
-    result.x = m00 * sx + m10 * sy + m20 * sz;
-    result.y = m01 * sx + m11 * sy + m21 * sz;
-    result.z = m02 * sx + m12 * sy + m22 * sz;
-    return result;
+    dest.x = m00 * sx + m10 * sy + m20 * sz;
+    dest.y = m01 * sx + m11 * sy + m21 * sz;
+    dest.z = m02 * sx + m12 * sy + m22 * sz;
+    return dest;
   }
 
   /**
@@ -231,8 +272,20 @@ public class Quaternion {
    * @return The combined rotation
    */
   public static Quaternion multiply(Quaternion lhs, Quaternion rhs) {
+    return multiply(lhs, rhs, new Quaternion());
+  }
+
+  /**
+   * Combines two Quaternions and stores the normalized result in dest. dest may be the same as lhs
+   * or rhs.
+   *
+   * @see #multiply(Quaternion, Quaternion)
+   * @return dest
+   */
+  public static Quaternion multiply(Quaternion lhs, Quaternion rhs, Quaternion dest) {
     Preconditions.checkNotNull(lhs, "Parameter \"lhs\" was null.");
     Preconditions.checkNotNull(rhs, "Parameter \"rhs\" was null.");
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
     float lx = lhs.x;
     float ly = lhs.y;
     float lz = lhs.z;
@@ -242,13 +295,12 @@ public class Quaternion {
     float rz = rhs.z;
     float rw = rhs.w;
 
-    Quaternion result =
-        new Quaternion(
-            lw * rx + lx * rw + ly * rz - lz * ry,
-            lw * ry - lx * rz + ly * rw + lz * rx,
-            lw * rz + lx * ry - ly * rx + lz * rw,
-            lw * rw - lx * rx - ly * ry - lz * rz);
-    return result;
+    dest.set(
+        lw * rx + lx * rw + ly * rz - lz * ry,
+        lw * ry - lx * rz + ly * rw + lz * rx,
+        lw * rz + lx * ry - ly * rx + lz * rw,
+        lw * rw - lx * rx - ly * ry - lz * rz);
+    return dest;
   }
 
   /**
@@ -316,23 +368,55 @@ public class Quaternion {
    * @return interpolated value between the two floats
    */
   public static Quaternion slerp(final Quaternion start, final Quaternion end, float t) {
+    return slerp(start, end, t, new Quaternion());
+  }
+
+  /**
+   * Computes the spherical linear interpolation between two given orientations and stores the
+   * result in dest. dest may be the same as start or end.
+   *
+   * @see #slerp(Quaternion, Quaternion, float)
+   * @return dest
+   */
+  public static Quaternion slerp(
+      final Quaternion start, final Quaternion end, float t, Quaternion dest) {
     Preconditions.checkNotNull(start, "Parameter \"start\" was null.");
     Preconditions.checkNotNull(end, "Parameter \"end\" was null.");
-    Quaternion orientation0 = start.normalized();
-    Quaternion orientation1 = end.normalized();
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+
+    // Normalize both orientations without allocating, identity is used if they can't be.
+    float scale0 = normalizationFactor(start);
+    float x0 = scale0 == 0.0f ? 0.0f : start.x * scale0;
+    float y0 = scale0 == 0.0f ? 0.0f : start.y * scale0;
+    float z0 = scale0 == 0.0f ? 0.0f : start.z * scale0;
+    float w0 = scale0 == 0.0f ? 1.0f : start.w * scale0;
+
+    float scale1 = normalizationFactor(end);
+    float x1 = scale1 == 0.0f ? 0.0f : end.x * scale1;
+    float y1 = scale1 == 0.0f ? 0.0f : end.y * scale1;
+    float z1 = scale1 == 0.0f ? 0.0f : end.z * scale1;
+    float w1 = scale1 == 0.0f ? 1.0f : end.w * scale1;
 
     // cosTheta0 provides the angle between the rotations at t=0
-    double cosTheta0 = Quaternion.dot(orientation0, orientation1);
+    double cosTheta0 = x0 * x1 + y0 * y1 + z0 * z1 + w0 * w1;
 
     // Flip end rotation to get shortest path if needed
     if (cosTheta0 < 0.0f) {
-      orientation1 = orientation1.negated();
+      x1 = -x1;
+      y1 = -y1;
+      z1 = -z1;
+      w1 = -w1;
       cosTheta0 = -cosTheta0;
     }
 
     // Small rotations should just use lerp
     if (cosTheta0 > SLERP_THRESHOLD) {
-      return lerp(orientation0, orientation1, t);
+      dest.set(
+          MathHelper.lerp(x0, x1, t),
+          MathHelper.lerp(y0, y1, t),
+          MathHelper.lerp(z0, z1, t),
+          MathHelper.lerp(w0, w1, t));
+      return dest;
     }
 
     // Cosine function range is -1,1. Clamp larger rotations.
@@ -345,9 +429,28 @@ public class Quaternion {
     double s0 = (Math.cos(thetaT) - cosTheta0 * Math.sin(thetaT) / Math.sin(theta0));
     double s1 = (Math.sin(thetaT) / Math.sin(theta0));
     // result = s0*start + s1*end
-    Quaternion result =
-        Quaternion.add(orientation0.scaled((float) s0), orientation1.scaled((float) s1));
-    return result.normalized();
+    float scaleStart = (float) s0;
+    float scaleEnd = (float) s1;
+    dest.set(
+        x0 * scaleStart + x1 * scaleEnd,
+        y0 * scaleStart + y1 * scaleEnd,
+        z0 * scaleStart + z1 * scaleEnd,
+        w0 * scaleStart + w1 * scaleEnd);
+    return dest;
+  }
+
+  /**
+   * Returns the factor that scales the Quaternion to unit length, or zero if it can not be scaled.
+   * Matches {@link #normalize()}.
+   */
+  private static float normalizationFactor(Quaternion q) {
+    float normSquared = Quaternion.dot(q, q);
+    if (MathHelper.almostEqualRelativeAndAbs(normSquared, 0.0f)) {
+      return 0.0f;
+    } else if (normSquared != 1) {
+      return (float) (1.0 / Math.sqrt(normSquared));
+    }
+    return 1.0f;
   }
 
   /**
@@ -357,8 +460,19 @@ public class Quaternion {
    * @param degrees Angle size in degrees
    */
   public static Quaternion axisAngle(Vector3 axis, float degrees) {
+    return axisAngle(axis, degrees, new Quaternion());
+  }
+
+  /**
+   * Sets dest using an axis/angle to define the rotation
+   *
+   * @param axis Sets rotation direction
+   * @param degrees Angle size in degrees
+   * @return dest
+   */
+  public static Quaternion axisAngle(Vector3 axis, float degrees, Quaternion dest) {
     Preconditions.checkNotNull(axis, "Parameter \"axis\" was null.");
-    Quaternion dest = new Quaternion();
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
     double angle = Math.toRadians(degrees);
     double factor = Math.sin(angle / 2.0);
 
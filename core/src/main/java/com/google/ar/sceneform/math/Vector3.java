@@ -101,16 +101,27 @@ public class Vector3 {
 
   /** Scales the Vector3 to the unit length */
   public Vector3 normalized() {
-    Vector3 result = new Vector3(this);
+    return normalized(new Vector3());
+  }
+
+  /**
+   * Scales the Vector3 to the unit length and stores the result in dest. dest may be this Vector3.
+   *
+   * @return dest
+   */
+  public Vector3 normalized(Vector3 dest) {
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
     float normSquared = Vector3.dot(this, this);
 
     if (MathHelper.almostEqualRelativeAndAbs(normSquared, 0.0f)) {
-      result.setZero();
+      dest.setZero();
     } else if (normSquared != 1) {
       float norm = (float) (1.0 / Math.sqrt(normSquared));
-      result.set(this.scaled(norm));
+      scaled(norm, dest);
+    } else {
+      dest.set(this);
     }
-    return result;
+    return dest;
   }
 
   /**
@@ -122,6 +133,17 @@ public class Vector3 {
     return new Vector3(x * a, y * a, z * a);
   }
 
+  /**
+   * Uniformly scales a Vector3 and stores the result in dest. dest may be this Vector3.
+   *
+   * @return dest
+   */
+  public Vector3 scaled(float a, Vector3 dest) {
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+    dest.set(x * a, y * a, z * a);
+    return dest;
+  }
+
   /**
    * Negates a Vector3
    *
@@ -131,15 +153,37 @@ public class Vector3 {
     return new Vector3(-x, -y, -z);
   }
 
+  /**
+   * Negates a Vector3 and stores the result in dest. dest may be this Vector3.
+   *
+   * @return dest
+   */
+  public Vector3 negated(Vector3 dest) {
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+    dest.set(-x, -y, -z);
+    return dest;
+  }
+
   /**
    * Adds two Vector3's
    *
    * @return The combined Vector3
    */
   public static Vector3 add(Vector3 lhs, Vector3 rhs) {
+    return add(lhs, rhs, new Vector3());
+  }
+
+  /**
+   * Adds two Vector3's and stores the result in dest. dest may be the same as lhs or rhs.
+   *
+   * @return dest
+   */
+  public static Vector3 add(Vector3 lhs, Vector3 rhs, Vector3 dest) {
     Preconditions.checkNotNull(lhs, "Parameter \"lhs\" was null.");
     Preconditions.checkNotNull(rhs, "Parameter \"rhs\" was null.");
-    return new Vector3(lhs.x + rhs.x, lhs.y + rhs.y, lhs.z + rhs.z);
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+    dest.set(lhs.x + rhs.x, lhs.y + rhs.y, lhs.z + rhs.z);
+    return dest;
   }
 
   /**
@@ -148,9 +192,20 @@ public class Vector3 {
    * @return The combined Vector3
    */
   public static Vector3 subtract(Vector3 lhs, Vector3 rhs) {
+    return subtract(lhs, rhs, new Vector3());
+  }
+
+  /**
+   * Subtract two Vector3 and stores the result in dest. dest may be the same as lhs or rhs.
+   *
+   * @return dest
+   */
+  public static Vector3 subtract(Vector3 lhs, Vector3 rhs, Vector3 dest) {
     Preconditions.checkNotNull(lhs, "Parameter \"lhs\" was null.");
     Preconditions.checkNotNull(rhs, "Parameter \"rhs\" was null.");
-    return new Vector3(lhs.x - rhs.x, lhs.y - rhs.y, lhs.z - rhs.z);
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+    dest.set(lhs.x - rhs.x, lhs.y - rhs.y, lhs.z - rhs.z);
+    return dest;
   }
 
   /**
@@ -170,30 +225,65 @@ public class Vector3 {
    * @return A Vector3 perpendicular to Vector3's
    */
   public static Vector3 cross(Vector3 lhs, Vector3 rhs) {
+    return cross(lhs, rhs, new Vector3());
+  }
+
+  /**
+   * Get cross product of two Vector3's and stores the result in dest. dest may be the same as lhs
+   * or rhs.
+   *
+   * @return dest
+   */
+  public static Vector3 cross(Vector3 lhs, Vector3 rhs, Vector3 dest) {
     Preconditions.checkNotNull(lhs, "Parameter \"lhs\" was null.");
     Preconditions.checkNotNull(rhs, "Parameter \"rhs\" was null.");
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
     float lhsX = lhs.x;
     float lhsY = lhs.y;
     float lhsZ = lhs.z;
     float rhsX = rhs.x;
     float rhsY = rhs.y;
     float rhsZ = rhs.z;
-    return new Vector3(
-        lhsY * rhsZ - lhsZ * rhsY, lhsZ * rhsX - lhsX * rhsZ, lhsX * rhsY - lhsY * rhsX);
+    dest.set(lhsY * rhsZ - lhsZ * rhsY, lhsZ * rhsX - lhsX * rhsZ, lhsX * rhsY - lhsY * rhsX);
+    return dest;
   }
 
   /** Get a Vector3 with each value set to the element wise minimum of two Vector3's values */
   public static Vector3 min(Vector3 lhs, Vector3 rhs) {
+    return min(lhs, rhs, new Vector3());
+  }
+
+  /**
+   * Sets each value of dest to the element wise minimum of two Vector3's values. dest may be the
+   * same as lhs or rhs.
+   *
+   * @return dest
+   */
+  public static Vector3 min(Vector3 lhs, Vector3 rhs, Vector3 dest) {
     Preconditions.checkNotNull(lhs, "Parameter \"lhs\" was null.");
     Preconditions.checkNotNull(rhs, "Parameter \"rhs\" was null.");
-    return new Vector3(Math.min(lhs.x, rhs.x), Math.min(lhs.y, rhs.y), Math.min(lhs.z, rhs.z));
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+    dest.set(Math.min(lhs.x, rhs.x), Math.min(lhs.y, rhs.y), Math.min(lhs.z, rhs.z));
+    return dest;
   }
 
   /** Get a Vector3 with each value set to the element wise maximum of two Vector3's values */
   public static Vector3 max(Vector3 lhs, Vector3 rhs) {
+    return max(lhs, rhs, new Vector3());
+  }
+
+  /**
+   * Sets each value of dest to the element wise maximum of two Vector3's values. dest may be the
+   * same as lhs or rhs.
+   *
+   * @return dest
+   */
+  public static Vector3 max(Vector3 lhs, Vector3 rhs, Vector3 dest) {
     Preconditions.checkNotNull(lhs, "Parameter \"lhs\" was null.");
     Preconditions.checkNotNull(rhs, "Parameter \"rhs\" was null.");
-    return new Vector3(Math.max(lhs.x, rhs.x), Math.max(lhs.y, rhs.y), Math.max(lhs.z, rhs.z));
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+    dest.set(Math.max(lhs.x, rhs.x), Math.max(lhs.y, rhs.y), Math.max(lhs.z, rhs.z));
+    return dest;
   }
 
   /** Get the maximum value in a single Vector3 */
@@ -217,10 +307,22 @@ public class Vector3 {
    * @return interpolated value between the two floats
    */
   public static Vector3 lerp(Vector3 a, Vector3 b, float t) {
+    return lerp(a, b, t, new Vector3());
+  }
+
+  /**
+   * Linearly interpolates between a and b and stores the result in dest. dest may be the same as a
+   * or b.
+   *
+   * @return dest
+   */
+  public static Vector3 lerp(Vector3 a, Vector3 b, float t, Vector3 dest) {
     Preconditions.checkNotNull(a, "Parameter \"a\" was null.");
     Preconditions.checkNotNull(b, "Parameter \"b\" was null.");
-    return new Vector3(
+    Preconditions.checkNotNull(dest, "Parameter \"dest\" was null.");
+    dest.set(
         MathHelper.lerp(a.x, b.x, t), MathHelper.lerp(a.y, b.y, t), MathHelper.lerp(a.z, b.z, t));
+    return dest;
   }
 
   /**
@@ -8,7 +8,14 @@ package com.google.ar.sceneform.rendering;
  * will be run.
  */
 class CleanupItem<T> extends java.lang.ref.PhantomReference<T> {
+  /** The index of an item that isn't tracked by a {@link CleanupRegistry}. */
+  static final int NO_INDEX = -1;
+
+  private static final SizedResource[] NO_SIZED_RESOURCES = new SizedResource[0];
+
   private final Runnable cleanupCallback;
+  private final SizedResource[] sizedResources;
+  private int index = NO_INDEX;
 
   /**
    * @param trackedObject The object to be tracked until garbage collection
@@ -17,8 +24,34 @@ class CleanupItem<T> extends java.lang.ref.PhantomReference<T> {
    */
   CleanupItem(
       T trackedObject, java.lang.ref.ReferenceQueue<T> referenceQueue, Runnable cleanupCallback) {
+    this(trackedObject, referenceQueue, cleanupCallback, NO_SIZED_RESOURCES);
+  }
+
+  /**
+   * @param sizedResources The data held for {@code trackedObject}, counted by resource accounting
+   *     until the object is disposed.
+   */
+  CleanupItem(
+      T trackedObject,
+      java.lang.ref.ReferenceQueue<T> referenceQueue,
+      Runnable cleanupCallback,
+      SizedResource[] sizedResources) {
     super(trackedObject, referenceQueue);
     this.cleanupCallback = cleanupCallback;
+    this.sizedResources = sizedResources;
+  }
+
+  SizedResource[] getSizedResources() {
+    return sizedResources;
+  }
+
+  /** Returns the position of the item in the list of its {@link CleanupRegistry}. */
+  int getIndex() {
+    return index;
+  }
+
+  void setIndex(int index) {
+    this.index = index;
   }
 
   /** Executes the {@link Runnable}. */
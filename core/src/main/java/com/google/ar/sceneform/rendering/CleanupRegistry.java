@@ -2,25 +2,31 @@ package com.google.ar.sceneform.rendering;
 
 import com.google.ar.sceneform.resources.ResourceHolder;
 import java.lang.ref.ReferenceQueue;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 
 /**
  * Maintains a {@link ReferenceQueue} and executes a {@link Runnable} after each object in the queue
  * is garbage collected.
+ *
+ * <p>The callbacks of collected objects can be run all at once with {@link
+ * #reclaimReleasedResources()}, or a few at a time with {@link #runPendingCleanups(long, int)},
+ * which leaves the rest pending for a later call.
  */
 public class CleanupRegistry<T> implements ResourceHolder {
 
-  private final java.util.HashSet<CleanupItem<T>> cleanupItemHashSet;
+  // Each item stores its position in this list, so it can be found and removed without hashing.
+  private final ArrayList<CleanupItem<T>> cleanupItems = new ArrayList<>();
+  private final ArrayDeque<CleanupItem<T>> pendingCleanupItems = new ArrayDeque<>();
   private final ReferenceQueue<T> referenceQueue;
 
   public CleanupRegistry() {
-    this(new HashSet<>(), new ReferenceQueue<>());
+    this(new ReferenceQueue<>());
   }
 
-  public CleanupRegistry(
-      java.util.HashSet<CleanupItem<T>> cleanupItemHashSet, ReferenceQueue<T> referenceQueue) {
-    this.cleanupItemHashSet = cleanupItemHashSet;
+  public CleanupRegistry(ReferenceQueue<T> referenceQueue) {
     this.referenceQueue = referenceQueue;
   }
 
@@ -31,7 +37,33 @@ public class CleanupRegistry<T> implements ResourceHolder {
    * @param cleanupCallback Will be called after {@code trackedOBject} is disposed.
    */
   public void register(T trackedObject, Runnable cleanupCallback) {
-    cleanupItemHashSet.add(new CleanupItem<T>(trackedObject, referenceQueue, cleanupCallback));
+    addCleanupItem(new CleanupItem<T>(trackedObject, referenceQueue, cleanupCallback));
+  }
+
+  /**
+   * Adds {@code trackedObject} to the {@link ReferenceQueue}, and counts the data it holds in the
+   * resource accounting of the {@link ResourceManager} until it is disposed.
+   *
+   * @param trackedObject The target to be tracked.
+   * @param cleanupCallback Will be called after {@code trackedOBject} is disposed.
+   * @param sizedResources The data held by {@code trackedObject}.
+   */
+  void register(T trackedObject, Runnable cleanupCallback, SizedResource... sizedResources) {
+    addCleanupItem(
+        new CleanupItem<T>(trackedObject, referenceQueue, cleanupCallback, sizedResources));
+  }
+
+  /**
+   * Adds the data held by the tracked objects, including disposed objects whose callback hasn't
+   * run yet.
+   */
+  void collectSizedResources(Collection<SizedResource> sizedResources) {
+    for (CleanupItem<T> item : cleanupItems) {
+      Collections.addAll(sizedResources, item.getSizedResources());
+    }
+    for (CleanupItem<T> item : pendingCleanupItems) {
+      Collections.addAll(sizedResources, item.getSizedResources());
+    }
   }
 
   /**
@@ -41,27 +73,97 @@ public class CleanupRegistry<T> implements ResourceHolder {
    * @return count of resources remaining.
    */
   @Override
-  @SuppressWarnings("unchecked") // safe cast from Reference to a CleanupItem
   public long reclaimReleasedResources() {
+    pollReleasedResources();
+    runPendingCleanups(Long.MAX_VALUE, Integer.MAX_VALUE);
+    return getResourceCount();
+  }
+
+  /**
+   * Moves the garbage collected objects from the {@link ReferenceQueue} to the pending callbacks,
+   * without running them.
+   */
+  @SuppressWarnings("unchecked") // safe cast from Reference to a CleanupItem
+  void pollReleasedResources() {
     CleanupItem<T> ref = (CleanupItem<T>) referenceQueue.poll();
     while (ref != null) {
-      if (cleanupItemHashSet.contains(ref)) {
-        ref.run();
-        cleanupItemHashSet.remove(ref);
+      if (removeCleanupItem(ref)) {
+        pendingCleanupItems.add(ref);
       }
       ref = (CleanupItem<T>) referenceQueue.poll();
     }
-    return cleanupItemHashSet.size();
+  }
+
+  /**
+   * Runs the pending callbacks in the order their objects were collected, until there are none
+   * left, {@code maxCallbacks} have run or {@link System#nanoTime()} reaches {@code deadlineNanos}.
+   * The time is checked after each callback, so at least one runs if any are pending and {@code
+   * maxCallbacks} is positive.
+   *
+   * @return count of callbacks run.
+   */
+  int runPendingCleanups(long deadlineNanos, int maxCallbacks) {
+    int callbackCount = 0;
+    while (callbackCount < maxCallbacks && !pendingCleanupItems.isEmpty()) {
+      pendingCleanupItems.poll().run();
+      callbackCount++;
+      if (System.nanoTime() >= deadlineNanos) {
+        break;
+      }
+    }
+    return callbackCount;
+  }
+
+  /** Returns true if some garbage collected objects are waiting for their callback to run. */
+  boolean hasPendingCleanups() {
+    return !pendingCleanupItems.isEmpty();
+  }
+
+  /** Returns the number of garbage collected objects waiting for their callback to run. */
+  int getPendingCleanupCount() {
+    return pendingCleanupItems.size();
+  }
+
+  /** Returns the number of tracked objects whose callback hasn't run yet. */
+  long getResourceCount() {
+    return cleanupItems.size() + pendingCleanupItems.size();
   }
 
   /** Ignores reference count and releases any associated resources */
   @Override
   public void destroyAllResources() {
-    Iterator<CleanupItem<T>> iterator = cleanupItemHashSet.iterator();
-    while (iterator.hasNext()) {
-      CleanupItem<T> ref = iterator.next();
-      iterator.remove();
+    while (!pendingCleanupItems.isEmpty()) {
+      pendingCleanupItems.poll().run();
+    }
+    for (int i = cleanupItems.size() - 1; i >= 0; i--) {
+      CleanupItem<T> ref = cleanupItems.remove(i);
+      ref.setIndex(CleanupItem.NO_INDEX);
       ref.run();
     }
   }
+
+  private void addCleanupItem(CleanupItem<T> item) {
+    item.setIndex(cleanupItems.size());
+    cleanupItems.add(item);
+  }
+
+  /**
+   * Removes an item by moving the last item into its position.
+   *
+   * @return false if the item was already removed.
+   */
+  private boolean removeCleanupItem(CleanupItem<T> item) {
+    int index = item.getIndex();
+    if (index == CleanupItem.NO_INDEX || cleanupItems.get(index) != item) {
+      return false;
+    }
+
+    CleanupItem<T> lastItem = cleanupItems.remove(cleanupItems.size() - 1);
+    if (lastItem != item) {
+      cleanupItems.set(index, lastItem);
+      lastItem.setIndex(index);
+    }
+    item.setIndex(CleanupItem.NO_INDEX);
+    return true;
+  }
 }
@@ -42,9 +42,11 @@ public class DepthTexture {
                 .levels(1)
                 .build(EngineInstance.getEngine().getFilamentEngine());
 
+        // The callback also sizes the texture, since it keeps it after this object is collected.
+        CleanupCallback cleanupCallback = new CleanupCallback(filamentTexture);
         ResourceManager.getInstance()
                 .getDepthTextureCleanupRegistry()
-                .register(this, new CleanupCallback(filamentTexture));
+                .register(this, cleanupCallback, cleanupCallback);
     }
     public Texture getFilamentTexture() {
         return Preconditions.checkNotNull(filamentTexture);
@@ -96,13 +98,32 @@ public class DepthTexture {
     /**
      * Cleanup filament objects after garbage collection
      */
-    private static final class CleanupCallback implements Runnable {
+    private static final class CleanupCallback implements Runnable, SizedResource {
         @Nullable private final Texture filamentTexture;
 
         CleanupCallback(@Nullable Texture filamentTexture) {
             this.filamentTexture = filamentTexture;
         }
 
+        @Override
+        public ResourceMemorySnapshot.ResourceType getResourceType() {
+            return ResourceMemorySnapshot.ResourceType.TEXTURE;
+        }
+
+        @Override
+        public long getSizeInBytes() {
+            return filamentTexture == null
+                    ? 0
+                    : TextureInternalData.getSizeInBytes(filamentTexture);
+        }
+
+        @Override
+        public String getResourceDescription() {
+            return filamentTexture == null
+                    ? "Depth texture"
+                    : "Depth " + TextureInternalData.getDescription(filamentTexture);
+        }
+
         @Override
         public void run() {
             AndroidPreconditions.checkUiThread();
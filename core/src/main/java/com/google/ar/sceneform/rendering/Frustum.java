@@ -0,0 +1,76 @@
+package com.google.ar.sceneform.rendering;
+
+import com.google.ar.sceneform.math.Matrix;
+
+/**
+ * The six clipping planes of a camera, used to cull renderables that can't be seen.
+ *
+ * <p>Planes are extracted from the combined projection and view matrix. Each plane is stored as
+ * [a, b, c, d] where a point is inside the plane when a * x + b * y + c * z + d >= 0.
+ */
+class Frustum {
+  private static final int PLANE_COUNT = 6;
+  private static final int PLANE_SIZE = 4;
+
+  private final float[] planes = new float[PLANE_COUNT * PLANE_SIZE];
+  private final Matrix viewProjectionMatrix = new Matrix();
+
+  /** Updates the planes from the projection and view matrices of a camera. */
+  void update(Matrix projectionMatrix, Matrix viewMatrix) {
+    Matrix.multiply(projectionMatrix, viewMatrix, viewProjectionMatrix);
+    float[] m = viewProjectionMatrix.data;
+
+    // Left, right, bottom, top, near and far planes.
+    for (int i = 0; i < 3; i++) {
+      setPlane(i * 2, m[3] + m[i], m[7] + m[4 + i], m[11] + m[8 + i], m[15] + m[12 + i]);
+      setPlane(i * 2 + 1, m[3] - m[i], m[7] - m[4 + i], m[11] - m[8 + i], m[15] - m[12 + i]);
+    }
+  }
+
+  /**
+   * Returns true if a box intersects the frustum. The box is defined in model space by its center
+   * and half extents, and transformed to world space by modelMatrix.
+   */
+  boolean intersectsBox(Matrix modelMatrix, float[] center, float[] halfExtents) {
+    float[] m = modelMatrix.data;
+    float cx = center[0];
+    float cy = center[1];
+    float cz = center[2];
+    float ex = halfExtents[0];
+    float ey = halfExtents[1];
+    float ez = halfExtents[2];
+
+    // Transform the box to a world-space axis aligned box that encloses it.
+    float worldCenterX = m[0] * cx + m[4] * cy + m[8] * cz + m[12];
+    float worldCenterY = m[1] * cx + m[5] * cy + m[9] * cz + m[13];
+    float worldCenterZ = m[2] * cx + m[6] * cy + m[10] * cz + m[14];
+    float worldExtentX = Math.abs(m[0]) * ex + Math.abs(m[4]) * ey + Math.abs(m[8]) * ez;
+    float worldExtentY = Math.abs(m[1]) * ex + Math.abs(m[5]) * ey + Math.abs(m[9]) * ez;
+    float worldExtentZ = Math.abs(m[2]) * ex + Math.abs(m[6]) * ey + Math.abs(m[10]) * ez;
+
+    for (int i = 0; i < PLANE_COUNT; i++) {
+      int offset = i * PLANE_SIZE;
+      float a = planes[offset];
+      float b = planes[offset + 1];
+      float c = planes[offset + 2];
+      float d = planes[offset + 3];
+
+      float distance = a * worldCenterX + b * worldCenterY + c * worldCenterZ + d;
+      float radius =
+          Math.abs(a) * worldExtentX + Math.abs(b) * worldExtentY + Math.abs(c) * worldExtentZ;
+      if (distance + radius < 0.0f) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private void setPlane(int index, float a, float b, float c, float d) {
+    int offset = index * PLANE_SIZE;
+    planes[offset] = a;
+    planes[offset + 1] = b;
+    planes[offset + 2] = c;
+    planes[offset + 3] = d;
+  }
+}
@@ -4,7 +4,9 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.google.android.filament.Entity;
 import com.google.android.filament.IndexBuffer;
+import com.google.android.filament.IndexBuffer.Builder.IndexType;
 import com.google.android.filament.VertexBuffer;
+import com.google.android.filament.VertexBuffer.VertexAttribute;
 
 
 import com.google.ar.sceneform.math.Vector3;
@@ -12,12 +14,13 @@ import com.google.ar.sceneform.rendering.RenderableInternalData.MeshData;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 
 // TODO: Split IRenderableInternalData into RenderableInternalSfbData and
 // RenderableInternalDefinitionData
-interface IRenderableInternalData {
+interface IRenderableInternalData extends SizedResource {
 
   void setCenterAabb(Vector3 minAabb);
 
@@ -74,6 +77,15 @@ interface IRenderableInternalData {
   @Nullable
   FloatBuffer getRawColorBuffer();
 
+  void setVertexAttributes(@Nullable EnumSet<VertexAttribute> vertexAttributes);
+
+  @Nullable
+  EnumSet<VertexAttribute> getVertexAttributes();
+
+  void setIndexType(IndexType indexType);
+
+  IndexType getIndexType();
+
   void setAnimationNames(@NonNull List<String> animationNames);
 
   @NonNull
@@ -9,6 +9,7 @@ import com.google.ar.sceneform.common.TransformProvider;
 import com.google.ar.sceneform.math.Matrix;
 import com.google.ar.sceneform.math.Vector3;
 import com.google.ar.sceneform.utilities.AndroidPreconditions;
+import java.util.Arrays;
 
 /**
  * Wraps a Filament Light.
@@ -34,6 +35,9 @@ public class LightInstance {
   private Vector3 localPosition;
   private Vector3 localDirection;
   private boolean dirty;
+  // The world transform last applied to the light, compared every frame to skip unchanged lights.
+  private final float[] appliedTransform = new float[16];
+  private boolean hasAppliedTransform;
 
   private LightInstanceChangeListener changeListener = new LightInstanceChangeListener();
 
@@ -102,18 +106,27 @@ public class LightInstance {
 
   public void updateTransform() {
     // Update the light instance based on changes to the source light.
-    updateProperties();
+    boolean isPropertiesChanged = updateProperties();
 
     // Handle lights that do not have transform providers such as default global sunlight.
     if (transformProvider == null) {
       return;
     }
 
+    final Matrix transform = transformProvider.getWorldModelMatrix();
+    if (!isPropertiesChanged
+        && hasAppliedTransform
+        && Arrays.equals(appliedTransform, transform.data)) {
+      return;
+    }
+    System.arraycopy(transform.data, 0, appliedTransform, 0, appliedTransform.length);
+    hasAppliedTransform = true;
+    Renderer.markContentChanged();
+
     IEngine engine = EngineInstance.getEngine();
     LightManager lightManager = engine.getLightManager();
 
     final int instance = lightManager.getInstance(entity);
-    final Matrix transform = transformProvider.getWorldModelMatrix();
 
     if (lightTypeRequiresPosition(light.getType())) {
       final Vector3 position = transform.transformPoint(localPosition);
@@ -179,13 +192,15 @@ public class LightInstance {
   /*
    * Copy updated light properites from the light data
    * This just updates a light rather than creating a new one.
+   * Returns true if the properties were updated.
    */
-  private void updateProperties() {
+  private boolean updateProperties() {
     // Only update the properties if the light is marked as dirty.
     if (!dirty) {
-      return;
+      return false;
     }
     dirty = false;
+    Renderer.markContentChanged();
 
     IEngine engine = EngineInstance.getEngine();
     LightManager lightManager = engine.getLightManager();
@@ -215,6 +230,7 @@ public class LightInstance {
           Math.min(light.getInnerConeAngle(), light.getOuterConeAngle()),
           light.getOuterConeAngle());
     }
+    return true;
   }
 
   private static boolean lightTypeRequiresPosition(Light.Type type) {
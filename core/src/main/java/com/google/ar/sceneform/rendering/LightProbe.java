@@ -515,7 +515,7 @@ public class LightProbe {
                     lightProbe.buildFilamentResource(lightingDef);
                     return lightProbe;
                   },
-                  ThreadPools.getMainExecutor());
+                  ThreadPools.getLoadCompletionExecutor());
 
       if (result == null) {
         throw new IllegalStateException("CompletableFuture result is null.");
@@ -5,14 +5,13 @@ import android.net.Uri;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.google.android.filament.gltfio.ResourceLoader;
+import com.google.ar.sceneform.utilities.AssetCache;
 import com.google.ar.sceneform.utilities.Preconditions;
 import com.google.ar.sceneform.utilities.SceneformBufferUtils;
 import java.io.InputStream;
 import java.net.URI;
-import java.nio.ByteBuffer;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 
 /** Task for initializing a renderable with glTF data loaded with gltfio. */
@@ -21,10 +20,17 @@ public class LoadRenderableFromFilamentGltfTask<T extends Renderable> {
   private static final String TAG = LoadRenderableFromFilamentGltfTask.class.getSimpleName();
   private final T renderable;
   private final RenderableInternalFilamentAssetData renderableData;
+  @Nullable private final LoadRequest loadRequest;
 
   LoadRenderableFromFilamentGltfTask(
-      T renderable, Context context, Uri sourceUri, @Nullable Function<String, Uri> urlResolver) {
+      T renderable,
+      Context context,
+      Uri sourceUri,
+      @Nullable Function<String, Uri> urlResolver,
+      @Nullable LoadRequest loadRequest,
+      @Nullable AssetCache assetCache) {
     this.renderable = renderable;
+    this.loadRequest = loadRequest;
     IRenderableInternalData data = renderable.getRenderableData();
     if (data instanceof RenderableInternalFilamentAssetData) {
       this.renderableData =
@@ -37,6 +43,7 @@ public class LoadRenderableFromFilamentGltfTask<T extends Renderable> {
     this.renderableData.urlResolver =
         missingPath -> getUriFromMissingResource(sourceUri, missingPath, urlResolver);
     this.renderableData.context = context.getApplicationContext();
+    this.renderableData.assetCache = assetCache;
     this.renderable.getId().update();
   }
 
@@ -45,27 +52,22 @@ public class LoadRenderableFromFilamentGltfTask<T extends Renderable> {
   public CompletableFuture<T> downloadAndProcessRenderable(
       Callable<InputStream> inputStreamCreator) {
 
-    return CompletableFuture.supplyAsync(
+    return ThreadPools.supplyLoadAsync(
             // Download byte buffer via thread pool
-            () -> {
-              try {
-                return SceneformBufferUtils.inputStreamCallableToByteArray(inputStreamCreator);
-              } catch (Exception e) {
-                throw new CompletionException(e);
-              }
-            },
-            ThreadPools.getThreadPoolExecutor())
+            // Local files and uncompressed assets are mapped instead of copied.
+            () -> SceneformBufferUtils.mapOrReadInputStream(inputStreamCreator),
+            loadRequest)
         .thenApplyAsync(
             gltfByteBuffer -> {
               // Check for glb header
-              this.renderableData.isGltfBinary = gltfByteBuffer[0] == 0x67
-                      && gltfByteBuffer[1] == 0x6C
-                      && gltfByteBuffer[2] == 0x54
-                      && gltfByteBuffer[3] == 0x46;
-              this.renderableData.gltfByteBuffer = ByteBuffer.wrap(gltfByteBuffer);
+              this.renderableData.isGltfBinary = gltfByteBuffer.get(0) == 0x67
+                      && gltfByteBuffer.get(1) == 0x6C
+                      && gltfByteBuffer.get(2) == 0x54
+                      && gltfByteBuffer.get(3) == 0x46;
+              this.renderableData.gltfByteBuffer = gltfByteBuffer;
               return renderable;
             },
-            ThreadPools.getMainExecutor());
+            ThreadPools.getLoadCompletionExecutor());
   }
 
   @NonNull
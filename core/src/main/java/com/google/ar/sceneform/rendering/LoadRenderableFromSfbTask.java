@@ -66,6 +66,7 @@ class LoadRenderableFromSfbTask<T extends Renderable> {
   private final T renderable;
   private final RenderableInternalData renderableData;
   @Nullable private final Uri renderableUri;
+  @Nullable private final LoadRequest loadRequest;
 
   private ModelDef modelDef;
   private ModelInstanceDef modelInstanceDef;
@@ -92,7 +93,8 @@ class LoadRenderableFromSfbTask<T extends Renderable> {
   private static final int BYTES_PER_SHORT = 2;
   private static final int BYTES_PER_INT = 4;
 
-  LoadRenderableFromSfbTask(T renderable, @Nullable Uri renderableUri) {
+  LoadRenderableFromSfbTask(
+      T renderable, @Nullable Uri renderableUri, @Nullable LoadRequest loadRequest) {
     this.renderable = renderable;
     IRenderableInternalData data = renderable.getRenderableData();
     if (data instanceof RenderableInternalData) {
@@ -101,6 +103,7 @@ class LoadRenderableFromSfbTask<T extends Renderable> {
       throw new IllegalStateException("Expected task type " + TAG);
     }
     this.renderableUri = renderableUri;
+    this.loadRequest = loadRequest;
   }
 
   /**
@@ -111,11 +114,11 @@ class LoadRenderableFromSfbTask<T extends Renderable> {
       Callable<InputStream> inputStreamCreator) {
 
     CompletableFuture<T> result =
-        CompletableFuture.supplyAsync(
+        ThreadPools.supplyLoadAsync(
                 // Download byte buffer via thread pool
                 () -> {
                   ByteBuffer assetData =
-                      SceneformBufferUtils.inputStreamToByteBuffer(inputStreamCreator);
+                      SceneformBufferUtils.mapOrReadInputStream(inputStreamCreator);
 
                   // Parse byte buffer via thread pool
                   SceneformBundleDef sfb = byteBufferToSfb(assetData);
@@ -124,7 +127,7 @@ class LoadRenderableFromSfbTask<T extends Renderable> {
                   loadModel(sfb);
                   return sfb;
                 },
-                ThreadPools.getThreadPoolExecutor())
+                loadRequest)
             .thenComposeAsync(
                 sfb -> {
                   loadAnimations(sfb);
@@ -132,7 +135,7 @@ class LoadRenderableFromSfbTask<T extends Renderable> {
                   // Load textures and wait for them to finish.
                   return loadTexturesAsync(sfb);
                 },
-                ThreadPools.getMainExecutor())
+                ThreadPools.getLoadCompletionExecutor())
             .thenApplyAsync(
                 sfb -> {
                   // Fill in the material parameters. could be done on another thread, but kept here
@@ -140,7 +143,7 @@ class LoadRenderableFromSfbTask<T extends Renderable> {
                   buildMaterialParameters(sfb);
                   return setupFilament(sfb);
                 },
-                ThreadPools.getMainExecutor());
+                ThreadPools.getLoadCompletionExecutor());
 
     result.exceptionally(
         // Log Exception if there was one.
@@ -262,6 +265,7 @@ class LoadRenderableFromSfbTask<T extends Renderable> {
     VertexBuffer vertexBuffer = vertexBufferBuilder.build(engine.getFilamentEngine());
     vertexBuffer.setBufferAt(engine.getFilamentEngine(), 0, vertexBufferData);
     renderableData.setVertexBuffer(vertexBuffer);
+    renderableData.setVertexStrideBytes(vertexStride);
 
     setupAnimation();
   }
@@ -423,11 +427,19 @@ class LoadRenderableFromSfbTask<T extends Renderable> {
         // loading texture from RCB
         ByteBuffer data = samplerDef.dataAsByteBuffer();
         // BUG(b/74619992): An extra copy to input stream is made here to avoid a JNI crash
-        ByteArrayInputStream wrappedInputStream =
-            new ByteArrayInputStream(data.array(), data.arrayOffset(), data.capacity());
-        // position the stream to the image buffer
+        ByteArrayInputStream wrappedInputStream;
+        if (data.hasArray()) {
+          wrappedInputStream =
+              new ByteArrayInputStream(data.array(), data.arrayOffset(), data.capacity());
+          // position the stream to the image buffer
+          wrappedInputStream.skip(data.position());
+        } else {
+          // A mapped bundle has no backing array, so only the image is copied out of it.
+          byte[] imageBytes = new byte[data.remaining()];
+          data.duplicate().get(imageBytes);
+          wrappedInputStream = new ByteArrayInputStream(imageBytes);
+        }
         boolean premultiplyAlpha = (usage == Texture.Usage.COLOR);
-        wrappedInputStream.skip(data.position());
         // TODO: The registryId should be populated with a sha1sum
 
         textureFuture =
@@ -435,6 +447,7 @@ class LoadRenderableFromSfbTask<T extends Renderable> {
                 .setUsage(usage)
                 .setSampler(samplerDefToSampler(samplerDef))
                 .setPremultiplied(premultiplyAlpha)
+                .setLoadRequest(loadRequest)
                 .setSource(
                     () -> {
                       Preconditions.checkNotNull(wrappedInputStream);
@@ -0,0 +1,157 @@
+package com.google.ar.sceneform.rendering;
+
+import androidx.annotation.Nullable;
+import com.google.ar.sceneform.utilities.Preconditions;
+import java.util.ArrayList;
+
+/**
+ * Controls how the background work of a load is scheduled by the {@link LoadScheduler}, and
+ * measures it.
+ *
+ * <p>A request is passed to a builder, for example {@link
+ * ModelRenderable.Builder#setLoadRequest(LoadRequest)}, and kept by the caller so that the load can
+ * be moved to another priority or cancelled while it is waiting for a loader thread:
+ *
+ * <pre>{@code
+ * LoadRequest request = new LoadRequest(LoadRequest.Priority.PREFETCH);
+ * ModelRenderable.builder().setSource(context, uri).setLoadRequest(request).build();
+ * ...
+ * // The model scrolled into view.
+ * request.setPriority(LoadRequest.Priority.VISIBLE);
+ * }</pre>
+ *
+ * <p>The methods of a request can be called from any thread.
+ */
+public class LoadRequest {
+  /** The priority classes of loads. Loads of a higher class always start first. */
+  public enum Priority {
+    /** Content that is on screen, or about to be. */
+    VISIBLE,
+    /** Content that is likely to be shown soon. */
+    PREFETCH,
+    /** Content that may be needed later. */
+    BACKGROUND
+  }
+
+  private Priority priority;
+  private boolean isCancelled;
+  @Nullable private LoadScheduler scheduler;
+  private final ArrayList<LoadScheduler.QueuedLoad> queuedLoads = new ArrayList<>();
+
+  private int executedLoadCount;
+  private long queueWaitNanos;
+  private long executionNanos;
+
+  /** Creates a request for a load of the given priority. */
+  public LoadRequest(Priority priority) {
+    this.priority = Preconditions.checkNotNull(priority, "Parameter \"priority\" was null.");
+  }
+
+  /** Returns the priority of the load. */
+  public synchronized Priority getPriority() {
+    return priority;
+  }
+
+  /**
+   * Changes the priority of the load. The background work that is still waiting for a loader thread
+   * is moved to the new priority, work that has started isn't affected.
+   */
+  public synchronized void setPriority(Priority priority) {
+    Preconditions.checkNotNull(priority, "Parameter \"priority\" was null.");
+    if (this.priority == priority) {
+      return;
+    }
+
+    this.priority = priority;
+    LoadScheduler scheduler = this.scheduler;
+    if (scheduler != null) {
+      for (int i = 0; i < queuedLoads.size(); i++) {
+        scheduler.reprioritize(queuedLoads.get(i), priority);
+      }
+    }
+  }
+
+  /**
+   * Cancels the load. The background work that is still waiting for a loader thread is removed from
+   * the queue, and the load completes exceptionally with a {@link
+   * java.util.concurrent.CancellationException} instead of a result.
+   *
+   * @return false if the load was already cancelled
+   */
+  public boolean cancel() {
+    ArrayList<LoadScheduler.QueuedLoad> cancelledLoads = new ArrayList<>();
+    synchronized (this) {
+      if (isCancelled) {
+        return false;
+      }
+
+      isCancelled = true;
+      LoadScheduler scheduler = this.scheduler;
+      if (scheduler != null) {
+        for (int i = 0; i < queuedLoads.size(); i++) {
+          LoadScheduler.QueuedLoad load = queuedLoads.get(i);
+          if (scheduler.dequeue(load)) {
+            cancelledLoads.add(load);
+          }
+        }
+      }
+      queuedLoads.clear();
+    }
+
+    // The loads are completed outside of the lock, since completing them runs their callbacks.
+    for (int i = 0; i < cancelledLoads.size(); i++) {
+      cancelledLoads.get(i).cancel();
+    }
+    return true;
+  }
+
+  public synchronized boolean isCancelled() {
+    return isCancelled;
+  }
+
+  /** Returns the number of background tasks of the load that have run. */
+  public synchronized int getExecutedLoadCount() {
+    return executedLoadCount;
+  }
+
+  /** Returns the total time the background tasks of the load waited for a loader thread. */
+  public synchronized long getQueueWaitNanos() {
+    return queueWaitNanos;
+  }
+
+  /** Returns the total time the background tasks of the load ran on loader threads. */
+  public synchronized long getExecutionNanos() {
+    return executionNanos;
+  }
+
+  /**
+   * Adds a task to the request before it is queued, and returns false if the request is cancelled.
+   * The scheduler queues the task while holding the lock of the request, so that it can't miss a
+   * change of priority.
+   */
+  boolean onLoadQueued(LoadScheduler scheduler, LoadScheduler.QueuedLoad load) {
+    if (this.scheduler != null && this.scheduler != scheduler) {
+      throw new IllegalStateException("A LoadRequest can only be used with one LoadScheduler.");
+    }
+
+    if (isCancelled) {
+      return false;
+    }
+
+    this.scheduler = scheduler;
+    queuedLoads.add(load);
+    return true;
+  }
+
+  /** Removes a task that has left the queue, and returns false if the request is cancelled. */
+  synchronized boolean onLoadDequeued(LoadScheduler.QueuedLoad load) {
+    queuedLoads.remove(load);
+    return !isCancelled;
+  }
+
+  synchronized void onLoadExecuted(long queueWaitNanos, long executionNanos) {
+    executedLoadCount++;
+    this.queueWaitNanos += queueWaitNanos;
+    this.executionNanos += executionNanos;
+  }
+}
@@ -0,0 +1,260 @@
+package com.google.ar.sceneform.rendering;
+
+import android.os.Process;
+import androidx.annotation.Nullable;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs the background work of loads, such as reading and parsing files, on a bounded number of
+ * loader threads. Waiting work is started by the {@link LoadRequest.Priority} of its {@link
+ * LoadRequest}, and in submission order within a priority, so content on screen doesn't wait
+ * behind content that is only prefetched.
+ *
+ * <p>Work submitted without a request, including work submitted through {@link
+ * #execute(Runnable)}, has {@link LoadRequest.Priority#VISIBLE} priority.
+ *
+ * @see ThreadPools#setLoadScheduler(LoadScheduler)
+ */
+@SuppressWarnings("AndroidApiChecker") // CompletableFuture
+public class LoadScheduler implements Executor {
+  private static final String THREAD_NAME_PREFIX = "SceneformLoader-";
+
+  /** Interface definition for a callback invoked each time a background task of a load has run. */
+  public interface OnLoadExecutedListener {
+    /**
+     * Called on the loader thread that ran the task.
+     *
+     * @param request the request of the task, or null if it was submitted without one
+     * @param queueWaitNanos the time the task waited for a loader thread
+     * @param executionNanos the time the task ran
+     */
+    void onLoadExecuted(@Nullable LoadRequest request, long queueWaitNanos, long executionNanos);
+  }
+
+  private final ThreadPoolExecutor executor;
+  private final AtomicLong sequence = new AtomicLong();
+  @Nullable private volatile OnLoadExecutedListener onLoadExecutedListener;
+
+  /**
+   * Creates a scheduler that runs at most the given number of tasks at the same time.
+   *
+   * @see #getDefaultParallelism()
+   */
+  public LoadScheduler(int parallelism) {
+    checkParallelism(parallelism);
+    AtomicInteger threadCount = new AtomicInteger();
+    // Loader threads are kept once started, so work that is queued again after a change of
+    // priority always finds a thread.
+    executor =
+        new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(),
+            runnable -> {
+              Thread thread =
+                  new Thread(
+                      () -> {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                      },
+                      THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /** Returns the parallelism of the default scheduler, based on the number of processors. */
+  public static int getDefaultParallelism() {
+    return Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+  }
+
+  /** Returns the maximum number of tasks that run at the same time. */
+  public int getParallelism() {
+    return executor.getMaximumPoolSize();
+  }
+
+  /** Changes the maximum number of tasks that run at the same time. */
+  public synchronized void setParallelism(int parallelism) {
+    checkParallelism(parallelism);
+    // The core size can never be larger than the maximum size.
+    if (parallelism > executor.getMaximumPoolSize()) {
+      executor.setMaximumPoolSize(parallelism);
+      executor.setCorePoolSize(parallelism);
+    } else {
+      executor.setCorePoolSize(parallelism);
+      executor.setMaximumPoolSize(parallelism);
+    }
+  }
+
+  /** Returns the number of tasks waiting for a loader thread. */
+  public int getQueuedLoadCount() {
+    return executor.getQueue().size();
+  }
+
+  public void setOnLoadExecutedListener(@Nullable OnLoadExecutedListener onLoadExecutedListener) {
+    this.onLoadExecutedListener = onLoadExecutedListener;
+  }
+
+  /** Runs a task with {@link LoadRequest.Priority#VISIBLE} priority. */
+  @Override
+  public void execute(Runnable runnable) {
+    enqueue(new QueuedLoad(null, LoadRequest.Priority.VISIBLE, runnable, null));
+  }
+
+  /**
+   * Runs a task on a loader thread and returns a future for its result, like {@link
+   * CompletableFuture#supplyAsync(Supplier, Executor)}.
+   *
+   * <p>The future completes exceptionally with a {@link CancellationException} if the request is
+   * cancelled, even if the task has already started. Cancelling the future removes the task from
+   * the queue.
+   *
+   * @param request controls the priority of the task, or null for {@link
+   *     LoadRequest.Priority#VISIBLE} priority
+   */
+  public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, @Nullable LoadRequest request) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    Runnable task =
+        () -> {
+          try {
+            T result = supplier.get();
+            if (request != null && request.isCancelled()) {
+              future.completeExceptionally(new CancellationException("The load was cancelled."));
+            } else {
+              future.complete(result);
+            }
+          } catch (Throwable throwable) {
+            future.completeExceptionally(
+                throwable instanceof CompletionException
+                    ? throwable
+                    : new CompletionException(throwable));
+          }
+        };
+    Runnable onCancelled =
+        () -> future.completeExceptionally(new CancellationException("The load was cancelled."));
+
+    QueuedLoad load = new QueuedLoad(request, LoadRequest.Priority.VISIBLE, task, onCancelled);
+    future.whenComplete(
+        (result, throwable) -> {
+          if (future.isCancelled() && dequeue(load) && request != null) {
+            request.onLoadDequeued(load);
+          }
+        });
+
+    if (request == null) {
+      enqueue(load);
+      return future;
+    }
+
+    // The lock of the request is held while queueing, so that a concurrent change of priority
+    // either sees the task in the queue or is seen by it.
+    boolean isQueued;
+    synchronized (request) {
+      load.priority = request.getPriority();
+      isQueued = request.onLoadQueued(this, load);
+      if (isQueued) {
+        enqueue(load);
+      }
+    }
+    if (!isQueued) {
+      onCancelled.run();
+    }
+    return future;
+  }
+
+  private void enqueue(QueuedLoad load) {
+    load.sequence = sequence.getAndIncrement();
+    load.queuedNanos = System.nanoTime();
+    executor.execute(load);
+  }
+
+  /** Moves a waiting task to another priority. Does nothing if the task has already started. */
+  void reprioritize(QueuedLoad load, LoadRequest.Priority priority) {
+    BlockingQueue<Runnable> queue = executor.getQueue();
+    if (queue.remove(load)) {
+      load.priority = priority;
+      queue.add(load);
+    }
+  }
+
+  /** Removes a waiting task from the queue, and returns false if the task has already started. */
+  boolean dequeue(QueuedLoad load) {
+    return executor.getQueue().remove(load);
+  }
+
+  private static void checkParallelism(int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Parallelism must be at least 1.");
+    }
+  }
+
+  /** A task waiting for a loader thread, ordered by priority and then by submission. */
+  final class QueuedLoad implements Runnable, Comparable<QueuedLoad> {
+    @Nullable private final LoadRequest request;
+    private final Runnable task;
+    @Nullable private final Runnable onCancelled;
+    // Only changed while the task is out of the queue.
+    private LoadRequest.Priority priority;
+    private long sequence;
+    private long queuedNanos;
+
+    QueuedLoad(
+        @Nullable LoadRequest request,
+        LoadRequest.Priority priority,
+        Runnable task,
+        @Nullable Runnable onCancelled) {
+      this.request = request;
+      this.priority = priority;
+      this.task = task;
+      this.onCancelled = onCancelled;
+    }
+
+    @Override
+    public int compareTo(QueuedLoad other) {
+      int result = priority.compareTo(other.priority);
+      return result != 0 ? result : Long.compare(sequence, other.sequence);
+    }
+
+    /** Completes the load of a task that was removed from the queue because it was cancelled. */
+    void cancel() {
+      if (onCancelled != null) {
+        onCancelled.run();
+      }
+    }
+
+    @Override
+    public void run() {
+      if (request != null && !request.onLoadDequeued(this)) {
+        cancel();
+        return;
+      }
+
+      long startNanos = System.nanoTime();
+      try {
+        task.run();
+      } finally {
+        long queueWaitNanos = startNanos - queuedNanos;
+        long executionNanos = System.nanoTime() - startNanos;
+        if (request != null) {
+          request.onLoadExecuted(queueWaitNanos, executionNanos);
+        }
+        OnLoadExecutedListener onLoadExecutedListener = LoadScheduler.this.onLoadExecutedListener;
+        if (onLoadExecutedListener != null) {
+          onLoadExecutedListener.onLoadExecuted(request, queueWaitNanos, executionNanos);
+        }
+      }
+    }
+  }
+}
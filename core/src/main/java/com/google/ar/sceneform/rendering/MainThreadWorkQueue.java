@@ -0,0 +1,106 @@
+package com.google.ar.sceneform.rendering;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs work on the main thread within a time budget for each frame, so that loads that complete
+ * together, and create their Filament buffers, textures and materials on the main thread, are
+ * spread over several frames instead of dropping one.
+ *
+ * <p>The queue is drained by the {@link com.google.ar.sceneform.SceneView} at the start of each
+ * frame. When no view draws a frame, for example before the first view is resumed, the queue
+ * drains itself once per frame with the same budget. At least one task runs every frame, so a
+ * task longer than the budget is never starved.
+ *
+ * @hide
+ */
+public class MainThreadWorkQueue implements Executor {
+  public static final long DEFAULT_FRAME_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(4);
+
+  private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final AtomicBoolean isDrainScheduled = new AtomicBoolean();
+  private final Choreographer.FrameCallback drainCallback = this::onDrainFrame;
+  private final Runnable scheduleDrainRunnable =
+      () -> Choreographer.getInstance().postFrameCallback(drainCallback);
+
+  private volatile long frameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+  // Only accessed on the main thread.
+  private long lastDrainFrameTimeNanos;
+
+  /** Returns the time the queue may spend running tasks during each frame. */
+  public long getFrameBudgetNanos() {
+    return frameBudgetNanos;
+  }
+
+  /**
+   * Sets the time the queue may spend running tasks during each frame. A larger budget completes
+   * loads sooner, a smaller one leaves more of the frame to the scene.
+   */
+  public void setFrameBudgetNanos(long frameBudgetNanos) {
+    if (frameBudgetNanos < 0) {
+      throw new IllegalArgumentException("Frame budget must not be negative.");
+    }
+    this.frameBudgetNanos = frameBudgetNanos;
+  }
+
+  /** Returns the number of tasks waiting to run. */
+  public int getQueuedTaskCount() {
+    return tasks.size();
+  }
+
+  /** Queues a task to run on the main thread during one of the next frames. */
+  @Override
+  public void execute(Runnable runnable) {
+    tasks.add(runnable);
+    scheduleDrain();
+  }
+
+  /**
+   * Runs queued tasks until the budget of the frame is spent. Only the first drain of each frame
+   * runs tasks, so views that draw the same frame share its budget.
+   *
+   * @param frameTimeNanos the time of the frame given by the {@link Choreographer}
+   * @return the number of tasks that ran
+   */
+  public int drain(long frameTimeNanos) {
+    if (frameTimeNanos == lastDrainFrameTimeNanos) {
+      return 0;
+    }
+    lastDrainFrameTimeNanos = frameTimeNanos;
+
+    long startNanos = System.nanoTime();
+    long budgetNanos = frameBudgetNanos;
+    int taskCount = 0;
+    Runnable task;
+    while ((task = tasks.poll()) != null) {
+      task.run();
+      taskCount++;
+      if (System.nanoTime() - startNanos >= budgetNanos) {
+        break;
+      }
+    }
+    return taskCount;
+  }
+
+  private void scheduleDrain() {
+    if (isDrainScheduled.compareAndSet(false, true)) {
+      // The choreographer of the main thread can only be used from the main thread.
+      handler.post(scheduleDrainRunnable);
+    }
+  }
+
+  private void onDrainFrame(long frameTimeNanos) {
+    isDrainScheduled.set(false);
+    drain(frameTimeNanos);
+    if (!tasks.isEmpty()) {
+      scheduleDrain();
+    }
+  }
+}
@@ -256,7 +256,16 @@ public class Material {
 
     ResourceManager.getInstance()
             .getMaterialCleanupRegistry()
-            .register(this, new CleanupCallback(internalMaterialInstance, materialData));
+            .register(
+                    this, new CleanupCallback(internalMaterialInstance, materialData), materialData);
+  }
+
+  /**
+   * Returns an estimate of the memory held by the material, in bytes. Copies of a material share
+   * it. Textures used by the material are not included.
+   */
+  long getSizeInBytes() {
+    return materialData == null ? 0 : materialData.getSizeInBytes();
   }
 
   void updateGltfMaterialInstance(MaterialInstance instance) {
@@ -282,10 +291,14 @@ public class Material {
     @Nullable ByteBuffer sourceBuffer;
     /** The {@link Material} will be constructed from the contents of this callable */
     @Nullable private Callable<InputStream> inputStreamCreator;
+    /** Identifies the source of the inputStreamCreator, if it was created from one. */
+    @Nullable private Uri sourceUri;
     /** The {@link Material} will be constructed from an existing filament material. */
     com.google.android.filament.Material existingMaterial;
 
     @Nullable private Object registryId;
+    /** Schedules the reading of the {@link Material} */
+    @Nullable private LoadRequest loadRequest;
 
     /** Constructor for asynchronous building. The sourceBuffer will be read later. */
     private Builder() {}
@@ -304,6 +317,7 @@ public class Material {
       Preconditions.checkNotNull(materialBuffer, "Parameter \"materialBuffer\" was null.");
 
       inputStreamCreator = null;
+      sourceUri = null;
       sourceBuffer = materialBuffer;
       return this;
     }
@@ -323,6 +337,7 @@ public class Material {
 
       registryId = sourceUri;
       inputStreamCreator = LoadHelper.fromUri(context, sourceUri);
+      this.sourceUri = sourceUri;
       sourceBuffer = null;
       return this;
     }
@@ -340,6 +355,7 @@ public class Material {
     public Builder setSource(Context context, int resource) {
       registryId = context.getResources().getResourceName(resource);
       inputStreamCreator = LoadHelper.fromResource(context, resource);
+      sourceUri = LoadHelper.resourceToUri(context, resource);
       sourceBuffer = null;
       return this;
     }
@@ -355,6 +371,7 @@ public class Material {
               inputStreamCreator, "Parameter \"sourceInputStreamCallable\" was null.");
 
       this.inputStreamCreator = inputStreamCreator;
+      sourceUri = null;
       sourceBuffer = null;
       return this;
     }
@@ -387,6 +404,23 @@ public class Material {
       return this;
     }
 
+    /**
+     * Schedules the reading of a {@link Material} loaded via an {@link InputStream} with the
+     * priority of a {@link LoadRequest}, which can also change the priority or cancel the load
+     * later.
+     *
+     * <p>A load with a request isn't shared with concurrent loads of the same source, so that the
+     * request only affects this load.
+     *
+     * @param loadRequest controls the load, or null for {@link LoadRequest.Priority#VISIBLE}
+     *     priority
+     * @return {@link Builder} for chaining setup calls
+     */
+    public Builder setLoadRequest(@Nullable LoadRequest loadRequest) {
+      this.loadRequest = loadRequest;
+      return this;
+    }
+
     /**
      * Creates a new {@link Material} based on the parameters set previously. A source must be
      * specified.
@@ -416,7 +450,8 @@ public class Material {
 
       if (sourceBuffer != null) {
         MaterialInternalDataImpl materialData =
-                new MaterialInternalDataImpl(createFilamentMaterial(sourceBuffer));
+                new MaterialInternalDataImpl(
+                        createFilamentMaterial(sourceBuffer), sourceBuffer.limit());
         Material material = new Material(materialData);
 
         // Register the new material in the registry.
@@ -456,13 +491,36 @@ public class Material {
         return result;
       }
 
-      CompletableFuture<Material> result =
-              CompletableFuture.supplyAsync(
+      CompletableFuture<Material> result;
+      // For static-analysis check.
+      Uri sourceUri = this.sourceUri;
+      if (sourceUri != null && loadRequest == null) {
+        // Concurrent loads of the same source share one load, even without a registry id.
+        ResourceRegistry<Material> registry = ResourceManager.getInstance().getMaterialRegistry();
+        result =
+                registry.coalesceLoad(
+                        LoadHelper.normalizeUri(sourceUri),
+                        () -> loadMaterial(inputStreamCallable, null));
+      } else {
+        result = loadMaterial(inputStreamCallable, loadRequest);
+      }
+
+      if (registryId != null) {
+        ResourceRegistry<Material> registry = ResourceManager.getInstance().getMaterialRegistry();
+        registry.register(registryId, result);
+      }
+
+      return result.thenApply(material -> material.makeCopy());
+    }
+
+    private CompletableFuture<Material> loadMaterial(
+            Callable<InputStream> inputStreamCallable, @Nullable LoadRequest loadRequest) {
+      return ThreadPools.supplyLoadAsync(
                       () -> {
                         @Nullable ByteBuffer byteBuffer;
                         // Open and read the material file.
                         try (InputStream inputStream = inputStreamCallable.call()) {
-                          byteBuffer = SceneformBufferUtils.readStream(inputStream);
+                          byteBuffer = SceneformBufferUtils.mapOrReadStream(inputStream);
                         } catch (Exception e) {
                           throw new CompletionException(e);
                         }
@@ -473,22 +531,17 @@ public class Material {
 
                         return byteBuffer;
                       },
-                      ThreadPools.getThreadPoolExecutor())
+                      loadRequest)
                       .thenApplyAsync(
                               byteBuffer -> {
+                                long sizeInBytes = byteBuffer.limit();
                                 MaterialInternalDataImpl materialData =
-                                        new MaterialInternalDataImpl(createFilamentMaterial(byteBuffer));
+                                        new MaterialInternalDataImpl(
+                                                createFilamentMaterial(byteBuffer), sizeInBytes);
                                 Material material = new Material(materialData);
                                 return material;
                               },
-                              ThreadPools.getMainExecutor());
-
-      if (registryId != null) {
-        ResourceRegistry<Material> registry = ResourceManager.getInstance().getMaterialRegistry();
-        registry.register(registryId, result);
-      }
-
-      return result.thenApply(material -> material.makeCopy());
+                              ThreadPools.getLoadCompletionExecutor());
     }
 
     private void checkPreconditions() {
@@ -2,6 +2,25 @@ package com.google.ar.sceneform.rendering;
 
 import com.google.ar.sceneform.resources.SharedReference;
 
-abstract class MaterialInternalData extends SharedReference {
+abstract class MaterialInternalData extends SharedReference implements SizedResource {
   abstract com.google.android.filament.Material getFilamentMaterial();
+
+  @Override
+  public ResourceMemorySnapshot.ResourceType getResourceType() {
+    return ResourceMemorySnapshot.ResourceType.MATERIAL;
+  }
+
+  /**
+   * Returns an estimate of the memory held by the material, in bytes. Materials owned by a glTF
+   * asset are counted as part of the asset.
+   */
+  @Override
+  public long getSizeInBytes() {
+    return 0;
+  }
+
+  @Override
+  public String getResourceDescription() {
+    return "Material";
+  }
 }
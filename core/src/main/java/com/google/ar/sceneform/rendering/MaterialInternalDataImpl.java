@@ -9,9 +9,17 @@ import com.google.ar.sceneform.utilities.AndroidPreconditions;
  */
 class MaterialInternalDataImpl extends MaterialInternalData {
   @Nullable private com.google.android.filament.Material filamentMaterial;
+  // The size of the compiled material package, which holds the shaders of every variant.
+  private final long sizeInBytes;
 
   MaterialInternalDataImpl(com.google.android.filament.Material filamentMaterial) {
+    this(filamentMaterial, 0);
+  }
+
+  MaterialInternalDataImpl(
+      com.google.android.filament.Material filamentMaterial, long sizeInBytes) {
     this.filamentMaterial = filamentMaterial;
+    this.sizeInBytes = sizeInBytes;
   }
 
   @Override
@@ -22,6 +30,17 @@ class MaterialInternalDataImpl extends MaterialInternalData {
     return filamentMaterial;
   }
 
+  @Override
+  public long getSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  @Override
+  public String getResourceDescription() {
+    com.google.android.filament.Material material = this.filamentMaterial;
+    return material == null ? "Destroyed material" : "Material " + material.getName();
+  }
+
   @Override
   protected void onDispose() {
     AndroidPreconditions.checkUiThread();
@@ -261,6 +261,7 @@ final class MaterialParameters {
         value.applyTo(materialInstance);
       }
     }
+    Renderer.markContentChanged();
   }
 
   void applyParameterTo(MaterialInstance materialInstance, String name) {
@@ -270,6 +271,7 @@ final class MaterialParameters {
       Optional
               .ofNullable(namedParameters.get(name))
               .ifPresent(parameter -> parameter.applyTo(materialInstance));
+      Renderer.markContentChanged();
     }
   }
 
@@ -0,0 +1,284 @@
+package com.google.ar.sceneform.rendering;
+
+import androidx.annotation.Nullable;
+import com.google.android.filament.IndexBuffer;
+import com.google.android.filament.IndexBuffer.Builder.IndexType;
+import com.google.android.filament.VertexBuffer;
+import com.google.android.filament.VertexBuffer.VertexAttribute;
+import com.google.ar.sceneform.math.Vector3;
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.util.EnumSet;
+
+/**
+ * The vertex and index streams of a {@link RenderableDefinition} built with {@link
+ * RenderableDefinition.BufferBuilder}.
+ *
+ * <p>The streams are passed to the Filament buffers as they are, so no {@link Vertex} objects or
+ * intermediate buffers are created. Direct buffers are read by Filament without being copied.
+ */
+class PackedGeometry {
+  static final int POSITION_SIZE = 3; // x, y, z
+  static final int TANGENTS_SIZE = 4; // quaternion
+  static final int UV_SIZE = 2;
+  static final int COLOR_SIZE = 4; // RGBA
+
+  private static final int BYTES_PER_FLOAT = Float.SIZE / 8;
+
+  final int vertexCount;
+  final FloatBuffer positions;
+  // The normals the tangents were converted from, if they weren't given directly.
+  @Nullable final FloatBuffer normals;
+  @Nullable final FloatBuffer tangents;
+  @Nullable final FloatBuffer uvs;
+  @Nullable final FloatBuffer colors;
+
+  // Either an IntBuffer or a ShortBuffer, depending on the index type.
+  final Buffer indices;
+  final int indexCount;
+  final IndexType indexType;
+
+  PackedGeometry(
+      FloatBuffer positions,
+      @Nullable FloatBuffer normals,
+      @Nullable FloatBuffer tangents,
+      @Nullable FloatBuffer uvs,
+      @Nullable FloatBuffer colors,
+      Buffer indices,
+      IndexType indexType) {
+    this.positions = positions;
+    this.normals = normals;
+    this.tangents = tangents;
+    this.uvs = uvs;
+    this.colors = colors;
+    this.indices = indices;
+    this.indexType = indexType;
+    vertexCount = positions.remaining() / POSITION_SIZE;
+    indexCount = indices.remaining();
+
+    if (vertexCount == 0) {
+      throw new IllegalArgumentException("RenderableDefinition must have at least one vertex.");
+    }
+    if (positions.remaining() != vertexCount * POSITION_SIZE) {
+      throw new IllegalArgumentException("Positions must have three floats per vertex.");
+    }
+    checkAttributeSize(tangents, TANGENTS_SIZE, "tangents");
+    checkAttributeSize(uvs, UV_SIZE, "uvs");
+    checkAttributeSize(colors, COLOR_SIZE, "colors");
+  }
+
+  EnumSet<VertexAttribute> getVertexAttributes() {
+    EnumSet<VertexAttribute> attributes = EnumSet.of(VertexAttribute.POSITION);
+    if (tangents != null) {
+      attributes.add(VertexAttribute.TANGENTS);
+    }
+    if (uvs != null) {
+      attributes.add(VertexAttribute.UV0);
+    }
+    if (colors != null) {
+      attributes.add(VertexAttribute.COLOR);
+    }
+    return attributes;
+  }
+
+  /** Uploads the streams to the Filament buffers of data and updates its Aabb. */
+  void applyToData(IRenderableInternalData data) {
+    IEngine engine = EngineInstance.getEngine();
+
+    // The streams are uploaded directly, the raw buffers used for List<Vertex> are not needed.
+    data.setRawIndexBuffer(null);
+    data.setRawPositionBuffer(null);
+    data.setRawTangentsBuffer(null);
+    data.setRawUvBuffer(null);
+    data.setRawColorBuffer(null);
+
+    // Create the filament index buffer if needed.
+    IndexBuffer indexBuffer = data.getIndexBuffer();
+    if (indexBuffer == null
+        || indexBuffer.getIndexCount() < indexCount
+        || data.getIndexType() != indexType) {
+      int indexCapacity = indexCount;
+      if (indexBuffer != null) {
+        // Grow geometrically when the buffer is too small, keep the size if only the type changed.
+        if (indexBuffer.getIndexCount() < indexCount) {
+          indexCapacity =
+              RenderableDefinition.growCapacity(indexBuffer.getIndexCount(), indexCount);
+        }
+        engine.destroyIndexBuffer(indexBuffer);
+      }
+
+      indexBuffer =
+          new IndexBuffer.Builder()
+              .indexCount(indexCapacity)
+              .bufferType(indexType)
+              .build(engine.getFilamentEngine());
+      data.setIndexBuffer(indexBuffer);
+      data.setIndexType(indexType);
+    }
+
+    indexBuffer.setBuffer(engine.getFilamentEngine(), indices, 0, indexCount);
+
+    // Create the filament vertex buffer if needed.
+    EnumSet<VertexAttribute> attributes = getVertexAttributes();
+    VertexBuffer vertexBuffer = data.getVertexBuffer();
+    if (vertexBuffer == null
+        || vertexBuffer.getVertexCount() < vertexCount
+        || !attributes.equals(data.getVertexAttributes())) {
+      int vertexCapacity = vertexCount;
+      if (vertexBuffer != null) {
+        if (vertexBuffer.getVertexCount() < vertexCount) {
+          vertexCapacity =
+              RenderableDefinition.growCapacity(vertexBuffer.getVertexCount(), vertexCount);
+        }
+        engine.destroyVertexBuffer(vertexBuffer);
+      }
+
+      vertexBuffer = RenderableDefinition.createVertexBuffer(vertexCapacity, attributes);
+      data.setVertexBuffer(vertexBuffer);
+      data.setVertexAttributes(attributes);
+    }
+
+    int bufferIndex = 0;
+    vertexBuffer.setBufferAt(
+        engine.getFilamentEngine(), bufferIndex, positions, 0, vertexCount * POSITION_SIZE);
+
+    if (tangents != null) {
+      bufferIndex++;
+      vertexBuffer.setBufferAt(
+          engine.getFilamentEngine(), bufferIndex, tangents, 0, vertexCount * TANGENTS_SIZE);
+    }
+
+    if (uvs != null) {
+      bufferIndex++;
+      vertexBuffer.setBufferAt(
+          engine.getFilamentEngine(), bufferIndex, uvs, 0, vertexCount * UV_SIZE);
+    }
+
+    if (colors != null) {
+      bufferIndex++;
+      vertexBuffer.setBufferAt(
+          engine.getFilamentEngine(), bufferIndex, colors, 0, vertexCount * COLOR_SIZE);
+    }
+
+    setAabbFromPositions(data, positions, vertexCount);
+  }
+
+  /**
+   * Uploads a range of the vertex streams to the Filament vertex buffer of data, which was created
+   * when this geometry was applied. Returns false if the buffer no longer matches the geometry.
+   */
+  boolean applyVertexRangeToData(IRenderableInternalData data, int firstVertex, int count) {
+    RenderableDefinition.checkRange(firstVertex, count, vertexCount);
+
+    VertexBuffer vertexBuffer = data.getVertexBuffer();
+    if (vertexBuffer == null
+        || vertexBuffer.getVertexCount() < vertexCount
+        || !getVertexAttributes().equals(data.getVertexAttributes())) {
+      return false;
+    }
+
+    int bufferIndex = 0;
+    setVertexRange(vertexBuffer, bufferIndex, positions, POSITION_SIZE, firstVertex, count);
+    if (tangents != null) {
+      if (normals != null) {
+        RenderableDefinition.normalsToTangents(normals, tangents, firstVertex, count);
+      }
+      bufferIndex++;
+      setVertexRange(vertexBuffer, bufferIndex, tangents, TANGENTS_SIZE, firstVertex, count);
+    }
+    if (uvs != null) {
+      bufferIndex++;
+      setVertexRange(vertexBuffer, bufferIndex, uvs, UV_SIZE, firstVertex, count);
+    }
+    if (colors != null) {
+      bufferIndex++;
+      setVertexRange(vertexBuffer, bufferIndex, colors, COLOR_SIZE, firstVertex, count);
+    }
+
+    // The moved vertices may have changed the bounds of the whole mesh.
+    setAabbFromPositions(data, positions, vertexCount);
+    return true;
+  }
+
+  /**
+   * Uploads a range of the index stream to the Filament index buffer of data, which was created
+   * when this geometry was applied. Returns false if the buffer no longer matches the geometry.
+   */
+  boolean applyIndexRangeToData(IRenderableInternalData data, int firstIndex, int count) {
+    RenderableDefinition.checkRange(firstIndex, count, indexCount);
+
+    IndexBuffer indexBuffer = data.getIndexBuffer();
+    if (indexBuffer == null
+        || indexBuffer.getIndexCount() < indexCount
+        || data.getIndexType() != indexType) {
+      return false;
+    }
+
+    int bytesPerIndex = indexType == IndexType.USHORT ? Short.SIZE / 8 : Integer.SIZE / 8;
+    indices.position(firstIndex);
+    indexBuffer.setBuffer(
+        EngineInstance.getEngine().getFilamentEngine(),
+        indices,
+        firstIndex * bytesPerIndex,
+        count);
+    indices.rewind();
+    return true;
+  }
+
+  /**
+   * Uploads the elements of a range of vertices from a buffer that holds size floats per vertex.
+   * Only the bytes of the range are sent to Filament.
+   */
+  static void setVertexRange(
+      VertexBuffer vertexBuffer,
+      int bufferIndex,
+      FloatBuffer buffer,
+      int size,
+      int firstVertex,
+      int vertexCount) {
+    buffer.position(firstVertex * size);
+    vertexBuffer.setBufferAt(
+        EngineInstance.getEngine().getFilamentEngine(),
+        bufferIndex,
+        buffer,
+        firstVertex * size * BYTES_PER_FLOAT,
+        vertexCount * size);
+    buffer.rewind();
+  }
+
+  /** Sets the Aabb of data to the bounds of the first vertexCount positions of a buffer. */
+  static void setAabbFromPositions(
+      IRenderableInternalData data, FloatBuffer positions, int vertexCount) {
+    float minX = positions.get(0);
+    float minY = positions.get(1);
+    float minZ = positions.get(2);
+    float maxX = minX;
+    float maxY = minY;
+    float maxZ = minZ;
+
+    for (int i = POSITION_SIZE; i < vertexCount * POSITION_SIZE; i += POSITION_SIZE) {
+      float x = positions.get(i);
+      float y = positions.get(i + 1);
+      float z = positions.get(i + 2);
+      minX = Math.min(minX, x);
+      minY = Math.min(minY, y);
+      minZ = Math.min(minZ, z);
+      maxX = Math.max(maxX, x);
+      maxY = Math.max(maxY, y);
+      maxZ = Math.max(maxZ, z);
+    }
+
+    float extentX = (maxX - minX) * 0.5f;
+    float extentY = (maxY - minY) * 0.5f;
+    float extentZ = (maxZ - minZ) * 0.5f;
+    data.setExtentsAabb(new Vector3(extentX, extentY, extentZ));
+    data.setCenterAabb(new Vector3(minX + extentX, minY + extentY, minZ + extentZ));
+  }
+
+  private void checkAttributeSize(@Nullable FloatBuffer buffer, int size, String name) {
+    if (buffer != null && buffer.remaining() != vertexCount * size) {
+      throw new IllegalArgumentException(
+          "Expected " + size + " " + name + " floats per vertex for " + vertexCount + " vertices.");
+    }
+  }
+}
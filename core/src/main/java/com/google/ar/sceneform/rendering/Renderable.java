@@ -13,13 +13,17 @@ import com.google.ar.sceneform.common.TransformProvider;
 import com.google.ar.sceneform.math.Matrix;
 import com.google.ar.sceneform.resources.ResourceRegistry;
 import com.google.ar.sceneform.utilities.AndroidPreconditions;
+import com.google.ar.sceneform.utilities.AssetCache;
 import com.google.ar.sceneform.utilities.ChangeId;
 import com.google.ar.sceneform.utilities.LoadHelper;
 import com.google.ar.sceneform.utilities.Preconditions;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
@@ -48,7 +52,19 @@ public abstract class Renderable {
     @Nullable
     protected CollisionShape collisionShape;
 
+    // The definition this renderable was last updated from, kept for static batching. It is shared
+    // with copies, and keeps its vertex and index lists in memory for as long as the renderable.
+    @Nullable
+    private RenderableDefinition definition;
+
     private final ChangeId changeId = new ChangeId();
+    // Updated when the bounds change without the rest of the renderable changing.
+    private final ChangeId boundsId = new ChangeId();
+    // Updated when getFinalModelMatrix changes without the rest of the renderable changing.
+    private final ChangeId finalModelMatrixId = new ChangeId();
+    // Updated when a range of vertices or indices changes without the rest of the renderable
+    // changing.
+    private final ChangeId geometryId = new ChangeId();
 
     public static final int RENDER_PRIORITY_DEFAULT = 4;
     public static final int RENDER_PRIORITY_FIRST = 0;
@@ -106,6 +122,7 @@ public abstract class Renderable {
 
         asyncLoadEnabled = other.asyncLoadEnabled;
         animationFrameRate = other.animationFrameRate;
+        definition = other.definition;
 
         changeId.update();
     }
@@ -254,16 +271,114 @@ public abstract class Renderable {
         return new RenderableInstance(transformProvider, this);
     }
 
+    /**
+     * Updates the geometry and materials of the renderable from a definition.
+     *
+     * <p>The renderable and its copies keep a reference to the definition so that they can be
+     * batched by {@link com.google.ar.sceneform.StaticBatchNode}, which keeps the vertex and index
+     * lists of the definition in memory for as long as the renderable.
+     */
     public void updateFromDefinition(RenderableDefinition definition) {
         Preconditions.checkState(!definition.getSubmeshes().isEmpty());
 
         changeId.update();
 
         definition.applyDefinitionToData(renderableData, materialBindings, materialNames);
+        this.definition = definition;
 
         collisionShape = new Box(renderableData.getSizeAabb(), renderableData.getCenterAabb());
     }
 
+    /**
+     * Updates a range of vertices from the definition this renderable was last updated from, after
+     * the vertices in that range have been modified. Only the range is uploaded and the existing
+     * Filament vertex buffer is reused.
+     *
+     * <p>If the definition no longer fits the renderable's buffers, for example because vertices
+     * were added or the vertex attributes changed, the whole definition is applied as with {@link
+     * #updateFromDefinition(RenderableDefinition)}.
+     *
+     * @param definition the definition with the modified vertices
+     * @param firstVertex the index of the first modified vertex
+     * @param vertexCount the number of modified vertices
+     */
+    public void updateVerticesFromDefinition(
+            RenderableDefinition definition, int firstVertex, int vertexCount) {
+        if (!definition.applyVertexRangeToData(renderableData, firstVertex, vertexCount)) {
+            updateFromDefinition(definition);
+            return;
+        }
+        this.definition = definition;
+        geometryId.update();
+
+        // Resize the collision shape in place so that colliders using it pick up the change.
+        if (collisionShape instanceof Box) {
+            Box box = (Box) collisionShape;
+            box.setSize(renderableData.getSizeAabb());
+            box.setCenter(renderableData.getCenterAabb());
+        }
+        boundsId.update();
+    }
+
+    /**
+     * Updates a range of the triangle indices from the definition this renderable was last updated
+     * from. Indices are counted across the submeshes in order. Only the range is uploaded and the
+     * existing Filament index buffer is reused.
+     *
+     * <p>If the definition no longer fits the renderable's buffers, for example because the number
+     * of indices of a submesh changed, the whole definition is applied as with {@link
+     * #updateFromDefinition(RenderableDefinition)}.
+     *
+     * @param definition the definition with the modified indices
+     * @param firstIndex the position of the first modified index
+     * @param indexCount the number of modified indices
+     */
+    public void updateTriangleIndicesFromDefinition(
+            RenderableDefinition definition, int firstIndex, int indexCount) {
+        if (!definition.applyIndexRangeToData(renderableData, firstIndex, indexCount)) {
+            updateFromDefinition(definition);
+            return;
+        }
+        this.definition = definition;
+        geometryId.update();
+    }
+
+    /** Returns the definition this renderable was last updated from, if it was built from one. */
+    @Nullable
+    RenderableDefinition getDefinition() {
+        return definition;
+    }
+
+    /** Changes when the bounds were updated by {@link #updateVerticesFromDefinition}. */
+    ChangeId getBoundsId() {
+        return boundsId;
+    }
+
+    /**
+     * Changes when a range of vertices or indices was updated by {@link
+     * #updateVerticesFromDefinition} or {@link #updateTriangleIndicesFromDefinition}.
+     *
+     * @hide
+     */
+    public ChangeId getGeometryId() {
+        return geometryId;
+    }
+
+    /**
+     * Changes when {@link #getFinalModelMatrix(Matrix)} returns a different matrix for the same
+     * model matrix, for example when a {@link ViewRenderable} is resized.
+     *
+     * @hide
+     */
+    public ChangeId getFinalModelMatrixId() {
+        return finalModelMatrixId;
+    }
+
+    /** Makes the instances of the renderable upload their final model matrix again. */
+    void markFinalModelMatrixChanged() {
+        finalModelMatrixId.update();
+    }
+
     /**
      * Creates a new instance of this Renderable.
      *
@@ -276,6 +391,14 @@ public abstract class Renderable {
         return renderableData;
     }
 
+    /**
+     * Returns an estimate of the memory held by the geometry of the renderable, in bytes. Copies
+     * of a renderable share their geometry.
+     */
+    long getSizeInBytes() {
+        return renderableData.getSizeInBytes();
+    }
+
     ArrayList<Material> getMaterialBindings() {
         return materialBindings;
     }
@@ -363,6 +486,10 @@ public abstract class Renderable {
         private Function<String, Uri> uriResolver = null;
         @Nullable
         private byte[] materialsBytes = null;
+        @Nullable
+        private LoadRequest loadRequest = null;
+        @Nullable
+        private AssetCache assetCache = null;
 
         private int animationFrameRate = DEFAULT_ANIMATION_FRAME_RATE;
 
@@ -377,6 +504,7 @@ public abstract class Renderable {
             this.sourceUri = null;
             this.inputStreamCreator = inputStreamCreator;
             this.context = context;
+            this.assetCache = null;
             return getSelf();
         }
 
@@ -384,13 +512,18 @@ public abstract class Renderable {
             return setRemoteSourceHelper(context, sourceUri, true);
         }
 
+        /**
+         * Loads the renderable from a Uri. Remote files are kept in the {@link AssetCache} when
+         * caching is enabled, so that they are only downloaded again once they are out of date.
+         */
         public B setSource(Context context, Uri sourceUri, boolean enableCaching) {
-            return null;
+            return setRemoteSourceHelper(context, sourceUri, enableCaching);
         }
 
         public B setSource(Context context, int resource) {
             this.inputStreamCreator = LoadHelper.fromResource(context, resource);
             this.context = context;
+            this.assetCache = null;
 
             Uri uri = LoadHelper.resourceToUri(context, resource);
             this.sourceUri = uri;
@@ -405,6 +538,7 @@ public abstract class Renderable {
             this.definition = definition;
             registryId = null;
             sourceUri = null;
+            assetCache = null;
             return getSelf();
         }
 
@@ -437,6 +571,19 @@ public abstract class Renderable {
             return getSelf();
         }
 
+        /**
+         * Schedules the background work of the load with the priority of a {@link LoadRequest},
+         * which can also change the priority or cancel the load later. Loads without a request have
+         * {@link LoadRequest.Priority#VISIBLE} priority.
+         *
+         * <p>A load with a request isn't shared with concurrent loads of the same source, so that
+         * the request only affects this load.
+         */
+        public B setLoadRequest(@Nullable LoadRequest loadRequest) {
+            this.loadRequest = loadRequest;
+            return getSelf();
+        }
+
         /**
          * True if a source function will be called during build
          *
@@ -476,10 +623,8 @@ public abstract class Renderable {
                 }
             }
 
-            T renderable = makeRenderable();
-
             if (definition != null) {
-                return CompletableFuture.completedFuture(renderable);
+                return CompletableFuture.completedFuture(makeRenderable());
             }
 
             // For static-analysis check.
@@ -494,23 +639,28 @@ public abstract class Renderable {
                 return result;
             }
 
-            CompletableFuture<T> result = null;
-            if (isFilamentAsset) {
-                if (context != null) {
-                    result = loadRenderableFromFilamentGltf(context, renderable);
-                } else {
-                    throw new AssertionError("Gltf Renderable.Builder must have a valid context.");
-                }
-            } else if (isGltf) {
-                if (context != null) {
-                    result = loadRenderableFromGltf(context, renderable, this.materialsBytes);
-                } else {
-                    throw new AssertionError("Gltf Renderable.Builder must have a valid context.");
-                }
+            // For static-analysis check.
+            Uri sourceUri = this.sourceUri;
+            AssetCache assetCache = this.assetCache;
+            if (assetCache != null && sourceUri != null) {
+                inputStreamCreator =
+                        assetCache.cacheSource(
+                                isFilamentAsset ? "gltf" : "sfb", sourceUri, inputStreamCreator);
+            }
+
+            CompletableFuture<T> result;
+            if (sourceUri != null && loadRequest == null) {
+                // Concurrent loads of the same source with the same options share one load, even
+                // without a registry id.
+                Callable<InputStream> sourceInputStreamCreator = inputStreamCreator;
+                List<Object> sourceKey =
+                        Arrays.asList(LoadHelper.normalizeUri(sourceUri), getLoadOptions());
+                result =
+                        getRenderableRegistry()
+                                .coalesceLoad(
+                                        sourceKey, () -> loadRenderable(sourceInputStreamCreator));
             } else {
-                LoadRenderableFromSfbTask<T> loader =
-                        new LoadRenderableFromSfbTask<>(renderable, sourceUri);
-                result = loader.downloadAndProcessRenderable(inputStreamCreator);
+                result = loadRenderable(inputStreamCreator);
             }
 
             if (registryId != null) {
@@ -526,6 +676,46 @@ public abstract class Renderable {
                     resultRenderable -> getRenderableClass().cast(resultRenderable.makeCopy()));
         }
 
+        /**
+         * Returns the options of the builder that change the loaded renderable. Concurrent loads of
+         * the same source are only shared if their options are equal.
+         */
+        List<Object> getLoadOptions() {
+            // Wrapping the materials in a buffer compares them by content.
+            return new ArrayList<>(
+                    Arrays.asList(
+                            getClass(),
+                            isFilamentAsset,
+                            isGltf,
+                            asyncLoadEnabled,
+                            loadGltfListener,
+                            uriResolver,
+                            materialsBytes == null ? null : ByteBuffer.wrap(materialsBytes),
+                            animationFrameRate,
+                            assetCache));
+        }
+
+        private CompletableFuture<T> loadRenderable(Callable<InputStream> inputStreamCreator) {
+            T renderable = makeRenderable();
+            if (isFilamentAsset) {
+                if (context != null) {
+                    return loadRenderableFromFilamentGltf(context, renderable, inputStreamCreator);
+                } else {
+                    throw new AssertionError("Gltf Renderable.Builder must have a valid context.");
+                }
+            } else if (isGltf) {
+                if (context != null) {
+                    return loadRenderableFromGltf(context, renderable, this.materialsBytes);
+                } else {
+                    throw new AssertionError("Gltf Renderable.Builder must have a valid context.");
+                }
+            } else {
+                LoadRenderableFromSfbTask<T> loader =
+                        new LoadRenderableFromSfbTask<>(renderable, sourceUri, loadRequest);
+                return loader.downloadAndProcessRenderable(inputStreamCreator);
+            }
+        }
+
         protected void checkPreconditions() {
             AndroidPreconditions.checkUiThread();
 
@@ -540,6 +730,7 @@ public abstract class Renderable {
             this.context = context;
             this.registryId = sourceUri;
             // Configure caching.
+            this.assetCache = null;
             if (enableCaching) {
                 this.setCachingEnabled(context);
             }
@@ -547,6 +738,9 @@ public abstract class Renderable {
             Map<String, String> connectionProperties = new HashMap<>();
             if (!enableCaching) {
                 connectionProperties.put("Cache-Control", "no-cache");
+            } else if (assetCache != null) {
+                // The asset cache keeps the file, an HTTP cache would only keep a second copy.
+                connectionProperties.put("Cache-Control", "no-store");
             } else {
                 connectionProperties.put("Cache-Control", "max-stale=" + DEFAULT_MAX_STALE_CACHE);
             }
@@ -562,15 +756,25 @@ public abstract class Renderable {
         }
 
         private CompletableFuture<T> loadRenderableFromFilamentGltf(
-                @NonNull Context context, T renderable) {
+                @NonNull Context context,
+                T renderable,
+                Callable<InputStream> inputStreamCreator) {
             LoadRenderableFromFilamentGltfTask<T> loader =
                     new LoadRenderableFromFilamentGltfTask<>(
-                            renderable, context, Preconditions.checkNotNull(sourceUri), uriResolver);
-            return loader.downloadAndProcessRenderable(Preconditions.checkNotNull(inputStreamCreator));
+                            renderable,
+                            context,
+                            Preconditions.checkNotNull(sourceUri),
+                            uriResolver,
+                            loadRequest,
+                            assetCache);
+            return loader.downloadAndProcessRenderable(inputStreamCreator);
         }
 
         private void setCachingEnabled(Context context) {
-            return;
+            // Only downloads are cached, local files are already mapped from storage.
+            if (sourceUri != null && LoadHelper.isRemoteUri(sourceUri)) {
+                assetCache = AssetCache.getInstance(context);
+            }
         }
 
         protected abstract T makeRenderable();
@@ -12,9 +12,14 @@ import com.google.ar.sceneform.math.Vector3;
 import com.google.ar.sceneform.rendering.Vertex.UvCoordinate;
 import com.google.ar.sceneform.utilities.AndroidPreconditions;
 import com.google.ar.sceneform.utilities.Preconditions;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 
@@ -26,7 +31,8 @@ import java.util.List;
  * @see ViewRenderable.Builder
  */
 public class RenderableDefinition {
-  private static final Matrix scratchMatrix = new Matrix();
+  private static final Vector3 UP = Vector3.up();
+  private static final Vector3 RIGHT = Vector3.right();
 
   /**
    * Represents a Submesh for a RenderableDefinition. Each RenderableDefinition may have multiple
@@ -36,6 +42,9 @@ public class RenderableDefinition {
     private List<Integer> triangleIndices;
     private Material material;
     @Nullable private String name;
+    // The range of the packed index stream used by this submesh, see BufferBuilder.
+    int indexStart;
+    int indexCount;
 
     public void setTriangleIndices(List<Integer> triangleIndices) {
       this.triangleIndices = triangleIndices;
@@ -101,15 +110,19 @@ public class RenderableDefinition {
 
   private List<Vertex> vertices;
   private List<Submesh> submeshes;
+  // Set instead of vertices when the definition is built with a BufferBuilder.
+  @Nullable private PackedGeometry packedGeometry;
 
   private static final int BYTES_PER_FLOAT = Float.SIZE / 8;
-  private static final int POSITION_SIZE = 3; // x, y, z
-  private static final int UV_SIZE = 2;
-  private static final int TANGENTS_SIZE = 4; // quaternion
-  private static final int COLOR_SIZE = 4; // RGBA
+  private static final int BYTES_PER_INT = Integer.SIZE / 8;
+  private static final int POSITION_SIZE = PackedGeometry.POSITION_SIZE;
+  private static final int UV_SIZE = PackedGeometry.UV_SIZE;
+  private static final int TANGENTS_SIZE = PackedGeometry.TANGENTS_SIZE;
+  private static final int COLOR_SIZE = PackedGeometry.COLOR_SIZE;
 
   public void setVertices(List<Vertex> vertices) {
     this.vertices = vertices;
+    packedGeometry = null;
   }
 
   List<Vertex> getVertices() {
@@ -124,6 +137,12 @@ public class RenderableDefinition {
     return submeshes;
   }
 
+  /** Returns the streams of a definition built with a {@link BufferBuilder}, or null. */
+  @Nullable
+  PackedGeometry getPackedGeometry() {
+    return packedGeometry;
+  }
+
   void applyDefinitionToData(
       // TODO: Split into RenderableInternalSfbData & RenderableInternalDefinitionData
       IRenderableInternalData data,
@@ -131,8 +150,13 @@ public class RenderableDefinition {
       ArrayList<String> materialNames) {
     AndroidPreconditions.checkUiThread();
 
-    applyDefinitionToDataIndexBuffer(data);
-    applyDefinitionToDataVertexBuffer(data);
+    PackedGeometry currentPackedGeometry = packedGeometry;
+    if (currentPackedGeometry != null) {
+      currentPackedGeometry.applyToData(data);
+    } else {
+      applyDefinitionToDataIndexBuffer(data);
+      applyDefinitionToDataVertexBuffer(data);
+    }
 
     // Update/Add mesh data.
     int indexStart = 0;
@@ -149,9 +173,14 @@ public class RenderableDefinition {
         data.getMeshes().add(meshData);
       }
 
-      meshData.indexStart = indexStart;
-      meshData.indexEnd = indexStart + submesh.getTriangleIndices().size();
-      indexStart = meshData.indexEnd;
+      if (currentPackedGeometry != null) {
+        meshData.indexStart = submesh.indexStart;
+        meshData.indexEnd = submesh.indexStart + submesh.indexCount;
+      } else {
+        meshData.indexStart = indexStart;
+        meshData.indexEnd = indexStart + submesh.getTriangleIndices().size();
+        indexStart = meshData.indexEnd;
+      }
       materialBindings.add(submesh.getMaterial());
       final String name = submesh.getName();
       materialNames.add(name != null ? name : "");
@@ -174,7 +203,9 @@ public class RenderableDefinition {
     // Create the raw index buffer if needed.
     IntBuffer rawIndexBuffer = data.getRawIndexBuffer();
     if (rawIndexBuffer == null || rawIndexBuffer.capacity() < numIndices) {
-      rawIndexBuffer = IntBuffer.allocate(numIndices);
+      rawIndexBuffer =
+          IntBuffer.allocate(
+              growCapacity(rawIndexBuffer == null ? 0 : rawIndexBuffer.capacity(), numIndices));
       data.setRawIndexBuffer(rawIndexBuffer);
     } else {
       rawIndexBuffer.rewind();
@@ -193,17 +224,25 @@ public class RenderableDefinition {
     // Create the filament index buffer if needed.
     IndexBuffer indexBuffer = data.getIndexBuffer();
     IEngine engine = EngineInstance.getEngine();
-    if (indexBuffer == null || indexBuffer.getIndexCount() < numIndices) {
+    if (indexBuffer == null
+        || indexBuffer.getIndexCount() < numIndices
+        || data.getIndexType() != IndexType.UINT) {
+      int indexCapacity = numIndices;
       if (indexBuffer != null) {
+        // Grow geometrically when the buffer is too small, keep the size if only the type changed.
+        if (indexBuffer.getIndexCount() < numIndices) {
+          indexCapacity = growCapacity(indexBuffer.getIndexCount(), numIndices);
+        }
         engine.destroyIndexBuffer(indexBuffer);
       }
 
       indexBuffer =
           new IndexBuffer.Builder()
-              .indexCount(numIndices)
+              .indexCount(indexCapacity)
               .bufferType(IndexType.UINT)
               .build(engine.getFilamentEngine());
       data.setIndexBuffer(indexBuffer);
+      data.setIndexType(IndexType.UINT);
     }
 
     indexBuffer.setBuffer(engine.getFilamentEngine(), rawIndexBuffer, 0, numIndices);
@@ -218,50 +257,35 @@ public class RenderableDefinition {
     Vertex firstVertex = vertices.get(0);
 
     // Determine which attributes this VertexBuffer needs.
-    EnumSet<VertexAttribute> descriptionAttributes = EnumSet.of(VertexAttribute.POSITION);
-    if (firstVertex.getNormal() != null) {
-      descriptionAttributes.add(VertexAttribute.TANGENTS);
-    }
-    if (firstVertex.getUvCoordinate() != null) {
-      descriptionAttributes.add(VertexAttribute.UV0);
-    }
-    if (firstVertex.getColor() != null) {
-      descriptionAttributes.add(VertexAttribute.COLOR);
-    }
+    EnumSet<VertexAttribute> descriptionAttributes = getVertexAttributes();
 
     // Determine if the filament vertex buffer needs to be re-created.
     VertexBuffer vertexBuffer = data.getVertexBuffer();
     boolean createVertexBuffer = true;
+    int vertexCapacity = numVertices;
     if (vertexBuffer != null) {
-      EnumSet<VertexAttribute> oldAttributes = EnumSet.of(VertexAttribute.POSITION);
-      if (data.getRawTangentsBuffer() != null) {
-        oldAttributes.add(VertexAttribute.TANGENTS);
-      }
-      if (data.getRawUvBuffer() != null) {
-        oldAttributes.add(VertexAttribute.UV0);
-      }
-      if (data.getRawColorBuffer() != null) {
-        oldAttributes.add(VertexAttribute.COLOR);
-      }
-
       createVertexBuffer =
-          !oldAttributes.equals(descriptionAttributes)
+          !descriptionAttributes.equals(data.getVertexAttributes())
               || vertexBuffer.getVertexCount() < numVertices;
 
       if (createVertexBuffer) {
+        if (vertexBuffer.getVertexCount() < numVertices) {
+          vertexCapacity = growCapacity(vertexBuffer.getVertexCount(), numVertices);
+        }
         EngineInstance.getEngine().destroyVertexBuffer(vertexBuffer);
       }
     }
 
     if (createVertexBuffer) {
-      vertexBuffer = createVertexBuffer(numVertices, descriptionAttributes);
+      vertexBuffer = createVertexBuffer(vertexCapacity, descriptionAttributes);
       data.setVertexBuffer(vertexBuffer);
+      data.setVertexAttributes(descriptionAttributes);
     }
 
     // Create position Buffer if needed.
     FloatBuffer positionBuffer = data.getRawPositionBuffer();
     if (positionBuffer == null || positionBuffer.capacity() < numVertices * POSITION_SIZE) {
-      positionBuffer = FloatBuffer.allocate(numVertices * POSITION_SIZE);
+      positionBuffer = allocateFloatBuffer(positionBuffer, numVertices * POSITION_SIZE);
       data.setRawPositionBuffer(positionBuffer);
     } else {
       positionBuffer.rewind();
@@ -271,7 +295,7 @@ public class RenderableDefinition {
     FloatBuffer tangentsBuffer = data.getRawTangentsBuffer();
     if (descriptionAttributes.contains(VertexAttribute.TANGENTS)
         && (tangentsBuffer == null || tangentsBuffer.capacity() < numVertices * TANGENTS_SIZE)) {
-      tangentsBuffer = FloatBuffer.allocate(numVertices * TANGENTS_SIZE);
+      tangentsBuffer = allocateFloatBuffer(tangentsBuffer, numVertices * TANGENTS_SIZE);
       data.setRawTangentsBuffer(tangentsBuffer);
     } else if (tangentsBuffer != null) {
       tangentsBuffer.rewind();
@@ -281,7 +305,7 @@ public class RenderableDefinition {
     FloatBuffer uvBuffer = data.getRawUvBuffer();
     if (descriptionAttributes.contains(VertexAttribute.UV0)
         && (uvBuffer == null || uvBuffer.capacity() < numVertices * UV_SIZE)) {
-      uvBuffer = FloatBuffer.allocate(numVertices * UV_SIZE);
+      uvBuffer = allocateFloatBuffer(uvBuffer, numVertices * UV_SIZE);
       data.setRawUvBuffer(uvBuffer);
     } else if (uvBuffer != null) {
       uvBuffer.rewind();
@@ -291,7 +315,7 @@ public class RenderableDefinition {
     FloatBuffer colorBuffer = data.getRawColorBuffer();
     if (descriptionAttributes.contains(VertexAttribute.COLOR)
         && (colorBuffer == null || colorBuffer.capacity() < numVertices * COLOR_SIZE)) {
-      colorBuffer = FloatBuffer.allocate(numVertices * COLOR_SIZE);
+      colorBuffer = allocateFloatBuffer(colorBuffer, numVertices * COLOR_SIZE);
       data.setRawColorBuffer(colorBuffer);
     } else if (colorBuffer != null) {
       colorBuffer.rewind();
@@ -304,54 +328,18 @@ public class RenderableDefinition {
     minAabb.set(firstPosition);
     maxAabb.set(firstPosition);
 
+    TangentFrame tangentFrame = new TangentFrame();
+
     // Update the raw buffers and calculate the Aabb in one pass through the vertices.
     for (int i = 0; i < vertices.size(); i++) {
       Vertex vertex = vertices.get(i);
 
       // Aabb.
       Vector3 position = vertex.getPosition();
-      minAabb.set(Vector3.min(minAabb, position));
-      maxAabb.set(Vector3.max(maxAabb, position));
-
-      // Position attribute.
-      addVector3ToBuffer(position, positionBuffer);
-
-      // Tangents attribute.
-      if (tangentsBuffer != null) {
-        Vector3 normal = vertex.getNormal();
-        if (normal == null) {
-          throw new IllegalArgumentException(
-              "Missing normal: If any Vertex in a "
-                  + "RenderableDescription has a normal, all vertices must have one.");
-        }
-
-        Quaternion tangent = normalToTangent(normal);
-        addQuaternionToBuffer(tangent, tangentsBuffer);
-      }
-
-      // Uv attribute.
-      if (uvBuffer != null) {
-        UvCoordinate uvCoordinate = vertex.getUvCoordinate();
-        if (uvCoordinate == null) {
-          throw new IllegalArgumentException(
-              "Missing UV Coordinate: If any Vertex in a "
-                  + "RenderableDescription has a UV Coordinate, all vertices must have one.");
-        }
+      Vector3.min(minAabb, position, minAabb);
+      Vector3.max(maxAabb, position, maxAabb);
 
-        addUvToBuffer(uvCoordinate, uvBuffer);
-      }
-
-      // Color attribute.
-      if (colorBuffer != null) {
-        Color color = vertex.getColor();
-        if (color == null) {
-          throw new IllegalArgumentException(
-              "Missing Color: If any Vertex in a "
-                  + "RenderableDescription has a Color, all vertices must have one.");
-        }
-
-        addColorToBuffer(color, colorBuffer);
-      }
+      putVertex(vertex, positionBuffer, tangentsBuffer, uvBuffer, colorBuffer, tangentFrame);
     }
 
     // Set the Aabb in the renderable data.
@@ -392,16 +380,238 @@ public class RenderableDefinition {
     }
   }
 
+  /**
+   * Uploads a range of vertices to the Filament vertex buffer of data, which was created when this
+   * definition was applied. Returns false if the buffers no longer match the definition, in which
+   * case the whole definition must be applied.
+   */
+  boolean applyVertexRangeToData(IRenderableInternalData data, int firstVertex, int vertexCount) {
+    AndroidPreconditions.checkUiThread();
+
+    PackedGeometry currentPackedGeometry = packedGeometry;
+    if (currentPackedGeometry != null) {
+      return currentPackedGeometry.applyVertexRangeToData(data, firstVertex, vertexCount);
+    }
+
+    int numVertices = vertices.size();
+    checkRange(firstVertex, vertexCount, numVertices);
+    if (numVertices == 0) {
+      return false;
+    }
+
+    EnumSet<VertexAttribute> descriptionAttributes = getVertexAttributes();
+    VertexBuffer vertexBuffer = data.getVertexBuffer();
+    FloatBuffer positionBuffer = data.getRawPositionBuffer();
+    FloatBuffer tangentsBuffer =
+        descriptionAttributes.contains(VertexAttribute.TANGENTS)
+            ? data.getRawTangentsBuffer()
+            : null;
+    FloatBuffer uvBuffer =
+        descriptionAttributes.contains(VertexAttribute.UV0) ? data.getRawUvBuffer() : null;
+    FloatBuffer colorBuffer =
+        descriptionAttributes.contains(VertexAttribute.COLOR) ? data.getRawColorBuffer() : null;
+
+    if (vertexBuffer == null
+        || positionBuffer == null
+        || vertexBuffer.getVertexCount() < numVertices
+        || !descriptionAttributes.equals(data.getVertexAttributes())
+        || !hasCapacity(positionBuffer, numVertices * POSITION_SIZE)
+        || !hasCapacity(tangentsBuffer, numVertices * TANGENTS_SIZE)
+        || !hasCapacity(uvBuffer, numVertices * UV_SIZE)
+        || !hasCapacity(colorBuffer, numVertices * COLOR_SIZE)) {
+      return false;
+    }
+
+    // Rewrite the raw buffers in the range only.
+    positionBuffer.position(firstVertex * POSITION_SIZE);
+    if (tangentsBuffer != null) {
+      tangentsBuffer.position(firstVertex * TANGENTS_SIZE);
+    }
+    if (uvBuffer != null) {
+      uvBuffer.position(firstVertex * UV_SIZE);
+    }
+    if (colorBuffer != null) {
+      colorBuffer.position(firstVertex * COLOR_SIZE);
+    }
+
+    TangentFrame tangentFrame = new TangentFrame();
+    for (int i = firstVertex; i < firstVertex + vertexCount; i++) {
+      putVertex(
+          vertices.get(i), positionBuffer, tangentsBuffer, uvBuffer, colorBuffer, tangentFrame);
+    }
+
+    int bufferIndex = 0;
+    PackedGeometry.setVertexRange(
+        vertexBuffer, bufferIndex, positionBuffer, POSITION_SIZE, firstVertex, vertexCount);
+    if (tangentsBuffer != null) {
+      bufferIndex++;
+      PackedGeometry.setVertexRange(
+          vertexBuffer, bufferIndex, tangentsBuffer, TANGENTS_SIZE, firstVertex, vertexCount);
+    }
+    if (uvBuffer != null) {
+      bufferIndex++;
+      PackedGeometry.setVertexRange(
+          vertexBuffer, bufferIndex, uvBuffer, UV_SIZE, firstVertex, vertexCount);
+    }
+    if (colorBuffer != null) {
+      bufferIndex++;
+      PackedGeometry.setVertexRange(
+          vertexBuffer, bufferIndex, colorBuffer, COLOR_SIZE, firstVertex, vertexCount);
+    }
+
+    // The moved vertices may have changed the bounds of the whole mesh.
+    PackedGeometry.setAabbFromPositions(data, positionBuffer, numVertices);
+    return true;
+  }
+
+  /**
+   * Uploads a range of the triangle indices of all submeshes, in submesh order, to the Filament
+   * index buffer of data. Returns false if the buffers or the submesh ranges no longer match the
+   * definition, in which case the whole definition must be applied.
+   */
+  boolean applyIndexRangeToData(IRenderableInternalData data, int firstIndex, int indexCount) {
+    AndroidPreconditions.checkUiThread();
+
+    PackedGeometry currentPackedGeometry = packedGeometry;
+    if (currentPackedGeometry != null) {
+      return currentPackedGeometry.applyIndexRangeToData(data, firstIndex, indexCount);
+    }
+
+    int numIndices = 0;
+    for (int i = 0; i < submeshes.size(); i++) {
+      numIndices += submeshes.get(i).getTriangleIndices().size();
+    }
+    checkRange(firstIndex, indexCount, numIndices);
+
+    IndexBuffer indexBuffer = data.getIndexBuffer();
+    IntBuffer rawIndexBuffer = data.getRawIndexBuffer();
+    if (indexBuffer == null
+        || rawIndexBuffer == null
+        || data.getIndexType() != IndexType.UINT
+        || indexBuffer.getIndexCount() < numIndices
+        || rawIndexBuffer.capacity() < numIndices
+        || !meshesMatchSubmeshes(data)) {
+      return false;
+    }
+
+    // Rewrite the raw buffer in the range only.
+    int lastIndex = firstIndex + indexCount;
+    int submeshStart = 0;
+    for (int i = 0; i < submeshes.size() && submeshStart < lastIndex; i++) {
+      List<Integer> triangleIndices = submeshes.get(i).getTriangleIndices();
+      int start = Math.max(firstIndex, submeshStart);
+      int end = Math.min(lastIndex, submeshStart + triangleIndices.size());
+      for (int j = start; j < end; j++) {
+        rawIndexBuffer.put(j, triangleIndices.get(j - submeshStart));
+      }
+      submeshStart += triangleIndices.size();
+    }
+
+    IEngine engine = EngineInstance.getEngine();
+    rawIndexBuffer.position(firstIndex);
+    indexBuffer.setBuffer(
+        engine.getFilamentEngine(), rawIndexBuffer, firstIndex * BYTES_PER_INT, indexCount);
+    rawIndexBuffer.rewind();
+    return true;
+  }
+
+  private EnumSet<VertexAttribute> getVertexAttributes() {
+    Vertex firstVertex = vertices.get(0);
+    EnumSet<VertexAttribute> attributes = EnumSet.of(VertexAttribute.POSITION);
+    if (firstVertex.getNormal() != null) {
+      attributes.add(VertexAttribute.TANGENTS);
+    }
+    if (firstVertex.getUvCoordinate() != null) {
+      attributes.add(VertexAttribute.UV0);
+    }
+    if (firstVertex.getColor() != null) {
+      attributes.add(VertexAttribute.COLOR);
+    }
+    return attributes;
+  }
+
+  /** Returns true if the mesh ranges of data were created from the current submeshes. */
+  private boolean meshesMatchSubmeshes(IRenderableInternalData data) {
+    ArrayList<RenderableInternalData.MeshData> meshes = data.getMeshes();
+    if (meshes.size() != submeshes.size()) {
+      return false;
+    }
+
+    int indexStart = 0;
+    for (int i = 0; i < submeshes.size(); i++) {
+      RenderableInternalData.MeshData meshData = meshes.get(i);
+      int indexEnd = indexStart + submeshes.get(i).getTriangleIndices().size();
+      if (meshData.indexStart != indexStart || meshData.indexEnd != indexEnd) {
+        return false;
+      }
+      indexStart = indexEnd;
+    }
+    return true;
+  }
+
+  /** Converts a range of normals to the tangent frames of the same vertices. */
+  static void normalsToTangents(
+      FloatBuffer normals, FloatBuffer tangents, int firstVertex, int vertexCount) {
+    Vector3 normal = new Vector3();
+    TangentFrame tangentFrame = new TangentFrame();
+    tangents.position(firstVertex * TANGENTS_SIZE);
+    for (int i = firstVertex; i < firstVertex + vertexCount; i++) {
+      int offset = i * POSITION_SIZE;
+      normal.set(normals.get(offset), normals.get(offset + 1), normals.get(offset + 2));
+      addQuaternionToBuffer(normalToTangent(normal, tangentFrame), tangents);
+    }
+    tangents.rewind();
+  }
+
+  static void checkRange(int first, int count, int size) {
+    if (first < 0 || count < 0 || first + count > size) {
+      throw new IndexOutOfBoundsException(
+          "Range [" + first + ", " + (first + count) + ") is out of bounds for size " + size);
+    }
+  }
+
+  /**
+   * Returns the capacity to allocate for a buffer that must hold requiredCapacity elements. Buffers
+   * grow geometrically so that meshes that grow a little on every update are rarely reallocated.
+   */
+  static int growCapacity(int capacity, int requiredCapacity) {
+    return Math.max(requiredCapacity, capacity * 2);
+  }
+
+  private static boolean hasCapacity(@Nullable FloatBuffer buffer, int requiredCapacity) {
+    return buffer == null || buffer.capacity() >= requiredCapacity;
+  }
+
+  private static FloatBuffer allocateFloatBuffer(
+      @Nullable FloatBuffer oldBuffer, int requiredCapacity) {
+    int capacity = oldBuffer == null ? 0 : oldBuffer.capacity();
+    return FloatBuffer.allocate(growCapacity(capacity, requiredCapacity));
+  }
+
   private RenderableDefinition(Builder builder) {
     vertices = Preconditions.checkNotNull(builder.vertices);
     submeshes = Preconditions.checkNotNull(builder.submeshes);
   }
 
+  private RenderableDefinition(BufferBuilder builder, PackedGeometry packedGeometry) {
+    vertices = Collections.emptyList();
+    submeshes = new ArrayList<>(builder.submeshes);
+    this.packedGeometry = packedGeometry;
+  }
+
   public static Builder builder() {
     return new Builder();
   }
 
-  private static VertexBuffer createVertexBuffer(
+  /**
+   * Returns a builder that takes vertex attributes and triangle indices as primitive arrays or
+   * buffers, for large generated meshes.
+   */
+  public static BufferBuilder bufferBuilder() {
+    return new BufferBuilder();
+  }
+
+  static VertexBuffer createVertexBuffer(
       int vertexCount, EnumSet<VertexAttribute> attributes) {
     VertexBuffer.Builder builder = new VertexBuffer.Builder();
 
@@ -452,6 +662,57 @@ public class RenderableDefinition {
     return builder.build(EngineInstance.getEngine().getFilamentEngine());
   }
 
+  /**
+   * Writes the attributes of a vertex at the current position of the buffers. Buffers are null
+   * when the definition doesn't have the attribute.
+   */
+  private static void putVertex(
+      Vertex vertex,
+      FloatBuffer positionBuffer,
+      @Nullable FloatBuffer tangentsBuffer,
+      @Nullable FloatBuffer uvBuffer,
+      @Nullable FloatBuffer colorBuffer,
+      TangentFrame tangentFrame) {
+    // Position attribute.
+    addVector3ToBuffer(vertex.getPosition(), positionBuffer);
+
+    // Tangents attribute.
+    if (tangentsBuffer != null) {
+      Vector3 normal = vertex.getNormal();
+      if (normal == null) {
+        throw new IllegalArgumentException(
+            "Missing normal: If any Vertex in a "
+                + "RenderableDescription has a normal, all vertices must have one.");
+      }
+
+      addQuaternionToBuffer(normalToTangent(normal, tangentFrame), tangentsBuffer);
+    }
+
+    // Uv attribute.
+    if (uvBuffer != null) {
+      UvCoordinate uvCoordinate = vertex.getUvCoordinate();
+      if (uvCoordinate == null) {
+        throw new IllegalArgumentException(
+            "Missing UV Coordinate: If any Vertex in a "
+                + "RenderableDescription has a UV Coordinate, all vertices must have one.");
+      }
+
+      addUvToBuffer(uvCoordinate, uvBuffer);
+    }
+
+    // Color attribute.
+    if (colorBuffer != null) {
+      Color color = vertex.getColor();
+      if (color == null) {
+        throw new IllegalArgumentException(
+            "Missing Color: If any Vertex in a "
+                + "RenderableDescription has a Color, all vertices must have one.");
+      }
+
+      addColorToBuffer(color, colorBuffer);
+    }
+  }
+
   private static void addVector3ToBuffer(Vector3 vector3, FloatBuffer buffer) {
     buffer.put(vector3.x);
     buffer.put(vector3.y);
@@ -477,41 +738,53 @@ public class RenderableDefinition {
     buffer.put(color.a);
   }
 
-  private static Quaternion normalToTangent(Vector3 normal) {
-    Vector3 tangent;
-    Vector3 bitangent;
+  /**
+   * The objects used to calculate tangent frames. Each conversion allocates its own, since
+   * definitions can be built off the main thread.
+   */
+  private static final class TangentFrame {
+    final Vector3 tangent = new Vector3();
+    final Vector3 bitangent = new Vector3();
+    final Matrix matrix = new Matrix();
+    final Quaternion rotation = new Quaternion();
+  }
+
+  /** Calculates the tangent frame of a normal, and returns it as the rotation of the frame. */
+  private static Quaternion normalToTangent(Vector3 normal, TangentFrame frame) {
+    Vector3 tangent = frame.tangent;
+    Vector3 bitangent = frame.bitangent;
+    Matrix matrix = frame.matrix;
 
     // Calculate basis vectors (+x = tangent, +y = bitangent, +z = normal).
-    tangent = Vector3.cross(Vector3.up(), normal);
+    Vector3.cross(UP, normal, tangent);
 
     // Uses almostEqualRelativeAndAbs for equality checks that account for float inaccuracy.
     if (MathHelper.almostEqualRelativeAndAbs(Vector3.dot(tangent, tangent), 0.0f)) {
-      bitangent = Vector3.cross(normal, Vector3.right()).normalized();
-      tangent = Vector3.cross(bitangent, normal).normalized();
+      Vector3.cross(normal, RIGHT, bitangent).normalized(bitangent);
+      Vector3.cross(bitangent, normal, tangent).normalized(tangent);
     } else {
-      tangent.set(tangent.normalized());
-      bitangent = Vector3.cross(normal, tangent).normalized();
+      tangent.normalized(tangent);
+      Vector3.cross(normal, tangent, bitangent).normalized(bitangent);
     }
 
     // Rotation of a 4x4 Transformation Matrix is represented by the top-left 3x3 elements.
     final int rowOne = 0;
-    scratchMatrix.data[rowOne] = tangent.x;
-    scratchMatrix.data[rowOne + 1] = tangent.y;
-    scratchMatrix.data[rowOne + 2] = tangent.z;
+    matrix.data[rowOne] = tangent.x;
+    matrix.data[rowOne + 1] = tangent.y;
+    matrix.data[rowOne + 2] = tangent.z;
 
     final int rowTwo = 4;
-    scratchMatrix.data[rowTwo] = bitangent.x;
-    scratchMatrix.data[rowTwo + 1] = bitangent.y;
-    scratchMatrix.data[rowTwo + 2] = bitangent.z;
+    matrix.data[rowTwo] = bitangent.x;
+    matrix.data[rowTwo + 1] = bitangent.y;
+    matrix.data[rowTwo + 2] = bitangent.z;
 
     final int rowThree = 8;
-    scratchMatrix.data[rowThree] = normal.x;
-    scratchMatrix.data[rowThree + 1] = normal.y;
-    scratchMatrix.data[rowThree + 2] = normal.z;
+    matrix.data[rowThree] = normal.x;
+    matrix.data[rowThree + 1] = normal.y;
+    matrix.data[rowThree + 2] = normal.z;
 
-    Quaternion orientationQuaternion = new Quaternion();
-    scratchMatrix.extractQuaternion(orientationQuaternion);
-    return orientationQuaternion;
+    matrix.extractQuaternion(frame.rotation);
+    return frame.rotation;
   }
 
   /** Factory class for {@link RenderableDefinition}. */
@@ -533,4 +806,223 @@ public class RenderableDefinition {
       return new RenderableDefinition(this);
     }
   }
+
+  /**
+   * Factory class for a {@link RenderableDefinition} whose vertex attributes and triangle indices
+   * are given as primitive arrays or buffers.
+   *
+   * <p>Arrays and buffers are used as they are, without being copied into {@link Vertex} objects,
+   * so they must not be modified until the definition has been applied to a {@link Renderable}.
+   * Direct buffers in native byte order are passed to Filament without any copy.
+   *
+   * <pre>{@code
+   * RenderableDefinition definition =
+   *     RenderableDefinition.bufferBuilder()
+   *         .setPositions(positions)
+   *         .setNormals(normals)
+   *         .setTriangleIndices(indices)
+   *         .addSubmesh(material, 0, indices.length)
+   *         .build();
+   * }</pre>
+   */
+  public static final class BufferBuilder {
+    @Nullable private FloatBuffer positions;
+    @Nullable private FloatBuffer normals;
+    @Nullable private FloatBuffer tangents;
+    @Nullable private FloatBuffer uvs;
+    @Nullable private FloatBuffer colors;
+    @Nullable private Buffer indices;
+    private IndexType indexType = IndexType.UINT;
+    private final ArrayList<Submesh> submeshes = new ArrayList<>();
+
+    /** Sets the positions of the vertices, three floats (x, y, z) per vertex. */
+    public BufferBuilder setPositions(float[] positions) {
+      return setPositions(FloatBuffer.wrap(positions));
+    }
+
+    /** Sets the positions of the vertices, three floats (x, y, z) per vertex. */
+    public BufferBuilder setPositions(FloatBuffer positions) {
+      this.positions = positions.slice();
+      return this;
+    }
+
+    /** Sets the positions of the vertices from floats in native byte order. */
+    public BufferBuilder setPositions(ByteBuffer positions) {
+      return setPositions(asFloatBuffer(positions));
+    }
+
+    /**
+     * Sets the normals of the vertices, three floats (x, y, z) per vertex. The normals are
+     * converted to tangent frames when the definition is built. Replaces any tangents that were
+     * set.
+     */
+    public BufferBuilder setNormals(float[] normals) {
+      return setNormals(FloatBuffer.wrap(normals));
+    }
+
+    /** @see #setNormals(float[]) */
+    public BufferBuilder setNormals(FloatBuffer normals) {
+      this.normals = normals.slice();
+      tangents = null;
+      return this;
+    }
+
+    /** @see #setNormals(float[]) */
+    public BufferBuilder setNormals(ByteBuffer normals) {
+      return setNormals(asFloatBuffer(normals));
+    }
+
+    /**
+     * Sets the tangent frames of the vertices as quaternions, four floats (x, y, z, w) per vertex.
+     * Replaces any normals that were set.
+     */
+    public BufferBuilder setTangents(float[] tangents) {
+      return setTangents(FloatBuffer.wrap(tangents));
+    }
+
+    /** @see #setTangents(float[]) */
+    public BufferBuilder setTangents(FloatBuffer tangents) {
+      this.tangents = tangents.slice();
+      normals = null;
+      return this;
+    }
+
+    /** @see #setTangents(float[]) */
+    public BufferBuilder setTangents(ByteBuffer tangents) {
+      return setTangents(asFloatBuffer(tangents));
+    }
+
+    /** Sets the uv coordinates of the vertices, two floats (u, v) per vertex. */
+    public BufferBuilder setUvs(float[] uvs) {
+      return setUvs(FloatBuffer.wrap(uvs));
+    }
+
+    /** @see #setUvs(float[]) */
+    public BufferBuilder setUvs(FloatBuffer uvs) {
+      this.uvs = uvs.slice();
+      return this;
+    }
+
+    /** @see #setUvs(float[]) */
+    public BufferBuilder setUvs(ByteBuffer uvs) {
+      return setUvs(asFloatBuffer(uvs));
+    }
+
+    /** Sets the colors of the vertices, four floats (r, g, b, a) per vertex. */
+    public BufferBuilder setColors(float[] colors) {
+      return setColors(FloatBuffer.wrap(colors));
+    }
+
+    /** @see #setColors(float[]) */
+    public BufferBuilder setColors(FloatBuffer colors) {
+      this.colors = colors.slice();
+      return this;
+    }
+
+    /** @see #setColors(float[]) */
+    public BufferBuilder setColors(ByteBuffer colors) {
+      return setColors(asFloatBuffer(colors));
+    }
+
+    /** Sets the triangle indices of all submeshes, three indices per triangle. */
+    public BufferBuilder setTriangleIndices(int[] indices) {
+      return setTriangleIndices(IntBuffer.wrap(indices));
+    }
+
+    /** @see #setTriangleIndices(int[]) */
+    public BufferBuilder setTriangleIndices(IntBuffer indices) {
+      this.indices = indices.slice();
+      indexType = IndexType.UINT;
+      return this;
+    }
+
+    /**
+     * Sets the triangle indices of all submeshes as unsigned 16 bit values, which halves the size
+     * of the index buffer for meshes with fewer than 65536 vertices.
+     */
+    public BufferBuilder setTriangleIndices(short[] indices) {
+      return setTriangleIndices(ShortBuffer.wrap(indices));
+    }
+
+    /** @see #setTriangleIndices(short[]) */
+    public BufferBuilder setTriangleIndices(ShortBuffer indices) {
+      this.indices = indices.slice();
+      indexType = IndexType.USHORT;
+      return this;
+    }
+
+    /**
+     * Adds a submesh that draws a range of the triangle indices with a material.
+     *
+     * @param material the material of the submesh
+     * @param indexStart the first index of the submesh
+     * @param indexCount the number of indices of the submesh
+     */
+    public BufferBuilder addSubmesh(Material material, int indexStart, int indexCount) {
+      return addSubmesh(material, indexStart, indexCount, null);
+    }
+
+    /** @see #addSubmesh(Material, int, int) */
+    public BufferBuilder addSubmesh(
+        Material material, int indexStart, int indexCount, @Nullable String name) {
+      Submesh.Builder submeshBuilder =
+          Submesh.builder()
+              .setTriangleIndices(Collections.emptyList())
+              .setMaterial(material);
+      if (name != null) {
+        submeshBuilder.setName(name);
+      }
+
+      Submesh submesh = submeshBuilder.build();
+      submesh.indexStart = indexStart;
+      submesh.indexCount = indexCount;
+      submeshes.add(submesh);
+      return this;
+    }
+
+    public RenderableDefinition build() {
+      FloatBuffer positions = Preconditions.checkNotNull(this.positions, "Positions were not set.");
+      Buffer indices =
+          Preconditions.checkNotNull(this.indices, "Triangle indices were not set.");
+      if (submeshes.isEmpty()) {
+        throw new IllegalStateException("RenderableDefinition must have at least one submesh.");
+      }
+
+      int indexCount = indices.remaining();
+      for (int i = 0; i < submeshes.size(); i++) {
+        Submesh submesh = submeshes.get(i);
+        if (submesh.indexStart < 0
+            || submesh.indexCount < 0
+            || submesh.indexStart + submesh.indexCount > indexCount) {
+          throw new IllegalArgumentException(
+              "Submesh " + i + " is out of range of the " + indexCount + " triangle indices.");
+        }
+      }
+
+      FloatBuffer tangents = this.tangents;
+      FloatBuffer normals = this.normals;
+      if (normals != null) {
+        int vertexCount = positions.remaining() / POSITION_SIZE;
+        if (normals.remaining() != vertexCount * POSITION_SIZE) {
+          throw new IllegalArgumentException("Normals must have three floats per vertex.");
+        }
+
+        // Converted to a direct buffer that Filament reads in place.
+        tangents =
+            ByteBuffer.allocateDirect(vertexCount * TANGENTS_SIZE * BYTES_PER_FLOAT)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        normalsToTangents(normals, tangents, 0, vertexCount);
+      }
+
+      PackedGeometry packedGeometry =
+          new PackedGeometry(positions, normals, tangents, uvs, colors, indices, indexType);
+      return new RenderableDefinition(this, packedGeometry);
+    }
+
+    private static FloatBuffer asFloatBuffer(ByteBuffer buffer) {
+      return buffer.duplicate().order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+  }
 }
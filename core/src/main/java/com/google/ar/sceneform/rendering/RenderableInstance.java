@@ -25,11 +25,13 @@ import com.google.ar.sceneform.common.TransformProvider;
 import com.google.ar.sceneform.math.Matrix;
 import com.google.ar.sceneform.math.Vector3;
 import com.google.ar.sceneform.utilities.AndroidPreconditions;
+import com.google.ar.sceneform.utilities.AssetCache;
 import com.google.ar.sceneform.utilities.ChangeId;
 import com.google.ar.sceneform.utilities.LoadHelper;
 import com.google.ar.sceneform.utilities.Preconditions;
 import com.google.ar.sceneform.utilities.SceneformBufferUtils;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
@@ -75,11 +77,28 @@ public class RenderableInstance implements AnimatableModel {
     @Entity
     private int childEntity = 0;
     int renderableId = ChangeId.EMPTY_ID;
+    // Id of the transform provider's world model matrix when it was last pushed to Filament.
+    private int worldModelMatrixId = ChangeId.EMPTY_ID;
+    // Id of the renderable's final model matrix when it was last pushed to Filament.
+    private int finalModelMatrixId = ChangeId.EMPTY_ID;
+
+    // Model-space bounds used for frustum culling, recomputed when the renderable changes.
+    private final float[] boundsCenter = new float[3];
+    private final float[] boundsHalfExtents = new float[3];
+    private boolean hasBounds;
+    private boolean isBoundsDirty = true;
+    private int boundsId = ChangeId.EMPTY_ID;
+    @Nullable
+    private Matrix cullingModelMatrix;
+    private boolean isCulled;
+    private boolean isHiddenByCulling;
 
     @Nullable
     FilamentAsset filamentAsset;
     @Nullable
     Animator filamentAnimator;
+    // The estimated size of the data of the glTF asset created for this instance.
+    private long filamentAssetSizeInBytes;
 
     private ArrayList<ModelAnimation> animations = new ArrayList<>();
 
@@ -122,9 +141,17 @@ public class RenderableInstance implements AnimatableModel {
 
         createFilamentAssetModelInstance();
 
+        // The geometry is shared with the renderable, the glTF asset belongs to this instance.
+        SizedResource[] sizedResources =
+                filamentAsset == null
+                        ? new SizedResource[] {renderable.getRenderableData()}
+                        : new SizedResource[] {
+                                renderable.getRenderableData(),
+                                new FilamentAssetSize(filamentAssetSizeInBytes)
+                        };
         ResourceManager.getInstance()
                 .getRenderableInstanceCleanupRegistry()
-                .register(this, new CleanupCallback(entity, childEntity));
+                .register(this, new CleanupCallback(entity, childEntity), sizedResources);
     }
 
     void createFilamentAssetModelInstance() {
@@ -157,6 +184,8 @@ public class RenderableInstance implements AnimatableModel {
                                 new Vector3(center[0], center[1], center[2]));
             }
 
+            // The buffers and textures of the asset are created from the glTF and its resources.
+            long assetSizeInBytes = renderableData.gltfByteBuffer.capacity();
             Function<String, Uri> urlResolver = renderableData.urlResolver;
             for (String uri : createdAsset.getResourceUris()) {
                 if (urlResolver == null) {
@@ -164,10 +193,21 @@ public class RenderableInstance implements AnimatableModel {
                     continue;
                 }
                 Uri dataUri = urlResolver.apply(uri);
-                try {
-                    Callable<InputStream> callable = LoadHelper.fromUri(renderableData.context, dataUri);
-                    renderableData.resourceLoader.addResourceData(
-                            uri, ByteBuffer.wrap(SceneformBufferUtils.inputStreamCallableToByteArray(callable)));
+                Callable<InputStream> inputStreamCreator =
+                        LoadHelper.fromUri(renderableData.context, dataUri);
+                AssetCache assetCache = renderableData.assetCache;
+                if (assetCache != null && LoadHelper.isRemoteUri(dataUri)) {
+                    inputStreamCreator =
+                            assetCache.cacheSource("gltf-resource", dataUri, inputStreamCreator);
+                }
+                try (InputStream inputStream = inputStreamCreator.call()) {
+                    // Local resources are mapped instead of copied.
+                    ByteBuffer resourceData = SceneformBufferUtils.mapOrReadStream(inputStream);
+                    if (resourceData == null) {
+                        throw new IOException("Failed reading data from stream");
+                    }
+                    assetSizeInBytes += resourceData.remaining();
+                    renderableData.resourceLoader.addResourceData(uri, resourceData);
                 } catch (Exception e) {
                     Log.e(TAG, "Failed to download data uri " + dataUri, e);
                 }
@@ -206,6 +246,7 @@ public class RenderableInstance implements AnimatableModel {
             transformManager.setParent(rootInstance, parentInstance);
 
             filamentAsset = createdAsset;
+            filamentAssetSizeInBytes = assetSizeInBytes;
 
             setRenderPriority(renderable.getRenderPriority());
             setShadowCaster(renderable.isShadowCaster());
@@ -262,11 +303,28 @@ public class RenderableInstance implements AnimatableModel {
         return (childEntity == 0) ? entity : childEntity;
     }
 
+    /**
+     * Returns true if the world model matrix of the transform provider, or the way the renderable
+     * adjusts it, has changed since it was last pushed to Filament with {@link
+     * #setModelMatrix(TransformManager, float[])}.
+     */
+    boolean isModelMatrixDirty() {
+        ChangeId changeId = transformProvider.getWorldModelMatrixId();
+        return changeId == null
+                || worldModelMatrixId == ChangeId.EMPTY_ID
+                || changeId.checkChanged(worldModelMatrixId)
+                || renderable.getFinalModelMatrixId().checkChanged(finalModelMatrixId);
+    }
+
     void setModelMatrix(TransformManager transformManager, @Size(min = 16) float[] transform) {
         // Use entity, rather than childEntity; setting the latter would slam the local transform which
         // corrects for scaling and offset.
         @EntityInstance int instance = transformManager.getInstance(entity);
         transformManager.setTransform(instance, transform);
+
+        ChangeId changeId = transformProvider.getWorldModelMatrixId();
+        worldModelMatrixId = changeId != null ? changeId.get() : ChangeId.EMPTY_ID;
+        finalModelMatrixId = renderable.getFinalModelMatrixId().get();
     }
 
     /**
@@ -291,6 +349,7 @@ public class RenderableInstance implements AnimatableModel {
                 renderableManager.setPriority(renderableInstance, this.renderPriority);
             }
         }
+        Renderer.markContentChanged();
     }
 
     /**
@@ -313,6 +372,7 @@ public class RenderableInstance implements AnimatableModel {
                 renderableManager.setCastShadows(renderableInstance, isShadowCaster);
             }
         }
+        Renderer.markContentChanged();
     }
 
     /**
@@ -335,6 +395,7 @@ public class RenderableInstance implements AnimatableModel {
                 renderableManager.setReceiveShadows(renderableInstance, isShadowReceiver);
             }
         }
+        Renderer.markContentChanged();
     }
 
     ArrayList<Material> getMaterialBindings() {
@@ -410,6 +471,7 @@ public class RenderableInstance implements AnimatableModel {
             renderableManager.setMaterialInstanceAt(renderableInstance, primitiveIndex,
                     material.getFilamentMaterialInstance());
         }
+        Renderer.markContentChanged();
     }
 
     /**
@@ -469,6 +531,14 @@ public class RenderableInstance implements AnimatableModel {
      * @hide
      */
     public void prepareForDraw() {
+        prepareForDraw(null);
+    }
+
+    /**
+     * Prepares the instance for drawing. If a frustum is given and the instance is outside of it,
+     * the instance is marked as culled and its animations and skinning aren't updated.
+     */
+    void prepareForDraw(@Nullable Frustum frustum) {
         renderable.prepareForDraw();
 
         ChangeId changeId = renderable.getId();
@@ -477,18 +547,147 @@ public class RenderableInstance implements AnimatableModel {
             setupSkeleton(renderableInternalData);
             renderableInternalData.buildInstanceData(this, getRenderedEntity());
             renderableId = changeId.get();
+            Renderer.markContentChanged();
+            // The final model matrix and the bounds depend on the renderable, so update them again.
+            worldModelMatrixId = ChangeId.EMPTY_ID;
+            isBoundsDirty = true;
+            isCulled = frustum != null && !isInFrustum(frustum);
             // First time we're rendering, so always update the skinning even if we aren't animating and
             // there is no skinModifier.
             updateSkinning();
         } else {
+            isCulled = frustum != null && !isInFrustum(frustum);
             // Will only update the skinning if the renderable is animating or there is a skinModifier
-            // that has been changed since the last draw.
-            if (updateAnimations(false)) {
+            // that has been changed since the last draw. Animations of culled instances stay dirty
+            // and are applied once the instance is visible again.
+            if (!isCulled && updateAnimations(false)) {
                 updateSkinning();
+                Renderer.markContentChanged();
             }
         }
     }
 
+    /** Returns true if the instance was outside of the camera frustum when it was last prepared. */
+    boolean isCulled() {
+        return isCulled;
+    }
+
+    /**
+     * Removes the entities of this instance from the Filament scene while it is culled, and adds
+     * them back once it is visible.
+     */
+    void setHiddenByCulling(boolean isHidden) {
+        Renderer renderer = attachedRenderer;
+        if (isHidden == isHiddenByCulling || renderer == null) {
+            return;
+        }
+
+        isHiddenByCulling = isHidden;
+        if (isHidden) {
+            detachFilamentAssetFromRenderer();
+            renderer.getFilamentScene().remove(getRenderedEntity());
+        } else {
+            renderer.getFilamentScene().addEntity(getRenderedEntity());
+            attachFilamentAssetToRenderer();
+        }
+    }
+
+    boolean isHiddenByCulling() {
+        return isHiddenByCulling;
+    }
+
+    /**
+     * Computes a world-space sphere that encloses the bounds of the renderable.
+     *
+     * @param destCenter receives the center of the sphere
+     * @return the radius of the sphere, or -1 if the renderable has no bounds
+     * @hide
+     */
+    public float getWorldBoundingSphere(Vector3 destCenter) {
+        if (!ensureBounds()) {
+            return -1.0f;
+        }
+
+        float[] m = getBoundsModelMatrix().data;
+        float cx = boundsCenter[0];
+        float cy = boundsCenter[1];
+        float cz = boundsCenter[2];
+        destCenter.set(
+                m[0] * cx + m[4] * cy + m[8] * cz + m[12],
+                m[1] * cx + m[5] * cy + m[9] * cz + m[13],
+                m[2] * cx + m[6] * cy + m[10] * cz + m[14]);
+
+        float ex = boundsHalfExtents[0];
+        float ey = boundsHalfExtents[1];
+        float ez = boundsHalfExtents[2];
+        float maxScaleSquared =
+                Math.max(
+                        m[0] * m[0] + m[1] * m[1] + m[2] * m[2],
+                        Math.max(
+                                m[4] * m[4] + m[5] * m[5] + m[6] * m[6],
+                                m[8] * m[8] + m[9] * m[9] + m[10] * m[10]));
+        return (float) Math.sqrt((ex * ex + ey * ey + ez * ez) * maxScaleSquared);
+    }
+
+    private boolean isInFrustum(Frustum frustum) {
+        // Instances without bounds are never culled.
+        if (!ensureBounds()) {
+            return true;
+        }
+
+        return frustum.intersectsBox(getBoundsModelMatrix(), boundsCenter, boundsHalfExtents);
+    }
+
+    private boolean ensureBounds() {
+        ChangeId renderableBoundsId = renderable.getBoundsId();
+        if (isBoundsDirty || renderableBoundsId.checkChanged(boundsId)) {
+            hasBounds = updateBounds();
+            isBoundsDirty = false;
+            boundsId = renderableBoundsId.get();
+        }
+        return hasBounds;
+    }
+
+    /** Returns the matrix that transforms the model-space bounds to world space. */
+    private Matrix getBoundsModelMatrix() {
+        Matrix modelMatrix = getWorldModelMatrix();
+        Matrix relativeTransform = getRelativeTransform();
+        if (relativeTransform != null) {
+            if (cullingModelMatrix == null) {
+                cullingModelMatrix = new Matrix();
+            }
+            Matrix.multiply(modelMatrix, relativeTransform, cullingModelMatrix);
+            modelMatrix = cullingModelMatrix;
+        }
+        return modelMatrix;
+    }
+
+    private boolean updateBounds() {
+        FilamentAsset currentFilamentAsset = filamentAsset;
+        if (currentFilamentAsset != null) {
+            com.google.android.filament.Box boundingBox = currentFilamentAsset.getBoundingBox();
+            System.arraycopy(boundingBox.getCenter(), 0, boundsCenter, 0, 3);
+            System.arraycopy(boundingBox.getHalfExtent(), 0, boundsHalfExtents, 0, 3);
+            return true;
+        }
+
+        // glTF data doesn't implement the AABB getters, its bounds come from the asset above.
+        IRenderableInternalData renderableData = renderable.getRenderableData();
+        if (!(renderableData instanceof RenderableInternalData)) {
+            return false;
+        }
+
+        Vector3 center = renderableData.getCenterAabb();
+        Vector3 extents = renderableData.getExtentsAabb();
+        boundsCenter[0] = center.x;
+        boundsCenter[1] = center.y;
+        boundsCenter[2] = center.z;
+        boundsHalfExtents[0] = extents.x;
+        boundsHalfExtents[1] = extents.y;
+        boundsHalfExtents[2] = extents.z;
+        return true;
+    }
+
     private void attachFilamentAssetToRenderer() {
         FilamentAsset currentFilamentAsset = filamentAsset;
         if (currentFilamentAsset != null) {
@@ -507,6 +706,9 @@ public class RenderableInstance implements AnimatableModel {
      * @hide
      */
     public void attachToRenderer(Renderer renderer) {
+        worldModelMatrixId = ChangeId.EMPTY_ID;
+        isCulled = false;
+        isHiddenByCulling = false;
         renderer.addInstance(this);
         attachedRenderer = renderer;
         renderable.attachToRenderer(renderer);
@@ -647,6 +849,30 @@ public class RenderableInstance implements AnimatableModel {
     /**
      * Releases resources held by a {@link RenderableInstance}
      */
+    /** The estimated size of the glTF asset of an instance, for resource accounting. */
+    private static final class FilamentAssetSize implements SizedResource {
+        private final long sizeInBytes;
+
+        FilamentAssetSize(long sizeInBytes) {
+            this.sizeInBytes = sizeInBytes;
+        }
+
+        @Override
+        public ResourceMemorySnapshot.ResourceType getResourceType() {
+            return ResourceMemorySnapshot.ResourceType.GLTF_ASSET;
+        }
+
+        @Override
+        public long getSizeInBytes() {
+            return sizeInBytes;
+        }
+
+        @Override
+        public String getResourceDescription() {
+            return "glTF asset of a renderable instance";
+        }
+    }
+
     private static final class CleanupCallback implements Runnable {
         private final int childEntity;
         private final int entity;
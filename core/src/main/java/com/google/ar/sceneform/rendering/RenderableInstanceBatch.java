@@ -0,0 +1,527 @@
+package com.google.ar.sceneform.rendering;
+
+import androidx.annotation.Nullable;
+import com.google.android.filament.Entity;
+import com.google.android.filament.EntityInstance;
+import com.google.android.filament.EntityManager;
+import com.google.android.filament.RenderableManager;
+import com.google.android.filament.TransformManager;
+import com.google.ar.sceneform.common.TransformProvider;
+import com.google.ar.sceneform.math.Matrix;
+import com.google.ar.sceneform.math.Vector3;
+import com.google.ar.sceneform.utilities.AndroidPreconditions;
+import com.google.ar.sceneform.utilities.ChangeId;
+import com.google.ar.sceneform.utilities.Preconditions;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * Draws one {@link Renderable} at the transforms of many {@link TransformProvider}s without
+ * creating a {@link RenderableInstance} for each copy.
+ *
+ * <p>For renderables built from a {@link RenderableDefinition}, every copy shares the renderable's
+ * vertex buffer, index buffer and materials, and only adds one Filament entity with a renderable
+ * and a transform component. There is no child entity and a single cleanup entry for the whole
+ * batch.
+ * Filament doesn't support hardware instancing, so this is the smallest number of Filament
+ * renderables that can draw the copies independently.
+ *
+ * <p>Other renderables, such as glTF models, don't expose their geometry and fall back to a {@link
+ * RenderableInstance} for each copy.
+ *
+ * @hide
+ */
+public class RenderableInstanceBatch {
+  private final Renderable renderable;
+  // True if the copies are entities sharing the geometry of the renderable.
+  private final boolean isSharingGeometry;
+  private final ArrayList<Instance> instances = new ArrayList<>();
+  private final IdentityHashMap<TransformProvider, Instance> instancesByProvider =
+      new IdentityHashMap<>();
+  // Entities of the copies, shared with the cleanup callback so it doesn't reference the batch.
+  // When sharing geometry, the entity of a copy has the same index as the copy in instances.
+  private final ArrayList<Integer> entities = new ArrayList<>();
+  @Nullable private Renderer attachedRenderer;
+  private int renderableId = ChangeId.EMPTY_ID;
+  @Nullable private Matrix relativeTransform;
+
+  // Model-space bounds of the renderable, used to cull the copies.
+  private final float[] boundsCenter = new float[3];
+  private final float[] boundsHalfExtents = new float[3];
+  private int boundsId = ChangeId.EMPTY_ID;
+  private int culledInstanceCount;
+  private int visibleInstanceCount;
+
+  private final Matrix scratchMatrix = new Matrix();
+
+  private static final class Instance {
+    final TransformProvider transformProvider;
+    int index;
+    @Entity int entity;
+    @Nullable RenderableInstance renderableInstance;
+    @Nullable Material material;
+    boolean isVisible = true;
+    boolean isHiddenByCulling;
+    int worldModelMatrixId = ChangeId.EMPTY_ID;
+    int finalModelMatrixId = ChangeId.EMPTY_ID;
+
+    Instance(TransformProvider transformProvider) {
+      this.transformProvider = transformProvider;
+    }
+  }
+
+  @SuppressWarnings("initialization") // Suppress @UnderInitialization warning.
+  public RenderableInstanceBatch(Renderable renderable) {
+    Preconditions.checkNotNull(renderable, "Parameter \"renderable\" was null.");
+    this.renderable = renderable;
+    isSharingGeometry = renderable.getRenderableData() instanceof RenderableInternalData;
+
+    ResourceManager.getInstance()
+        .getRenderableInstanceBatchCleanupRegistry()
+        .register(this, new CleanupCallback(entities), renderable.getRenderableData());
+  }
+
+  public Renderable getRenderable() {
+    return renderable;
+  }
+
+  public int getInstanceCount() {
+    return instances.size();
+  }
+
+  /** Adds a copy of the renderable that is drawn at the world transform of a transform provider. */
+  public void addInstance(TransformProvider transformProvider) {
+    AndroidPreconditions.checkUiThread();
+    Preconditions.checkNotNull(transformProvider, "Parameter \"transformProvider\" was null.");
+    if (instancesByProvider.containsKey(transformProvider)) {
+      return;
+    }
+
+    Instance instance = new Instance(transformProvider);
+    if (isSharingGeometry) {
+      IEngine engine = EngineInstance.getEngine();
+      instance.entity = EntityManager.get().create();
+      engine.getTransformManager().create(instance.entity);
+      entities.add(instance.entity);
+      if (renderableId != ChangeId.EMPTY_ID) {
+        buildInstance(instance);
+      }
+    } else {
+      instance.renderableInstance = renderable.createInstance(transformProvider);
+    }
+
+    instance.index = instances.size();
+    instances.add(instance);
+    instancesByProvider.put(transformProvider, instance);
+    if (attachedRenderer != null) {
+      addToRenderer(instance, attachedRenderer);
+    }
+  }
+
+  /** Removes the copy drawn for a transform provider and releases its Filament entity. */
+  public void removeInstance(TransformProvider transformProvider) {
+    AndroidPreconditions.checkUiThread();
+
+    Instance instance = instancesByProvider.remove(transformProvider);
+    if (instance == null) {
+      return;
+    }
+
+    if (attachedRenderer != null) {
+      removeFromRenderer(instance, attachedRenderer);
+    }
+
+    // Moves the last copy, and its entity, into the position of the removed copy.
+    int index = instance.index;
+    int lastIndex = instances.size() - 1;
+    Instance lastInstance = instances.remove(lastIndex);
+    if (lastInstance != instance) {
+      instances.set(index, lastInstance);
+      lastInstance.index = index;
+    }
+
+    if (isSharingGeometry) {
+      Integer lastEntity = entities.remove(lastIndex);
+      if (index != lastIndex) {
+        entities.set(index, lastEntity);
+      }
+      destroyEntity(instance.entity);
+    }
+  }
+
+  /** Shows or hides the copy drawn for a transform provider. */
+  public void setInstanceVisible(TransformProvider transformProvider, boolean isVisible) {
+    Instance instance = getInstanceOrDie(transformProvider);
+    if (instance.isVisible == isVisible) {
+      return;
+    }
+
+    Renderer renderer = attachedRenderer;
+    if (renderer != null && !isVisible) {
+      removeFromRenderer(instance, renderer);
+    }
+    instance.isVisible = isVisible;
+    if (renderer != null && isVisible) {
+      addToRenderer(instance, renderer);
+    }
+  }
+
+  /**
+   * Draws the copy of a transform provider with a different material, for example a color material
+   * made with {@link MaterialFactory}. The material is used for every submesh of the renderable.
+   *
+   * @param material the material of the copy, or null to use the materials of the renderable
+   */
+  public void setInstanceMaterial(
+      TransformProvider transformProvider, @Nullable Material material) {
+    AndroidPreconditions.checkUiThread();
+
+    Instance instance = getInstanceOrDie(transformProvider);
+    if (instance.material == material) {
+      return;
+    }
+
+    instance.material = material;
+    if (isSharingGeometry) {
+      if (renderableId != ChangeId.EMPTY_ID) {
+        buildInstance(instance);
+      }
+      return;
+    }
+
+    // glTF materials can't be reverted on an existing instance, so a new one is created instead.
+    RenderableInstance oldInstance = Preconditions.checkNotNull(instance.renderableInstance);
+    if (material != null) {
+      setMaterialOfEveryPrimitive(oldInstance, material);
+      return;
+    }
+
+    boolean isAttached = attachedRenderer != null && instance.isVisible;
+    if (isAttached) {
+      oldInstance.detachFromRenderer();
+    }
+    instance.renderableInstance = renderable.createInstance(transformProvider);
+    if (isAttached) {
+      instance.renderableInstance.attachToRenderer(Preconditions.checkNotNull(attachedRenderer));
+    }
+  }
+
+  public void attachToRenderer(Renderer renderer) {
+    AndroidPreconditions.checkUiThread();
+    if (attachedRenderer == renderer) {
+      return;
+    }
+
+    detachFromRenderer();
+    attachedRenderer = renderer;
+    renderer.addInstanceBatch(this);
+    for (int i = 0; i < instances.size(); i++) {
+      addToRenderer(instances.get(i), renderer);
+    }
+  }
+
+  public void detachFromRenderer() {
+    AndroidPreconditions.checkUiThread();
+    Renderer renderer = attachedRenderer;
+    if (renderer == null) {
+      return;
+    }
+
+    for (int i = 0; i < instances.size(); i++) {
+      removeFromRenderer(instances.get(i), renderer);
+    }
+    renderer.removeInstanceBatch(this);
+    attachedRenderer = null;
+  }
+
+  /** Rebuilds the Filament renderables of the copies when the renderable has changed. */
+  void prepareForDraw() {
+    if (!isSharingGeometry) {
+      // The copies are regular instances, prepared by the renderer.
+      return;
+    }
+
+    renderable.prepareForDraw();
+
+    ChangeId renderableBoundsId = renderable.getBoundsId();
+    if (renderableBoundsId.checkChanged(boundsId)) {
+      boundsId = renderableBoundsId.get();
+      updateBounds();
+    }
+
+    ChangeId changeId = renderable.getId();
+    if (!changeId.checkChanged(renderableId)) {
+      return;
+    }
+
+    renderableId = changeId.get();
+    Renderer.markContentChanged();
+    relativeTransform = createRelativeTransform();
+    updateBounds();
+    for (int i = 0; i < instances.size(); i++) {
+      Instance instance = instances.get(i);
+      buildInstance(instance);
+      instance.worldModelMatrixId = ChangeId.EMPTY_ID;
+    }
+  }
+
+  /**
+   * Tests the visible copies against a frustum, the same way the renderer culls its instances.
+   * Copies that share geometry are counted here, other copies are regular instances culled by the
+   * renderer.
+   *
+   * @param frustum the frustum of the camera, or null if culling is disabled
+   * @param isHidingCulled true to remove culled copies from the Filament scene
+   */
+  void cullInstances(@Nullable Frustum frustum, boolean isHidingCulled) {
+    culledInstanceCount = 0;
+    visibleInstanceCount = 0;
+    if (!isSharingGeometry) {
+      return;
+    }
+
+    Renderer renderer = attachedRenderer;
+    // Copies aren't culled until the renderable has been built.
+    Frustum cullingFrustum = renderableId != ChangeId.EMPTY_ID ? frustum : null;
+    for (int i = 0; i < instances.size(); i++) {
+      Instance instance = instances.get(i);
+      if (!instance.isVisible) {
+        continue;
+      }
+
+      boolean isCulled =
+          cullingFrustum != null
+              && !cullingFrustum.intersectsBox(
+                  getModelMatrix(instance), boundsCenter, boundsHalfExtents);
+      if (isCulled) {
+        culledInstanceCount++;
+      } else {
+        visibleInstanceCount++;
+      }
+
+      boolean isHidden = isCulled && isHidingCulled;
+      if (isHidden == instance.isHiddenByCulling || renderer == null) {
+        continue;
+      }
+
+      instance.isHiddenByCulling = isHidden;
+      if (isHidden) {
+        renderer.getFilamentScene().remove(instance.entity);
+      } else {
+        renderer.getFilamentScene().addEntity(instance.entity);
+        // The transform isn't uploaded while the copy is hidden.
+        instance.worldModelMatrixId = ChangeId.EMPTY_ID;
+      }
+    }
+  }
+
+  /** Returns the number of copies culled by the last call to {@link #cullInstances}. */
+  int getCulledInstanceCount() {
+    return culledInstanceCount;
+  }
+
+  /** Returns the number of copies not culled by the last call to {@link #cullInstances}. */
+  int getVisibleInstanceCount() {
+    return visibleInstanceCount;
+  }
+
+  /** Returns true if a shown copy has moved since its transform was last uploaded. */
+  boolean hasDirtyTransforms() {
+    if (!isSharingGeometry) {
+      return false;
+    }
+
+    for (int i = 0; i < instances.size(); i++) {
+      Instance instance = instances.get(i);
+      if (isShown(instance) && isModelMatrixDirty(instance)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Uploads the transforms of the shown copies that have moved. Must be called inside a local
+   * transform transaction.
+   *
+   * @return the number of transforms uploaded
+   */
+  int updateTransforms(TransformManager transformManager) {
+    if (!isSharingGeometry) {
+      return 0;
+    }
+
+    int uploadCount = 0;
+    for (int i = 0; i < instances.size(); i++) {
+      Instance instance = instances.get(i);
+      if (!isShown(instance) || !isModelMatrixDirty(instance)) {
+        continue;
+      }
+
+      @EntityInstance int transformInstance = transformManager.getInstance(instance.entity);
+      transformManager.setTransform(transformInstance, getModelMatrix(instance).data);
+
+      ChangeId changeId = instance.transformProvider.getWorldModelMatrixId();
+      instance.worldModelMatrixId = changeId != null ? changeId.get() : ChangeId.EMPTY_ID;
+      instance.finalModelMatrixId = renderable.getFinalModelMatrixId().get();
+      uploadCount++;
+    }
+    return uploadCount;
+  }
+
+  /** Returns true if the entity of a copy is in the Filament scene when the batch is attached. */
+  private static boolean isShown(Instance instance) {
+    return instance.isVisible && !instance.isHiddenByCulling;
+  }
+
+  /** Returns the transform of a copy, including the scale and offset of the renderable data. */
+  private Matrix getModelMatrix(Instance instance) {
+    Matrix worldModelMatrix = instance.transformProvider.getWorldModelMatrix();
+    Matrix modelMatrix = renderable.getFinalModelMatrix(worldModelMatrix);
+    Matrix currentRelativeTransform = relativeTransform;
+    if (currentRelativeTransform != null) {
+      Matrix.multiply(modelMatrix, currentRelativeTransform, scratchMatrix);
+      modelMatrix = scratchMatrix;
+    }
+    return modelMatrix;
+  }
+
+  private boolean isModelMatrixDirty(Instance instance) {
+    ChangeId changeId = instance.transformProvider.getWorldModelMatrixId();
+    return changeId == null
+        || instance.worldModelMatrixId == ChangeId.EMPTY_ID
+        || changeId.checkChanged(instance.worldModelMatrixId)
+        || renderable.getFinalModelMatrixId().checkChanged(instance.finalModelMatrixId);
+  }
+
+  private void buildInstance(Instance instance) {
+    RenderableInternalData renderableData = (RenderableInternalData) renderable.getRenderableData();
+    renderableData.buildRenderable(renderable, instance.entity);
+
+    Material material = instance.material;
+    if (material == null) {
+      return;
+    }
+
+    RenderableManager renderableManager = EngineInstance.getEngine().getRenderableManager();
+    @EntityInstance int renderableInstance = renderableManager.getInstance(instance.entity);
+    int meshCount = renderableData.getMeshes().size();
+    for (int mesh = 0; mesh < meshCount; mesh++) {
+      renderableManager.setMaterialInstanceAt(
+          renderableInstance, mesh, material.getFilamentMaterialInstance());
+    }
+  }
+
+  private void updateBounds() {
+    IRenderableInternalData renderableData = renderable.getRenderableData();
+    Vector3 center = renderableData.getCenterAabb();
+    Vector3 extents = renderableData.getExtentsAabb();
+    boundsCenter[0] = center.x;
+    boundsCenter[1] = center.y;
+    boundsCenter[2] = center.z;
+    boundsHalfExtents[0] = extents.x;
+    boundsHalfExtents[1] = extents.y;
+    boundsHalfExtents[2] = extents.z;
+  }
+
+  /** Returns the scale and offset of the renderable data, or null if they are the identity. */
+  @Nullable
+  private Matrix createRelativeTransform() {
+    IRenderableInternalData renderableData = renderable.getRenderableData();
+    float scale = renderableData.getTransformScale();
+    Vector3 offset = renderableData.getTransformOffset();
+    if (scale == 1f && Vector3.equals(offset, Vector3.zero())) {
+      return null;
+    }
+
+    Matrix matrix = new Matrix();
+    matrix.makeScale(scale);
+    matrix.setTranslation(offset);
+    return matrix;
+  }
+
+  private void addToRenderer(Instance instance, Renderer renderer) {
+    if (!instance.isVisible) {
+      return;
+    }
+
+    if (isSharingGeometry) {
+      renderer.getFilamentScene().addEntity(instance.entity);
+      // The transform isn't uploaded while the copy is outside of the scene.
+      instance.worldModelMatrixId = ChangeId.EMPTY_ID;
+      instance.isHiddenByCulling = false;
+    } else {
+      Preconditions.checkNotNull(instance.renderableInstance).attachToRenderer(renderer);
+    }
+  }
+
+  private void removeFromRenderer(Instance instance, Renderer renderer) {
+    if (!instance.isVisible) {
+      return;
+    }
+
+    if (isSharingGeometry) {
+      if (!instance.isHiddenByCulling) {
+        renderer.getFilamentScene().remove(instance.entity);
+      }
+      instance.isHiddenByCulling = false;
+    } else {
+      Preconditions.checkNotNull(instance.renderableInstance).detachFromRenderer();
+    }
+  }
+
+  /** Binds a material to every primitive of every entity of a glTF instance. */
+  private static void setMaterialOfEveryPrimitive(
+      RenderableInstance renderableInstance, Material material) {
+    RenderableManager renderableManager = EngineInstance.getEngine().getRenderableManager();
+    int[] entities = renderableInstance.getFilamentAsset().getEntities();
+    for (int entityIndex = 0; entityIndex < entities.length; entityIndex++) {
+      @EntityInstance int instance = renderableManager.getInstance(entities[entityIndex]);
+      if (instance == 0) {
+        continue;
+      }
+      int primitiveCount = renderableManager.getPrimitiveCount(instance);
+      for (int primitiveIndex = 0; primitiveIndex < primitiveCount; primitiveIndex++) {
+        renderableInstance.setMaterial(entityIndex, primitiveIndex, material);
+      }
+    }
+  }
+
+  private Instance getInstanceOrDie(TransformProvider transformProvider) {
+    Instance instance = instancesByProvider.get(transformProvider);
+    if (instance == null) {
+      throw new IllegalArgumentException("The transform provider isn't an instance of this batch.");
+    }
+    return instance;
+  }
+
+  private static void destroyEntity(@Entity int entity) {
+    IEngine engine = EngineInstance.getEngine();
+    if (engine == null || !engine.isValid()) {
+      return;
+    }
+
+    engine.getRenderableManager().destroy(entity);
+    engine.getTransformManager().destroy(entity);
+    EntityManager.get().destroy(entity);
+  }
+
+  /** Releases the entities of a {@link RenderableInstanceBatch}. */
+  private static final class CleanupCallback implements Runnable {
+    private final ArrayList<Integer> entities;
+
+    CleanupCallback(ArrayList<Integer> entities) {
+      this.entities = entities;
+    }
+
+    @Override
+    public void run() {
+      AndroidPreconditions.checkUiThread();
+
+      for (int i = 0; i < entities.size(); i++) {
+        destroyEntity(entities.get(i));
+      }
+      entities.clear();
+    }
+  }
+}
@@ -7,16 +7,20 @@ import com.google.android.filament.Box;
 import com.google.android.filament.Entity;
 import com.google.android.filament.EntityInstance;
 import com.google.android.filament.IndexBuffer;
+import com.google.android.filament.IndexBuffer.Builder.IndexType;
 import com.google.android.filament.RenderableManager;
 import com.google.android.filament.VertexBuffer;
+import com.google.android.filament.VertexBuffer.VertexAttribute;
 
 
 import com.google.ar.sceneform.math.Vector3;
 import com.google.ar.sceneform.utilities.AndroidPreconditions;
+import java.nio.Buffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 
 
@@ -54,6 +58,11 @@ class RenderableInternalData implements IRenderableInternalData {
   // Filament Geometry buffers.
   @Nullable private IndexBuffer indexBuffer;
   @Nullable private VertexBuffer vertexBuffer;
+  // The layout of the Filament buffers, used to decide if they can be reused.
+  @Nullable private EnumSet<VertexAttribute> vertexAttributes;
+  private IndexType indexType = IndexType.UINT;
+  // The size of a vertex, for vertex buffers whose layout isn't described by vertexAttributes.
+  private int vertexStrideBytes;
 
   // Represents the set of meshes to render.
   private final ArrayList<MeshData> meshes = new ArrayList<>();
@@ -189,6 +198,27 @@ class RenderableInternalData implements IRenderableInternalData {
     return rawColorBuffer;
   }
 
+  @Override
+  public void setVertexAttributes(@Nullable EnumSet<VertexAttribute> vertexAttributes) {
+    this.vertexAttributes = vertexAttributes;
+  }
+
+  @Override
+  @Nullable
+  public EnumSet<VertexAttribute> getVertexAttributes() {
+    return vertexAttributes;
+  }
+
+  @Override
+  public void setIndexType(IndexType indexType) {
+    this.indexType = indexType;
+  }
+
+  @Override
+  public IndexType getIndexType() {
+    return indexType;
+  }
+
 
   private void setupSkeleton(RenderableManager.Builder builder) {return ;}
 
@@ -196,9 +226,87 @@ class RenderableInternalData implements IRenderableInternalData {
 
 
 
+  /** Sets the size of a vertex of a vertex buffer that was built from packed vertex data. */
+  void setVertexStrideBytes(int vertexStrideBytes) {
+    this.vertexStrideBytes = vertexStrideBytes;
+  }
+
+  @Override
+  public ResourceMemorySnapshot.ResourceType getResourceType() {
+    return ResourceMemorySnapshot.ResourceType.GEOMETRY;
+  }
+
+  @Override
+  public String getResourceDescription() {
+    VertexBuffer vertexBuffer = this.vertexBuffer;
+    IndexBuffer indexBuffer = this.indexBuffer;
+    return "Geometry, "
+        + (vertexBuffer == null ? 0 : vertexBuffer.getVertexCount())
+        + " vertices, "
+        + (indexBuffer == null ? 0 : indexBuffer.getIndexCount())
+        + " indices";
+  }
+
+  /** Returns an estimate of the memory held by the geometry, in bytes. */
+  @Override
+  public long getSizeInBytes() {
+    long sizeInBytes = 0;
+    IndexBuffer indexBuffer = this.indexBuffer;
+    if (indexBuffer != null) {
+      int bytesPerIndex = indexType == IndexType.USHORT ? 2 : 4;
+      sizeInBytes += (long) indexBuffer.getIndexCount() * bytesPerIndex;
+    }
+
+    VertexBuffer vertexBuffer = this.vertexBuffer;
+    if (vertexBuffer != null) {
+      sizeInBytes += (long) vertexBuffer.getVertexCount() * getVertexSizeInBytes();
+    }
+
+    // The raw buffers are kept on the heap to update the geometry.
+    sizeInBytes += getCapacityInBytes(rawIndexBuffer);
+    sizeInBytes += getCapacityInBytes(rawPositionBuffer);
+    sizeInBytes += getCapacityInBytes(rawTangentsBuffer);
+    sizeInBytes += getCapacityInBytes(rawUvBuffer);
+    sizeInBytes += getCapacityInBytes(rawColorBuffer);
+    return sizeInBytes;
+  }
+
+  private int getVertexSizeInBytes() {
+    EnumSet<VertexAttribute> vertexAttributes = this.vertexAttributes;
+    if (vertexAttributes == null) {
+      return vertexStrideBytes;
+    }
+
+    // Matches the layout of the buffers built by RenderableDefinition.
+    int vertexSizeInBytes = 0;
+    for (VertexAttribute attribute : vertexAttributes) {
+      switch (attribute) {
+        case POSITION:
+          vertexSizeInBytes += 3 * Float.BYTES;
+          break;
+        case UV0:
+          vertexSizeInBytes += 2 * Float.BYTES;
+          break;
+        default:
+          vertexSizeInBytes += 4 * Float.BYTES;
+          break;
+      }
+    }
+    return vertexSizeInBytes;
+  }
+
+  private static long getCapacityInBytes(@Nullable Buffer buffer) {
+    // Int and float buffers both hold four byte elements.
+    return buffer == null ? 0 : (long) buffer.capacity() * 4;
+  }
+
   @Override
   public void buildInstanceData(RenderableInstance instance, @Entity int renderedEntity) {
-    Renderable renderable = instance.getRenderable();
+    buildRenderable(instance.getRenderable(), renderedEntity);
+  }
+
+  /** Creates or updates the Filament renderable of an entity to draw the renderable's meshes. */
+  void buildRenderable(Renderable renderable, @Entity int renderedEntity) {
     IRenderableInternalData renderableData = renderable.getRenderableData();
     ArrayList<Material> materialBindings = renderable.getMaterialBindings();
     RenderableManager renderableManager = EngineInstance.getEngine().getRenderableManager();
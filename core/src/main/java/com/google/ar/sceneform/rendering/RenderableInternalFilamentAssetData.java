@@ -8,17 +8,21 @@ import androidx.annotation.Nullable;
 
 import com.google.android.filament.EntityInstance;
 import com.google.android.filament.IndexBuffer;
+import com.google.android.filament.IndexBuffer.Builder.IndexType;
 import com.google.android.filament.RenderableManager;
 import com.google.android.filament.VertexBuffer;
+import com.google.android.filament.VertexBuffer.VertexAttribute;
 import com.google.android.filament.gltfio.MaterialProvider;
 import com.google.android.filament.gltfio.ResourceLoader;
 import com.google.ar.sceneform.math.Vector3;
 import com.google.ar.sceneform.rendering.RenderableInternalData.MeshData;
+import com.google.ar.sceneform.utilities.AssetCache;
 
 import java.nio.Buffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.function.Function;
 
@@ -31,6 +35,8 @@ public class RenderableInternalFilamentAssetData implements IRenderableInternalD
   boolean isGltfBinary;
   ResourceLoader resourceLoader;
   @Nullable Function<String, Uri> urlResolver;
+  // Caches the downloaded external resources of the asset, or null if caching is disabled.
+  @Nullable AssetCache assetCache;
   static MaterialProvider materialProvider;
 
   static MaterialProvider getMaterialProvider() {
@@ -184,6 +190,29 @@ public class RenderableInternalFilamentAssetData implements IRenderableInternalD
     return null;
   }
 
+  @Override
+  public void setVertexAttributes(@Nullable EnumSet<VertexAttribute> vertexAttributes) {
+    // Not Implemented
+  }
+
+  @Nullable
+  @Override
+  public EnumSet<VertexAttribute> getVertexAttributes() {
+    // Not Implemented
+    return null;
+  }
+
+  @Override
+  public void setIndexType(IndexType indexType) {
+    // Not Implemented
+  }
+
+  @Override
+  public IndexType getIndexType() {
+    // Not Implemented
+    return IndexType.UINT;
+  }
+
   @Override
   public void setAnimationNames(@NonNull List<String> animationNames) {
     // Not Implemented
@@ -215,6 +244,23 @@ public class RenderableInternalFilamentAssetData implements IRenderableInternalD
 
 
 
+
+  @Override
+  public ResourceMemorySnapshot.ResourceType getResourceType() {
+    return ResourceMemorySnapshot.ResourceType.GLTF_ASSET;
+  }
+
+  @Override
+  public String getResourceDescription() {
+    return isGltfBinary ? "glb file" : "glTF file";
+  }
+
+  @Override
+  public long getSizeInBytes() {
+    // The glTF file is kept to create the asset of each instance.
+    Buffer gltfByteBuffer = this.gltfByteBuffer;
+    return gltfByteBuffer == null ? 0 : gltfByteBuffer.capacity();
+  }
 
   @Override
   public void buildInstanceData(RenderableInstance instance, int renderedEntity) {
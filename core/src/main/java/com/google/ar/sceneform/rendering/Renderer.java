@@ -20,9 +20,11 @@ import com.google.android.filament.Viewport;
 import com.google.android.filament.android.UiHelper;
 
 import com.google.ar.sceneform.utilities.AndroidPreconditions;
+import com.google.ar.sceneform.utilities.ChangeId;
 import com.google.ar.sceneform.utilities.EnvironmentalHdrParameters;
 import com.google.ar.sceneform.utilities.Preconditions;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -51,12 +53,17 @@ public class Renderer implements UiHelper.RendererCallback {
   // Limit resolution to 1080p for the minor edge. This is enough for Filament.
   private static final int MAXIMUM_RESOLUTION = 1080;
 
+  // Changed whenever the content drawn by any renderer changes in a way that isn't visible in the
+  // transforms, for example a material parameter, a rebuilt renderable or an animation.
+  private static final ChangeId contentChangeId = new ChangeId();
+
   @Nullable private CameraProvider cameraProvider;
   private final SurfaceView surfaceView;
   private final ViewAttachmentManager viewAttachmentManager;
 
   private final ArrayList<RenderableInstance> renderableInstances = new ArrayList<>();
   private final ArrayList<LightInstance> lightInstances = new ArrayList<>();
+  private final ArrayList<RenderableInstanceBatch> instanceBatches = new ArrayList<>();
 
   private Surface surface;
   @Nullable private SwapChain swapChain;
@@ -76,6 +83,26 @@ public class Renderer implements UiHelper.RendererCallback {
 
   private final double[] cameraProjectionMatrix = new double[16];
 
+  // Number of renderable transforms pushed to Filament during the last frame.
+  private int transformUploadCount;
+  // Time spent reclaiming released resources during the last frame, or -1 if none were reclaimed.
+  private long reclaimDurationNanos = -1;
+
+  // Render on demand: frames are only rendered when something has changed since the last one.
+  private boolean isRenderOnDemand;
+  private boolean isFrameDirty = true;
+  private int renderedContentId = ChangeId.EMPTY_ID;
+  private boolean wasCameraActive;
+  private final float[] renderedCameraMatrix = new float[16];
+  private final float[] renderedProjectionMatrix = new float[16];
+
+  // Frustum culling of renderable instances.
+  private final Frustum frustum = new Frustum();
+  private boolean isFrustumCullingEnabled;
+  private boolean isHidingCulledInstances;
+  private int culledInstanceCount;
+  private int visibleInstanceCount;
+
   private EnvironmentalHdrParameters environmentalHdrParameters =
       EnvironmentalHdrParameters.makeDefault();
 
@@ -174,6 +201,7 @@ public class Renderer implements UiHelper.RendererCallback {
       options.clearColor[3] = color.a;
     }
     renderer.setClearOptions(options);
+    isFrameDirty = true;
   }
 
   /** @hide */
@@ -189,6 +217,7 @@ public class Renderer implements UiHelper.RendererCallback {
   
   public void setFrontFaceWindingInverted(Boolean inverted) {
     view.setFrontFaceWindingInverted(inverted);
+    isFrameDirty = true;
   }
 
   /**
@@ -204,6 +233,7 @@ public class Renderer implements UiHelper.RendererCallback {
   /** @hide */
   public void setCameraProvider(@Nullable CameraProvider cameraProvider) {
     this.cameraProvider = cameraProvider;
+    isFrameDirty = true;
   }
 
   /** @hide */
@@ -246,6 +276,8 @@ public class Renderer implements UiHelper.RendererCallback {
 
   /** @hide */
   public void render(long frameTimeNanos, boolean debugEnabled) {
+    reclaimDurationNanos = -1;
+
     synchronized (this) {
       if (recreateSwapChain) {
         final IEngine engine = EngineInstance.getEngine();
@@ -254,6 +286,7 @@ public class Renderer implements UiHelper.RendererCallback {
         }
         swapChain = engine.createSwapChain(surface);
         recreateSwapChain = false;
+        isFrameDirty = true;
       }
     }
     synchronized (mirrors) {
@@ -285,9 +318,11 @@ public class Renderer implements UiHelper.RendererCallback {
           throw new AssertionError("Internal Error: Failed to get swap chain");
         }
 
-        // Render the scene, unless the renderer wants to skip the frame.
-        // This means you are sending frames too quickly to the GPU
-        if (renderer.beginFrame(swapChainLocal, frameTimeNanos)) {
+        // Render the scene, unless nothing has changed since the last frame in render on demand
+        // mode, or the renderer wants to skip the frame. This means you are sending frames too
+        // quickly to the GPU
+        boolean shouldRender = !isRenderOnDemand || isFrameInvalidated(cameraProvider);
+        if (shouldRender && renderer.beginFrame(swapChainLocal, frameTimeNanos)) {
           final float[] projectionMatrixData = cameraProvider.getProjectionMatrix().data;
           for (int i = 0; i < 16; ++i) {
             cameraProjectionMatrix[i] = projectionMatrixData[i];
@@ -331,9 +366,16 @@ public class Renderer implements UiHelper.RendererCallback {
             onFrameRenderDebugCallback.run();
           }
           renderer.endFrame();
+          onFrameRendered(cameraProvider);
+        } else if (shouldRender) {
+          // The frame was skipped, so the changes that invalidated it are rendered by the next
+          // frame, even though their uploads are no longer counted then.
+          isFrameDirty = true;
         }
 
-        reclaimReleasedResources();
+        long reclaimStartNanos = System.nanoTime();
+        ResourceManager.getInstance().reclaimReleasedResourcesForFrame();
+        reclaimDurationNanos = System.nanoTime() - reclaimStartNanos;
       }
     }
   }
@@ -373,6 +415,7 @@ public class Renderer implements UiHelper.RendererCallback {
       }
       indirectLight = latestIndirectLight;
     }
+    isFrameDirty = true;
   }
 
   /** @hide */
@@ -390,6 +433,7 @@ public class Renderer implements UiHelper.RendererCallback {
     }
 
     filamentHelper.setDesiredSize(major, minor);
+    isFrameDirty = true;
   }
 
   /** @hide */
@@ -435,18 +479,21 @@ public class Renderer implements UiHelper.RendererCallback {
     DynamicResolutionOptions options = new DynamicResolutionOptions();
     options.enabled = isEnabled;
     view.setDynamicResolutionOptions(options);
+    isFrameDirty = true;
   }
 
   /** @hide Only used for scuba testing for now. */
   @VisibleForTesting
   public void setAntiAliasing(com.google.android.filament.View.AntiAliasing antiAliasing) {
     view.setAntiAliasing(antiAliasing);
+    isFrameDirty = true;
   }
 
   /** @hide Only used for scuba testing for now. */
   @VisibleForTesting
   public void setDithering(com.google.android.filament.View.Dithering dithering) {
     view.setDithering(dithering);
+    isFrameDirty = true;
   }
 
   /** @hide Used internally by ArSceneView. */
@@ -494,6 +541,7 @@ public class Renderer implements UiHelper.RendererCallback {
    */
   public void setEnvironmentalHdrParameters(EnvironmentalHdrParameters environmentalHdrParameters) {
     this.environmentalHdrParameters = environmentalHdrParameters;
+    isFrameDirty = true;
   }
 
   /** @hide UiHelper.RendererCallback implementation */
@@ -501,6 +549,7 @@ public class Renderer implements UiHelper.RendererCallback {
   public void onResized(int width, int height) {
     view.setViewport(new Viewport(0, 0, width, height));
     emptyView.setViewport(new Viewport(0, 0, width, height));
+    isFrameDirty = true;
   }
 
   /** @hide */
@@ -508,6 +557,7 @@ public class Renderer implements UiHelper.RendererCallback {
     @Entity int entity = instance.getEntity();
     scene.addEntity(entity);
     lightInstances.add(instance);
+    isFrameDirty = true;
   }
 
   /** @hide */
@@ -515,6 +565,7 @@ public class Renderer implements UiHelper.RendererCallback {
     @Entity int entity = instance.getEntity();
     scene.remove(entity);
     lightInstances.remove(instance);
+    isFrameDirty = true;
   }
 
   
@@ -536,6 +587,7 @@ public class Renderer implements UiHelper.RendererCallback {
     scene.addEntity(instance.getRenderedEntity());
     addModelInstanceInternal(instance);
     renderableInstances.add(instance);
+    isFrameDirty = true;
   }
 
   /** @hide */
@@ -543,6 +595,19 @@ public class Renderer implements UiHelper.RendererCallback {
     removeModelInstanceInternal(instance);
     scene.remove(instance.getRenderedEntity());
     renderableInstances.remove(instance);
+    isFrameDirty = true;
+  }
+
+  /** @hide */
+  void addInstanceBatch(RenderableInstanceBatch instanceBatch) {
+    instanceBatches.add(instanceBatch);
+    isFrameDirty = true;
+  }
+
+  /** @hide */
+  void removeInstanceBatch(RenderableInstanceBatch instanceBatch) {
+    instanceBatches.remove(instanceBatch);
+    isFrameDirty = true;
   }
 
   @NonNull
@@ -593,6 +658,7 @@ public class Renderer implements UiHelper.RendererCallback {
     }
     // Setup the Camera Exposure values.
     camera.setExposure(cameraAperature, cameraShutterSpeed, cameraIso);
+    isFrameDirty = true;
   }
 
   /**
@@ -606,19 +672,191 @@ public class Renderer implements UiHelper.RendererCallback {
     return 1.0f / (1.2f * e);
   }
 
+  /**
+   * Returns the number of renderable transforms that were pushed to Filament during the last
+   * frame. Transforms are only pushed when they have changed.
+   *
+   * @hide
+   */
+  public int getTransformUploadCount() {
+    return transformUploadCount;
+  }
+
+  /**
+   * Enables culling of renderable instances that are outside of the camera frustum. Culled
+   * instances don't update their animations or skinning until they are visible again. Culling is
+   * disabled by default.
+   *
+   * @see #setCulledInstancesHidden(boolean)
+   */
+  public void setFrustumCullingEnabled(boolean isEnabled) {
+    isFrustumCullingEnabled = isEnabled;
+    isFrameDirty = true;
+  }
+
+  public boolean isFrustumCullingEnabled() {
+    return isFrustumCullingEnabled;
+  }
+
+  /**
+   * When frustum culling is enabled, also removes culled instances from the Filament scene so that
+   * their transforms aren't uploaded and Filament doesn't process them. Culled instances then no
+   * longer cast shadows into the visible area. Disabled by default.
+   */
+  public void setCulledInstancesHidden(boolean isHidden) {
+    isHidingCulledInstances = isHidden;
+    isFrameDirty = true;
+  }
+
+  public boolean areCulledInstancesHidden() {
+    return isHidingCulledInstances;
+  }
+
+  /** Returns the number of renderable instances that were culled during the last frame. */
+  public int getCulledInstanceCount() {
+    return culledInstanceCount;
+  }
+
+  /**
+   * Returns the time spent reclaiming released resources during the last frame, or -1 if the last
+   * frame didn't reclaim resources.
+   *
+   * @hide
+   */
+  public long getReclaimDurationNanos() {
+    return reclaimDurationNanos;
+  }
+
+  /**
+   * Only renders a frame when something has changed since the last rendered frame: a transform, a
+   * renderable, a material parameter, a light, an animation, the camera or the size of the
+   * surface, or a setting of the renderer. Disabled by default.
+   *
+   * <p>Changes that the renderer can't see, such as new content in an external texture, must be
+   * signaled with {@link #requestRender()}.
+   *
+   * @hide
+   */
+  public void setRenderOnDemand(boolean isRenderOnDemand) {
+    this.isRenderOnDemand = isRenderOnDemand;
+    isFrameDirty = true;
+  }
+
+  /** @hide */
+  public boolean isRenderOnDemand() {
+    return isRenderOnDemand;
+  }
+
+  /**
+   * Renders the next frame in render on demand mode, even if nothing has changed.
+   *
+   * @hide
+   */
+  public void requestRender() {
+    isFrameDirty = true;
+  }
+
+  /**
+   * Signals to every renderer that the content of the scene has changed, so that the next frame is
+   * rendered in render on demand mode.
+   */
+  static void markContentChanged() {
+    contentChangeId.update();
+  }
+
+  private boolean isFrameInvalidated(CameraProvider cameraProvider) {
+    if (isFrameDirty
+        || transformUploadCount > 0
+        || contentChangeId.checkChanged(renderedContentId)
+        || wasCameraActive != cameraProvider.isActive()
+        || !mirrors.isEmpty()) {
+      return true;
+    }
+
+    return !Arrays.equals(renderedCameraMatrix, cameraProvider.getWorldModelMatrix().data)
+        || !Arrays.equals(renderedProjectionMatrix, cameraProvider.getProjectionMatrix().data);
+  }
+
+  private void onFrameRendered(CameraProvider cameraProvider) {
+    isFrameDirty = false;
+    renderedContentId = contentChangeId.get();
+    wasCameraActive = cameraProvider.isActive();
+    System.arraycopy(
+        cameraProvider.getWorldModelMatrix().data, 0, renderedCameraMatrix, 0, 16);
+    System.arraycopy(
+        cameraProvider.getProjectionMatrix().data, 0, renderedProjectionMatrix, 0, 16);
+  }
+
+  /** Returns the number of renderable instances that were visible during the last frame. */
+  public int getVisibleInstanceCount() {
+    return visibleInstanceCount;
+  }
+
   private void updateInstances() {
     final IEngine engine = EngineInstance.getEngine();
     final TransformManager transformManager = engine.getTransformManager();
-    transformManager.openLocalTransformTransaction();
+    boolean isTransactionOpen = false;
+    transformUploadCount = 0;
+    culledInstanceCount = 0;
+    visibleInstanceCount = 0;
+
+    CameraProvider cameraProvider = this.cameraProvider;
+    Frustum cullingFrustum = null;
+    if (isFrustumCullingEnabled && cameraProvider != null && cameraProvider.isActive()) {
+      frustum.update(cameraProvider.getProjectionMatrix(), cameraProvider.getViewMatrix());
+      cullingFrustum = frustum;
+    }
 
-    for (RenderableInstance renderableInstance : renderableInstances) {
-      renderableInstance.prepareForDraw();
+    for (int i = 0; i < renderableInstances.size(); i++) {
+      RenderableInstance renderableInstance = renderableInstances.get(i);
+      renderableInstance.prepareForDraw(cullingFrustum);
+
+      boolean isCulled = renderableInstance.isCulled();
+      if (isCulled) {
+        culledInstanceCount++;
+      } else {
+        visibleInstanceCount++;
+      }
+
+      renderableInstance.setHiddenByCulling(isCulled && isHidingCulledInstances);
+
+      // Skip instances that haven't moved since their transform was last pushed, and instances that
+      // aren't in the Filament scene. Their transform is pushed once they are added back.
+      if (renderableInstance.isHiddenByCulling() || !renderableInstance.isModelMatrixDirty()) {
+        continue;
+      }
+
+      if (!isTransactionOpen) {
+        transformManager.openLocalTransformTransaction();
+        isTransactionOpen = true;
+      }
 
       float[] transform = renderableInstance.getWorldModelMatrix().data;
       renderableInstance.setModelMatrix(transformManager, transform);
+      transformUploadCount++;
     }
 
-    transformManager.commitLocalTransformTransaction();
+    for (int i = 0; i < instanceBatches.size(); i++) {
+      RenderableInstanceBatch instanceBatch = instanceBatches.get(i);
+      instanceBatch.prepareForDraw();
+      instanceBatch.cullInstances(cullingFrustum, isHidingCulledInstances);
+      culledInstanceCount += instanceBatch.getCulledInstanceCount();
+      visibleInstanceCount += instanceBatch.getVisibleInstanceCount();
+      if (!instanceBatch.hasDirtyTransforms()) {
+        continue;
+      }
+
+      if (!isTransactionOpen) {
+        transformManager.openLocalTransformTransaction();
+        isTransactionOpen = true;
+      }
+
+      transformUploadCount += instanceBatch.updateTransforms(transformManager);
+    }
+
+    if (isTransactionOpen) {
+      transformManager.commitLocalTransformTransaction();
+    }
   }
 
   private void updateLights() {
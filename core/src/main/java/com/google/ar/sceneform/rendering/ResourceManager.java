@@ -4,7 +4,12 @@ import androidx.annotation.Nullable;
 
 import com.google.ar.sceneform.resources.ResourceHolder;
 import com.google.ar.sceneform.resources.ResourceRegistry;
+import com.google.ar.sceneform.utilities.AndroidPreconditions;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Minimal resource manager. Maintains mappings from ids to created resources and a task executor
@@ -14,13 +19,37 @@ import java.util.ArrayList;
  */
 @SuppressWarnings("initialization") // Suppress @UnderInitialization warning.
 public class ResourceManager {
+  /** Interface definition for a callback invoked when resources exceed the memory budget. */
+  public interface OnMemoryBudgetExceededListener {
+    /**
+     * Called on the UI thread when the estimated memory of the resources first exceeds the budget,
+     * and again each time it exceeds it after having dropped below it.
+     *
+     * @param snapshot the estimates at the time, listing the largest resources
+     */
+    void onMemoryBudgetExceeded(ResourceMemorySnapshot snapshot);
+  }
+
+  private static final long MEMORY_BUDGET_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final int BUDGET_SNAPSHOT_LARGEST_RESOURCES = 10;
+  private static final long DEFAULT_FRAME_RECLAIM_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
   @Nullable private static ResourceManager instance = null;
 
+  private long memoryBudgetBytes;
+  @Nullable private OnMemoryBudgetExceededListener onMemoryBudgetExceededListener;
+  private long lastMemoryBudgetCheckNanos;
+  private boolean isMemoryBudgetExceeded;
+  private long frameReclaimBudgetNanos = DEFAULT_FRAME_RECLAIM_BUDGET_NANOS;
+  private int frameReclaimMaxCallbacks = 0;
+
   private final ArrayList<ResourceHolder> resourceHolders = new ArrayList<>();
-  private final ResourceRegistry<Texture> textureRegistry = new ResourceRegistry<>();
-  private final ResourceRegistry<Material> materialRegistry = new ResourceRegistry<>();
+  private final ResourceRegistry<Texture> textureRegistry =
+      new ResourceRegistry<>(Texture::getSizeInBytes);
+  private final ResourceRegistry<Material> materialRegistry =
+      new ResourceRegistry<>(Material::getSizeInBytes);
   private final ResourceRegistry<ModelRenderable> modelRenderableRegistry =
-      new ResourceRegistry<>();
+      new ResourceRegistry<>(Renderable::getSizeInBytes);
 
   
   private final ResourceRegistry<ViewRenderable> viewRenderableRegistry = new ResourceRegistry<>();
@@ -32,6 +61,8 @@ public class ResourceManager {
   private final CleanupRegistry<Material> materialCleanupRegistry = new CleanupRegistry<>();
   private final CleanupRegistry<RenderableInstance> renderableInstanceCleanupRegistry =
       new CleanupRegistry<>();
+  private final CleanupRegistry<RenderableInstanceBatch> renderableInstanceBatchCleanupRegistry =
+      new CleanupRegistry<>();
   private final CleanupRegistry<Texture> textureCleanupRegistry = new CleanupRegistry<>();
 
   ResourceRegistry<Texture> getTextureRegistry() {
@@ -71,6 +102,10 @@ public class ResourceManager {
     return renderableInstanceCleanupRegistry;
   }
 
+  CleanupRegistry<RenderableInstanceBatch> getRenderableInstanceBatchCleanupRegistry() {
+    return renderableInstanceBatchCleanupRegistry;
+  }
+
   CleanupRegistry<Texture> getTextureCleanupRegistry() {
     return textureCleanupRegistry;
   }
@@ -80,9 +115,204 @@ public class ResourceManager {
     for (ResourceHolder registry : resourceHolders) {
       resourcesInUse += registry.reclaimReleasedResources();
     }
+    checkMemoryBudget();
+    return resourcesInUse;
+  }
+
+  /**
+   * Releases rendering resources ready for garbage collection within the budget set with {@link
+   * #setFrameReclaimBudget(long, int)}. Called every frame, so that the destruction of many
+   * resources at once, such as after a scene is replaced, is spread over several frames.
+   *
+   * <p>The cleanup registries are handled in order, and a registry is only handled once the
+   * backlog of the previous ones is cleared, so resources are still destroyed in the same order
+   * as by {@link #reclaimReleasedResources()}.
+   *
+   * @return Count of resources currently in use, including those waiting to be destroyed
+   */
+  public long reclaimReleasedResourcesForFrame() {
+    long deadlineNanos =
+        frameReclaimBudgetNanos > 0 ? System.nanoTime() + frameReclaimBudgetNanos : Long.MAX_VALUE;
+    int remainingCallbacks =
+        frameReclaimMaxCallbacks > 0 ? frameReclaimMaxCallbacks : Integer.MAX_VALUE;
+    boolean isBudgetExhausted = false;
+
+    long resourcesInUse = 0;
+    for (ResourceHolder resourceHolder : resourceHolders) {
+      if (!(resourceHolder instanceof CleanupRegistry)) {
+        resourcesInUse += resourceHolder.reclaimReleasedResources();
+        continue;
+      }
+
+      CleanupRegistry<?> cleanupRegistry = (CleanupRegistry<?>) resourceHolder;
+      cleanupRegistry.pollReleasedResources();
+      if (!isBudgetExhausted) {
+        remainingCallbacks -= cleanupRegistry.runPendingCleanups(deadlineNanos, remainingCallbacks);
+        isBudgetExhausted = cleanupRegistry.hasPendingCleanups();
+      }
+      resourcesInUse += cleanupRegistry.getResourceCount();
+    }
+    checkMemoryBudget();
     return resourcesInUse;
   }
 
+  /**
+   * Sets how much work {@link #reclaimReleasedResourcesForFrame()} may do each frame. The
+   * resources left over are destroyed in the next frames. At least one resource is destroyed each
+   * frame while any are waiting.
+   *
+   * @param budgetNanos the time to spend destroying resources, or 0 for no time limit. Defaults to
+   *     2 milliseconds.
+   * @param maxCallbacks the number of resources to destroy, or 0 for no limit. Defaults to 0.
+   */
+  public void setFrameReclaimBudget(long budgetNanos, int maxCallbacks) {
+    frameReclaimBudgetNanos = Math.max(0, budgetNanos);
+    frameReclaimMaxCallbacks = Math.max(0, maxCallbacks);
+  }
+
+  /** Returns the number of collected resources waiting to be destroyed in the next frames. */
+  public int getPendingCleanupCount() {
+    int pendingCleanupCount = 0;
+    for (ResourceHolder resourceHolder : resourceHolders) {
+      if (resourceHolder instanceof CleanupRegistry) {
+        pendingCleanupCount += ((CleanupRegistry<?>) resourceHolder).getPendingCleanupCount();
+      }
+    }
+    return pendingCleanupCount;
+  }
+
+  /**
+   * Returns estimates of the memory held by the textures, materials, geometry and glTF assets that
+   * are alive, by type. Must be called on the UI thread.
+   *
+   * @param maxLargestResources the number of resources to list by size
+   */
+  public ResourceMemorySnapshot getMemorySnapshot(int maxLargestResources) {
+    AndroidPreconditions.checkUiThread();
+
+    // Data shared by several objects is only counted once.
+    Set<SizedResource> sizedResources = Collections.newSetFromMap(new IdentityHashMap<>());
+    textureCleanupRegistry.collectSizedResources(sizedResources);
+    depthTextureCleanupRegistry.collectSizedResources(sizedResources);
+    materialCleanupRegistry.collectSizedResources(sizedResources);
+    renderableInstanceCleanupRegistry.collectSizedResources(sizedResources);
+    renderableInstanceBatchCleanupRegistry.collectSizedResources(sizedResources);
+    // Renderables without instances only hold their geometry through the registry.
+    modelRenderableRegistry.forEachResource(
+        renderable -> sizedResources.add(renderable.getRenderableData()));
+
+    return new ResourceMemorySnapshot(sizedResources, maxLargestResources, getResidentBytes());
+  }
+
+  /**
+   * Sets a budget for the estimated memory of the resources, which is checked about once a second
+   * while a scene is rendered.
+   *
+   * @param memoryBudgetBytes the budget in bytes, or 0 to not check it
+   * @param listener called when the budget is exceeded
+   * @see #getMemorySnapshot(int)
+   */
+  public void setMemoryBudget(
+      long memoryBudgetBytes, @Nullable OnMemoryBudgetExceededListener listener) {
+    if (memoryBudgetBytes < 0) {
+      throw new IllegalArgumentException("Budget must not be negative.");
+    }
+
+    this.memoryBudgetBytes = memoryBudgetBytes;
+    this.onMemoryBudgetExceededListener = listener;
+    isMemoryBudgetExceeded = false;
+  }
+
+  public long getMemoryBudgetBytes() {
+    return memoryBudgetBytes;
+  }
+
+  private void checkMemoryBudget() {
+    OnMemoryBudgetExceededListener listener = onMemoryBudgetExceededListener;
+    if (memoryBudgetBytes == 0 || listener == null) {
+      return;
+    }
+
+    long nowNanos = System.nanoTime();
+    if (lastMemoryBudgetCheckNanos != 0
+        && nowNanos - lastMemoryBudgetCheckNanos < MEMORY_BUDGET_CHECK_INTERVAL_NANOS) {
+      return;
+    }
+    lastMemoryBudgetCheckNanos = nowNanos;
+
+    ResourceMemorySnapshot snapshot = getMemorySnapshot(BUDGET_SNAPSHOT_LARGEST_RESOURCES);
+    boolean wasMemoryBudgetExceeded = isMemoryBudgetExceeded;
+    isMemoryBudgetExceeded = snapshot.getTotalBytes() > memoryBudgetBytes;
+    if (isMemoryBudgetExceeded && !wasMemoryBudgetExceeded) {
+      listener.onMemoryBudgetExceeded(snapshot);
+    }
+  }
+
+  /**
+   * Keeps the most recently used textures, materials and model renderables loaded while their
+   * estimated size is within the budget of their type, so that reusing them soon after they are
+   * no longer referenced doesn't load them again. A budget of 0 only keeps weak references, which
+   * is the default.
+   */
+  public void setMaxResidentBytes(
+      long maxTextureBytes, long maxMaterialBytes, long maxModelRenderableBytes) {
+    textureRegistry.setMaxResidentBytes(maxTextureBytes);
+    materialRegistry.setMaxResidentBytes(maxMaterialBytes);
+    modelRenderableRegistry.setMaxResidentBytes(maxModelRenderableBytes);
+  }
+
+  /** Returns the estimated size of the resources kept loaded by the budgets. */
+  public long getResidentBytes() {
+    return textureRegistry.getResidentBytes()
+        + materialRegistry.getResidentBytes()
+        + modelRenderableRegistry.getResidentBytes();
+  }
+
+  /** Returns the number of registry lookups that found a loaded or loading resource. */
+  public long getRegistryHitCount() {
+    return textureRegistry.getHitCount()
+        + materialRegistry.getHitCount()
+        + modelRenderableRegistry.getHitCount()
+        + viewRenderableRegistry.getHitCount();
+  }
+
+  /** Returns the number of registry lookups that found no resource. */
+  public long getRegistryMissCount() {
+    return textureRegistry.getMissCount()
+        + materialRegistry.getMissCount()
+        + modelRenderableRegistry.getMissCount()
+        + viewRenderableRegistry.getMissCount();
+  }
+
+  /** Returns the number of resources that were no longer kept to stay within the budgets. */
+  public long getRegistryEvictionCount() {
+    return textureRegistry.getEvictionCount()
+        + materialRegistry.getEvictionCount()
+        + modelRenderableRegistry.getEvictionCount();
+  }
+
+  /**
+   * Returns the number of texture, material and renderable loads started for a source, as opposed
+   * to joined to a load of the same source already in progress.
+   */
+  public long getStartedLoadCount() {
+    return textureRegistry.getStartedLoadCount()
+        + materialRegistry.getStartedLoadCount()
+        + modelRenderableRegistry.getStartedLoadCount()
+        + viewRenderableRegistry.getStartedLoadCount();
+  }
+
+  /**
+   * Returns the number of texture, material and renderable loads that joined a load of the same
+   * source already in progress instead of loading it again.
+   */
+  public long getCoalescedLoadCount() {
+    return textureRegistry.getCoalescedLoadCount()
+        + materialRegistry.getCoalescedLoadCount()
+        + modelRenderableRegistry.getCoalescedLoadCount()
+        + viewRenderableRegistry.getCoalescedLoadCount();
+  }
+
   /** Forcibly deletes all tracked references */
   public void destroyAllResources() {
     for (ResourceHolder resourceHolder : resourceHolders) {
@@ -112,6 +342,7 @@ public class ResourceManager {
     addResourceHolder(depthTextureCleanupRegistry);
     addResourceHolder(materialCleanupRegistry);
     addResourceHolder(renderableInstanceCleanupRegistry);
+    addResourceHolder(renderableInstanceBatchCleanupRegistry);
     addResourceHolder(textureCleanupRegistry);
   }
 
@@ -0,0 +1,176 @@
+package com.google.ar.sceneform.rendering;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Estimates of the memory held by the rendering resources that were alive when the snapshot was
+ * taken, by type of resource. Data shared by several objects, such as the geometry of the copies
+ * of a renderable, is counted once.
+ *
+ * <p>The estimates are computed from the layout of the resources, for example the dimensions,
+ * format and mipmaps of a texture, and don't include driver overhead. Camera and external stream
+ * textures aren't included, since their size is decided by the stream.
+ *
+ * @see ResourceManager#getMemorySnapshot(int)
+ * @hide
+ */
+public class ResourceMemorySnapshot {
+  /** The types of resources that are estimated. */
+  public enum ResourceType {
+    /** Textures, including depth textures, with their mipmaps. */
+    TEXTURE,
+    /** Compiled material packages. */
+    MATERIAL,
+    /** Vertex and index buffers of renderables, and the raw geometry kept to update them. */
+    GEOMETRY,
+    /** glTF files kept by renderables, and the assets created from them for each instance. */
+    GLTF_ASSET
+  }
+
+  /** A resource in the list of largest resources. */
+  public static final class Resource {
+    private final ResourceType resourceType;
+    private final String description;
+    private final long sizeInBytes;
+
+    Resource(ResourceType resourceType, String description, long sizeInBytes) {
+      this.resourceType = resourceType;
+      this.description = description;
+      this.sizeInBytes = sizeInBytes;
+    }
+
+    public ResourceType getResourceType() {
+      return resourceType;
+    }
+
+    public String getDescription() {
+      return description;
+    }
+
+    public long getSizeInBytes() {
+      return sizeInBytes;
+    }
+
+    @Override
+    public String toString() {
+      return resourceType + " " + description + " (" + sizeInBytes + " bytes)";
+    }
+  }
+
+  private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+
+  private final long[] sizeInBytesByType = new long[RESOURCE_TYPES.length];
+  private final int[] countByType = new int[RESOURCE_TYPES.length];
+  private final long residentBytes;
+  private final List<Resource> largestResources;
+
+  /**
+   * @param resources the distinct resources that are alive
+   * @param maxLargestResources the number of resources to list by size
+   * @param residentBytes the size of the resources kept by the budgets of the registries
+   */
+  ResourceMemorySnapshot(
+      Collection<SizedResource> resources, int maxLargestResources, long residentBytes) {
+    this.residentBytes = residentBytes;
+
+    // Keeps the largest resources seen so far, smallest first.
+    PriorityQueue<SizedEntry> largest = new PriorityQueue<>(Math.max(1, maxLargestResources));
+    for (SizedResource resource : resources) {
+      long sizeInBytes = resource.getSizeInBytes();
+      int type = resource.getResourceType().ordinal();
+      sizeInBytesByType[type] += sizeInBytes;
+      countByType[type]++;
+
+      if (maxLargestResources <= 0 || sizeInBytes == 0) {
+        continue;
+      }
+      if (largest.size() < maxLargestResources) {
+        largest.add(new SizedEntry(resource, sizeInBytes));
+      } else if (largest.peek().sizeInBytes < sizeInBytes) {
+        largest.poll();
+        largest.add(new SizedEntry(resource, sizeInBytes));
+      }
+    }
+
+    ArrayList<Resource> largestResources = new ArrayList<>(largest.size());
+    while (!largest.isEmpty()) {
+      SizedEntry entry = largest.poll();
+      largestResources.add(
+          new Resource(
+              entry.resource.getResourceType(),
+              entry.resource.getResourceDescription(),
+              entry.sizeInBytes));
+    }
+    Collections.reverse(largestResources);
+    this.largestResources = Collections.unmodifiableList(largestResources);
+  }
+
+  /** Returns the estimated memory held by all resources, in bytes. */
+  public long getTotalBytes() {
+    long totalBytes = 0;
+    for (long sizeInBytes : sizeInBytesByType) {
+      totalBytes += sizeInBytes;
+    }
+    return totalBytes;
+  }
+
+  /** Returns the estimated memory held by the resources of a type, in bytes. */
+  public long getBytes(ResourceType resourceType) {
+    return sizeInBytesByType[resourceType.ordinal()];
+  }
+
+  /** Returns the number of resources of a type. */
+  public int getCount(ResourceType resourceType) {
+    return countByType[resourceType.ordinal()];
+  }
+
+  /**
+   * Returns the estimated size of the resources kept loaded by the budgets set with {@link
+   * ResourceManager#setMaxResidentBytes(long, long, long)}. They are part of the total, and may
+   * also be in use.
+   */
+  public long getResidentBytes() {
+    return residentBytes;
+  }
+
+  /** Returns the largest resources, largest first. */
+  public List<Resource> getLargestResources() {
+    return largestResources;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    builder.append("ResourceMemorySnapshot{total=").append(getTotalBytes());
+    for (ResourceType resourceType : RESOURCE_TYPES) {
+      builder
+          .append(", ")
+          .append(resourceType)
+          .append('=')
+          .append(getBytes(resourceType))
+          .append(" (")
+          .append(getCount(resourceType))
+          .append(')');
+    }
+    return builder.append('}').toString();
+  }
+
+  private static final class SizedEntry implements Comparable<SizedEntry> {
+    private final SizedResource resource;
+    private final long sizeInBytes;
+
+    SizedEntry(SizedResource resource, long sizeInBytes) {
+      this.resource = resource;
+      this.sizeInBytes = sizeInBytes;
+    }
+
+    @Override
+    public int compareTo(SizedEntry other) {
+      return Long.compare(sizeInBytes, other.sizeInBytes);
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.google.ar.sceneform.rendering;
+
+/**
+ * Rendering data whose memory can be estimated, such as the Filament texture shared by the copies
+ * of a {@link Texture}. Data shared by several objects is only counted once by a {@link
+ * ResourceMemorySnapshot}, so it must be the same instance for all of them.
+ */
+interface SizedResource {
+  ResourceMemorySnapshot.ResourceType getResourceType();
+
+  /** Returns an estimate of the memory held by the data, in bytes. */
+  long getSizeInBytes();
+
+  /** Describes the data in the list of largest resources of a snapshot. */
+  String getResourceDescription();
+}
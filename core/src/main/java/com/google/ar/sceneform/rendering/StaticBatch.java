@@ -0,0 +1,441 @@
+package com.google.ar.sceneform.rendering;
+
+import androidx.annotation.Nullable;
+import com.google.ar.sceneform.common.TransformProvider;
+import com.google.ar.sceneform.math.Matrix;
+import com.google.ar.sceneform.math.Vector3;
+import com.google.ar.sceneform.rendering.RenderableDefinition.Submesh;
+import com.google.ar.sceneform.utilities.AndroidPreconditions;
+import com.google.ar.sceneform.utilities.Preconditions;
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Merges the submeshes of many renderables that share one {@link Material} into a single
+ * renderable, so that they are drawn by one Filament renderable instead of one each.
+ *
+ * <p>The geometry of each submesh is transformed to the space of the batch's transform provider
+ * when the batch is built. Only renderables built from a {@link RenderableDefinition} can be
+ * batched.
+ *
+ * @hide
+ */
+public class StaticBatch {
+  private static final int POSITION_SIZE = PackedGeometry.POSITION_SIZE;
+  private static final int UV_SIZE = PackedGeometry.UV_SIZE;
+  private static final int COLOR_SIZE = PackedGeometry.COLOR_SIZE;
+  private static final int MAX_USHORT_VERTEX_COUNT = 0x10000;
+
+  private final Material material;
+  private final TransformProvider transformProvider;
+  private final ArrayList<Entry> entries = new ArrayList<>();
+
+  @Nullable private ModelRenderable batchRenderable;
+  @Nullable private RenderableInstance batchRenderableInstance;
+  @Nullable private Renderer attachedRenderer;
+
+  // Merged streams, allocated for each build since Filament may still read the previous ones.
+  private float[] positions;
+  @Nullable private float[] normals;
+  @Nullable private float[] uvs;
+  @Nullable private float[] colors;
+  private int vertexCount;
+
+  // Maps a vertex of the submesh being added to its index in the batch, or -1 if not yet added.
+  private int[] vertexRemap = new int[0];
+
+  private final float[] normalMatrix = new float[9];
+  private final Vector3 position = new Vector3();
+  private final Vector3 normal = new Vector3();
+  private float u;
+  private float v;
+  private final Color color = new Color();
+
+  private static final class Entry {
+    final Renderable renderable;
+    final int submeshIndex;
+    final Matrix transform;
+
+    Entry(Renderable renderable, int submeshIndex, Matrix transform) {
+      this.renderable = renderable;
+      this.submeshIndex = submeshIndex;
+      this.transform = transform;
+    }
+  }
+
+  public StaticBatch(Material material, TransformProvider transformProvider) {
+    this.material = Preconditions.checkNotNull(material, "Parameter \"material\" was null.");
+    this.transformProvider =
+        Preconditions.checkNotNull(transformProvider, "Parameter \"transformProvider\" was null.");
+  }
+
+  public Material getMaterial() {
+    return material;
+  }
+
+  /** Returns true if the geometry of a renderable is available to be batched. */
+  public static boolean canBatch(Renderable renderable) {
+    return renderable.getRenderableData() instanceof RenderableInternalData
+        && renderable.getDefinition() != null;
+  }
+
+  /** Returns the number of submeshes added since the batch was last cleared. */
+  public int getSubmeshCount() {
+    return entries.size();
+  }
+
+  /** Removes every submesh. The batch keeps drawing the previous geometry until it is rebuilt. */
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Adds a submesh of a renderable to the batch.
+   *
+   * @param renderable a renderable for which {@link #canBatch(Renderable)} is true
+   * @param submeshIndex the submesh to add, which must use the material of the batch
+   * @param transform transforms the submesh to the space of the batch's transform provider
+   */
+  public void addSubmesh(Renderable renderable, int submeshIndex, Matrix transform) {
+    Preconditions.checkNotNull(renderable, "Parameter \"renderable\" was null.");
+    Preconditions.checkNotNull(transform, "Parameter \"transform\" was null.");
+    if (!canBatch(renderable)) {
+      throw new IllegalArgumentException("Renderable wasn't built from a RenderableDefinition.");
+    }
+    if (renderable.getMaterial(submeshIndex) != material) {
+      throw new IllegalArgumentException("Submesh doesn't use the material of the batch.");
+    }
+
+    entries.add(new Entry(renderable, submeshIndex, new Matrix(transform.data)));
+  }
+
+  /** Merges the submeshes into the batch renderable, or hides it if there are none. */
+  public void build() {
+    AndroidPreconditions.checkUiThread();
+
+    if (entries.isEmpty()) {
+      if (batchRenderableInstance != null) {
+        batchRenderableInstance.detachFromRenderer();
+      }
+      return;
+    }
+
+    RenderableDefinition definition = mergeEntries();
+    Renderable firstRenderable = entries.get(0).renderable;
+
+    if (batchRenderable == null) {
+      try {
+        // Creating a Renderable is immediate when using RenderableDefinition.
+        batchRenderable = ModelRenderable.builder().setSource(definition).build().get();
+      } catch (InterruptedException | ExecutionException ex) {
+        throw new AssertionError("Unable to create static batch renderable.", ex);
+      }
+      batchRenderableInstance = batchRenderable.createInstance(transformProvider);
+    } else {
+      batchRenderable.updateFromDefinition(definition);
+    }
+
+    batchRenderable.setRenderPriority(firstRenderable.getRenderPriority());
+    batchRenderable.setShadowCaster(firstRenderable.isShadowCaster());
+    batchRenderable.setShadowReceiver(firstRenderable.isShadowReceiver());
+
+    Renderer renderer = attachedRenderer;
+    if (renderer != null) {
+      Preconditions.checkNotNull(batchRenderableInstance).attachToRenderer(renderer);
+    }
+  }
+
+  public void attachToRenderer(Renderer renderer) {
+    attachedRenderer = renderer;
+    if (batchRenderableInstance != null && !entries.isEmpty()) {
+      batchRenderableInstance.attachToRenderer(renderer);
+    }
+  }
+
+  public void detachFromRenderer() {
+    attachedRenderer = null;
+    if (batchRenderableInstance != null) {
+      batchRenderableInstance.detachFromRenderer();
+    }
+  }
+
+  private RenderableDefinition mergeEntries() {
+    boolean hasNormals = false;
+    boolean hasUvs = false;
+    boolean hasColors = false;
+    int maxVertexCount = 0;
+    int indexCount = 0;
+    for (int i = 0; i < entries.size(); i++) {
+      RenderableDefinition definition = getDefinition(entries.get(i));
+      Submesh submesh = definition.getSubmeshes().get(entries.get(i).submeshIndex);
+      PackedGeometry packedGeometry = definition.getPackedGeometry();
+      int submeshIndexCount;
+      int sourceVertexCount;
+      if (packedGeometry != null) {
+        hasNormals |= packedGeometry.normals != null || packedGeometry.tangents != null;
+        hasUvs |= packedGeometry.uvs != null;
+        hasColors |= packedGeometry.colors != null;
+        submeshIndexCount = submesh.indexCount;
+        sourceVertexCount = packedGeometry.vertexCount;
+      } else {
+        Vertex firstVertex = definition.getVertices().get(0);
+        hasNormals |= firstVertex.getNormal() != null;
+        hasUvs |= firstVertex.getUvCoordinate() != null;
+        hasColors |= firstVertex.getColor() != null;
+        submeshIndexCount = submesh.getTriangleIndices().size();
+        sourceVertexCount = definition.getVertices().size();
+      }
+
+      // A submesh uses at most one vertex per index.
+      maxVertexCount += Math.min(submeshIndexCount, sourceVertexCount);
+      indexCount += submeshIndexCount;
+    }
+
+    positions = new float[maxVertexCount * POSITION_SIZE];
+    normals = hasNormals ? new float[maxVertexCount * POSITION_SIZE] : null;
+    uvs = hasUvs ? new float[maxVertexCount * UV_SIZE] : null;
+    colors = hasColors ? new float[maxVertexCount * COLOR_SIZE] : null;
+    vertexCount = 0;
+    int[] indices = new int[indexCount];
+    int indexOffset = 0;
+
+    for (int i = 0; i < entries.size(); i++) {
+      indexOffset = appendEntry(entries.get(i), indices, indexOffset);
+    }
+
+    RenderableDefinition.BufferBuilder builder =
+        RenderableDefinition.bufferBuilder()
+            .setPositions(FloatBuffer.wrap(positions, 0, vertexCount * POSITION_SIZE));
+    if (normals != null) {
+      builder.setNormals(FloatBuffer.wrap(normals, 0, vertexCount * POSITION_SIZE));
+    }
+    if (uvs != null) {
+      builder.setUvs(FloatBuffer.wrap(uvs, 0, vertexCount * UV_SIZE));
+    }
+    if (colors != null) {
+      builder.setColors(FloatBuffer.wrap(colors, 0, vertexCount * COLOR_SIZE));
+    }
+
+    // Use 16 bit indices when the vertices allow it, which halves the size of the index buffer.
+    if (vertexCount <= MAX_USHORT_VERTEX_COUNT) {
+      short[] shortIndices = new short[indexCount];
+      for (int i = 0; i < indexCount; i++) {
+        shortIndices[i] = (short) indices[i];
+      }
+      builder.setTriangleIndices(shortIndices);
+    } else {
+      builder.setTriangleIndices(indices);
+    }
+
+    return builder.addSubmesh(material, 0, indexCount).build();
+  }
+
+  /** Appends the vertices and indices of an entry, and returns the new index offset. */
+  private int appendEntry(Entry entry, int[] indices, int indexOffset) {
+    RenderableDefinition definition = getDefinition(entry);
+    Submesh submesh = definition.getSubmeshes().get(entry.submeshIndex);
+    PackedGeometry packedGeometry = definition.getPackedGeometry();
+    List<Vertex> vertices = definition.getVertices();
+
+    int sourceVertexCount = packedGeometry != null ? packedGeometry.vertexCount : vertices.size();
+    if (vertexRemap.length < sourceVertexCount) {
+      vertexRemap = new int[sourceVertexCount];
+    }
+    Arrays.fill(vertexRemap, 0, sourceVertexCount, -1);
+    setNormalMatrix(entry.transform);
+
+    int submeshIndexCount =
+        packedGeometry != null ? submesh.indexCount : submesh.getTriangleIndices().size();
+    for (int i = 0; i < submeshIndexCount; i++) {
+      int sourceIndex =
+          packedGeometry != null
+              ? getIndex(packedGeometry.indices, submesh.indexStart + i)
+              : submesh.getTriangleIndices().get(i);
+
+      int index = vertexRemap[sourceIndex];
+      if (index == -1) {
+        if (packedGeometry != null) {
+          readVertex(packedGeometry, sourceIndex);
+        } else {
+          readVertex(vertices.get(sourceIndex));
+        }
+        index = vertexCount;
+        appendVertex(entry.transform);
+        vertexRemap[sourceIndex] = index;
+      }
+
+      indices[indexOffset++] = index;
+    }
+
+    return indexOffset;
+  }
+
+  private void readVertex(PackedGeometry packedGeometry, int index) {
+    FloatBuffer sourcePositions = packedGeometry.positions;
+    int offset = index * POSITION_SIZE;
+    position.set(
+        sourcePositions.get(offset),
+        sourcePositions.get(offset + 1),
+        sourcePositions.get(offset + 2));
+
+    FloatBuffer sourceNormals = packedGeometry.normals;
+    FloatBuffer sourceTangents = packedGeometry.tangents;
+    if (sourceNormals != null) {
+      normal.set(
+          sourceNormals.get(offset), sourceNormals.get(offset + 1), sourceNormals.get(offset + 2));
+    } else if (sourceTangents != null) {
+      // The normal is the z axis of the tangent frame.
+      int tangentOffset = index * PackedGeometry.TANGENTS_SIZE;
+      float x = sourceTangents.get(tangentOffset);
+      float y = sourceTangents.get(tangentOffset + 1);
+      float z = sourceTangents.get(tangentOffset + 2);
+      float w = sourceTangents.get(tangentOffset + 3);
+      normal.set(2 * (x * z + w * y), 2 * (y * z - w * x), 1 - 2 * (x * x + y * y));
+    } else {
+      normal.set(0.0f, 1.0f, 0.0f);
+    }
+
+    FloatBuffer sourceUvs = packedGeometry.uvs;
+    if (sourceUvs != null) {
+      u = sourceUvs.get(index * UV_SIZE);
+      v = sourceUvs.get(index * UV_SIZE + 1);
+    } else {
+      u = 0.0f;
+      v = 0.0f;
+    }
+
+    FloatBuffer sourceColors = packedGeometry.colors;
+    if (sourceColors != null) {
+      int colorOffset = index * COLOR_SIZE;
+      color.set(
+          sourceColors.get(colorOffset),
+          sourceColors.get(colorOffset + 1),
+          sourceColors.get(colorOffset + 2),
+          sourceColors.get(colorOffset + 3));
+    } else {
+      color.set(1.0f, 1.0f, 1.0f, 1.0f);
+    }
+  }
+
+  private void readVertex(Vertex vertex) {
+    position.set(vertex.getPosition());
+
+    Vector3 vertexNormal = vertex.getNormal();
+    if (vertexNormal != null) {
+      normal.set(vertexNormal);
+    } else {
+      normal.set(0.0f, 1.0f, 0.0f);
+    }
+
+    Vertex.UvCoordinate uvCoordinate = vertex.getUvCoordinate();
+    u = uvCoordinate != null ? uvCoordinate.x : 0.0f;
+    v = uvCoordinate != null ? uvCoordinate.y : 0.0f;
+
+    Color vertexColor = vertex.getColor();
+    if (vertexColor != null) {
+      color.set(vertexColor);
+    } else {
+      color.set(1.0f, 1.0f, 1.0f, 1.0f);
+    }
+  }
+
+  /** Transforms the vertex read into the scratch fields and appends it to the merged streams. */
+  private void appendVertex(Matrix transform) {
+    float[] m = transform.data;
+    int offset = vertexCount * POSITION_SIZE;
+    float x = position.x;
+    float y = position.y;
+    float z = position.z;
+    positions[offset] = m[0] * x + m[4] * y + m[8] * z + m[12];
+    positions[offset + 1] = m[1] * x + m[5] * y + m[9] * z + m[13];
+    positions[offset + 2] = m[2] * x + m[6] * y + m[10] * z + m[14];
+
+    float[] currentNormals = normals;
+    if (currentNormals != null) {
+      float[] n = normalMatrix;
+      float nx = n[0] * normal.x + n[1] * normal.y + n[2] * normal.z;
+      float ny = n[3] * normal.x + n[4] * normal.y + n[5] * normal.z;
+      float nz = n[6] * normal.x + n[7] * normal.y + n[8] * normal.z;
+      float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+      if (length > 0.0f) {
+        nx /= length;
+        ny /= length;
+        nz /= length;
+      }
+      currentNormals[offset] = nx;
+      currentNormals[offset + 1] = ny;
+      currentNormals[offset + 2] = nz;
+    }
+
+    float[] currentUvs = uvs;
+    if (currentUvs != null) {
+      currentUvs[vertexCount * UV_SIZE] = u;
+      currentUvs[vertexCount * UV_SIZE + 1] = v;
+    }
+
+    float[] currentColors = colors;
+    if (currentColors != null) {
+      int colorOffset = vertexCount * COLOR_SIZE;
+      currentColors[colorOffset] = color.r;
+      currentColors[colorOffset + 1] = color.g;
+      currentColors[colorOffset + 2] = color.b;
+      currentColors[colorOffset + 3] = color.a;
+    }
+
+    vertexCount++;
+  }
+
+  /**
+   * Sets the row-major 3x3 matrix that transforms normals, which is the cofactor matrix of the
+   * upper 3x3 of transform. It is the inverse transpose scaled by the determinant, so it keeps
+   * normals perpendicular under non-uniform scale and only needs its sign fixed.
+   */
+  private void setNormalMatrix(Matrix transform) {
+    float[] m = transform.data;
+    float a00 = m[0];
+    float a10 = m[1];
+    float a20 = m[2];
+    float a01 = m[4];
+    float a11 = m[5];
+    float a21 = m[6];
+    float a02 = m[8];
+    float a12 = m[9];
+    float a22 = m[10];
+
+    float[] n = normalMatrix;
+    n[0] = a11 * a22 - a12 * a21;
+    n[1] = a12 * a20 - a10 * a22;
+    n[2] = a10 * a21 - a11 * a20;
+    n[3] = a02 * a21 - a01 * a22;
+    n[4] = a00 * a22 - a02 * a20;
+    n[5] = a01 * a20 - a00 * a21;
+    n[6] = a01 * a12 - a02 * a11;
+    n[7] = a02 * a10 - a00 * a12;
+    n[8] = a00 * a11 - a01 * a10;
+
+    // A mirroring transform flips the cofactors, flip them back to keep normals facing out.
+    float determinant = a00 * n[0] + a01 * n[1] + a02 * n[2];
+    if (determinant < 0.0f) {
+      for (int i = 0; i < n.length; i++) {
+        n[i] = -n[i];
+      }
+    }
+  }
+
+  private static int getIndex(Buffer indices, int position) {
+    if (indices instanceof ShortBuffer) {
+      return ((ShortBuffer) indices).get(position) & 0xFFFF;
+    }
+    return ((IntBuffer) indices).get(position);
+  }
+
+  private static RenderableDefinition getDefinition(Entry entry) {
+    return Preconditions.checkNotNull(entry.renderable.getDefinition());
+  }
+}
@@ -15,6 +15,8 @@ import com.google.ar.sceneform.utilities.AndroidPreconditions;
 import com.google.ar.sceneform.utilities.LoadHelper;
 import com.google.ar.sceneform.utilities.Preconditions;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 
@@ -56,13 +58,23 @@ public class Texture {
     textureData.retain();
     ResourceManager.getInstance()
             .getTextureCleanupRegistry()
-            .register(this, new CleanupCallback(textureData));
+            .register(this, new CleanupCallback(textureData), textureData);
+  }
+
+  /** Returns a texture that shares the data of this one, released when both are collected. */
+  Texture makeCopy() {
+    return new Texture(Preconditions.checkNotNull(textureData));
   }
 
   Sampler getSampler() {
     return Preconditions.checkNotNull(textureData).getSampler();
   }
 
+  /** Returns an estimate of the memory held by the texture and its mipmaps, in bytes. */
+  long getSizeInBytes() {
+    return textureData == null ? 0 : textureData.getSizeInBytes();
+  }
+
   /**
    * Get engine data required to use the texture.
    *
@@ -93,6 +105,8 @@ public class Texture {
   public static final class Builder {
     /** The {@link Texture} will be constructed from the contents of this callable */
     @Nullable private Callable<InputStream> inputStreamCreator = null;
+    /** Identifies the source of the inputStreamCreator, if it was created from one. */
+    @Nullable private Uri sourceUri = null;
 
     @Nullable private Bitmap bitmap = null;
     @Nullable private TextureInternalData textureInternalData = null;
@@ -105,6 +119,9 @@ public class Texture {
 
     private Sampler sampler = Sampler.builder().build();
 
+    /** Schedules the decoding of the {@link Texture} */
+    @Nullable private LoadRequest loadRequest = null;
+
     private static final int MAX_BITMAP_SIZE = 4096;
 
     /** Constructor for asynchronous building. The sourceBuffer will be read later. */
@@ -124,6 +141,7 @@ public class Texture {
 
       registryId = sourceUri;
       setSource(LoadHelper.fromUri(context, sourceUri));
+      this.sourceUri = sourceUri;
       return this;
     }
 
@@ -137,6 +155,7 @@ public class Texture {
       Preconditions.checkNotNull(inputStreamCreator, "Parameter \"inputStreamCreator\" was null.");
 
       this.inputStreamCreator = inputStreamCreator;
+      sourceUri = null;
       bitmap = null;
       return this;
     }
@@ -152,6 +171,7 @@ public class Texture {
     public Builder setSource(Context context, int resource) {
       setSource(LoadHelper.fromResource(context, resource));
       registryId = context.getResources().getResourceName(resource);
+      sourceUri = LoadHelper.resourceToUri(context, resource);
       return this;
     }
 
@@ -198,6 +218,7 @@ public class Texture {
       // TODO: don't overwrite calls to setRegistryId
       registryId = null;
       inputStreamCreator = null;
+      sourceUri = null;
       return this;
     }
 
@@ -259,6 +280,23 @@ public class Texture {
       return this;
     }
 
+    /**
+     * Schedules the decoding of a {@link Texture} loaded via an {@link InputStream} with the
+     * priority of a {@link LoadRequest}, which can also change the priority or cancel the load
+     * later.
+     *
+     * <p>A load with a request isn't shared with concurrent loads of the same source, so that the
+     * request only affects this load.
+     *
+     * @param loadRequest Controls the load, or null for {@link LoadRequest.Priority#VISIBLE}
+     *     priority.
+     * @return {@link Builder} for chaining setup calls.
+     */
+    public Builder setLoadRequest(@Nullable LoadRequest loadRequest) {
+      this.loadRequest = loadRequest;
+      return this;
+    }
+
     /**
      * Creates a new {@link Texture} based on the parameters set previously
      *
@@ -280,27 +318,48 @@ public class Texture {
         throw new IllegalStateException("Builder must not set both a bitmap and filament texture");
       }
 
+      // For static-analysis check.
+      Callable<InputStream> inputStreamCreator = this.inputStreamCreator;
+      Uri sourceUri = this.sourceUri;
       CompletableFuture<Texture> result;
       if (this.textureInternalData != null) {
         result = CompletableFuture.completedFuture(new Texture(this.textureInternalData));
+      } else if (inputStreamCreator != null && sourceUri != null && loadRequest == null) {
+        // Concurrent loads of the same source with the same options share one load, even without
+        // a registry id. The options are part of the texture data, so they are part of the key.
+        List<Object> sourceKey =
+                Arrays.asList(
+                        LoadHelper.normalizeUri(sourceUri),
+                        usage,
+                        inPremultiplied,
+                        sampler.getMinFilter(),
+                        sampler.getMagFilter(),
+                        sampler.getWrapModeS(),
+                        sampler.getWrapModeT(),
+                        sampler.getWrapModeR());
+        ResourceRegistry<Texture> registry = ResourceManager.getInstance().getTextureRegistry();
+        result =
+                registry
+                        .coalesceLoad(
+                                sourceKey,
+                                () ->
+                                        makeTexture(
+                                                makeBitmap(
+                                                        inputStreamCreator,
+                                                        inPremultiplied,
+                                                        null)))
+                        .thenApply(Texture::makeCopy);
       } else {
         CompletableFuture<Bitmap> bitmapFuture;
         if (inputStreamCreator != null) {
-          bitmapFuture = makeBitmap(inputStreamCreator, inPremultiplied);
+          bitmapFuture = makeBitmap(inputStreamCreator, inPremultiplied, loadRequest);
         } else if (bitmap != null) {
           bitmapFuture = CompletableFuture.completedFuture(bitmap);
         } else {
           throw new IllegalStateException("Texture must have a source.");
         }
 
-        result =
-                bitmapFuture.thenApplyAsync(
-                        loadedBitmap -> {
-                          TextureInternalData textureData =
-                                  makeTextureData(loadedBitmap, sampler, usage, MIP_LEVELS_TO_GENERATE);
-                          return new Texture(textureData);
-                        },
-                        ThreadPools.getMainExecutor());
+        result = makeTexture(bitmapFuture);
       }
 
       if (registryId != null) {
@@ -313,9 +372,21 @@ public class Texture {
       return result;
     }
 
+    private CompletableFuture<Texture> makeTexture(CompletableFuture<Bitmap> bitmapFuture) {
+      return bitmapFuture.thenApplyAsync(
+              loadedBitmap -> {
+                TextureInternalData textureData =
+                        makeTextureData(loadedBitmap, sampler, usage, MIP_LEVELS_TO_GENERATE);
+                return new Texture(textureData);
+              },
+              ThreadPools.getLoadCompletionExecutor());
+    }
+
     private static CompletableFuture<Bitmap> makeBitmap(
-            Callable<InputStream> inputStreamCreator, boolean inPremultiplied) {
-      return CompletableFuture.supplyAsync(
+            Callable<InputStream> inputStreamCreator,
+            boolean inPremultiplied,
+            @Nullable LoadRequest loadRequest) {
+      return ThreadPools.supplyLoadAsync(
               () -> {
                 // Read the texture file.
                 final BitmapFactory.Options options = new BitmapFactory.Options();
@@ -341,7 +412,7 @@ public class Texture {
 
                 return bitmap;
               },
-              ThreadPools.getThreadPoolExecutor());
+              loadRequest);
     }
 
     private static TextureInternalData makeTextureData(
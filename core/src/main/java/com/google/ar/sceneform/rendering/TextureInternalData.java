@@ -12,7 +12,7 @@ import com.google.ar.sceneform.utilities.AndroidPreconditions;
  * @hide Only for use for private features such as occlusion.
  */
 @UsedByNative("material_java_wrappers.h")
-public class TextureInternalData extends SharedReference {
+public class TextureInternalData extends SharedReference implements SizedResource {
   @Nullable private com.google.android.filament.Texture filamentTexture;
 
   private final Texture.Sampler sampler;
@@ -36,6 +36,80 @@ public class TextureInternalData extends SharedReference {
     return sampler;
   }
 
+  @Override
+  public ResourceMemorySnapshot.ResourceType getResourceType() {
+    return ResourceMemorySnapshot.ResourceType.TEXTURE;
+  }
+
+  /** Returns an estimate of the memory held by the Filament texture and its mipmaps, in bytes. */
+  @Override
+  public long getSizeInBytes() {
+    com.google.android.filament.Texture filamentTexture = this.filamentTexture;
+    return filamentTexture == null ? 0 : getSizeInBytes(filamentTexture);
+  }
+
+  @Override
+  public String getResourceDescription() {
+    com.google.android.filament.Texture filamentTexture = this.filamentTexture;
+    return filamentTexture == null ? "Destroyed texture" : getDescription(filamentTexture);
+  }
+
+  /** Returns an estimate of the memory held by a Filament texture and its mipmaps, in bytes. */
+  static long getSizeInBytes(com.google.android.filament.Texture filamentTexture) {
+    long pixelCount = 0;
+    for (int level = 0; level < filamentTexture.getLevels(); level++) {
+      pixelCount += (long) filamentTexture.getWidth(level) * filamentTexture.getHeight(level);
+    }
+    com.google.android.filament.Texture.Sampler target = filamentTexture.getTarget();
+    if (target == com.google.android.filament.Texture.Sampler.SAMPLER_CUBEMAP) {
+      pixelCount *= 6;
+    }
+    return pixelCount * getBitsPerPixel(filamentTexture.getFormat()) / 8;
+  }
+
+  static String getDescription(com.google.android.filament.Texture filamentTexture) {
+    return "Texture "
+        + filamentTexture.getWidth(0)
+        + "x"
+        + filamentTexture.getHeight(0)
+        + " "
+        + filamentTexture.getFormat()
+        + ", "
+        + filamentTexture.getLevels()
+        + " levels";
+  }
+
+  private static int getBitsPerPixel(com.google.android.filament.Texture.InternalFormat format) {
+    switch (format) {
+      case R8:
+        return 8;
+      case RG8:
+      case RGB565:
+      case R16F:
+      case DEPTH16:
+        return 16;
+      case RGB8:
+      case SRGB8:
+        return 24;
+      case RGB16F:
+        return 48;
+      case RG32F:
+      case RGBA16F:
+        return 64;
+      case RGB32F:
+        return 96;
+      case RGBA32F:
+        return 128;
+      case ETC2_RGB8:
+        return 4;
+      case ETC2_EAC_RGBA8:
+        return 8;
+      default:
+        // RGBA8, SRGB8_A8 and the other 32 bit formats, such as the depth formats.
+        return 32;
+    }
+  }
+
   @Override
   protected void onDispose() {
     AndroidPreconditions.checkUiThread();
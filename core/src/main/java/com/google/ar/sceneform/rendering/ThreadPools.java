@@ -1,18 +1,25 @@
 package com.google.ar.sceneform.rendering;
 
-import android.os.AsyncTask;
 import android.os.Handler;
 import android.os.Looper;
+import androidx.annotation.Nullable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * Provides access to default {@link Executor}s to be used
  *
  * @hide
  */
+@SuppressWarnings("AndroidApiChecker") // CompletableFuture
 public class ThreadPools {
   private static Executor mainExecutor;
+  private static boolean isMainExecutorReplaced;
   private static Executor threadPoolExecutor;
+  private static LoadScheduler loadScheduler;
+  private static MainThreadWorkQueue mainThreadWorkQueue;
 
   private ThreadPools() {}
 
@@ -35,12 +42,36 @@ public class ThreadPools {
   /** @param executor provides access to the main thread. */
   public static void setMainExecutor(Executor executor) {
     mainExecutor = executor;
+    isMainExecutorReplaced = executor != null;
   }
 
-  /** Default background {@link Executor} for async operations including file reading. */
+  /** {@link MainThreadWorkQueue} drained by the SceneView within a time budget for each frame. */
+  public static synchronized MainThreadWorkQueue getMainThreadWorkQueue() {
+    if (mainThreadWorkQueue == null) {
+      mainThreadWorkQueue = new MainThreadWorkQueue();
+    }
+    return mainThreadWorkQueue;
+  }
+
+  /**
+   * {@link Executor} for the main thread stages of loads, which create Filament resources. Runs them
+   * within the frame budget of the {@link MainThreadWorkQueue}, unless the main executor was
+   * replaced, in which case they run on that executor.
+   */
+  public static Executor getLoadCompletionExecutor() {
+    if (isMainExecutorReplaced) {
+      return getMainExecutor();
+    }
+    return getMainThreadWorkQueue();
+  }
+
+  /**
+   * Default background {@link Executor} for async operations including file reading. Unless it is
+   * replaced, this is the {@link LoadScheduler}.
+   */
   public static Executor getThreadPoolExecutor() {
     if (threadPoolExecutor == null) {
-      return AsyncTask.THREAD_POOL_EXECUTOR;
+      return getLoadScheduler();
     }
     return threadPoolExecutor;
   }
@@ -53,4 +84,39 @@ public class ThreadPools {
   public static void setThreadPoolExecutor(Executor executor) {
     threadPoolExecutor = executor;
   }
+
+  /** {@link LoadScheduler} for the background work of renderable, texture and material loads. */
+  public static synchronized LoadScheduler getLoadScheduler() {
+    if (loadScheduler == null) {
+      loadScheduler = new LoadScheduler(LoadScheduler.getDefaultParallelism());
+    }
+    return loadScheduler;
+  }
+
+  /** @param scheduler runs the background work of loads, for example with another parallelism. */
+  public static synchronized void setLoadScheduler(LoadScheduler scheduler) {
+    loadScheduler = scheduler;
+  }
+
+  /**
+   * Runs the background work of a load. The work is scheduled by the {@link LoadScheduler} with the
+   * priority of the request, unless the background {@link Executor} was replaced, in which case it
+   * runs on that executor and the request can only cancel it.
+   */
+  static <T> CompletableFuture<T> supplyLoadAsync(
+      Supplier<T> supplier, @Nullable LoadRequest request) {
+    Executor executor = threadPoolExecutor;
+    if (executor == null) {
+      return getLoadScheduler().supplyAsync(supplier, request);
+    }
+
+    return CompletableFuture.supplyAsync(
+        () -> {
+          if (request != null && request.isCancelled()) {
+            throw new CancellationException("The load was cancelled.");
+          }
+          return supplier.get();
+        },
+        executor);
+  }
 }
@@ -20,6 +20,7 @@ import com.google.ar.sceneform.utilities.Preconditions;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.OptionalInt;
 import java.util.concurrent.CompletableFuture;
 
@@ -280,6 +281,9 @@ public class ViewRenderable extends Renderable {
   }
 
   private void updateSuggestedCollisionShape() {
+    // The size and alignment of the view are part of the final model matrix.
+    markFinalModelMatrixChanged();
+
     if (getId().isEmpty()) {
       return;
     }
@@ -428,6 +432,15 @@ public class ViewRenderable extends Renderable {
       return this;
     }
 
+    @Override
+    @SuppressWarnings("AndroidApiChecker") // java.util.OptionalInt
+    List<Object> getLoadOptions() {
+      List<Object> loadOptions = super.getLoadOptions();
+      loadOptions.addAll(
+          Arrays.asList(view, resourceId, viewSizer, verticalAlignment, horizontalAlignment));
+      return loadOptions;
+    }
+
     @Override
     @SuppressWarnings("AndroidApiChecker") // java.util.concurrent.CompletableFuture
     public CompletableFuture<ViewRenderable> build() {
@@ -3,32 +3,91 @@ package com.google.ar.sceneform.resources;
 import androidx.annotation.GuardedBy;
 import androidx.annotation.Nullable;
 import com.google.ar.sceneform.utilities.Preconditions;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
 /**
  * ResourceRegistry keeps track of resources that have been loaded and are in the process of being
- * loaded. The registry maintains only weak references and doesn't prevent resources from being
- * collected.
+ * loaded. The registry maintains weak references and doesn't prevent resources from being
+ * collected, unless it is given a budget of resident bytes. Then it also keeps the most recently
+ * used resources, up to the budget in total, so that a resource that is shown again soon is reused
+ * instead of loaded again.
+ *
+ * <p>Loads are also tracked by their source while they are in progress, so that concurrent loads
+ * of the same source share one load even when they don't share an id.
  *
  * @hide
  */
-// TODO: Automatically prune dead WeakReferences from ResourceRegistry when the
-// ResourceRegistry becomes large.
 public class ResourceRegistry<T> implements ResourceHolder {
   private static final String TAG = ResourceRegistry.class.getSimpleName();
 
   private final Object lock = new Object();
 
+  @Nullable private final ToLongFunction<? super T> sizeEstimator;
+
+  @GuardedBy("lock")
+  private final Map<Object, KeyedWeakReference<T>> registry = new HashMap<>();
+
+  // Receives the references of collected resources, so that their entries are removed.
+  private final ReferenceQueue<T> referenceQueue = new ReferenceQueue<>();
+
+  // The resources kept within the budget, in least recently used order.
+  @GuardedBy("lock")
+  private final LinkedHashMap<Object, ResidentResource<T>> residentResources =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  @GuardedBy("lock")
+  private long maxResidentBytes;
+
   @GuardedBy("lock")
-  private final Map<Object, WeakReference<T>> registry = new HashMap<>();
+  private long residentBytes;
+
+  @GuardedBy("lock")
+  private long hitCount;
+
+  @GuardedBy("lock")
+  private long missCount;
+
+  @GuardedBy("lock")
+  private long evictionCount;
 
   @GuardedBy("lock")
   private final Map<Object, CompletableFuture<T>> futureRegistry = new HashMap<>();
 
+  @GuardedBy("lock")
+  private final Map<Object, CompletableFuture<T>> inFlightLoads = new HashMap<>();
+
+  @GuardedBy("lock")
+  private long startedLoadCount;
+
+  @GuardedBy("lock")
+  private long coalescedLoadCount;
+
+  /** Creates a registry that only keeps weak references to its resources. */
+  public ResourceRegistry() {
+    this(null);
+  }
+
+  /**
+   * Creates a registry that can keep recently used resources, up to a budget set with {@link
+   * #setMaxResidentBytes(long)}.
+   *
+   * @param sizeEstimator estimates the memory held by a resource, in bytes
+   */
+  public ResourceRegistry(@Nullable ToLongFunction<? super T> sizeEstimator) {
+    this.sizeEstimator = sizeEstimator;
+  }
+
   /**
    * Returns a future to a resource previously registered with the same id. If resource has not yet
    * been registered or was garbage collected, returns null. The future may be to a resource that
@@ -39,11 +98,16 @@ public class ResourceRegistry<T> implements ResourceHolder {
     Preconditions.checkNotNull(id, "Parameter 'id' was null.");
 
     synchronized (lock) {
+      pruneCollectedReferences();
+
       // If the resource has already finished loading, return a completed future to that resource.
       WeakReference<T> reference = registry.get(id);
       if (reference != null) {
         T resource = reference.get();
         if (resource != null) {
+          hitCount++;
+          // Mark the resource as used.
+          residentResources.get(id);
           return CompletableFuture.completedFuture(resource);
         } else {
           registry.remove(id);
@@ -52,7 +116,13 @@ public class ResourceRegistry<T> implements ResourceHolder {
 
       // If the resource is in the process of loading, return the future directly.
       // If the id is not registered, this will be null.
-      return futureRegistry.get(id);
+      CompletableFuture<T> futureResource = futureRegistry.get(id);
+      if (futureResource != null) {
+        hitCount++;
+      } else {
+        missCount++;
+      }
+      return futureResource;
     }
   }
 
@@ -77,7 +147,7 @@ public class ResourceRegistry<T> implements ResourceHolder {
       T resource = Preconditions.checkNotNull(futureResource.getNow(null));
 
       synchronized (lock) {
-        registry.put(id, new WeakReference<>(resource));
+        putResource(id, resource);
 
         // If the id was previously registered in the futureRegistry, make sure it is removed.
         futureRegistry.remove(id);
@@ -91,6 +161,7 @@ public class ResourceRegistry<T> implements ResourceHolder {
 
       // If the id was previously registered in the completed registry, make sure it is removed.
       registry.remove(id);
+      removeResidentResource(id);
     }
 
     @SuppressWarnings({"FutureReturnValueIgnored", "unused"})
@@ -106,7 +177,7 @@ public class ResourceRegistry<T> implements ResourceHolder {
                     futureRegistry.remove(id);
                     if (throwable == null) {
                       // Only add a reference if there was no exception.
-                      registry.put(id, new WeakReference<>(result));
+                      putResource(id, result);
                     }
                   }
                 }
@@ -115,6 +186,209 @@ public class ResourceRegistry<T> implements ResourceHolder {
             });
   }
 
+  /** Calls the action with each loaded resource that hasn't been collected. */
+  public void forEachResource(Consumer<? super T> action) {
+    ArrayList<T> resources = new ArrayList<>();
+    synchronized (lock) {
+      pruneCollectedReferences();
+      for (WeakReference<T> reference : registry.values()) {
+        T resource = reference.get();
+        if (resource != null) {
+          resources.add(resource);
+        }
+      }
+    }
+
+    // The action runs outside of the lock, so that it may use the registry.
+    for (int i = 0; i < resources.size(); i++) {
+      action.accept(resources.get(i));
+    }
+  }
+
+  /** Returns the budget for the total size of the resources kept by the registry. */
+  public long getMaxResidentBytes() {
+    synchronized (lock) {
+      return maxResidentBytes;
+    }
+  }
+
+  /**
+   * Keeps the most recently used resources, up to the given total size, so that they aren't
+   * collected when they are no longer used. Has no effect if the registry has no size estimator.
+   *
+   * @param maxResidentBytes the budget in bytes, or 0 to only keep weak references
+   */
+  public void setMaxResidentBytes(long maxResidentBytes) {
+    if (maxResidentBytes < 0) {
+      throw new IllegalArgumentException("Budget must not be negative.");
+    }
+
+    synchronized (lock) {
+      this.maxResidentBytes = maxResidentBytes;
+      trimResidentResources();
+    }
+  }
+
+  /** Returns the estimated total size of the resources kept by the registry. */
+  public long getResidentBytes() {
+    synchronized (lock) {
+      return residentBytes;
+    }
+  }
+
+  /** Returns the number of calls to {@link #get(Object)} that found a resource. */
+  public long getHitCount() {
+    synchronized (lock) {
+      return hitCount;
+    }
+  }
+
+  /** Returns the number of calls to {@link #get(Object)} that found no resource. */
+  public long getMissCount() {
+    synchronized (lock) {
+      return missCount;
+    }
+  }
+
+  /** Returns the number of resources that were no longer kept to stay within the budget. */
+  public long getEvictionCount() {
+    synchronized (lock) {
+      return evictionCount;
+    }
+  }
+
+  @GuardedBy("lock")
+  private void putResource(Object id, T resource) {
+    registry.put(id, new KeyedWeakReference<>(id, resource, referenceQueue));
+    removeResidentResource(id);
+
+    ToLongFunction<? super T> sizeEstimator = this.sizeEstimator;
+    if (sizeEstimator == null || maxResidentBytes == 0) {
+      return;
+    }
+
+    long sizeInBytes = sizeEstimator.applyAsLong(resource);
+    // A resource larger than the budget would only evict every other resource.
+    if (sizeInBytes > maxResidentBytes) {
+      return;
+    }
+
+    residentResources.put(id, new ResidentResource<>(resource, sizeInBytes));
+    residentBytes += sizeInBytes;
+    trimResidentResources();
+  }
+
+  @GuardedBy("lock")
+  private void removeResidentResource(Object id) {
+    ResidentResource<T> residentResource = residentResources.remove(id);
+    if (residentResource != null) {
+      residentBytes -= residentResource.sizeInBytes;
+    }
+  }
+
+  @GuardedBy("lock")
+  private void trimResidentResources() {
+    Iterator<ResidentResource<T>> iterator = residentResources.values().iterator();
+    while (residentBytes > maxResidentBytes && iterator.hasNext()) {
+      residentBytes -= iterator.next().sizeInBytes;
+      iterator.remove();
+      evictionCount++;
+    }
+  }
+
+  /** Removes the entries of resources that have been collected. */
+  @GuardedBy("lock")
+  private void pruneCollectedReferences() {
+    Reference<? extends T> reference;
+    while ((reference = referenceQueue.poll()) != null) {
+      Object id = ((KeyedWeakReference<?>) reference).id;
+      // The id may have been registered again since.
+      if (registry.get(id) == reference) {
+        registry.remove(id);
+      }
+    }
+  }
+
+  /**
+   * Returns the load of a source that is already in progress, or starts one with the loader if
+   * there is none. Every caller of a source receives the same future, so callers that modify the
+   * resource must make a copy of it.
+   *
+   * <p>The source is forgotten once its load completes. Use {@link #register(Object,
+   * CompletableFuture)} to reuse loaded resources.
+   *
+   * @param sourceKey identifies the source, for example its normalized Uri
+   * @param loader starts the load, called at most once per load of the source
+   */
+  public CompletableFuture<T> coalesceLoad(
+      Object sourceKey, Supplier<CompletableFuture<T>> loader) {
+    Preconditions.checkNotNull(sourceKey, "Parameter 'sourceKey' was null.");
+    Preconditions.checkNotNull(loader, "Parameter 'loader' was null.");
+
+    CompletableFuture<T> sharedLoad = new CompletableFuture<>();
+    synchronized (lock) {
+      CompletableFuture<T> inFlightLoad = inFlightLoads.get(sourceKey);
+      if (inFlightLoad != null) {
+        coalescedLoadCount++;
+        return inFlightLoad;
+      }
+
+      startedLoadCount++;
+      inFlightLoads.put(sourceKey, sharedLoad);
+    }
+
+    // The loader runs outside of the lock, since it may complete the load immediately.
+    CompletableFuture<T> load;
+    try {
+      load = Preconditions.checkNotNull(loader.get());
+    } catch (RuntimeException | Error ex) {
+      removeInFlightLoad(sourceKey, sharedLoad);
+      sharedLoad.completeExceptionally(ex);
+      throw ex;
+    }
+
+    @SuppressWarnings({"FutureReturnValueIgnored", "unused"})
+    CompletableFuture<Void> completeFuture =
+        load.handle(
+            (result, throwable) -> {
+              // Forget the source first, so that a load started by a callback isn't joined to
+              // this one.
+              removeInFlightLoad(sourceKey, sharedLoad);
+              if (throwable == null) {
+                sharedLoad.complete(result);
+              } else {
+                sharedLoad.completeExceptionally(throwable);
+              }
+              return null;
+            });
+    return sharedLoad;
+  }
+
+  /** Returns the number of loads started by {@link #coalesceLoad(Object, Supplier)}. */
+  public long getStartedLoadCount() {
+    synchronized (lock) {
+      return startedLoadCount;
+    }
+  }
+
+  /**
+   * Returns the number of calls to {@link #coalesceLoad(Object, Supplier)} that joined a load
+   * already in progress instead of starting one.
+   */
+  public long getCoalescedLoadCount() {
+    synchronized (lock) {
+      return coalescedLoadCount;
+    }
+  }
+
+  private void removeInFlightLoad(Object sourceKey, CompletableFuture<T> sharedLoad) {
+    synchronized (lock) {
+      if (inFlightLoads.get(sourceKey) == sharedLoad) {
+        inFlightLoads.remove(sourceKey);
+      }
+    }
+  }
+
   /**
    * Removes all cache entries. Cancels any in progress futures. cancel does not interrupt work in
    * progress. It only prevents the final stage from starting.
@@ -134,14 +408,49 @@ public class ResourceRegistry<T> implements ResourceHolder {
       }
 
       registry.clear();
+      residentResources.clear();
+      residentBytes = 0;
+
+      for (CompletableFuture<T> inFlightLoad : inFlightLoads.values()) {
+        if (!inFlightLoad.isDone()) {
+          inFlightLoad.cancel(true);
+        }
+      }
+      inFlightLoads.clear();
     }
   }
 
   @Override
   public long reclaimReleasedResources() {
+    synchronized (lock) {
+      pruneCollectedReferences();
+    }
+
     // Resources held in registry are also held by other ResourceHolders.  Return zero for this one
     // and do
     // counting in the other holders.
     return 0;
   }
+
+  /** A weak reference that knows the id it is registered by. */
+  private static final class KeyedWeakReference<T> extends WeakReference<T> {
+    private final Object id;
+
+    KeyedWeakReference(Object id, T resource, ReferenceQueue<? super T> referenceQueue) {
+      super(resource, referenceQueue);
+      this.id = id;
+    }
+  }
+
+  /** A resource kept by the registry, and its estimated size. */
+  private static final class ResidentResource<T> {
+    // Keeps the resource from being collected.
+    private final T resource;
+    private final long sizeInBytes;
+
+    ResidentResource(T resource, long sizeInBytes) {
+      this.resource = resource;
+      this.sizeInBytes = sizeInBytes;
+    }
+  }
 }
@@ -0,0 +1,398 @@
+package com.google.ar.sceneform.utilities;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+import androidx.annotation.Nullable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps downloaded model files on disk so that later loads, including loads after the app is
+ * restarted, read them from storage instead of downloading them again. Cached files are read
+ * through a {@link MappableInputStream}, so large models are mapped into memory rather than copied.
+ *
+ * <p>Files are stored once for each content hash and loader version, so the same model served
+ * from several URIs is stored once, and a new loader version never reads files cached by an older
+ * one. Each source URI refers to the content it last downloaded, and is downloaded again once the
+ * reference is older than the maximum age. The least recently used files are evicted when the
+ * cache grows beyond its size.
+ *
+ * @hide
+ */
+public class AssetCache {
+  private static final String TAG = AssetCache.class.getSimpleName();
+
+  // Increase when the way loaders interpret cached files changes, to stop reading older files.
+  private static final int LOADER_VERSION = 1;
+  private static final String DIRECTORY_NAME = "sceneform_assets";
+  private static final String CONTENT_EXTENSION = ".v" + LOADER_VERSION + ".bin";
+  private static final String REFERENCE_EXTENSION = ".ref";
+  private static final String TEMPORARY_EXTENSION = ".tmp";
+
+  public static final long DEFAULT_MAX_SIZE_BYTES = 256L << 20;
+  public static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(14);
+
+  @Nullable private static AssetCache instance;
+
+  private final File directory;
+  private long maxSizeBytes;
+  private long maxAgeMillis = DEFAULT_MAX_AGE_MILLIS;
+
+  // The size of each content file, in least recently used order. Loaded on first use.
+  @Nullable private LinkedHashMap<String, Long> contentSizes;
+  private long sizeBytes;
+
+  /** Returns the cache in the cache directory of the app, creating it if needed. */
+  public static synchronized AssetCache getInstance(Context context) {
+    if (instance == null) {
+      instance =
+          new AssetCache(new File(context.getCacheDir(), DIRECTORY_NAME), DEFAULT_MAX_SIZE_BYTES);
+    }
+    return instance;
+  }
+
+  /**
+   * @param directory the directory of the cached files, which is only used by this cache
+   * @param maxSizeBytes the total size of the cached files above which files are evicted
+   */
+  public AssetCache(File directory, long maxSizeBytes) {
+    this.directory = Preconditions.checkNotNull(directory, "Parameter \"directory\" was null.");
+    this.maxSizeBytes = maxSizeBytes;
+  }
+
+  public synchronized long getMaxSizeBytes() {
+    return maxSizeBytes;
+  }
+
+  /** Changes the size of the cache, evicting the least recently used files if it shrinks. */
+  public synchronized void setMaxSizeBytes(long maxSizeBytes) {
+    this.maxSizeBytes = maxSizeBytes;
+    trimToSize();
+  }
+
+  /** Sets how long the content downloaded from a URI is used before it is downloaded again. */
+  public synchronized void setMaxAgeMillis(long maxAgeMillis) {
+    this.maxAgeMillis = maxAgeMillis;
+  }
+
+  /** Returns the total size of the cached files. */
+  public synchronized long getSizeBytes() {
+    loadContentSizes();
+    return sizeBytes;
+  }
+
+  /** Deletes every cached file. */
+  public synchronized void clear() {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        deleteFile(file);
+      }
+    }
+    contentSizes = null;
+    sizeBytes = 0;
+  }
+
+  /**
+   * Returns a source that reads the cached content of a URI if there is any, and otherwise reads
+   * the given source and caches its content once it has been read to the end.
+   *
+   * @param loaderName the loader that interprets the content, such as "sfb" or "gltf"
+   * @param sourceUri the URI the content is downloaded from
+   * @param inputStreamCreator downloads the content
+   */
+  public Callable<InputStream> cacheSource(
+      String loaderName, Uri sourceUri, Callable<InputStream> inputStreamCreator) {
+    String referenceName = hash(LOADER_VERSION + ":" + loaderName + ":" + sourceUri);
+    return () -> {
+      @Nullable File contentFile = getCachedContent(referenceName);
+      if (contentFile != null) {
+        return new MappableInputStream(new FileInputStream(contentFile), 0, contentFile.length());
+      }
+
+      InputStream inputStream = inputStreamCreator.call();
+      try {
+        return new CachingInputStream(inputStream, referenceName);
+      } catch (IOException | RuntimeException ex) {
+        // The content can still be loaded, it just isn't cached.
+        Log.w(TAG, "Unable to cache " + sourceUri + " - " + ex.getMessage());
+        return inputStream;
+      }
+    };
+  }
+
+  @Nullable
+  private synchronized File getCachedContent(String referenceName) {
+    File referenceFile = new File(directory, referenceName + REFERENCE_EXTENSION);
+    if (!referenceFile.exists()) {
+      return null;
+    }
+
+    String contentName = readReference(referenceFile);
+    loadContentSizes();
+    File contentFile = new File(directory, contentName + CONTENT_EXTENSION);
+    if (contentName == null
+        || System.currentTimeMillis() - referenceFile.lastModified() > maxAgeMillis
+        || contentSizes.get(contentName) == null
+        || !contentFile.exists()) {
+      deleteFile(referenceFile);
+      return null;
+    }
+
+    // Touch the content so that it is evicted last, also after a restart.
+    contentSizes.get(contentName);
+    contentFile.setLastModified(System.currentTimeMillis());
+    return contentFile;
+  }
+
+  /** Moves fully read content into the cache and points the reference of its URI to it. */
+  private synchronized void commit(String referenceName, File temporaryFile, String contentName) {
+    loadContentSizes();
+    File contentFile = new File(directory, contentName + CONTENT_EXTENSION);
+    long size = temporaryFile.length();
+    if (size > maxSizeBytes) {
+      deleteFile(temporaryFile);
+      return;
+    }
+
+    if (contentSizes.containsKey(contentName) && contentFile.exists()) {
+      // The same content was already downloaded, possibly from another URI.
+      deleteFile(temporaryFile);
+      contentSizes.get(contentName);
+      contentFile.setLastModified(System.currentTimeMillis());
+    } else if (temporaryFile.renameTo(contentFile)) {
+      contentSizes.put(contentName, size);
+      sizeBytes += size;
+    } else {
+      deleteFile(temporaryFile);
+      return;
+    }
+
+    writeReference(new File(directory, referenceName + REFERENCE_EXTENSION), contentName);
+    trimToSize();
+  }
+
+  private void trimToSize() {
+    loadContentSizes();
+    Iterator<Map.Entry<String, Long>> iterator = contentSizes.entrySet().iterator();
+    while (sizeBytes > maxSizeBytes && iterator.hasNext()) {
+      Map.Entry<String, Long> entry = iterator.next();
+      // References to evicted content are removed when they are next read.
+      deleteFile(new File(directory, entry.getKey() + CONTENT_EXTENSION));
+      sizeBytes -= entry.getValue();
+      iterator.remove();
+    }
+  }
+
+  /** Lists the cached content, ordered by when it was last used, and removes unfinished files. */
+  private void loadContentSizes() {
+    if (contentSizes != null) {
+      return;
+    }
+
+    contentSizes = new LinkedHashMap<>(16, 0.75f, true);
+    sizeBytes = 0;
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      Log.w(TAG, "Unable to create the asset cache directory " + directory);
+      return;
+    }
+
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+
+    ArrayList<File> contentFiles = new ArrayList<>();
+    for (File file : files) {
+      String name = file.getName();
+      if (name.endsWith(CONTENT_EXTENSION)) {
+        contentFiles.add(file);
+      } else if (!name.endsWith(REFERENCE_EXTENSION)) {
+        // Content of other loader versions and files left by interrupted downloads.
+        deleteFile(file);
+      }
+    }
+
+    File[] sortedFiles = contentFiles.toArray(new File[0]);
+    Arrays.sort(sortedFiles, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+    for (File file : sortedFiles) {
+      String name = file.getName();
+      long size = file.length();
+      contentSizes.put(name.substring(0, name.length() - CONTENT_EXTENSION.length()), size);
+      sizeBytes += size;
+    }
+    trimToSize();
+  }
+
+  @Nullable
+  private static String readReference(File referenceFile) {
+    try (InputStream inputStream = new FileInputStream(referenceFile)) {
+      return new String(
+          SceneformBufferUtils.inputStreamToByteArray(inputStream), StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
+  private static void writeReference(File referenceFile, String contentName) {
+    try (OutputStream outputStream = new FileOutputStream(referenceFile)) {
+      outputStream.write(contentName.getBytes(StandardCharsets.UTF_8));
+    } catch (IOException ex) {
+      Log.w(TAG, "Unable to write asset cache reference - " + ex.getMessage());
+      deleteFile(referenceFile);
+    }
+  }
+
+  private static void deleteFile(File file) {
+    if (file.exists() && !file.delete()) {
+      Log.w(TAG, "Unable to delete " + file);
+    }
+  }
+
+  private static String hash(String value) {
+    MessageDigest digest = newDigest();
+    return toHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not available.", ex);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder builder = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+      builder.append(Character.forDigit(b & 0xF, 16));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Copies the content of a download to a temporary file while it is read, and adds the file to
+   * the cache if the download is read to the end.
+   */
+  private class CachingInputStream extends SizedInputStream {
+    private final String referenceName;
+    private final File temporaryFile;
+    private final OutputStream outputStream;
+    private final MessageDigest digest = newDigest();
+    private boolean isComplete;
+    private boolean isFailed;
+    private boolean isClosed;
+
+    CachingInputStream(InputStream inputStream, String referenceName) throws IOException {
+      super(
+          inputStream,
+          inputStream instanceof SizedInputStream
+              ? ((SizedInputStream) inputStream).getRemainingLength()
+              : -1);
+      this.referenceName = referenceName;
+      synchronized (AssetCache.this) {
+        loadContentSizes();
+      }
+      temporaryFile = File.createTempFile(referenceName, TEMPORARY_EXTENSION, directory);
+      outputStream = new FileOutputStream(temporaryFile);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int value = super.read();
+      if (value < 0) {
+        isComplete = true;
+      } else {
+        write(new byte[] {(byte) value}, 0, 1);
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+      int count = super.read(bytes, offset, length);
+      if (count < 0) {
+        isComplete = true;
+      } else {
+        write(bytes, offset, count);
+      }
+      return count;
+    }
+
+    @Override
+    public long skip(long count) throws IOException {
+      // Skipped bytes would be missing from the cached content.
+      isFailed = true;
+      return super.skip(count);
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    /** Reads through this stream, so that the content is also cached. */
+    @Override
+    public ReadableByteChannel getChannel() {
+      return Channels.newChannel(this);
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (isClosed) {
+        return;
+      }
+      isClosed = true;
+
+      try {
+        super.close();
+      } finally {
+        try {
+          outputStream.close();
+        } catch (IOException ex) {
+          isFailed = true;
+        }
+
+        // Readers of streams of known length stop at the length without reading the end.
+        boolean isLengthReached = getLength() >= 0 && temporaryFile.length() == getLength();
+        if ((isComplete || isLengthReached) && !isFailed) {
+          commit(referenceName, temporaryFile, toHex(digest.digest()));
+        } else {
+          deleteFile(temporaryFile);
+        }
+      }
+    }
+
+    private void write(byte[] bytes, int offset, int count) {
+      if (isFailed) {
+        return;
+      }
+
+      try {
+        outputStream.write(bytes, offset, count);
+        digest.update(bytes, offset, count);
+      } catch (IOException ex) {
+        // The content is still read, it just isn't cached.
+        isFailed = true;
+      }
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.google.ar.sceneform.utilities;
 
 import android.content.ContentResolver;
 import android.content.Context;
+import android.content.res.AssetFileDescriptor;
 import android.content.res.AssetManager;
 import android.content.res.Resources;
 import android.net.Uri;
@@ -15,6 +16,7 @@ import android.util.Log;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
@@ -22,6 +24,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.channels.FileChannel;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Callable;
@@ -59,6 +62,13 @@ public class LoadHelper {
     return TextUtils.isEmpty(scheme) || Objects.equals(ContentResolver.SCHEME_FILE, scheme);
   }
 
+  /** True if the Uri is downloaded over HTTP or HTTPS. */
+  public static boolean isRemoteUri(Uri sourceUri) {
+    Preconditions.checkNotNull(sourceUri, "Parameter \"sourceUri\" was null.");
+    @Nullable String scheme = sourceUri.getScheme();
+    return "http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme);
+  }
+
   /**
    * Normalizes Uri's based on a reference Uri. This function is for convenience only since the Uri
    * class can do this as well.
@@ -72,6 +82,20 @@ public class LoadHelper {
     }
   }
 
+  /**
+   * Removes "." and ".." segments from the path of a Uri, like {@link #resolveUri(Uri, Uri)} does
+   * for Uris resolved against a parent, so that Uris of the same file are equal.
+   */
+  public static Uri normalizeUri(Uri uri) {
+    Preconditions.checkNotNull(uri, "Parameter \"uri\" was null.");
+    try {
+      return Uri.parse(new URI(uri.toString()).normalize().toString());
+    } catch (URISyntaxException ex) {
+      // Uris that Java can't parse are only equal to themselves.
+      return uri;
+    }
+  }
+
   /**
    * Creates an InputStream from an Android resource ID.
    *
@@ -82,7 +106,14 @@ public class LoadHelper {
 
     String resourceType = context.getResources().getResourceTypeName(resId);
     if (resourceType.equals(RAW_RESOURCE_TYPE) || resourceType.equals(DRAWABLE_RESOURCE_TYPE)) {
-      return () -> context.getResources().openRawResource(resId);
+      return () -> {
+        try {
+          return openMappable(context.getResources().openRawResourceFd(resId));
+        } catch (Resources.NotFoundException | FileNotFoundException ex) {
+          // The resource is compressed, so it can only be streamed.
+          return openAssetStream(context.getResources().openRawResource(resId));
+        }
+      };
     } else {
       throw new IllegalArgumentException(
           "Unknown resource resourceType '"
@@ -206,14 +237,54 @@ public class LoadHelper {
     return () -> {
       if (assetExists(assetManager, scrubbedFilename)) {
         // Open Android Asset if an Asset was found
-        return assetManager.open(scrubbedFilename);
+        try {
+          return openMappable(assetManager.openFd(scrubbedFilename));
+        } catch (FileNotFoundException ex) {
+          // The asset is compressed, so it can only be streamed.
+          return openAssetStream(assetManager.open(scrubbedFilename));
+        }
       } else {
         // Open file from storage or other non asset location.
-        return new FileInputStream(new File(filename));
+        File file = new File(filename);
+        return new MappableInputStream(new FileInputStream(file), 0, file.length());
       }
     };
   }
 
+  /**
+   * Opens an uncompressed asset or resource as a {@link MappableInputStream}, so that it can be
+   * mapped into memory instead of copied.
+   *
+   * @throws FileNotFoundException if the file descriptor is null or its length is unknown.
+   */
+  private static InputStream openMappable(@Nullable AssetFileDescriptor fileDescriptor)
+      throws IOException {
+    if (fileDescriptor == null) {
+      throw new FileNotFoundException("No file descriptor to map.");
+    }
+
+    long length = fileDescriptor.getLength();
+    if (length < 0) {
+      fileDescriptor.close();
+      throw new FileNotFoundException("The length of the file to map is unknown.");
+    }
+
+    // The stream owns the file descriptor. The data is read and mapped at absolute offsets
+    // through a channel of the descriptor, since the channel of the stream may already apply the
+    // start offset of the asset on some versions of the platform.
+    FileChannel channel = new FileInputStream(fileDescriptor.getFileDescriptor()).getChannel();
+    return new MappableInputStream(
+        fileDescriptor.createInputStream(), channel, fileDescriptor.getStartOffset(), length);
+  }
+
+  /**
+   * Wraps the stream of a compressed asset or resource in a {@link SizedInputStream}, since the
+   * stream of an asset reports the exact number of bytes it has left.
+   */
+  private static InputStream openAssetStream(InputStream inputStream) throws IOException {
+    return new SizedInputStream(inputStream, inputStream.available());
+  }
+
   private static String removeAndroidAssetPath(String filename) {
     // Remove "android_asset/" from URI paths like "file:///android_asset/...".
     String scrubbedFilename = filename;
@@ -240,7 +311,14 @@ public class LoadHelper {
     String resourceType = sourceUriPath.substring(1, lastSlashIndex);
 
     if (resourceType.equals(RAW_RESOURCE_TYPE) || resourceType.equals(DRAWABLE_RESOURCE_TYPE)) {
-      return () -> context.getContentResolver().openInputStream(sourceUri);
+      return () -> {
+        try {
+          return openMappable(context.getContentResolver().openAssetFileDescriptor(sourceUri, "r"));
+        } catch (FileNotFoundException ex) {
+          // The resource is compressed, so it can only be streamed.
+          return context.getContentResolver().openInputStream(sourceUri);
+        }
+      };
     } else {
       throw new IllegalArgumentException(
           "Unknown resource resourceType '"
@@ -267,7 +345,12 @@ public class LoadHelper {
           conn.addRequestProperty(entry.getKey(), entry.getValue());
         }
       }
-      return () -> conn.getInputStream();
+      return () -> {
+        InputStream inputStream = conn.getInputStream();
+        // The content length is unknown for chunked or compressed responses.
+        long contentLength = conn.getContentLengthLong();
+        return contentLength >= 0 ? new SizedInputStream(inputStream, contentLength) : inputStream;
+      };
     } catch (MalformedURLException ex) {
       // This is rare. Most bad URL's get filtered out when the URL class is constructed.
       throw new IllegalArgumentException("Unable to parse url: \'" + sourceUri + "'", ex);
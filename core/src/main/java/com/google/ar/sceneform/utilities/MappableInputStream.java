@@ -0,0 +1,149 @@
+package com.google.ar.sceneform.utilities;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * An {@link java.io.InputStream} over a region of a file, such as a file in storage or an
+ * uncompressed asset in the APK, whose data can be mapped into memory instead of being read.
+ *
+ * <p>The region is read and mapped at absolute offsets in the file, so the position of the channel
+ * doesn't matter.
+ *
+ * @hide
+ */
+public class MappableInputStream extends SizedInputStream {
+  private final FileChannel channel;
+  private final long offset;
+  // The position in the region, from its start.
+  private long position;
+  private long markPosition;
+
+  /**
+   * @param inputStream reads the file
+   * @param offset the offset of the region in the file
+   * @param length the length of the region in bytes
+   */
+  public MappableInputStream(FileInputStream inputStream, long offset, long length) {
+    this(inputStream, inputStream.getChannel(), offset, length);
+  }
+
+  /**
+   * @param inputStream owns the file, and is closed with this stream. It isn't read.
+   * @param channel a channel of the file, read at absolute offsets
+   * @param offset the offset of the region in the file
+   * @param length the length of the region in bytes
+   */
+  public MappableInputStream(
+      InputStream inputStream, FileChannel channel, long offset, long length) {
+    super(inputStream, length);
+    this.channel = channel;
+    this.offset = offset;
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] bytes = new byte[1];
+    return read(bytes, 0, 1) == 1 ? bytes[0] & 0xff : -1;
+  }
+
+  @Override
+  public int read(byte[] bytes, int byteOffset, int byteCount) throws IOException {
+    if (byteCount == 0) {
+      return 0;
+    }
+    return readAt(ByteBuffer.wrap(bytes, byteOffset, byteCount));
+  }
+
+  @Override
+  public long getRemainingLength() {
+    return Math.max(0, getLength() - position);
+  }
+
+  @Override
+  public long skip(long byteCount) {
+    long skipped = Math.max(0, Math.min(byteCount, getLength() - position));
+    position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return (int) Math.min(Integer.MAX_VALUE, getLength() - position);
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public synchronized void mark(int readLimit) {
+    markPosition = position;
+  }
+
+  @Override
+  public synchronized void reset() {
+    position = markPosition;
+  }
+
+  /** Returns a channel that reads the region from the current position of the stream. */
+  @Override
+  public ReadableByteChannel getChannel() {
+    return new ReadableByteChannel() {
+      @Override
+      public int read(ByteBuffer buffer) throws IOException {
+        return buffer.hasRemaining() ? readAt(buffer) : 0;
+      }
+
+      @Override
+      public boolean isOpen() {
+        return channel.isOpen();
+      }
+
+      @Override
+      public void close() throws IOException {
+        MappableInputStream.this.close();
+      }
+    };
+  }
+
+  /**
+   * Maps the region of the file into memory. The returned buffer is read-only, has no backing
+   * array, and stays valid after the stream is closed.
+   */
+  public MappedByteBuffer map() throws IOException {
+    return channel.map(FileChannel.MapMode.READ_ONLY, offset, getLength());
+  }
+
+  /** Reads from the current position into the buffer, and returns -1 at the end of the region. */
+  private int readAt(ByteBuffer buffer) throws IOException {
+    long remaining = getLength() - position;
+    if (remaining <= 0) {
+      return -1;
+    }
+
+    int limit = buffer.limit();
+    if (buffer.remaining() > remaining) {
+      buffer.limit(buffer.position() + (int) remaining);
+    }
+    int byteCount;
+    try {
+      byteCount = channel.read(buffer, offset + position);
+    } finally {
+      buffer.limit(limit);
+    }
+
+    // The file is shorter than the region.
+    if (byteCount <= 0) {
+      return -1;
+    }
+    position += byteCount;
+    return byteCount;
+  }
+}
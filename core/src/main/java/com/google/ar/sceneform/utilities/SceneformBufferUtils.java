@@ -3,13 +3,18 @@ package com.google.ar.sceneform.utilities;
 import android.content.res.AssetManager;
 import androidx.annotation.Nullable;
 import android.util.Log;
-import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * A simple class to read InputStreams Once the data is read it can be accessed as a ByteBuffer.
@@ -18,7 +23,12 @@ import java.util.concurrent.CompletionException;
  */
 public final class SceneformBufferUtils {
   private static final String TAG = SceneformBufferUtils.class.getSimpleName();
-  private static final int DEFAULT_BLOCK_SIZE = 8192;
+  // Streams of unknown length are read in chunks of this size, which are reused between reads.
+  private static final int CHUNK_SIZE = 64 * 1024;
+  private static final int MAX_POOLED_CHUNKS = 16;
+  private static final ConcurrentLinkedQueue<byte[]> chunkPool = new ConcurrentLinkedQueue<>();
+  // Smaller files are read, since mapping them costs more than copying them.
+  private static final long MIN_MAPPED_SIZE_BYTES = 64 * 1024;
 
   private SceneformBufferUtils() {}
 
@@ -65,35 +75,138 @@ public final class SceneformBufferUtils {
     return buffer;
   }
 
-  private static int copy(InputStream in, OutputStream out) throws IOException {
-    // TODO: this method/class may be replaceable by SourceBytes
-    byte[] buffer = new byte[DEFAULT_BLOCK_SIZE];
+  /**
+   * Reads a stream into a direct buffer. When the length of the stream is known, the data is read
+   * straight into a buffer of that size, so it is copied once. A direct buffer has no backing
+   * array.
+   */
+  @Nullable
+  public static ByteBuffer readStreamToDirectBuffer(@Nullable InputStream inputStream) {
+    if (inputStream == null) {
+      return null;
+    }
+
+    try {
+      long length = getLength(inputStream);
+      if (length >= 0 && length <= Integer.MAX_VALUE) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) length);
+        ReadableByteChannel channel = getChannel(inputStream);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {}
+        if (buffer.hasRemaining()) {
+          throw new EOFException(
+              "Stream ended after " + buffer.position() + " of " + length + " bytes.");
+        }
+        buffer.flip();
+        return buffer;
+      }
+
+      ArrayList<byte[]> chunks = new ArrayList<>();
+      try {
+        int size = readChunks(inputStream, chunks);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        for (int i = 0; i < chunks.size(); i++) {
+          buffer.put(chunks.get(i), 0, Math.min(CHUNK_SIZE, size - i * CHUNK_SIZE));
+        }
+        buffer.flip();
+        return buffer;
+      } finally {
+        releaseChunks(chunks);
+      }
+    } catch (IOException ex) {
+      Log.e(TAG, "Failed to read stream - " + ex.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Maps the data of a {@link MappableInputStream} into memory instead of copying it, and reads
+   * any other stream, or a stream that can't be mapped. A mapped buffer is read-only and has no
+   * backing array.
+   */
+  @Nullable
+  public static ByteBuffer mapOrReadStream(@Nullable InputStream inputStream) {
+    if (inputStream instanceof MappableInputStream) {
+      MappableInputStream mappableInputStream = (MappableInputStream) inputStream;
+      if (mappableInputStream.getLength() >= MIN_MAPPED_SIZE_BYTES) {
+        try {
+          return mappableInputStream.map();
+        } catch (IOException | RuntimeException ex) {
+          // Mapping doesn't move the stream, so it can still be read from the start.
+          Log.w(TAG, "Failed to map stream, reading it instead - " + ex.getMessage());
+        }
+      }
+    }
+
+    return readStreamToDirectBuffer(inputStream);
+  }
+
+  /**
+   * Returns the number of bytes left in a stream, or -1 if it is unknown. Only streams that report
+   * their length are trusted, since {@link InputStream#available()} is only an estimate.
+   */
+  private static long getLength(InputStream inputStream) throws IOException {
+    if (inputStream instanceof SizedInputStream) {
+      return ((SizedInputStream) inputStream).getRemainingLength();
+    } else if (inputStream.getClass() == FileInputStream.class) {
+      // Subclasses may read a region of the file, such as the streams of asset file descriptors.
+      FileChannel channel = ((FileInputStream) inputStream).getChannel();
+      return Math.max(0, channel.size() - channel.position());
+    }
+    return -1;
+  }
+
+  private static ReadableByteChannel getChannel(InputStream inputStream) {
+    if (inputStream instanceof SizedInputStream) {
+      return ((SizedInputStream) inputStream).getChannel();
+    } else if (inputStream.getClass() == FileInputStream.class) {
+      return ((FileInputStream) inputStream).getChannel();
+    }
+    return Channels.newChannel(inputStream);
+  }
+
+  /** Reads a stream into chunks taken from the pool, and returns the number of bytes read. */
+  private static int readChunks(InputStream in, ArrayList<byte[]> chunks) throws IOException {
+    long size = 0;
+    while (true) {
+      byte[] chunk = chunkPool.poll();
+      if (chunk == null) {
+        chunk = new byte[CHUNK_SIZE];
+      }
+      chunks.add(chunk);
+
+      int chunkSize = readFully(in, chunk, CHUNK_SIZE);
+      size += chunkSize;
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Stream is too large to read into a buffer.");
+      }
+      if (chunkSize < CHUNK_SIZE) {
+        return (int) size;
+      }
+    }
+  }
+
+  /** Reads until the array is filled or the stream ends, and returns the number of bytes read. */
+  private static int readFully(InputStream in, byte[] bytes, int length) throws IOException {
     int size = 0;
     int n;
-    while ((n = in.read(buffer)) > 0) {
+    while (size < length && (n = in.read(bytes, size, length - size)) > 0) {
       size += n;
-      out.write(buffer, 0, n);
     }
-    out.flush();
     return size;
   }
 
+  private static void releaseChunks(ArrayList<byte[]> chunks) {
+    for (int i = 0; i < chunks.size() && chunkPool.size() < MAX_POOLED_CHUNKS; i++) {
+      chunkPool.add(chunks.get(i));
+    }
+    chunks.clear();
+  }
+
   public static byte[] copyByteBufferToArray(ByteBuffer in) throws IOException {
     // TODO: this method/class may be replaceable by SourceBytes
-    ByteArrayOutputStream out = new ByteArrayOutputStream();
-    byte[] buffer = new byte[DEFAULT_BLOCK_SIZE];
-    int end = in.limit();
-    int bytesRead;
-    while (in.position() < end) {
-      int lastPosition = in.position();
-
-      in.get(buffer, 0, Math.min(DEFAULT_BLOCK_SIZE, end - lastPosition));
-      bytesRead = in.position() - lastPosition;
-
-      out.write(buffer, 0, bytesRead);
-    }
-    out.flush();
-    return out.toByteArray();
+    byte[] out = new byte[in.remaining()];
+    in.get(out);
+    return out;
   }
 
   public static ByteBuffer copyByteBuffer(ByteBuffer in) throws IOException {
@@ -113,6 +226,20 @@ public final class SceneformBufferUtils {
     return result;
   }
 
+  /** Like {@link #inputStreamToByteBuffer(Callable)}, but maps the data when possible. */
+  public static ByteBuffer mapOrReadInputStream(Callable<InputStream> inputStreamCreator) {
+    ByteBuffer result;
+    try (InputStream inputStream = inputStreamCreator.call()) {
+      result = SceneformBufferUtils.mapOrReadStream(inputStream);
+    } catch (Exception e) {
+      throw new CompletionException(e);
+    }
+    if (result == null) {
+      throw new AssertionError("Failed reading data from stream");
+    }
+    return result;
+  }
+
   public static byte[] inputStreamCallableToByteArray(Callable<InputStream> inputStreamCreator)
       throws Exception {
     try (InputStream input = inputStreamCreator.call()) {
@@ -122,9 +249,32 @@ public final class SceneformBufferUtils {
     }
   }
 
+  /**
+   * Reads a stream into an array. When the length of the stream is known, the data is read straight
+   * into an array of that size, so it is copied once.
+   */
   public static byte[] inputStreamToByteArray(InputStream input) throws IOException {
-    ByteArrayOutputStream output = new ByteArrayOutputStream();
-    copy(input, output);
-    return output.toByteArray();
+    long length = getLength(input);
+    if (length >= 0 && length <= Integer.MAX_VALUE) {
+      byte[] bytes = new byte[(int) length];
+      int size = readFully(input, bytes, bytes.length);
+      if (size < bytes.length) {
+        throw new EOFException("Stream ended after " + size + " of " + length + " bytes.");
+      }
+      return bytes;
+    }
+
+    ArrayList<byte[]> chunks = new ArrayList<>();
+    try {
+      int size = readChunks(input, chunks);
+      byte[] bytes = new byte[size];
+      for (int i = 0; i < chunks.size(); i++) {
+        int offset = i * CHUNK_SIZE;
+        System.arraycopy(chunks.get(i), 0, bytes, offset, Math.min(CHUNK_SIZE, size - offset));
+      }
+      return bytes;
+    } finally {
+      releaseChunks(chunks);
+    }
   }
 }
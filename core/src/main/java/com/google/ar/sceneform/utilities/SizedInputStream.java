@@ -0,0 +1,82 @@
+package com.google.ar.sceneform.utilities;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * An {@link InputStream} whose length is known before it is read, for example from the content
+ * length of a download or the size of a file, so that it can be read into a buffer of the exact
+ * size.
+ *
+ * @hide
+ */
+public class SizedInputStream extends FilterInputStream {
+  private final long length;
+  // The number of bytes read or skipped through this stream.
+  private long position;
+  private long markPosition;
+
+  /**
+   * @param inputStream the stream to read
+   * @param length the number of bytes of the stream, or -1 if it is unknown
+   */
+  public SizedInputStream(InputStream inputStream, long length) {
+    super(inputStream);
+    this.length = length;
+  }
+
+  /** Returns the number of bytes of the stream, or -1 if it is unknown. */
+  public long getLength() {
+    return length;
+  }
+
+  /** Returns the number of bytes left to read, or -1 if the length is unknown. */
+  public long getRemainingLength() {
+    return length < 0 ? -1 : Math.max(0, length - position);
+  }
+
+  @Override
+  public int read() throws IOException {
+    int value = super.read();
+    if (value >= 0) {
+      position++;
+    }
+    return value;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int count) throws IOException {
+    int readCount = super.read(bytes, offset, count);
+    if (readCount > 0) {
+      position += readCount;
+    }
+    return readCount;
+  }
+
+  @Override
+  public long skip(long count) throws IOException {
+    long skipped = super.skip(count);
+    position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public synchronized void mark(int readLimit) {
+    super.mark(readLimit);
+    markPosition = position;
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    super.reset();
+    position = markPosition;
+  }
+
+  /** Returns a channel that reads the stream from its current position. */
+  public ReadableByteChannel getChannel() {
+    return Channels.newChannel(this);
+  }
+}
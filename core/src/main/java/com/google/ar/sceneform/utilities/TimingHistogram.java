@@ -0,0 +1,119 @@
+package com.google.ar.sceneform.utilities;
+
+import java.util.Locale;
+
+/**
+ * Counts durations in fixed-width buckets so that percentiles can be reported without storing
+ * every sample. Recording a sample only increments a counter and never allocates.
+ *
+ * <p>Buckets are {@link #BUCKET_WIDTH_MILLISECONDS} wide up to {@link #MAX_BUCKETED_MILLISECONDS}.
+ * Longer durations share an overflow bucket, but the longest duration is always tracked exactly.
+ */
+public class TimingHistogram {
+  public static final double BUCKET_WIDTH_MILLISECONDS = 0.25;
+  public static final double MAX_BUCKETED_MILLISECONDS = 100.0;
+
+  private static final double NANOSECONDS_TO_MILLISECONDS = 0.000001;
+  private static final long BUCKET_WIDTH_NANOSECONDS =
+      (long) (BUCKET_WIDTH_MILLISECONDS * 1_000_000);
+  private static final int BUCKET_COUNT =
+      (int) (MAX_BUCKETED_MILLISECONDS / BUCKET_WIDTH_MILLISECONDS);
+
+  // The last bucket counts the durations that are longer than MAX_BUCKETED_MILLISECONDS.
+  private final int[] bucketCounts = new int[BUCKET_COUNT + 1];
+  private int count;
+  private long totalNanos;
+  private long maxNanos;
+
+  /** Adds a duration in nanoseconds. */
+  public void addSample(long durationNanos) {
+    if (durationNanos < 0) {
+      durationNanos = 0;
+    }
+
+    int bucket = (int) Math.min(durationNanos / BUCKET_WIDTH_NANOSECONDS, BUCKET_COUNT);
+    bucketCounts[bucket]++;
+    count++;
+    totalNanos += durationNanos;
+    maxNanos = Math.max(maxNanos, durationNanos);
+  }
+
+  /** Returns the number of durations added since the histogram was last reset. */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the duration in milliseconds below which the given percentage of the durations fall,
+   * rounded up to the end of its bucket. Returns 0 if there are no durations.
+   *
+   * @param percentile the percentage of durations, in the range [0, 100]
+   */
+  public double getPercentileMilliseconds(double percentile) {
+    if (percentile < 0.0 || percentile > 100.0) {
+      throw new IllegalArgumentException("Percentile must be in the range [0, 100].");
+    }
+    if (count == 0) {
+      return 0.0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+    long cumulativeCount = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      cumulativeCount += bucketCounts[i];
+      if (cumulativeCount >= rank) {
+        return Math.min((i + 1) * BUCKET_WIDTH_MILLISECONDS, getMaxMilliseconds());
+      }
+    }
+
+    // The duration is in the overflow bucket, the only known bound is the maximum.
+    return getMaxMilliseconds();
+  }
+
+  /** Returns the median duration in milliseconds. */
+  public double getP50Milliseconds() {
+    return getPercentileMilliseconds(50.0);
+  }
+
+  /** Returns the 95th percentile duration in milliseconds. */
+  public double getP95Milliseconds() {
+    return getPercentileMilliseconds(95.0);
+  }
+
+  /** Returns the 99th percentile duration in milliseconds. */
+  public double getP99Milliseconds() {
+    return getPercentileMilliseconds(99.0);
+  }
+
+  /** Returns the longest duration in milliseconds. */
+  public double getMaxMilliseconds() {
+    return maxNanos * NANOSECONDS_TO_MILLISECONDS;
+  }
+
+  /** Returns the mean duration in milliseconds. */
+  public double getMeanMilliseconds() {
+    return count == 0 ? 0.0 : totalNanos * NANOSECONDS_TO_MILLISECONDS / count;
+  }
+
+  /** Removes every duration. */
+  public void reset() {
+    for (int i = 0; i < bucketCounts.length; i++) {
+      bucketCounts[i] = 0;
+    }
+    count = 0;
+    totalNanos = 0;
+    maxNanos = 0;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        Locale.US,
+        "count=%d p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+        count,
+        getP50Milliseconds(),
+        getP95Milliseconds(),
+        getP99Milliseconds(),
+        getMaxMilliseconds());
+  }
+}
@@ -48,6 +48,9 @@ public class TranslationController extends BaseTransformationController<DragGest
 
   private final Vector3 initialForwardInLocal = new Vector3();
 
+  private final Vector3 localPosition = new Vector3();
+  private final Quaternion localRotation = new Quaternion();
+
   private EnumSet<Plane.Type> allowedPlaneTypes = EnumSet.allOf(Plane.Type.class);
 
   private static final float LERP_SPEED = 12.0f;
@@ -219,11 +222,14 @@ public class TranslationController extends BaseTransformationController<DragGest
       return;
     }
 
-    Vector3 localPosition = getTransformableNode().getLocalPosition();
+    Vector3 localPosition = getTransformableNode().getLocalPosition(this.localPosition);
     float lerpFactor = MathHelper.clamp(frameTime.getDeltaSeconds() * LERP_SPEED, 0, 1);
-    localPosition = Vector3.lerp(localPosition, desiredLocalPosition, lerpFactor);
+    Vector3.lerp(localPosition, desiredLocalPosition, lerpFactor, localPosition);
 
-    float lengthDiff = Math.abs(Vector3.subtract(desiredLocalPosition, localPosition).length());
+    float diffX = desiredLocalPosition.x - localPosition.x;
+    float diffY = desiredLocalPosition.y - localPosition.y;
+    float diffZ = desiredLocalPosition.z - localPosition.z;
+    float lengthDiff = (float) Math.sqrt(diffX * diffX + diffY * diffY + diffZ * diffZ);
     if (lengthDiff <= POSITION_LENGTH_THRESHOLD) {
       localPosition = desiredLocalPosition;
       this.desiredLocalPosition = null;
@@ -239,9 +245,9 @@ public class TranslationController extends BaseTransformationController<DragGest
       return;
     }
 
-    Quaternion localRotation = getTransformableNode().getLocalRotation();
+    Quaternion localRotation = getTransformableNode().getLocalRotation(this.localRotation);
     float lerpFactor = MathHelper.clamp(frameTime.getDeltaSeconds() * LERP_SPEED, 0, 1);
-    localRotation = Quaternion.slerp(localRotation, desiredLocalRotation, lerpFactor);
+    Quaternion.slerp(localRotation, desiredLocalRotation, lerpFactor, localRotation);
 
     float dot = Math.abs(dotQuaternion(localRotation, desiredLocalRotation));
     if (dot >= ROTATION_DOT_THRESHOLD) {